@@ -4,12 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import java.io.File;
 import java.io.IOException;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+import main.util.Messages;
 
 /**
  * Utility class for managing reading from and writing to configuration files.
  */
 public class ConfigHandler {
 
+   private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
    /**
     * Reads a YAML file and maps the contents to a {@link ConnectionConfiguration} object.
     *
@@ -18,8 +23,6 @@ public class ConfigHandler {
     * file cannot be read.
     */
    public static ConnectionConfiguration readConnectionConfig(final File file) {
-      final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-
       try {
          return mapper.readValue(file, ConnectionConfiguration.class);
       } catch (IOException e) {
@@ -36,8 +39,6 @@ public class ConfigHandler {
     * file cannot be read.
     */
    public ServerGroupAccessConfiguration readServerGroupAccessConfig(final File file) {
-      final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-
       try {
          return mapper.readValue(file, ServerGroupAccessConfiguration.class);
       } catch (IOException e) {
@@ -54,8 +55,6 @@ public class ConfigHandler {
     * file cannot be read.
     */
    public static IdleCheckConfiguration readIdleCheckConfig(final File file) {
-      final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-
       try {
          return mapper.readValue(file, IdleCheckConfiguration.class);
       } catch (IOException e) {
@@ -63,4 +62,94 @@ public class ConfigHandler {
          return null;
       }
    }
+
+   /**
+    * Reads a YAML file and maps the contents to a {@link ForumRoleConfiguration} object.
+    *
+    * @param file the path of the YAML file.
+    * @return a {@link ForumRoleConfiguration} object with the contents of the file, or null if the
+    * file does not exist or cannot be read.
+    */
+   public static ForumRoleConfiguration readForumRoleConfig(final File file) {
+      return readOptionalConfig(file, ForumRoleConfiguration.class);
+   }
+
+   /**
+    * Reads a YAML file and maps the contents to a {@link EventLoggingConfiguration} object.
+    * An unknown console log level is replaced by INFO, so the level can always be parsed.
+    *
+    * @param file the path of the YAML file.
+    * @return a {@link EventLoggingConfiguration} object with the contents of the file, or null if
+    * the file cannot be read.
+    */
+   public static EventLoggingConfiguration readEventLoggingConfig(final File file) {
+      try {
+         final EventLoggingConfiguration config = mapper.readValue(file,
+             EventLoggingConfiguration.class);
+         validateConsoleLogLevel(config);
+         return config;
+      } catch (IOException e) {
+         e.printStackTrace();
+         return null;
+      }
+   }
+
+   /**
+    * Replaces a console log level that {@link Level#parse(String)} does not accept with INFO,
+    * warning on the console.
+    *
+    * @param config the event logging configuration to check.
+    */
+   static void validateConsoleLogLevel(final EventLoggingConfiguration config) {
+      final String level = config.getConsoleLogLevel();
+      if (level != null) {
+         try {
+            Level.parse(level);
+            return;
+         } catch (IllegalArgumentException e) {
+            //Fall through to the default.
+         }
+      }
+      new MessageHandler(Messages.ERROR_INVALID_LOG_LEVEL.format(level))
+          .sendToConsoleWith(Level.WARNING);
+      config.setConsoleLogLevel(Level.INFO.getName());
+   }
+
+   /**
+    * Reads a YAML file and maps the contents to a {@link RateLimitConfiguration} object.
+    *
+    * @param file the path of the YAML file.
+    * @return a {@link RateLimitConfiguration} object with the contents of the file, or null if the
+    * file does not exist or cannot be read.
+    */
+   public static RateLimitConfiguration readRateLimitConfig(final File file) {
+      return readOptionalConfig(file, RateLimitConfiguration.class);
+   }
+
+   /**
+    * Reads a YAML file and maps the contents to a {@link TriggerConfiguration} object.
+    *
+    * @param file the path of the YAML file.
+    * @return a {@link TriggerConfiguration} object with the contents of the file, or null if the
+    * file does not exist or cannot be read.
+    */
+   public static TriggerConfiguration readTriggerConfig(final File file) {
+      return readOptionalConfig(file, TriggerConfiguration.class);
+   }
+
+   /**
+    * Reads a configuration file that may be left out, in which case the built-in defaults apply.
+    * Only a file that exists but cannot be read is reported.
+    */
+   private static <T> T readOptionalConfig(final File file, final Class<T> type) {
+      if (!file.isFile()) {
+         return null;
+      }
+      try {
+         return mapper.readValue(file, type);
+      } catch (IOException e) {
+         e.printStackTrace();
+         return null;
+      }
+   }
 }
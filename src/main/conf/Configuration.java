@@ -1,6 +1,7 @@
 package main.conf;
 
 import java.util.logging.Level;
+import main.util.logging.OverflowPolicy;
 
 /**
  * DTO for the general configuration of the program.
@@ -8,7 +9,8 @@ import java.util.logging.Level;
 public class Configuration {
 
    private static boolean setupComplete;
-   private static Level loggingLevel;
+   private static Level loggingLevel = Level.INFO;
+   private static OverflowPolicy logOverflowPolicy = OverflowPolicy.DROP_LOW_PRIORITY;
 
    /**
     * Returns whether or not the initial setup has been completed.
@@ -25,7 +27,7 @@ public class Configuration {
    }
 
    /**
-    * Returns the logging level of the program.
+    * Returns the logging level of the program. Console messages below this level are discarded.
     */
    public static Level getLoggingLevel() {
       return loggingLevel;
@@ -35,6 +37,21 @@ public class Configuration {
     * Sets the logging level of the program.
     */
    public static void setLoggingLevel(Level loggingLevel) {
-      Configuration.loggingLevel = loggingLevel;
+      Configuration.loggingLevel = loggingLevel != null ? loggingLevel : Level.INFO;
+   }
+
+   /**
+    * Returns what the console logger does with new records while its buffer is full.
+    */
+   public static OverflowPolicy getLogOverflowPolicy() {
+      return logOverflowPolicy;
+   }
+
+   /**
+    * Sets what the console logger does with new records while its buffer is full. Only takes
+    * effect if set before the first message is logged.
+    */
+   public static void setLogOverflowPolicy(OverflowPolicy logOverflowPolicy) {
+      Configuration.logOverflowPolicy = logOverflowPolicy;
    }
 }
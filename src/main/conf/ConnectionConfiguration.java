@@ -23,6 +23,12 @@ public final class ConnectionConfiguration {
    private String botNickname;
    @JsonProperty("bot-slow-mode")
    private String botSlowMode;
+   @JsonProperty("forum-membership-url")
+   private String forumMembershipUrl;
+   @JsonProperty("bot-messages-per-second")
+   private double botMessagesPerSecond;
+   @JsonProperty("query-read-sessions")
+   private int queryReadSessions;
 
    /**
     * Returns the instance name of the connection.
@@ -151,4 +157,52 @@ public final class ConnectionConfiguration {
    public void setBotSlowMode(String botSlowMode) {
       this.botSlowMode = botSlowMode;
    }
+
+   /**
+    * Returns the URL used to look up the forum membership of clients.
+    */
+   @JsonProperty("forum-membership-url")
+   public String getForumMembershipUrl() {
+      return forumMembershipUrl;
+   }
+
+   /**
+    * Sets the URL used to look up the forum membership of clients.
+    */
+   @JsonProperty("forum-membership-url")
+   public void setForumMembershipUrl(String forumMembershipUrl) {
+      this.forumMembershipUrl = forumMembershipUrl;
+   }
+
+   /**
+    * Returns the maximum number of text messages the bot sends per second, or 0 for no limit.
+    */
+   @JsonProperty("bot-messages-per-second")
+   public double getBotMessagesPerSecond() {
+      return botMessagesPerSecond;
+   }
+
+   /**
+    * Sets the maximum number of text messages the bot sends per second, or 0 for no limit.
+    */
+   @JsonProperty("bot-messages-per-second")
+   public void setBotMessagesPerSecond(double botMessagesPerSecond) {
+      this.botMessagesPerSecond = botMessagesPerSecond;
+   }
+
+   /**
+    * Returns the number of extra query sessions opened for reads, or 0 for none.
+    */
+   @JsonProperty("query-read-sessions")
+   public int getQueryReadSessions() {
+      return queryReadSessions;
+   }
+
+   /**
+    * Sets the number of extra query sessions opened for reads, or 0 for none.
+    */
+   @JsonProperty("query-read-sessions")
+   public void setQueryReadSessions(int queryReadSessions) {
+      this.queryReadSessions = queryReadSessions;
+   }
 }
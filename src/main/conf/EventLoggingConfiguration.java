@@ -0,0 +1,137 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the configuration of event logging to the console and to the event journal.
+ */
+public class EventLoggingConfiguration {
+
+   @JsonProperty("log-to-console")
+   private boolean logToConsole = true;
+   @JsonProperty("log-to-file")
+   private boolean logToFile;
+   @JsonProperty("console-log-level")
+   private String consoleLogLevel = "INFO";
+   @JsonProperty("event-recording-file")
+   private String eventRecordingFile;
+   @JsonProperty("journal-directory")
+   private String journalDirectory;
+   @JsonProperty("journal-max-file-size-kb")
+   private int maxFileSizeKb;
+   @JsonProperty("journal-rotate-interval-minutes")
+   private int rotateIntervalMinutes;
+
+   /**
+    * Returns whether client events are logged to the console.
+    */
+   @JsonProperty("log-to-console")
+   public boolean isLogToConsole() {
+      return logToConsole;
+   }
+
+   /**
+    * Sets whether client events are logged to the console.
+    */
+   @JsonProperty("log-to-console")
+   public void setLogToConsole(boolean logToConsole) {
+      this.logToConsole = logToConsole;
+   }
+
+   /**
+    * Returns whether client events are appended to the event journal.
+    */
+   @JsonProperty("log-to-file")
+   public boolean isLogToFile() {
+      return logToFile;
+   }
+
+   /**
+    * Sets whether client events are appended to the event journal.
+    */
+   @JsonProperty("log-to-file")
+   public void setLogToFile(boolean logToFile) {
+      this.logToFile = logToFile;
+   }
+
+   /**
+    * Returns the name of the lowest {@link java.util.logging.Level} shown on the console.
+    */
+   @JsonProperty("console-log-level")
+   public String getConsoleLogLevel() {
+      return consoleLogLevel;
+   }
+
+   /**
+    * Sets the name of the lowest {@link java.util.logging.Level} shown on the console.
+    */
+   @JsonProperty("console-log-level")
+   public void setConsoleLogLevel(String consoleLogLevel) {
+      this.consoleLogLevel = consoleLogLevel;
+   }
+
+   /**
+    * Returns the file the raw server events are recorded to for later replay, or {@code null} or
+    * an empty string if events are not recorded.
+    */
+   @JsonProperty("event-recording-file")
+   public String getEventRecordingFile() {
+      return eventRecordingFile;
+   }
+
+   /**
+    * Sets the file the raw server events are recorded to for later replay.
+    */
+   @JsonProperty("event-recording-file")
+   public void setEventRecordingFile(String eventRecordingFile) {
+      this.eventRecordingFile = eventRecordingFile;
+   }
+
+   /**
+    * Returns the directory the journal files are written to.
+    */
+   @JsonProperty("journal-directory")
+   public String getJournalDirectory() {
+      return journalDirectory;
+   }
+
+   /**
+    * Sets the directory the journal files are written to.
+    */
+   @JsonProperty("journal-directory")
+   public void setJournalDirectory(String journalDirectory) {
+      this.journalDirectory = journalDirectory;
+   }
+
+   /**
+    * Returns the size in kilobytes after which a new journal file is started, or 0 for no limit.
+    */
+   @JsonProperty("journal-max-file-size-kb")
+   public int getMaxFileSizeKb() {
+      return maxFileSizeKb;
+   }
+
+   /**
+    * Sets the size in kilobytes after which a new journal file is started, or 0 for no limit.
+    */
+   @JsonProperty("journal-max-file-size-kb")
+   public void setMaxFileSizeKb(int maxFileSizeKb) {
+      this.maxFileSizeKb = maxFileSizeKb;
+   }
+
+   /**
+    * Returns the number of minutes after which a new journal file is started, or 0 for no limit.
+    */
+   @JsonProperty("journal-rotate-interval-minutes")
+   public int getRotateIntervalMinutes() {
+      return rotateIntervalMinutes;
+   }
+
+   /**
+    * Sets the number of minutes after which a new journal file is started, or 0 for no limit.
+    */
+   @JsonProperty("journal-rotate-interval-minutes")
+   public void setRotateIntervalMinutes(int rotateIntervalMinutes) {
+      this.rotateIntervalMinutes = rotateIntervalMinutes;
+   }
+}
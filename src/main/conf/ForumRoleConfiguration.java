@@ -0,0 +1,33 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the mapping of forum user groups to the server groups their members should hold.
+ */
+public class ForumRoleConfiguration {
+
+   @JsonProperty("forum-roles")
+   private Map<String, List<Integer>> roles;
+
+   /**
+    * @return the server groups of each forum user group, keyed by the prefix identifying the forum
+    * user group, in the order in which the prefixes are matched.
+    */
+   @JsonProperty("forum-roles")
+   public Map<String, List<Integer>> getRoles() {
+      return roles;
+   }
+
+   /**
+    * @param roles the server groups of each forum user group, keyed by the prefix identifying the
+    * forum user group, in the order in which the prefixes are matched.
+    */
+   @JsonProperty("forum-roles")
+   public void setRoles(Map<String, List<Integer>> roles) {
+      this.roles = new LinkedHashMap<>(roles);
+   }
+}
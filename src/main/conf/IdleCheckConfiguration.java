@@ -15,6 +15,12 @@ public class IdleCheckConfiguration {
    private Integer destinationChannel;
    @JsonProperty("idle-ignore-groups")
    private List<Integer> ignoreGroups;
+   @JsonProperty("idle-check-mode")
+   private String checkMode;
+   @JsonProperty("idle-exempt-channels")
+   private List<Integer> exemptChannels;
+   @JsonProperty("idle-rules")
+   private List<IdleRuleConfiguration> rules;
 
    /**
     * @return the maximum time in minutes a user may remain idle before being moved.
@@ -64,6 +70,58 @@ public class IdleCheckConfiguration {
       this.ignoreGroups = new ArrayList<>(ignoreGroups);
    }
 
+   /**
+    * @return how idle users are found: {@code "deadline"} to wake only when a user may have become
+    * idle, or {@code "poll"} to fetch the client list every second.
+    */
+   @JsonProperty("idle-check-mode")
+   public String getCheckMode() {
+      return checkMode;
+   }
+
+   /**
+    * @param checkMode how idle users are found: {@code "deadline"} to wake only when a user may
+    * have become idle, or {@code "poll"} to fetch the client list every second.
+    */
+   @JsonProperty("idle-check-mode")
+   public void setCheckMode(String checkMode) {
+      this.checkMode = checkMode;
+   }
+
+   /**
+    * @return a list of channel IDs for channels in which users are never moved.
+    */
+   @JsonProperty("idle-exempt-channels")
+   public List<Integer> getExemptChannels() {
+      return exemptChannels == null ? new ArrayList<>() : exemptChannels;
+   }
+
+   /**
+    * @param exemptChannels a list of channel IDs for channels in which users are never moved.
+    */
+   @JsonProperty("idle-exempt-channels")
+   public void setExemptChannels(List<Integer> exemptChannels) {
+      this.exemptChannels = exemptChannels == null ? null : new ArrayList<>(exemptChannels);
+   }
+
+   /**
+    * @return the rules overriding the idle time and destination for some groups or channels, in
+    * order of precedence.
+    */
+   @JsonProperty("idle-rules")
+   public List<IdleRuleConfiguration> getRules() {
+      return rules == null ? new ArrayList<>() : rules;
+   }
+
+   /**
+    * @param rules the rules overriding the idle time and destination for some groups or channels,
+    * in order of precedence.
+    */
+   @JsonProperty("idle-rules")
+   public void setRules(List<IdleRuleConfiguration> rules) {
+      this.rules = rules == null ? null : new ArrayList<>(rules);
+   }
+
    /**
     * @param ignoreGroup a single group ID to add to the list of groups exempt from the idle
     * checker.
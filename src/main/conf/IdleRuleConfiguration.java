@@ -0,0 +1,88 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a single idle rule, overriding the idle time and destination for some clients.
+ */
+public class IdleRuleConfiguration {
+
+   @JsonProperty("groups")
+   private List<Integer> groups;
+   @JsonProperty("channels")
+   private List<Integer> channels;
+   @JsonProperty("max-time-minutes")
+   private Integer maxTimeMinutes;
+   @JsonProperty("destination-channel")
+   private Integer destinationChannel;
+
+   /**
+    * @return the IDs of the groups this rule applies to, or an empty list if it applies to every
+    * group.
+    */
+   @JsonProperty("groups")
+   public List<Integer> getGroups() {
+      return groups == null ? new ArrayList<>() : groups;
+   }
+
+   /**
+    * @param groups the IDs of the groups this rule applies to.
+    */
+   @JsonProperty("groups")
+   public void setGroups(List<Integer> groups) {
+      this.groups = groups == null ? null : new ArrayList<>(groups);
+   }
+
+   /**
+    * @return the IDs of the channels this rule applies to, or an empty list if it applies in every
+    * channel.
+    */
+   @JsonProperty("channels")
+   public List<Integer> getChannels() {
+      return channels == null ? new ArrayList<>() : channels;
+   }
+
+   /**
+    * @param channels the IDs of the channels this rule applies to.
+    */
+   @JsonProperty("channels")
+   public void setChannels(List<Integer> channels) {
+      this.channels = channels == null ? null : new ArrayList<>(channels);
+   }
+
+   /**
+    * @return the maximum time in minutes a matching user may remain idle, or {@code null} to use
+    * the default.
+    */
+   @JsonProperty("max-time-minutes")
+   public Integer getMaxTimeMinutes() {
+      return maxTimeMinutes;
+   }
+
+   /**
+    * @param maxTimeMinutes the maximum time in minutes a matching user may remain idle.
+    */
+   @JsonProperty("max-time-minutes")
+   public void setMaxTimeMinutes(Integer maxTimeMinutes) {
+      this.maxTimeMinutes = maxTimeMinutes;
+   }
+
+   /**
+    * @return the ID of the channel matching idle users will be moved to, or {@code null} to use
+    * the default.
+    */
+   @JsonProperty("destination-channel")
+   public Integer getDestinationChannel() {
+      return destinationChannel;
+   }
+
+   /**
+    * @param destinationChannel the ID of the channel matching idle users will be moved to.
+    */
+   @JsonProperty("destination-channel")
+   public void setDestinationChannel(Integer destinationChannel) {
+      this.destinationChannel = destinationChannel;
+   }
+}
@@ -0,0 +1,121 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+/**
+ * DTO for the limits on how often a client may use chat commands and triggers.
+ */
+public class RateLimitConfiguration {
+
+   @JsonProperty("rate-limit-capacity")
+   private Double capacity;
+   @JsonProperty("rate-limit-refill-per-minute")
+   private Double refillPerMinute;
+   @JsonProperty("rate-limit-default-cost")
+   private Integer defaultCost;
+   @JsonProperty("rate-limit-trigger-cost")
+   private Integer triggerCost;
+   @JsonProperty("rate-limit-command-costs")
+   private Map<String, Integer> commandCosts;
+   @JsonProperty("rate-limit-level-multipliers")
+   private Map<String, Double> levelMultipliers;
+
+   /**
+    * @return the number of tokens a client can spend at once after a quiet period.
+    */
+   @JsonProperty("rate-limit-capacity")
+   public Double getCapacity() {
+      return capacity;
+   }
+
+   /**
+    * @param capacity the number of tokens a client can spend at once after a quiet period.
+    */
+   @JsonProperty("rate-limit-capacity")
+   public void setCapacity(Double capacity) {
+      this.capacity = capacity;
+   }
+
+   /**
+    * @return the number of tokens a client regains per minute.
+    */
+   @JsonProperty("rate-limit-refill-per-minute")
+   public Double getRefillPerMinute() {
+      return refillPerMinute;
+   }
+
+   /**
+    * @param refillPerMinute the number of tokens a client regains per minute.
+    */
+   @JsonProperty("rate-limit-refill-per-minute")
+   public void setRefillPerMinute(Double refillPerMinute) {
+      this.refillPerMinute = refillPerMinute;
+   }
+
+   /**
+    * @return the cost of commands without an entry in the command costs.
+    */
+   @JsonProperty("rate-limit-default-cost")
+   public Integer getDefaultCost() {
+      return defaultCost;
+   }
+
+   /**
+    * @param defaultCost the cost of commands without an entry in the command costs.
+    */
+   @JsonProperty("rate-limit-default-cost")
+   public void setDefaultCost(Integer defaultCost) {
+      this.defaultCost = defaultCost;
+   }
+
+   /**
+    * @return the cost of a chat message setting off a trigger.
+    */
+   @JsonProperty("rate-limit-trigger-cost")
+   public Integer getTriggerCost() {
+      return triggerCost;
+   }
+
+   /**
+    * @param triggerCost the cost of a chat message setting off a trigger.
+    */
+   @JsonProperty("rate-limit-trigger-cost")
+   public void setTriggerCost(Integer triggerCost) {
+      this.triggerCost = triggerCost;
+   }
+
+   /**
+    * @return the cost of each command, keyed by command name.
+    */
+   @JsonProperty("rate-limit-command-costs")
+   public Map<String, Integer> getCommandCosts() {
+      return commandCosts;
+   }
+
+   /**
+    * @param commandCosts the cost of each command, keyed by command name.
+    */
+   @JsonProperty("rate-limit-command-costs")
+   public void setCommandCosts(Map<String, Integer> commandCosts) {
+      this.commandCosts = commandCosts;
+   }
+
+   /**
+    * @return the factor applied to the capacity and refill rate of each access level, keyed by
+    * access level name. A factor of 0 lifts the limit.
+    */
+   @JsonProperty("rate-limit-level-multipliers")
+   public Map<String, Double> getLevelMultipliers() {
+      return levelMultipliers;
+   }
+
+   /**
+    * @param levelMultipliers the factor applied to the capacity and refill rate of each access
+    * level, keyed by access level name. A factor of 0 lifts the limit.
+    */
+   @JsonProperty("rate-limit-level-multipliers")
+   public void setLevelMultipliers(Map<String, Double> levelMultipliers) {
+      this.levelMultipliers = levelMultipliers;
+   }
+}
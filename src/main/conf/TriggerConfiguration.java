@@ -0,0 +1,30 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the configuration of chat triggers.
+ */
+public class TriggerConfiguration {
+
+   @JsonProperty("triggers")
+   private List<TriggerRuleConfiguration> triggers;
+
+   /**
+    * @return the configured triggers, or an empty list if there are none.
+    */
+   @JsonProperty("triggers")
+   public List<TriggerRuleConfiguration> getTriggers() {
+      return triggers == null ? new ArrayList<>() : triggers;
+   }
+
+   /**
+    * @param triggers the configured triggers.
+    */
+   @JsonProperty("triggers")
+   public void setTriggers(List<TriggerRuleConfiguration> triggers) {
+      this.triggers = triggers == null ? null : new ArrayList<>(triggers);
+   }
+}
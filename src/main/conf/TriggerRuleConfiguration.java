@@ -0,0 +1,122 @@
+package main.conf;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a single chat trigger: the patterns to look for and how to respond to them.
+ */
+public class TriggerRuleConfiguration {
+
+   @JsonProperty("name")
+   private String name;
+   @JsonProperty("responder")
+   private String responder;
+   @JsonProperty("anchor")
+   private String anchor;
+   @JsonProperty("enabled")
+   private boolean enabled = true;
+   @JsonProperty("patterns")
+   private List<String> patterns;
+   @JsonProperty("response")
+   private String response;
+
+   /**
+    * @return the name of the trigger.
+    */
+   @JsonProperty("name")
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * @param name the name of the trigger.
+    */
+   @JsonProperty("name")
+   public void setName(String name) {
+      this.name = name;
+   }
+
+   /**
+    * @return the kind of response, either "dad" or "reply".
+    */
+   @JsonProperty("responder")
+   public String getResponder() {
+      return responder;
+   }
+
+   /**
+    * @param responder the kind of response, either "dad" or "reply".
+    */
+   @JsonProperty("responder")
+   public void setResponder(String responder) {
+      this.responder = responder;
+   }
+
+   /**
+    * @return where in a message the patterns have to be found: "start", "word" or "anywhere".
+    */
+   @JsonProperty("anchor")
+   public String getAnchor() {
+      return anchor;
+   }
+
+   /**
+    * @param anchor where in a message the patterns have to be found: "start", "word" or
+    * "anywhere".
+    */
+   @JsonProperty("anchor")
+   public void setAnchor(String anchor) {
+      this.anchor = anchor;
+   }
+
+   /**
+    * @return whether or not the trigger is active when the bot starts.
+    */
+   @JsonProperty("enabled")
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * @param enabled whether or not the trigger is active when the bot starts.
+    */
+   @JsonProperty("enabled")
+   public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+   }
+
+   /**
+    * @return the patterns of the trigger, or an empty list if there are none.
+    */
+   @JsonProperty("patterns")
+   public List<String> getPatterns() {
+      return patterns == null ? new ArrayList<>() : patterns;
+   }
+
+   /**
+    * @param patterns the patterns of the trigger, matched ignoring case.
+    */
+   @JsonProperty("patterns")
+   public void setPatterns(List<String> patterns) {
+      this.patterns = patterns == null ? null : new ArrayList<>(patterns);
+   }
+
+   /**
+    * @return the response of a "reply" trigger, where %s is replaced by the sender's nickname.
+    */
+   @JsonProperty("response")
+   public String getResponse() {
+      return response;
+   }
+
+   /**
+    * @param response the response of a "reply" trigger, where %s is replaced by the sender's
+    * nickname.
+    */
+   @JsonProperty("response")
+   public void setResponse(String response) {
+      this.response = response;
+   }
+}
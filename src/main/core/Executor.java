@@ -1,24 +1,51 @@
 package main.core;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
+import main.conf.ConfigHandler;
+import main.conf.Configuration;
+import main.conf.ConnectionConfiguration;
+import main.core.commands.CommandRegistry;
 import main.core.commands.Commands;
 import main.server.ServerConnectionManager;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
+import main.util.Messages;
 import main.util.exception.CommandNotFoundException;
 
 /**
  * Main class of the SFITS3 bot program.
+ *
+ * <p>One process runs a {@link ServerConnectionManager} for every connection configuration: the
+ * {@code ConnectionConfig.yaml} file and every YAML file in the {@code instances} directory next
+ * to it. Each instance has its own caches, executors and query, and is known by its {@code
+ * instance-name}. Console commands go to the instance selected with {@code !use}, by default the
+ * first one loaded.</p>
+ *
+ * <p>Instances can be started, stopped and reloaded while the others keep running. A stopping
+ * instance first handles its queued events, finishes its commands and sends its queued messages,
+ * then closes its query; this happens on a thread of its own, so the caller is not blocked.</p>
  */
 public class Executor implements Runnable {
 
-   private final static Map<String, ServerConnectionManager> instances = new HashMap<>();
+   private static final String CONNECTION_CONFIG = "./config/ConnectionConfig.yaml";
+   private static final String INSTANCE_CONFIG_DIRECTORY = "./config/instances";
+
+   private final static Map<String, ServerConnectionManager> instances =
+       new ConcurrentHashMap<>();
+   private final static Map<String, CompletableFuture<Void>> stopping = new ConcurrentHashMap<>();
+   private static volatile String consoleInstance;
    static BufferedReader in;
-   static Boolean quit = false;
+   static volatile Boolean quit = false;
 
    /**
     * Begins bot services and logging. This function is run automatically upon execution and should
@@ -36,16 +63,31 @@ public class Executor implements Runnable {
 
       new MessageHandler("System Initialized").sendToConsoleWith(Level.INFO);
 
+      //The console log level is shared by every instance.
+      Configuration.setLoggingLevel(Level.parse(
+          ServerConnectionManager.readEventLoggingConfig().getConsoleLogLevel()));
+
+      //Register commands before the console starts reading.
+      CommandRegistry.getShared();
+
       in = new BufferedReader(new InputStreamReader(System.in));
       Thread t1 = new Thread(new Executor());
       t1.start();
 
       //First Time Setup check will go here.
 
-      //Load and connect instance.
-      instances.put("testInstance", new ServerConnectionManager());
-      new MessageHandler("Connecting...").sendToConsoleWith(Level.INFO);
-      instances.get("testInstance").connect();
+      //Load and connect instances.
+      for (ConnectionConfiguration config : readConnectionConfigs()) {
+         try {
+            startServer(config);
+         } catch (IllegalStateException e) {
+            new MessageHandler(e.getMessage()).sendToConsoleWith(Level.WARNING);
+         }
+      }
+      if (instances.isEmpty()) {
+         new MessageHandler("No connection configuration could be read.")
+             .sendToConsoleWith(Level.SEVERE);
+      }
 
       /*
        * EXECUTION LOOP
@@ -72,8 +114,178 @@ public class Executor implements Runnable {
        *
        * One-off program tear-down.
        */
-      instances.get("testInstance").disconnect();
+      final List<CompletableFuture<Void>> stopped = new ArrayList<>(stopping.values());
+      for (String instanceName : getServerNames()) {
+         stopped.add(stopServer(instanceName));
+      }
+      CompletableFuture.allOf(stopped.toArray(new CompletableFuture<?>[0])).join();
+   }
+
+   /**
+    * Starts the instance of the connection configuration with the given name, reading the
+    * configuration files anew.
+    *
+    * @param instanceName the {@code instance-name} of the configuration.
+    * @return the started {@link ServerConnectionManager}, connecting in the background.
+    * @throws IllegalArgumentException if no configuration has the given name.
+    * @throws IllegalStateException if an instance of that name is running or stopping.
+    */
+   public static ServerConnectionManager startServer(String instanceName) {
+      return startServer(findConnectionConfig(instanceName));
+   }
+
+   /**
+    * Starts an instance for a connection configuration.
+    *
+    * @param config the connection configuration.
+    * @return the started {@link ServerConnectionManager}, connecting in the background.
+    * @throws IllegalStateException if an instance of that name is running or stopping.
+    */
+   public static synchronized ServerConnectionManager startServer(ConnectionConfiguration config) {
+      final String instanceName = config.getInstanceName();
+      if (instances.containsKey(instanceName)) {
+         throw new IllegalStateException(Messages.ERROR_INSTANCE_RUNNING.format(instanceName));
+      }
+      if (stopping.containsKey(instanceName)) {
+         throw new IllegalStateException(Messages.ERROR_INSTANCE_STOPPING.format(instanceName));
+      }
+
+      final ServerConnectionManager server = new ServerConnectionManager(config);
+      addServer(instanceName, server);
+      new MessageHandler(String.format("Connecting \"%s\"...", instanceName))
+          .sendToConsoleWith(Level.INFO);
+      server.connect();
+      return server;
+   }
+
+   /**
+    * Stops an instance. It is removed at once, so no new console commands reach it, and then
+    * drains and disconnects in the background.
+    *
+    * @param instanceName the name of the instance.
+    * @return completes once the instance has disconnected.
+    * @throws IllegalArgumentException if no instance has the given name.
+    */
+   public static synchronized CompletableFuture<Void> stopServer(String instanceName) {
+      final ServerConnectionManager server = instances.remove(instanceName);
+      if (server == null) {
+         throw new IllegalArgumentException(Messages.ERROR_UNKNOWN_INSTANCE.format(instanceName));
+      }
+      if (instanceName.equals(consoleInstance)) {
+         final List<String> remaining = getServerNames();
+         consoleInstance = remaining.isEmpty() ? null : remaining.get(0);
+      }
+
+      final CompletableFuture<Void> stopped = new CompletableFuture<>();
+      stopping.put(instanceName, stopped);
+      final Thread shutdown = new Thread(() -> {
+         try {
+            server.disconnect();
+            new MessageHandler(String.format("Instance \"%s\" stopped", instanceName))
+                .sendToConsoleWith(Level.INFO);
+         } finally {
+            stopping.remove(instanceName);
+            stopped.complete(null);
+         }
+      }, instanceName + "-shutdown");
+      shutdown.start();
+      return stopped;
+   }
+
+   /**
+    * Stops an instance and starts it again with its connection configuration read anew. The
+    * configuration is read before the instance is stopped, so a missing configuration leaves the
+    * instance running.
+    *
+    * @param instanceName the name of the instance.
+    * @return completes with the new {@link ServerConnectionManager} once it has been started.
+    * @throws IllegalArgumentException if no instance or no configuration has the given name.
+    */
+   public static CompletableFuture<ServerConnectionManager> reloadServer(String instanceName) {
+      final ConnectionConfiguration config = findConnectionConfig(instanceName);
+      return stopServer(instanceName).thenApply(stopped -> startServer(config));
+   }
+
+   /**
+    * @return a line per running and stopping instance describing its state, or a note that there
+    * are none.
+    */
+   public static String getStatusReport() {
+      final StringBuilder report = new StringBuilder();
+      for (String instanceName : getServerNames()) {
+         final ServerConnectionManager server = instances.get(instanceName);
+         if (server != null) {
+            report.append(instanceName.equals(consoleInstance) ? "* " : "  ")
+                .append(server.getStatusReport()).append(System.lineSeparator());
+         }
+      }
+      for (String instanceName : stopping.keySet()) {
+         report.append("  ").append(instanceName).append(": stopping")
+             .append(System.lineSeparator());
+      }
+      return report.length() == 0 ? "No instances are running." : report.toString().trim();
+   }
 
+   /**
+    * Finds the connection configuration of an instance among the configuration files.
+    *
+    * @param instanceName the {@code instance-name} of the configuration.
+    * @return the configuration.
+    * @throws IllegalArgumentException if no configuration has the given name.
+    */
+   private static ConnectionConfiguration findConnectionConfig(String instanceName) {
+      for (ConnectionConfiguration config : readConnectionConfigs()) {
+         if (config.getInstanceName().equals(instanceName)) {
+            return config;
+         }
+      }
+      throw new IllegalArgumentException(Messages.ERROR_NO_INSTANCE_CONFIG.format(instanceName));
+   }
+
+   /**
+    * Reads every connection configuration. Configurations without an {@code instance-name} are
+    * named after their file.
+    *
+    * @return the readable configurations, the main one first and the rest ordered by file name.
+    */
+   static List<ConnectionConfiguration> readConnectionConfigs() {
+      final List<File> files = new ArrayList<>();
+      if (new File(CONNECTION_CONFIG).isFile()) {
+         files.add(new File(CONNECTION_CONFIG));
+      }
+      final File[] instanceFiles = new File(INSTANCE_CONFIG_DIRECTORY).listFiles(
+          (directory, name) -> name.endsWith(".yaml") || name.endsWith(".yml"));
+      if (instanceFiles != null) {
+         Arrays.sort(instanceFiles);
+         files.addAll(Arrays.asList(instanceFiles));
+      }
+
+      final List<ConnectionConfiguration> configs = new ArrayList<>();
+      for (File file : files) {
+         final ConnectionConfiguration config = ConfigHandler.readConnectionConfig(file);
+         if (config == null) {
+            continue;
+         }
+         if (config.getInstanceName() == null || config.getInstanceName().trim().isEmpty()) {
+            config.setInstanceName(file.getName().replaceFirst("\\.ya?ml$", ""));
+         }
+         configs.add(config);
+      }
+      return configs;
+   }
+
+   /**
+    * Adds a {@link ServerConnectionManager} to the current list of managers, replacing any instance
+    * of the same name.
+    *
+    * @param instanceName the name of the instance.
+    * @param server the {@code ServerConnectionManager} to add.
+    */
+   public static void addServer(String instanceName, ServerConnectionManager server) {
+      instances.put(instanceName, server);
+      if (consoleInstance == null) {
+         consoleInstance = instanceName;
+      }
    }
 
    /**
@@ -86,6 +298,44 @@ public class Executor implements Runnable {
       return instances.get(instanceName);
    }
 
+   /**
+    * @return the names of every {@link ServerConnectionManager}, in alphabetical order.
+    */
+   public static List<String> getServerNames() {
+      final List<String> names = new ArrayList<>(instances.keySet());
+      Collections.sort(names);
+      return names;
+   }
+
+   /**
+    * @return the {@link ServerConnectionManager} console commands are sent to, or {@code null} if
+    * there is none.
+    */
+   public static ServerConnectionManager getConsoleServer() {
+      final String name = consoleInstance;
+      return name != null ? instances.get(name) : null;
+   }
+
+   /**
+    * Selects the {@link ServerConnectionManager} console commands are sent to.
+    *
+    * @param instanceName the name of the instance.
+    * @throws IllegalArgumentException if no instance has the given name.
+    */
+   public static void setConsoleServer(String instanceName) {
+      if (!instances.containsKey(instanceName)) {
+         throw new IllegalArgumentException(Messages.ERROR_UNKNOWN_INSTANCE.format(instanceName));
+      }
+      consoleInstance = instanceName;
+   }
+
+   /**
+    * Asks the main loop to disconnect every instance and end the program.
+    */
+   public static void requestQuit() {
+      quit = true;
+   }
+
    /**
     * Read loop to accept commands from the program's console. This function is run automatically
     * upon execution and should not be called in other classes!
@@ -96,7 +346,7 @@ public class Executor implements Runnable {
       while (true) {
          try {
             msg = in.readLine();
-            Commands.handle(msg);
+            Commands.handle(getConsoleServer(), msg);
          } catch (IllegalArgumentException | CommandNotFoundException e) {
             new MessageHandler(e.getMessage()).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
          } catch (RuntimeException rte) {
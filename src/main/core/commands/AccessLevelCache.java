@@ -0,0 +1,143 @@
+package main.core.commands;
+
+import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.util.enums.AccessLevel;
+
+/**
+ * Caches the resolved {@link AccessLevel} of every connected client so that authorization checks
+ * need neither a query round trip nor a group lookup. Levels are resolved when a client joins and
+ * are dropped when the bot sees the client's server groups change, or when the client leaves.
+ * Levels resolved against an older {@link AccessTable} are ignored once the access configuration
+ * is reloaded.
+ *
+ * <p>The server sends no event when someone else adds a client to a server group or removes it
+ * from one, so a cached level can be out of date. It is good enough for rate limits and commands
+ * anyone may use; commands that need more than {@link AccessLevel#DEFAULT} are checked against
+ * the groups on the server with {@link #refresh(int, long)} once they reach a command worker, so
+ * the lookup never holds up event dispatch and is bounded by the command's deadline.</p>
+ */
+public class AccessLevelCache {
+
+   private final ServerConnectionManager instance;
+   private final Map<Integer, Resolved> levels = new ConcurrentHashMap<>();
+
+   /**
+    * Creates an empty {@link AccessLevelCache} for the given server.
+    *
+    * @param instance the {@link ServerConnectionManager} whose clients are cached.
+    */
+   public AccessLevelCache(ServerConnectionManager instance) {
+      this.instance = instance;
+   }
+
+   /**
+    * Returns the {@link AccessLevel} of a connected client, resolving and caching it if needed.
+    *
+    * @param clientId the ID of the client.
+    * @return the client's {@link AccessLevel}.
+    */
+   public AccessLevel get(int clientId) {
+      final AccessTable table = AccessTable.getShared();
+      Resolved resolved = levels.get(clientId);
+
+      if (resolved != null && resolved.table == table) {
+         return resolved.level;
+      }
+
+      ClientState state = instance.getClientState(clientId);
+      if (state == null) {
+         return table.getAccessLevel(new int[0]);
+      }
+      return resolve(state, table);
+   }
+
+   /**
+    * Resolves and caches the {@link AccessLevel} of a client from its cached state.
+    *
+    * @param state the current state of the client.
+    * @return the client's {@link AccessLevel}.
+    */
+   public AccessLevel resolve(ClientState state) {
+      return resolve(state, AccessTable.getShared());
+   }
+
+   /**
+    * Reads the server groups of a client from the server, updates the cached state of the client
+    * with them, and resolves and caches its {@link AccessLevel} anew.
+    *
+    * @param clientId the ID of the client.
+    * @param timeoutMillis the maximum time to wait for the server.
+    * @return the client's {@link AccessLevel}, or the cached one if the server did not answer in
+    * time.
+    * @throws InterruptedException if interrupted while waiting for the server.
+    */
+   public AccessLevel refresh(int clientId, long timeoutMillis) throws InterruptedException {
+      final ClientInfo clientInfo;
+      try {
+         clientInfo = instance.getReadApiAsync().getClientInfo(clientId)
+             .get(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+         throw e;
+      } catch (Exception e) {
+         return get(clientId);
+      }
+      if (clientInfo == null) {
+         return get(clientId);
+      }
+
+      final ClientState state = instance.getClientCache().updateServerGroups(clientId,
+          clientInfo.getServerGroups());
+      if (state == null) {
+         return AccessTable.getShared().getAccessLevel(clientInfo.getServerGroups());
+      }
+      return resolve(state, AccessTable.getShared());
+   }
+
+   /**
+    * Drops the cached level of a client, e.g. after its server groups changed.
+    *
+    * @param clientId the ID of the client.
+    */
+   public void invalidate(int clientId) {
+      levels.remove(clientId);
+   }
+
+   /**
+    * Drops every cached level.
+    */
+   public void invalidateAll() {
+      levels.clear();
+   }
+
+   private AccessLevel resolve(ClientState state, AccessTable table) {
+      final int[] serverGroups = state.getServerGroups();
+      final AccessLevel level = table.getAccessLevel(serverGroups);
+      final Resolved resolved = new Resolved(level, table);
+      levels.put(state.getId(), resolved);
+
+      //Drop the entry again if the client's groups changed while it was being resolved.
+      ClientState current = instance.getClientCache().get(state.getId());
+      if (current != null && current != state
+          && !Arrays.equals(current.getServerGroups(), serverGroups)) {
+         levels.remove(state.getId(), resolved);
+      }
+      return level;
+   }
+
+   private static final class Resolved {
+
+      private final AccessLevel level;
+      private final AccessTable table;
+
+      private Resolved(AccessLevel level, AccessTable table) {
+         this.level = level;
+         this.table = table;
+      }
+   }
+}
@@ -1,7 +1,6 @@
 package main.core.commands;
 
 import java.io.File;
-import java.util.List;
 import main.conf.ConfigHandler;
 import main.conf.ServerGroupAccessConfiguration;
 import main.util.enums.AccessLevel;
@@ -12,9 +11,20 @@ import main.util.exception.AuthorizationException;
  */
 public class AccessManager {
 
-   private ServerGroupAccessConfiguration groupAccessConfig;
+   private AccessTable accessTable;
    private AccessLevel requiredLevel;
 
+   /**
+    * Creates a new {@link AccessManager} with a given minimum required {@link AccessLevel}, using
+    * the shared {@link AccessTable} compiled from the server group access file.
+    *
+    * @param requiredLevel the minimum {@link AccessLevel} required by this instance.
+    */
+   public AccessManager(AccessLevel requiredLevel) {
+      this.requiredLevel = requiredLevel;
+      this.accessTable = AccessTable.getShared();
+   }
+
    /**
     * Creates a new {@link AccessManager} with a given minimum required {@link AccessLevel}.
     *
@@ -24,8 +34,8 @@ public class AccessManager {
     */
    public AccessManager(ConfigHandler configHandler, AccessLevel requiredLevel) {
       this.requiredLevel = requiredLevel;
-      this.groupAccessConfig = configHandler.readServerGroupAccessConfig(
-          new File("./config/ServerGroupAccess.yaml"));
+      this.accessTable = AccessTable.compile(configHandler.readServerGroupAccessConfig(
+          new File("./config/ServerGroupAccess.yaml")));
    }
 
    /**
@@ -49,52 +59,6 @@ public class AccessManager {
     * @return the applicable {@link AccessLevel} of the client.
     */
    public AccessLevel getAccessLevel(int[] serverGroups) {
-      AccessLevel accessLevel = AccessLevel.DEFAULT;
-      List<Integer> ownerGroups = groupAccessConfig.getOwnerGroups();
-      List<Integer> superAdminGroups = groupAccessConfig.getSuperAdminGroups();
-      List<Integer> adminGroups = groupAccessConfig.getAdminGroups();
-      List<Integer> moderatorGroups = groupAccessConfig.getModeratorGroups();
-      List<Integer> sponsorGroups = groupAccessConfig.getSponsorGroups();
-      List<Integer> blacklistGroups = groupAccessConfig.getBlacklistedGroups();
-
-      for (int serverGroup : serverGroups) {
-         if (ownerGroups.contains(serverGroup)) {
-            return AccessLevel.OWNER;
-         } else if (ifApplicable(accessLevel, AccessLevel.SUPER_ADMIN, superAdminGroups)
-             && superAdminGroups.contains(serverGroup)) {
-            accessLevel = AccessLevel.SUPER_ADMIN;
-         } else if (ifApplicable(accessLevel, AccessLevel.ADMIN, adminGroups)
-             && adminGroups.contains(serverGroup)) {
-            accessLevel = AccessLevel.ADMIN;
-         } else if (ifApplicable(accessLevel, AccessLevel.MODERATOR, moderatorGroups)
-             && moderatorGroups.contains(serverGroup)) {
-            accessLevel = AccessLevel.MODERATOR;
-         } else if (ifApplicable(accessLevel, AccessLevel.SPONSOR, sponsorGroups)
-             && sponsorGroups.contains(serverGroup)) {
-            accessLevel = AccessLevel.SPONSOR;
-         }
-
-         if (ifApplicable(accessLevel, AccessLevel.BLACKLISTED, blacklistGroups)
-             && blacklistGroups.contains(serverGroup)) {
-            accessLevel = AccessLevel.BLACKLISTED;
-         }
-      }
-
-      return accessLevel;
-   }
-
-   private boolean ifApplicable(AccessLevel currentAccessLevel, AccessLevel checkedAccessLevel,
-       List<Integer> groupList) {
-
-      if (groupList == null) {
-         return false;
-      }
-
-      if (checkedAccessLevel != AccessLevel.BLACKLISTED) {
-         return (currentAccessLevel.getValue() < checkedAccessLevel.getValue());
-      } else {
-         return (currentAccessLevel == AccessLevel.DEFAULT
-             || currentAccessLevel == AccessLevel.SPONSOR);
-      }
+      return accessTable.getAccessLevel(serverGroups);
    }
 }
@@ -0,0 +1,192 @@
+package main.core.commands;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import main.conf.ConfigHandler;
+import main.conf.ServerGroupAccessConfiguration;
+import main.util.enums.AccessLevel;
+
+/**
+ * Immutable, precompiled form of a {@link ServerGroupAccessConfiguration}. Every configured server
+ * group is mapped to the set of access lists it belongs to, so resolving a client's {@link
+ * AccessLevel} takes a single table probe per server group instead of a scan over every list.
+ *
+ * <p>A single shared table is compiled from {@code ./config/ServerGroupAccess.yaml} and used by
+ * all commands. It is recompiled and swapped atomically when the file changes on disk.</p>
+ */
+public final class AccessTable {
+
+   private static final File ACCESS_CONFIG_FILE = new File("./config/ServerGroupAccess.yaml");
+   private static final long RELOAD_CHECK_INTERVAL_MILLIS = 5000;
+
+   private static final byte OWNER = 1;
+   private static final byte SUPER_ADMIN = 1 << 1;
+   private static final byte ADMIN = 1 << 2;
+   private static final byte MODERATOR = 1 << 3;
+   private static final byte SPONSOR = 1 << 4;
+   private static final byte BLACKLISTED = 1 << 5;
+
+   private static final AtomicReference<Loaded> shared = new AtomicReference<>();
+
+   private final int[] groups;
+   private final byte[] lists;
+   private final int mask;
+
+   private AccessTable(int capacity) {
+      groups = new int[capacity];
+      lists = new byte[capacity];
+      mask = capacity - 1;
+   }
+
+   /**
+    * Compiles an access configuration into a lookup table. Missing lists are treated as empty.
+    *
+    * @param config the configuration to compile, may be {@code null}.
+    * @return the compiled {@link AccessTable}.
+    */
+   public static AccessTable compile(ServerGroupAccessConfiguration config) {
+      if (config == null) {
+         return new AccessTable(2);
+      }
+
+      int entries = count(config.getOwnerGroups()) + count(config.getSuperAdminGroups())
+          + count(config.getAdminGroups()) + count(config.getModeratorGroups())
+          + count(config.getSponsorGroups()) + count(config.getBlacklistedGroups());
+      int capacity = 2;
+      while (capacity < entries * 2) {
+         capacity <<= 1;
+      }
+
+      AccessTable table = new AccessTable(capacity);
+      table.addAll(config.getOwnerGroups(), OWNER);
+      table.addAll(config.getSuperAdminGroups(), SUPER_ADMIN);
+      table.addAll(config.getAdminGroups(), ADMIN);
+      table.addAll(config.getModeratorGroups(), MODERATOR);
+      table.addAll(config.getSponsorGroups(), SPONSOR);
+      table.addAll(config.getBlacklistedGroups(), BLACKLISTED);
+      return table;
+   }
+
+   /**
+    * Returns the table compiled from the server group access file, recompiling it first if the
+    * file has changed since it was last read.
+    *
+    * @return the current shared {@link AccessTable}.
+    */
+   public static AccessTable getShared() {
+      final long now = System.currentTimeMillis();
+      Loaded loaded = shared.get();
+
+      if (loaded != null && now < loaded.nextCheck) {
+         return loaded.table;
+      }
+
+      final long lastModified = ACCESS_CONFIG_FILE.lastModified();
+      if (loaded != null && lastModified == loaded.lastModified) {
+         shared.compareAndSet(loaded, new Loaded(loaded.table, lastModified, now));
+         return loaded.table;
+      }
+
+      AccessTable table = compile(new ConfigHandler().readServerGroupAccessConfig(
+          ACCESS_CONFIG_FILE));
+      shared.set(new Loaded(table, lastModified, now));
+      return table;
+   }
+
+   /**
+    * Determines the single {@link AccessLevel} to be assigned to a client. Groups are evaluated in
+    * the order given, following the same precedence rules as the uncompiled lists: owners win
+    * outright, higher lists override lower ones, and the blacklist only applies to clients who are
+    * not (yet) at least a moderator.
+    *
+    * @param serverGroups the IDs of the server groups to which the client belongs.
+    * @return the applicable {@link AccessLevel} of the client.
+    */
+   public AccessLevel getAccessLevel(int[] serverGroups) {
+      AccessLevel accessLevel = AccessLevel.DEFAULT;
+
+      for (int serverGroup : serverGroups) {
+         final byte membership = lookup(serverGroup);
+
+         if (membership == 0) {
+            continue;
+         }
+         if ((membership & OWNER) != 0) {
+            return AccessLevel.OWNER;
+         } else if (upgrades(accessLevel, AccessLevel.SUPER_ADMIN, membership, SUPER_ADMIN)) {
+            accessLevel = AccessLevel.SUPER_ADMIN;
+         } else if (upgrades(accessLevel, AccessLevel.ADMIN, membership, ADMIN)) {
+            accessLevel = AccessLevel.ADMIN;
+         } else if (upgrades(accessLevel, AccessLevel.MODERATOR, membership, MODERATOR)) {
+            accessLevel = AccessLevel.MODERATOR;
+         } else if (upgrades(accessLevel, AccessLevel.SPONSOR, membership, SPONSOR)) {
+            accessLevel = AccessLevel.SPONSOR;
+         }
+
+         if ((membership & BLACKLISTED) != 0 && (accessLevel == AccessLevel.DEFAULT
+             || accessLevel == AccessLevel.SPONSOR)) {
+            accessLevel = AccessLevel.BLACKLISTED;
+         }
+      }
+
+      return accessLevel;
+   }
+
+   private static boolean upgrades(AccessLevel current, AccessLevel checked, byte membership,
+       byte list) {
+      return (membership & list) != 0 && current.getValue() < checked.getValue();
+   }
+
+   private static int count(List<Integer> groupList) {
+      return groupList == null ? 0 : groupList.size();
+   }
+
+   private static int slot(int group, int mask) {
+      int hash = group * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+   }
+
+   private void addAll(List<Integer> groupList, byte list) {
+      if (groupList == null) {
+         return;
+      }
+
+      for (Integer group : groupList) {
+         if (group == null) {
+            continue;
+         }
+         for (int i = slot(group, mask); ; i = (i + 1) & mask) {
+            if (lists[i] == 0 || groups[i] == group) {
+               groups[i] = group;
+               lists[i] |= list;
+               break;
+            }
+         }
+      }
+   }
+
+   private byte lookup(int group) {
+      for (int i = slot(group, mask); ; i = (i + 1) & mask) {
+         if (lists[i] == 0) {
+            return 0;
+         }
+         if (groups[i] == group) {
+            return lists[i];
+         }
+      }
+   }
+
+   private static final class Loaded {
+
+      private final AccessTable table;
+      private final long lastModified;
+      private final long nextCheck;
+
+      private Loaded(AccessTable table, long lastModified, long checkedAt) {
+         this.table = table;
+         this.lastModified = lastModified;
+         this.nextCheck = checkedAt + RELOAD_CHECK_INTERVAL_MILLIS;
+      }
+   }
+}
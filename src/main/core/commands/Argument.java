@@ -0,0 +1,23 @@
+package main.core.commands;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares an argument of a {@link Command}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface Argument {
+
+   /**
+    * @return the name of the argument, used to look it up and in error messages.
+    */
+   String value();
+
+   /**
+    * @return whether the command is rejected if the argument is missing.
+    */
+   boolean required() default true;
+}
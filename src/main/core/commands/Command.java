@@ -0,0 +1,61 @@
+package main.core.commands;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import main.util.enums.AccessLevel;
+
+/**
+ * Registers a {@link CommandHandler} with the {@link CommandRegistry}. Every annotated class in
+ * {@code main.core.commands.commands} is picked up when the registry is built.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Command {
+
+   /**
+    * @return the name of the command, as typed after the command prefix.
+    */
+   String name();
+
+   /**
+    * @return other names the command can be invoked by.
+    */
+   String[] aliases() default {};
+
+   /**
+    * @return the minimum {@link AccessLevel} a client needs to use the command. Console input is
+    * always allowed.
+    */
+   AccessLevel accessLevel() default AccessLevel.DEFAULT;
+
+   /**
+    * @return whether the command can be used from the console.
+    */
+   boolean console() default true;
+
+   /**
+    * @return whether the command can be used in chat.
+    */
+   boolean chat() default true;
+
+   /**
+    * @return whether the command manages the bot process rather than one server. Such commands
+    * run on their own executor, even when no server instance is running, and get a {@code null}
+    * instance when no instance is selected on the console.
+    */
+   boolean global() default false;
+
+   /**
+    * @return the time in milliseconds the command may take, from being issued to finishing,
+    * before it is cancelled.
+    */
+   long timeoutMillis() default 5000;
+
+   /**
+    * @return the arguments of the command, in order. The last argument takes the rest of the
+    * input, including spaces. Any argument can be wrapped in double quotes to include spaces.
+    */
+   Argument[] arguments() default {};
+}
@@ -0,0 +1,151 @@
+package main.core.commands;
+
+import com.github.theholywaffle.teamspeak3.api.TextMessageTargetMode;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import main.server.ServerConnectionManager;
+import main.server.outbound.MessageTarget;
+import main.util.LogPrefix;
+import main.util.MessageHandler;
+
+/**
+ * A single invocation of a command from the console or from chat, with its parsed arguments.
+ */
+public final class CommandContext {
+
+   private final ServerConnectionManager instance;
+   private final String name;
+   private final String input;
+   private final TextMessageEvent event;
+   private final Map<String, String> arguments;
+   private final long deadlineNanos;
+
+   CommandContext(ServerConnectionManager instance, String name, String input,
+       @Nullable TextMessageEvent event, Map<String, String> arguments, long timeoutMillis) {
+      this.instance = instance;
+      this.name = name;
+      this.input = input;
+      this.event = event;
+      this.arguments = arguments;
+      this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+   }
+
+   /**
+    * @return the server the command was issued on.
+    */
+   public ServerConnectionManager getInstance() {
+      return instance;
+   }
+
+   /**
+    * @return the registered name of the command, regardless of the alias used.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * @return the whole input, including the command prefix and name.
+    */
+   public String getInput() {
+      return input;
+   }
+
+   /**
+    * @return the chat message which issued the command, or {@code null} for console input.
+    */
+   @Nullable
+   public TextMessageEvent getEvent() {
+      return event;
+   }
+
+   /**
+    * @return whether the command was issued from the console.
+    */
+   public boolean isConsole() {
+      return event == null;
+   }
+
+   /**
+    * @return the client ID of the invoker, or of the bot itself for console input.
+    */
+   public int getInvokerId() {
+      return event != null ? event.getInvokerId() : instance.getBotId();
+   }
+
+   /**
+    * @param argument the name of the argument as declared on the {@link Command}.
+    * @return the value of the argument, or {@code null} if it was not given.
+    */
+   @Nullable
+   public String getArgument(String argument) {
+      return arguments.get(argument);
+   }
+
+   /**
+    * @param argument the name of the argument as declared on the {@link Command}.
+    * @return whether the argument was given.
+    */
+   public boolean hasArgument(String argument) {
+      return arguments.containsKey(argument);
+   }
+
+   /**
+    * @return the time in milliseconds left until the command is cancelled, to be used as the
+    * timeout of the calls it blocks on.
+    */
+   public long getRemainingMillis() {
+      return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+   }
+
+   /**
+    * @return whether the command has been cancelled or has run past its deadline. Long-running
+    * commands should check this between steps and stop once it is set.
+    */
+   public boolean isCancelled() {
+      return Thread.currentThread().isInterrupted() || deadlineNanos - System.nanoTime() <= 0;
+   }
+
+   /**
+    * @return where a response to a chat command goes: the server or channel it was issued in, or
+    * the invoker for private messages. {@code null} for console input.
+    */
+   @Nullable
+   public MessageTarget getReplyTarget() {
+      if (event == null) {
+         return null;
+      }
+      if (event.getTargetMode() == TextMessageTargetMode.SERVER) {
+         return MessageTarget.server();
+      } else if (event.getTargetMode() == TextMessageTargetMode.CHANNEL) {
+         return MessageTarget.channel();
+      }
+      return MessageTarget.client(event.getInvokerId());
+   }
+
+   /**
+    * Sends a response to wherever the command was issued.
+    *
+    * @param response the response.
+    */
+   public void respond(MessageHandler response) {
+      final MessageTarget target = getReplyTarget();
+
+      if (target == null) {
+         response.sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
+      } else {
+         response.sendTo(instance, target);
+      }
+   }
+
+   /**
+    * Sends a response to wherever the command was issued.
+    *
+    * @param response the text of the response.
+    */
+   public void respond(String response) {
+      respond(new MessageHandler(response));
+   }
+}
@@ -0,0 +1,238 @@
+package main.core.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+import main.util.Messages;
+
+/**
+ * Runs commands on a fixed pool of worker threads, so a command waiting on the server never holds
+ * up the event handlers or other commands. Commands wait in one bounded queue; when it is full,
+ * further commands are rejected and the invoker is told to try again instead of the caller
+ * blocking.
+ *
+ * <p>Every command has a deadline, counted from when it was dispatched. A command still queued at
+ * its deadline is dropped, and a running one is interrupted. Commands should pass
+ * {@link CommandContext#getRemainingMillis()} to the calls they block on, so that they give up
+ * when they are cancelled.</p>
+ */
+public class CommandExecutor {
+
+   private static final int QUEUED = 0;
+   private static final int RUNNING = 1;
+   private static final int DONE = 2;
+   private static final int TIMED_OUT = 3;
+
+   private final ThreadPoolExecutor pool;
+   private final ScheduledThreadPoolExecutor watchdog;
+   private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+   private final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+   private final AtomicLong submitted = new AtomicLong();
+   private final AtomicLong finished = new AtomicLong();
+
+   /**
+    * Creates and starts a {@link CommandExecutor}.
+    *
+    * @param name the name used for the worker threads.
+    * @param threads the number of worker threads.
+    * @param queueCapacity the maximum number of commands waiting for a worker.
+    */
+   public CommandExecutor(String name, int threads, int queueCapacity) {
+      final AtomicInteger threadCount = new AtomicInteger();
+      pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+         final Thread thread = new Thread(() -> {
+            workers.add(Thread.currentThread());
+            runnable.run();
+         }, name + "-" + threadCount.getAndIncrement());
+         thread.setDaemon(true);
+         return thread;
+      });
+      pool.prestartAllCoreThreads();
+
+      watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+         final Thread thread = new Thread(runnable, name + "-watchdog");
+         thread.setDaemon(true);
+         return thread;
+      });
+      watchdog.setRemoveOnCancelPolicy(true);
+   }
+
+   /**
+    * Queues a command for execution.
+    *
+    * @param command the declaration of the command.
+    * @param handler the logic of the command.
+    * @param context the invocation to execute.
+    * @return {@code false} if the command was rejected because the queue is full or the executor
+    * has been shut down.
+    */
+   public boolean submit(Command command, CommandHandler handler, CommandContext context) {
+      final CommandStats commandStats = getStats(command.name());
+      final Task task = new Task(command, handler, context, commandStats);
+
+      try {
+         task.future = pool.submit(task);
+      } catch (RejectedExecutionException e) {
+         commandStats.recordRejection();
+         CommandRegistry.reportFailure(context.getInstance(), context.getEvent(),
+             Messages.ERROR_COMMAND_REJECTED.format(command.name()));
+         return false;
+      }
+      submitted.incrementAndGet();
+
+      try {
+         task.timeout = watchdog.schedule(task::expire, context.getRemainingMillis(),
+             TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         //Shutting down; the command runs without a watchdog.
+      }
+      return true;
+   }
+
+   /**
+    * Stops accepting new commands and waits for the queued ones to finish. When called from a
+    * command, only stops accepting new commands.
+    *
+    * @param timeout the maximum time to wait.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if every queued command finished in time.
+    */
+   public boolean shutdown(long timeout, TimeUnit unit) {
+      pool.shutdown();
+      if (workers.contains(Thread.currentThread())) {
+         return false;
+      }
+
+      try {
+         return pool.awaitTermination(timeout, unit);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      } finally {
+         watchdog.shutdownNow();
+      }
+   }
+
+   /**
+    * @param name the name of the command.
+    * @return the counters of the command.
+    */
+   public CommandStats getStats(String name) {
+      return stats.computeIfAbsent(name, CommandStats::new);
+   }
+
+   /**
+    * @return the number of commands accepted but not yet finished or cancelled.
+    */
+   public long getPendingCount() {
+      return submitted.get() - finished.get();
+   }
+
+   /**
+    * @return a summary of the executor's load and of every command executed so far.
+    */
+   public String getStatusReport() {
+      final List<String> lines = new ArrayList<>();
+      lines.add(String.format("Command execution: %s running, %s queued, %s accepted",
+          pool.getActiveCount(), pool.getQueue().size(), submitted.get()));
+      stats.values().stream().sorted((a, b) -> a.getName().compareTo(b.getName()))
+          .forEach(commandStats -> lines.add("  " + commandStats));
+      return String.join("\n", lines);
+   }
+
+   /**
+    * An accepted command. Whichever of the worker and the watchdog gets to the command first
+    * decides its outcome; the other leaves it alone.
+    */
+   private final class Task implements Runnable {
+
+      private final Command command;
+      private final CommandHandler handler;
+      private final CommandContext context;
+      private final CommandStats commandStats;
+      private final AtomicInteger state = new AtomicInteger(QUEUED);
+      private volatile Future<?> future;
+      private volatile ScheduledFuture<?> timeout;
+
+      private Task(Command command, CommandHandler handler, CommandContext context,
+          CommandStats commandStats) {
+         this.command = command;
+         this.handler = handler;
+         this.context = context;
+         this.commandStats = commandStats;
+      }
+
+      @Override
+      public void run() {
+         if (!state.compareAndSet(QUEUED, RUNNING)) {
+            return;
+         }
+
+         final long start = System.nanoTime();
+         Exception failure = null;
+         try {
+            CommandRegistry.authorize(command, context);
+            handler.execute(context);
+         } catch (Exception e) {
+            failure = e;
+         }
+         final long nanos = System.nanoTime() - start;
+
+         if (!state.compareAndSet(RUNNING, DONE)) {
+            return;
+         }
+         finished.incrementAndGet();
+         final ScheduledFuture<?> timeout = this.timeout;
+         if (timeout != null) {
+            timeout.cancel(false);
+         }
+
+         if (failure instanceof TimeoutException || failure instanceof InterruptedException
+             || failure instanceof CancellationException) {
+            commandStats.recordTimeout();
+            CommandRegistry.reportFailure(context.getInstance(), context.getEvent(),
+                Messages.ERROR_COMMAND_TIMEOUT.format(command.name()));
+            return;
+         }
+
+         commandStats.recordRun(nanos, failure == null);
+         if (failure != null) {
+            if (failure.getMessage() == null) {
+               new MessageHandler(String.format("Command '%s' failed: %s", command.name(),
+                   failure)).sendToConsoleWith(Level.WARNING);
+            }
+            CommandRegistry.reportFailure(context.getInstance(), context.getEvent(),
+                failure.getMessage() != null ? failure.getMessage() : Messages.ERROR_UNKNOWN_ERROR);
+         }
+      }
+
+      /**
+       * Cancels the command once its deadline has passed.
+       */
+      private void expire() {
+         if (state.compareAndSet(QUEUED, TIMED_OUT) || state.compareAndSet(RUNNING, TIMED_OUT)) {
+            future.cancel(true);
+            finished.incrementAndGet();
+            commandStats.recordTimeout();
+            CommandRegistry.reportFailure(context.getInstance(), context.getEvent(),
+                Messages.ERROR_COMMAND_TIMEOUT.format(command.name()));
+         }
+      }
+   }
+}
@@ -0,0 +1,19 @@
+package main.core.commands;
+
+/**
+ * The logic of a command. Implementations are annotated with {@link Command}, need a no-argument
+ * constructor and are created once, so they must not keep state between executions.
+ */
+@FunctionalInterface
+public interface CommandHandler {
+
+   /**
+    * Executes the command. The invoker has already been authorized and the required arguments are
+    * present.
+    *
+    * @param context the invocation of the command.
+    * @throws Exception if the command fails. The message of the exception is sent back to the
+    * invoker.
+    */
+   void execute(CommandContext context) throws Exception;
+}
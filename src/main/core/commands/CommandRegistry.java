@@ -0,0 +1,357 @@
+package main.core.commands;
+
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import com.google.common.reflect.ClassPath;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import javax.annotation.Nullable;
+import main.server.ServerConnectionManager;
+import main.server.outbound.MessagePriority;
+import main.server.ratelimit.RateLimitResult;
+import main.util.LogPrefix;
+import main.util.MessageHandler;
+import main.util.Messages;
+import main.util.enums.AccessLevel;
+import main.util.exception.ArgumentMissingException;
+import main.util.exception.AuthorizationException;
+import main.util.exception.CommandNotFoundException;
+
+/**
+ * Maps command names and aliases to their {@link CommandHandler}s. The registry is built once from
+ * the classes annotated with {@link Command}, after which routing an input is a single hash lookup
+ * of its lowercased name. Console and chat input take the same path: lookup, availability check,
+ * rate limiting and authorization against the invoker's cached {@link AccessLevel} for chat,
+ * argument parsing and handing the command to the server's {@link CommandExecutor}.
+ */
+public final class CommandRegistry {
+
+   /**
+    * The package scanned for command classes.
+    */
+   public static final String COMMAND_PACKAGE = "main.core.commands.commands";
+
+   private static volatile CommandRegistry shared;
+
+   private final Map<String, Registration> lookup = new HashMap<>();
+   private final List<Registration> registrations = new ArrayList<>();
+
+   private CommandRegistry() {
+   }
+
+   /**
+    * Builds a registry from the given command classes.
+    *
+    * @param commandClasses the classes, each implementing {@link CommandHandler} and annotated with
+    * {@link Command}.
+    * @return the {@link CommandRegistry}.
+    * @throws IllegalArgumentException if a class is not a valid command or two commands share a
+    * name or alias.
+    */
+   public static CommandRegistry of(List<Class<?>> commandClasses) {
+      final CommandRegistry registry = new CommandRegistry();
+      for (Class<?> commandClass : commandClasses) {
+         registry.register(commandClass);
+      }
+      return registry;
+   }
+
+   /**
+    * Builds a registry from every command class in a package.
+    *
+    * @param packageName the package to scan.
+    * @return the {@link CommandRegistry}.
+    * @throws IllegalStateException if the classpath cannot be read.
+    * @throws IllegalArgumentException if two commands share a name or alias.
+    */
+   public static CommandRegistry scan(String packageName) {
+      final List<Class<?>> commandClasses = new ArrayList<>();
+      try {
+         for (ClassPath.ClassInfo info : ClassPath.from(CommandRegistry.class.getClassLoader())
+             .getTopLevelClasses(packageName)) {
+            final Class<?> candidate = info.load();
+            if (candidate.isAnnotationPresent(Command.class)) {
+               commandClasses.add(candidate);
+            }
+         }
+      } catch (IOException e) {
+         throw new IllegalStateException("Could not scan for commands: " + e.getMessage(), e);
+      }
+      commandClasses.sort((a, b) -> a.getName().compareTo(b.getName()));
+      return of(commandClasses);
+   }
+
+   /**
+    * Returns the registry of the commands in {@link #COMMAND_PACKAGE}, building it on first use.
+    *
+    * @return the shared {@link CommandRegistry}.
+    */
+   public static CommandRegistry getShared() {
+      CommandRegistry registry = shared;
+      if (registry == null) {
+         synchronized (CommandRegistry.class) {
+            registry = shared;
+            if (registry == null) {
+               registry = scan(COMMAND_PACKAGE);
+               shared = registry;
+            }
+         }
+      }
+      return registry;
+   }
+
+   /**
+    * Looks up a command by name or alias.
+    *
+    * @param name the name or alias, in any case and without the command prefix.
+    * @return the {@link Command} declaration, or {@code null} if no command has that name.
+    */
+   @Nullable
+   public Command find(String name) {
+      final Registration registration = lookup.get(name.toLowerCase(Locale.ROOT));
+      return registration != null ? registration.command : null;
+   }
+
+   /**
+    * @return the declarations of every registered command, in registration order.
+    */
+   public List<Command> getCommands() {
+      final List<Command> commands = new ArrayList<>(registrations.size());
+      for (Registration registration : registrations) {
+         commands.add(registration.command);
+      }
+      return Collections.unmodifiableList(commands);
+   }
+
+   /**
+    * Routes an input to its command and queues it on the server's {@link CommandExecutor}.
+    * Failures of the command itself are reported back to the invoker rather than thrown.
+    *
+    * @param instance the server the command was issued on.
+    * @param input the input, starting with the command prefix.
+    * @param event the chat message carrying the input, or {@code null} for console input.
+    * @throws CommandNotFoundException if no command of that name is available where the input came
+    * from.
+    * @throws AuthorizationException if the invoking client may not use the command.
+    */
+   public void dispatch(ServerConnectionManager instance, String input,
+       @Nullable TextMessageEvent event) throws CommandNotFoundException, AuthorizationException {
+      dispatch(instance, instance.getCommandExecutor(), input, event);
+   }
+
+   /**
+    * Routes an input to its command and queues it on the given {@link CommandExecutor}. Failures of
+    * the command itself are reported back to the invoker rather than thrown, as is a failed access
+    * check for a command that needs more than {@link AccessLevel#DEFAULT}, which is made by the
+    * executor.
+    *
+    * @param instance the server the command was issued on.
+    * @param executor the executor to run the command on.
+    * @param input the input, starting with the command prefix.
+    * @param event the chat message carrying the input, or {@code null} for console input.
+    * @throws CommandNotFoundException if no command of that name is available where the input came
+    * from.
+    * @throws AuthorizationException if the invoking client may not use the command.
+    */
+   public void dispatch(ServerConnectionManager instance, CommandExecutor executor, String input,
+       @Nullable TextMessageEvent event) throws CommandNotFoundException, AuthorizationException {
+      final int nameEnd = indexOfWhitespace(input, 1);
+      final String name = input.substring(1, nameEnd);
+      final Registration registration = lookup.get(name.toLowerCase(Locale.ROOT));
+      final boolean console = event == null;
+
+      if (registration == null || !(console ? registration.command.console()
+          : registration.command.chat())) {
+         throw new CommandNotFoundException(input.substring(0, nameEnd));
+      }
+
+      if (!console) {
+         final AccessLevel invokerLevel = instance.getAccessLevelCache().get(event.getInvokerId());
+         final RateLimitResult limit = instance.getRateLimiter().acquireCommand(
+             event.getInvokerId(), invokerLevel, registration.command.name());
+         if (!limit.isAllowed()) {
+            if (limit == RateLimitResult.FIRST_DENIED) {
+               reportFailure(instance, event, Messages.ERROR_RATE_LIMITED);
+            }
+            return;
+         }
+         //Privileged commands are checked against the server by the executor instead.
+         if (!isPrivileged(registration.command)
+             && invokerLevel.getValue() < registration.command.accessLevel().getValue()) {
+            throw new AuthorizationException(invokerLevel, "!" + registration.command.name());
+         }
+      }
+
+      final CommandContext context;
+      try {
+         context = new CommandContext(instance, registration.command.name(), input, event,
+             parseArguments(registration.command, input, nameEnd),
+             registration.command.timeoutMillis());
+      } catch (ArgumentMissingException e) {
+         reportFailure(instance, event, e.getMessage());
+         return;
+      }
+
+      executor.submit(registration.command, registration.handler, context);
+   }
+
+   private void register(Class<?> commandClass) {
+      final Command command = commandClass.getAnnotation(Command.class);
+      if (command == null || !CommandHandler.class.isAssignableFrom(commandClass)) {
+         throw new IllegalArgumentException(commandClass.getName()
+             + " is not an annotated CommandHandler.");
+      }
+
+      final CommandHandler handler;
+      try {
+         handler = (CommandHandler) commandClass.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+         throw new IllegalArgumentException("Could not create command "
+             + commandClass.getName() + ": " + e, e);
+      }
+
+      final Registration registration = new Registration(command, handler);
+      registrations.add(registration);
+      bind(command.name(), registration);
+      for (String alias : command.aliases()) {
+         bind(alias, registration);
+      }
+   }
+
+   private void bind(String name, Registration registration) {
+      final Registration existing = lookup.putIfAbsent(name.toLowerCase(Locale.ROOT),
+          registration);
+      if (existing != null) {
+         throw new IllegalArgumentException(String.format("'%s' is used by both '%s' and '%s'.",
+             name, existing.command.name(), registration.command.name()));
+      }
+   }
+
+   /**
+    * Splits the input after the command name into the declared arguments. Arguments are separated
+    * by whitespace, unless wrapped in double quotes; the last one takes the rest of the input.
+    */
+   private static Map<String, String> parseArguments(Command command, String input, int nameEnd)
+       throws ArgumentMissingException {
+      final Argument[] declared = command.arguments();
+      if (declared.length == 0) {
+         return Collections.emptyMap();
+      }
+
+      final Map<String, String> arguments = new LinkedHashMap<>();
+      int start = nameEnd;
+      for (int i = 0; i < declared.length; i++) {
+         start = skipWhitespace(input, start);
+         if (start == input.length()) {
+            if (declared[i].required()) {
+               throw new ArgumentMissingException(command.name(), declared[i].value());
+            }
+            continue;
+         }
+
+         final boolean last = i == declared.length - 1;
+         final int closingQuote = indexOfClosingQuote(input, start, last);
+         final int end;
+         if (closingQuote >= 0) {
+            arguments.put(declared[i].value(), input.substring(start + 1, closingQuote));
+            end = closingQuote + 1;
+         } else {
+            end = last ? input.length() : indexOfWhitespace(input, start);
+            arguments.put(declared[i].value(), input.substring(start, end).trim());
+         }
+         start = end;
+      }
+      return arguments;
+   }
+
+   /**
+    * @return the position of the double quote closing a quoted argument starting at the given
+    * position, or -1 if the argument is not quoted. The quote must end the argument, and for the
+    * last argument also the input.
+    */
+   private static int indexOfClosingQuote(String input, int start, boolean last) {
+      if (input.charAt(start) != '"') {
+         return -1;
+      }
+
+      final int closingQuote = input.indexOf('"', start + 1);
+      if (closingQuote < 0) {
+         return -1;
+      }
+      final int next = last ? skipWhitespace(input, closingQuote + 1) : closingQuote + 1;
+      return next == input.length() || !last && Character.isWhitespace(input.charAt(next))
+          ? closingQuote : -1;
+   }
+
+   private static int indexOfWhitespace(String input, int from) {
+      int i = from;
+      while (i < input.length() && !Character.isWhitespace(input.charAt(i))) {
+         i++;
+      }
+      return i;
+   }
+
+   private static int skipWhitespace(String input, int from) {
+      int i = from;
+      while (i < input.length() && Character.isWhitespace(input.charAt(i))) {
+         i++;
+      }
+      return i;
+   }
+
+   /**
+    * Checks a privileged command's invoker against the server groups the server reports, falling
+    * back to the cached level if the server does not answer before the command's deadline. Run by
+    * the {@link CommandExecutor} right before the command.
+    *
+    * @throws AuthorizationException if the invoking client may not use the command.
+    * @throws InterruptedException if the command was cancelled while waiting for the server.
+    */
+   static void authorize(Command command, CommandContext context)
+       throws AuthorizationException, InterruptedException {
+      if (context.isConsole() || !isPrivileged(command)) {
+         return;
+      }
+      final AccessLevel invokerLevel = context.getInstance().getAccessLevelCache()
+          .refresh(context.getInvokerId(), context.getRemainingMillis());
+      if (invokerLevel.getValue() < command.accessLevel().getValue()) {
+         throw new AuthorizationException(invokerLevel, "!" + command.name());
+      }
+   }
+
+   private static boolean isPrivileged(Command command) {
+      return command.accessLevel().getValue() > AccessLevel.DEFAULT.getValue();
+   }
+
+   /**
+    * Sends the reason a command failed back to its invoker.
+    */
+   static void reportFailure(ServerConnectionManager instance, @Nullable TextMessageEvent event,
+       String message) {
+      if (event == null) {
+         new MessageHandler(message).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
+      } else {
+         new MessageHandler(message)
+             .withPriority(MessagePriority.HIGH)
+             .sendToConsoleWith(Level.INFO)
+             .returnToSender(instance, event);
+      }
+   }
+
+   private static final class Registration {
+
+      private final Command command;
+      private final CommandHandler handler;
+
+      private Registration(Command command, CommandHandler handler) {
+         this.command = command;
+         this.handler = handler;
+      }
+   }
+}
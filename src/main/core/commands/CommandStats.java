@@ -0,0 +1,93 @@
+package main.core.commands;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution counters of a single command, kept by the {@link CommandExecutor}.
+ */
+public final class CommandStats {
+
+   private final String name;
+   private final AtomicLong completed = new AtomicLong();
+   private final AtomicLong failed = new AtomicLong();
+   private final AtomicLong timedOut = new AtomicLong();
+   private final AtomicLong rejected = new AtomicLong();
+   private final AtomicLong totalNanos = new AtomicLong();
+   private final AtomicLong maxNanos = new AtomicLong();
+
+   CommandStats(String name) {
+      this.name = name;
+   }
+
+   void recordRun(long nanos, boolean success) {
+      (success ? completed : failed).incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+   }
+
+   void recordTimeout() {
+      timedOut.incrementAndGet();
+   }
+
+   void recordRejection() {
+      rejected.incrementAndGet();
+   }
+
+   /**
+    * @return the name of the command.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * @return the number of executions which finished without an error.
+    */
+   public long getCompletedCount() {
+      return completed.get();
+   }
+
+   /**
+    * @return the number of executions which finished with an error.
+    */
+   public long getFailedCount() {
+      return failed.get();
+   }
+
+   /**
+    * @return the number of executions cancelled for running past their deadline.
+    */
+   public long getTimedOutCount() {
+      return timedOut.get();
+   }
+
+   /**
+    * @return the number of executions rejected because the executor was saturated or shut down.
+    */
+   public long getRejectedCount() {
+      return rejected.get();
+   }
+
+   /**
+    * @return the average run time in milliseconds of the executions which finished.
+    */
+   public double getAverageMillis() {
+      final long runs = completed.get() + failed.get();
+      return runs == 0 ? 0 : totalNanos.get() / 1e6 / runs;
+   }
+
+   /**
+    * @return the longest run time in milliseconds of any execution which finished.
+    */
+   public long getMaxMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%s: %s completed, %s failed, %s timed out, %s rejected, "
+              + "run time avg/max %.1f/%s ms", name, completed.get(), failed.get(), timedOut.get(),
+          rejected.get(), getAverageMillis(), getMaxMillis());
+   }
+}
@@ -3,107 +3,63 @@ package main.core.commands;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
-import main.core.Executor;
-import main.core.commands.commands.ComeHereCommand;
-import main.core.commands.commands.DadModeCommand;
-import main.core.commands.commands.IdleCheckerCommand;
-import main.core.commands.commands.KickCommand;
-import main.core.commands.commands.PingCommand;
-import main.core.commands.commands.UserInfoCommand;
+import main.server.ServerConnectionManager;
 import main.util.Messages;
 import main.util.exception.AuthorizationException;
 import main.util.exception.CommandNotFoundException;
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * Core command handler class. In charge of routing commands to their correct handlers.
+ * Core command handler class. In charge of routing commands to their correct handlers through the
+ * shared {@link CommandRegistry}.
  */
 public class Commands {
 
+   private static final int GLOBAL_COMMAND_QUEUE_CAPACITY = 8;
+   private static final CommandExecutor globalExecutor = new CommandExecutor("global-commands", 1,
+       GLOBAL_COMMAND_QUEUE_CAPACITY);
    private static String prefix = "!";
 
    /**
     * Route message contents from console to the appropriate command if applicable.
     *
+    * @param instance the server selected on the console, or {@code null} if there is none.
     * @param input the contents of the message being checked.
     * @throws CommandNotFoundException if the command being referenced is not known.
     */
-   public static void handle(String input) throws CommandNotFoundException {
+   public static void handle(ServerConnectionManager instance, String input)
+       throws CommandNotFoundException {
       validate(input);
+      final Command command = CommandRegistry.getShared().find(
+          StringUtils.substringBefore(input.substring(prefix.length()), " "));
+      final boolean global = command != null && command.global();
+      checkArgument(instance != null || global || command == null,
+          Messages.ERROR_NO_INSTANCE_SELECTED);
 
-      final String[] command = input.split("\\s", 2);
-      final String action = command[0].substring(1);
-
-      switch (action.toLowerCase()) {
-         case "dadmode":
-            new DadModeCommand(input);
-            return;
-         case "idle":
-         case "idlecheck":
-         case "idlechecker":
-            new IdleCheckerCommand(input);
-            return;
-         case "kick":
-            new KickCommand(input);
-            return;
-         case "ping":
-            new PingCommand();
-            return;
-         case "userinfo":
-            new UserInfoCommand(input);
-            return;
-         case "forcequit":
-            Executor.getServer("testInstance").disconnect();
-            return;
-         case "debug::printusers":
-            Executor.getServer("testInstance").printUserList();
-            return;
-         default:
-            throw (new CommandNotFoundException(command[0]));
+      try {
+         CommandRegistry.getShared().dispatch(instance,
+             global || instance == null ? globalExecutor : instance.getCommandExecutor(), input,
+             null);
+      } catch (AuthorizationException e) {
+         //Console input is never checked for authorization.
+         throw new IllegalStateException(e);
       }
    }
 
    /**
     * Route message contents from the client to the appropriate command if applicable.
     *
+    * @param instance the server the message was sent on.
     * @param event the contents of the message being checked.
     * @throws CommandNotFoundException if the command being referenced is not known.
     * @throws AuthorizationException if the invoking user does not have clearance to use the command
     * being referenced.
     */
-   public static void handle(TextMessageEvent event)
+   public static void handle(ServerConnectionManager instance, TextMessageEvent event)
        throws CommandNotFoundException, AuthorizationException {
       validate(event.getMessage());
-      String input = event.getMessage();
-
-      final String[] command = input.split("\\s", 2);
-      final String action = command[0].substring(1);
 
-      switch (action.toLowerCase()) {
-         case "come":
-         case "comehere":
-            new ComeHereCommand(event);
-            return;
-         case "dadmode":
-            new DadModeCommand(event);
-            return;
-         case "idle":
-         case "idlecheck":
-         case "idlechecker":
-            new IdleCheckerCommand(event);
-            return;
-         case "kick":
-            new KickCommand(event);
-            return;
-         case "ping":
-            new PingCommand(event);
-            return;
-         case "userinfo":
-            new UserInfoCommand(event);
-            return;
-         default:
-            throw (new CommandNotFoundException(command[0]));
-      }
+      CommandRegistry.getShared().dispatch(instance, event.getMessage(), event);
    }
 
    /**
@@ -116,6 +72,6 @@ public class Commands {
    private static void validate(final String input) {
       checkArgument(!StringUtils.isBlank(input), Messages.ERROR_INPUT_BLANK);
       checkArgument(input.startsWith(prefix),
-          String.format(Messages.ERROR_COMMAND_PREFIX_NOT_RECOGNIZED, input.substring(0, 1)));
+          Messages.ERROR_COMMAND_PREFIX_NOT_RECOGNIZED.format(input.substring(0, 1)));
    }
 }
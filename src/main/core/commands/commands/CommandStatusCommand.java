@@ -0,0 +1,18 @@
+package main.core.commands.commands;
+
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to print the load of the server's command executor and the counters of
+ * every command.
+ */
+@Command(name = "debug::commands", chat = false)
+public class CommandStatusCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      context.respond(context.getInstance().getCommandExecutor().getStatusReport());
+   }
+}
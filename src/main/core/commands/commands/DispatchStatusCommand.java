@@ -0,0 +1,17 @@
+package main.core.commands.commands;
+
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to print the state of the server's event dispatcher.
+ */
+@Command(name = "debug::dispatch", chat = false)
+public class DispatchStatusCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      context.respond(context.getInstance().getEventDispatcher().getStatusReport());
+   }
+}
@@ -0,0 +1,18 @@
+package main.core.commands.commands;
+
+import main.core.Executor;
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to disconnect from every server and shut the bot down.
+ */
+@Command(name = "forcequit", chat = false, global = true)
+public class ForceQuitCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      Executor.requestQuit();
+   }
+}
@@ -0,0 +1,56 @@
+package main.core.commands.commands;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import main.core.Executor;
+import main.core.commands.Argument;
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+import main.util.MessageHandler;
+
+/**
+ * Console command used to list, start, stop and reload server instances while the bot is running.
+ */
+@Command(name = "instance", aliases = "instances", chat = false, global = true,
+    arguments = {@Argument(value = "action", required = false),
+        @Argument(value = "name", required = false)})
+public class InstanceCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) throws Exception {
+      final String action = context.hasArgument("action")
+          ? context.getArgument("action").toLowerCase(Locale.ROOT) : "list";
+      if (action.equals("list")) {
+         context.respond(Executor.getStatusReport());
+         return;
+      }
+      if (!context.hasArgument("name")) {
+         throw new Exception("Please name the instance to " + action + ".");
+      }
+
+      final String name = context.getArgument("name");
+      switch (action) {
+         case "start":
+            Executor.startServer(name);
+            context.respond(String.format("Starting \"%s\".", name));
+            break;
+         case "stop":
+            Executor.stopServer(name);
+            context.respond(String.format("Stopping \"%s\" once its queued work is done.", name));
+            break;
+         case "reload":
+            Executor.reloadServer(name).whenComplete((server, e) -> {
+               if (e != null) {
+                  new MessageHandler(e.getCause() != null ? e.getCause().getMessage()
+                      : e.getMessage()).sendToConsoleWith(Level.WARNING);
+               }
+            });
+            context.respond(String.format("Reloading \"%s\" once its queued work is done.", name));
+            break;
+         default:
+            throw new Exception("Unrecognized action. Please refer to documentation. Accepted "
+                + "actions: 'list', 'start', 'stop', 'reload'");
+      }
+   }
+}
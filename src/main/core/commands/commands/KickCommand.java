@@ -1,118 +1,95 @@
 package main.core.commands.commands;
 
 import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
-import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
-import main.conf.ConfigHandler;
-import main.core.Executor;
-import main.core.commands.AccessManager;
+import java.util.stream.Collectors;
+import main.core.commands.Argument;
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
 import main.server.ServerConnectionManager;
-import main.util.Messages;
+import main.server.cache.ClientState;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
+import main.util.Messages;
 import main.util.enums.AccessLevel;
-import main.util.exception.ArgumentMissingException;
-import main.util.exception.AuthorizationException;
+import main.util.exception.AmbiguousTargetException;
 import main.util.exception.IllegalTargetException;
 import main.util.exception.InvalidUserIdException;
+import main.util.exception.TargetNotFoundException;
 
 /**
- * Command used to forcefully disconnect a client from the server.
+ * Command used to forcefully disconnect a client from the server. The target can be given as a
+ * client ID, a unique identifier or a complete nickname, which must match a single client. Targets
+ * are never matched by part of a nickname, so that a mistyped target kicks nobody.
  */
-public class KickCommand {
-
-   private TextMessageEvent event;
-   private ServerConnectionManager instance;
-   private TS3ApiAsync api;
-
-   /**
-    * Create a KickCommand instance to handle console execution.
-    *
-    * @param input the string read in from the console that triggered this command.
-    */
-   public KickCommand(String input) {
-      this.instance = Executor.getServer("testInstance");
-      this.api = instance.getApiAsync();
+@Command(name = "kick", accessLevel = AccessLevel.MODERATOR,
+    arguments = {@Argument("target"), @Argument("reason")})
+public class KickCommand implements CommandHandler {
 
-      try {
-         handle(input);
-      } catch (ArgumentMissingException | IllegalTargetException | InvalidUserIdException e) {
-         new MessageHandler(e.getMessage()).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
-      }
-   }
+   @Override
+   public void execute(CommandContext context) throws Exception {
+      final ServerConnectionManager instance = context.getInstance();
+      final TS3ApiAsync api = instance.getApiAsync();
+      final String reason = context.getArgument("reason");
+      final String argument = context.getArgument("target");
+      final int target;
+      final String targetName;
 
-   /**
-    * Create a KickCommand instance to handle client execution.
-    *
-    * @param event the {@link TextMessageEvent} containing the call for this command.
-    * @throws AuthorizationException if the invoker of this command does not have authorization to
-    * execute it.
-    */
-   public KickCommand(TextMessageEvent event) throws AuthorizationException {
-      this.event = event;
-      this.instance = Executor.getServer("testInstance");
-      this.api = instance.getApiAsync();
-
-      AccessManager accessManager = new AccessManager(new ConfigHandler(), AccessLevel.MODERATOR);
-
-      AccessLevel invokerAccessLevel = accessManager.getAccessLevel(api.getClientInfo(
-          event.getInvokerId()).getUninterruptibly().getServerGroups());
-
-      try {
-         accessManager.checkAccess(invokerAccessLevel);
-         handle(event.getMessage());
-      } catch (AuthorizationException e) {
-         throw new AuthorizationException(invokerAccessLevel, "!kick");
-      } catch (ArgumentMissingException | IllegalTargetException | InvalidUserIdException e) {
-         new MessageHandler(e.getMessage()).sendToUser(event.getInvokerId());
+      final List<ClientState> matches = instance.getClientCache().findExactTargets(argument);
+      if (matches.size() > 1) {
+         throw new AmbiguousTargetException(argument, matches.stream()
+             .map(ClientState::getNickname).collect(Collectors.toList()));
+      } else if (matches.size() == 1) {
+         target = matches.get(0).getId();
+         targetName = matches.get(0).getNickname();
+      } else {
+         //Fall back to the server for client IDs the cache does not know yet.
+         try {
+            target = Integer.parseInt(argument);
+         } catch (NumberFormatException e) {
+            throw new TargetNotFoundException(argument);
+         }
+         targetName = fetchNickname(context, target);
       }
-   }
-
-   private void handle(String input) throws ArgumentMissingException, IllegalTargetException,
-       InvalidUserIdException {
-      String[] params = input.split("\\s", 3);
-      int target = Integer.parseInt(params[1]);
-      String reason;
-      String targetName;
 
       if (target == instance.getBotId()) {
          throw new IllegalTargetException();
       }
 
-      //Set reason, throwing ArgumentMissingException if not present.
-      try {
-         reason = params[2];
-      } catch (IndexOutOfBoundsException e) {
-         throw new ArgumentMissingException("kick", "reason");
-      }
-
-      //Determine target by ID, throwing InvalidUserIdException if no connected client has that ID.
-      try {
-         targetName = api.getClientInfo(target).getUninterruptibly().getNickname();
-      } catch (Exception e) {
-         if (e.getCause().getMessage().contains("invalid clientID")) {
-            throw new InvalidUserIdException(String.valueOf(target));
-         } else {
-            new MessageHandler(Messages.ERROR_UNKNOWN_ERROR)
-                .sendToConsoleWith(Level.WARNING)
-                .sendToUser(event.getInvokerId());
-         }
-         return;
-      }
-
       //Log to console.
-      if (event != null) {
-         new MessageHandler(String.format("%s attempted to kick %s from the server for: %s", event
-             .getInvokerName(), targetName, reason))
+      if (context.isConsole()) {
+         new MessageHandler(Messages.KICK_ATTEMPTING, targetName, reason)
              .sendToConsoleWith(LogPrefix.KICK);
       } else {
-         new MessageHandler(String.format("Attempting to kick %s from the server for: %s",
-             targetName, reason))
-             .sendToConsoleWith(LogPrefix.KICK);
+         new MessageHandler(Messages.KICK_ATTEMPTED, context.getEvent().getInvokerName(),
+             targetName, reason).sendToConsoleWith(LogPrefix.KICK);
       }
 
       //Execute kick.
       api.kickClientFromServer(reason, target).onFailure(e ->
           api.kickClientFromServer(reason, target));
    }
+
+   /**
+    * Asks the server for the nickname of a client, throwing InvalidUserIdException if no connected
+    * client has that ID.
+    */
+   private String fetchNickname(CommandContext context, int target) throws Exception {
+      try {
+         return context.getInstance().getReadApiAsync().getClientInfo(target)
+             .get(context.getRemainingMillis(), TimeUnit.MILLISECONDS).getNickname();
+      } catch (InterruptedException | TimeoutException e) {
+         throw e;
+      } catch (Exception e) {
+         if (e.getCause() != null && e.getCause().getMessage().contains("invalid clientID")) {
+            throw new InvalidUserIdException(String.valueOf(target));
+         }
+         new MessageHandler(Messages.ERROR_UNKNOWN_ERROR).sendToConsoleWith(Level.WARNING);
+         throw new Exception(Messages.ERROR_UNKNOWN_ERROR);
+      }
+   }
 }
@@ -0,0 +1,17 @@
+package main.core.commands.commands;
+
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to print the clients currently on the server.
+ */
+@Command(name = "debug::printusers", chat = false)
+public class PrintUsersCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      context.getInstance().printUserList();
+   }
+}
@@ -0,0 +1,20 @@
+package main.core.commands.commands;
+
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+import main.server.pool.QueryPool;
+
+/**
+ * Console command used to print the state of the server's read sessions.
+ */
+@Command(name = "debug::sessions", chat = false)
+public class QueryPoolStatusCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      final QueryPool queryPool = context.getInstance().getQueryPool();
+      context.respond(queryPool != null ? queryPool.getStatusReport()
+          : "No read sessions are configured; every command uses the main query session.");
+   }
+}
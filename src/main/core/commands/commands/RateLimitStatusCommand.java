@@ -0,0 +1,17 @@
+package main.core.commands.commands;
+
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to print the counters of the server's rate limiter.
+ */
+@Command(name = "debug::ratelimit", chat = false)
+public class RateLimitStatusCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      context.respond(context.getInstance().getRateLimiter().getStatusReport());
+   }
+}
@@ -0,0 +1,21 @@
+package main.core.commands.commands;
+
+import main.core.Executor;
+import main.core.commands.Argument;
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+
+/**
+ * Console command used to choose the server instance further console commands are sent to.
+ */
+@Command(name = "use", chat = false, global = true, arguments = @Argument("instance"))
+public class UseCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) {
+      Executor.setConsoleServer(context.getArgument("instance"));
+      context.respond(String.format("Console commands now go to \"%s\". Instances: %s",
+          context.getArgument("instance"), String.join(", ", Executor.getServerNames())));
+   }
+}
@@ -1,151 +1,86 @@
 package main.core.commands.commands;
 
-import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
-import com.github.theholywaffle.teamspeak3.api.CommandFuture;
-import com.github.theholywaffle.teamspeak3.api.TextMessageTargetMode;
-import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
-import com.github.theholywaffle.teamspeak3.api.exception.TS3Exception;
-import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
-import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.logging.Level;
-import javax.annotation.Nullable;
-import main.conf.ConfigHandler;
-import main.core.Executor;
-import main.core.commands.AccessManager;
+import main.core.commands.Argument;
+import main.core.commands.Command;
+import main.core.commands.CommandContext;
+import main.core.commands.CommandHandler;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.outbound.MessagePriority;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
 import main.util.Messages;
+import main.util.ResponseRenderer;
 import main.util.enums.AccessLevel;
-import main.util.exception.AuthorizationException;
+import main.util.exception.TargetNotFoundException;
 
 
 /**
- * Command used to do a check on user's information.
+ * Command used to do a check on user's information. Lists every client, the invoker for
+ * {@code @me}, or the clients a client ID, unique identifier or nickname refers to.
  */
-public class UserInfoCommand {
-
-   private TS3ApiAsync api;
-   private TextMessageEvent event;
-
-   /**
-    * Create a UserCommand instance to handle console executions.
-    */
-   public UserInfoCommand(String input) {
-      api = Executor.getServer("testInstance").getApiAsync();
-
-      this.handle(input, null);
-   }
-
-   /**
-    * Create a UserInfoCommand instance to handle client executions.
-    *
-    * @param event the {@link TextMessageEvent} that triggered the PingCommand.
-    * @throws AuthorizationException if the invoker of this command does not have authorization to
-    * execute it.
-    */
-   public UserInfoCommand(TextMessageEvent event) throws AuthorizationException {
-      this.event = event;
-      api = Executor.getServer("testInstance").getApiAsync();
-
-      AccessManager accessManager = new AccessManager(new ConfigHandler(),
-          AccessLevel.MODERATOR);
-      AccessLevel invokerAccessLevel = accessManager.getAccessLevel(api.getClientInfo(event
-          .getInvokerId()).getUninterruptibly().getServerGroups());
-
-      try {
-         accessManager.checkAccess(invokerAccessLevel);
-         this.handle(event.getMessage(), event);
-      } catch (AuthorizationException e) {
-         throw new AuthorizationException(invokerAccessLevel, "!UserInfo");
-      }
-   }
-
-   private void handle(String input, TextMessageEvent event) {
-      List<Client> clients = new ArrayList<>();
-      String[] params = input.split("\\s", 2);
-
-      try {
-         if (params.length == 1) {
-            clients = api.getClients().get(2000, TimeUnit.MILLISECONDS);
-         } else {
-            if (params[1].equalsIgnoreCase("@me")) {
-               if (event == null) {
-                  clients = Lists.newArrayList(api.getClientByNameExact(Executor.getServer
-                      ("testInstance").getBotNickname(), false).get(2000, TimeUnit.MILLISECONDS));
-               } else {
-                  clients = Lists
-                      .newArrayList(api.getClientByNameExact(event.getInvokerName(), false)
-                          .get(2000, TimeUnit.MILLISECONDS));
-               }
-            } else {
-               try {
-                  CommandFuture<List<Client>> clientCommand = api.getClientsByName(params[1]);
-                  clients = clientCommand.get(2000, TimeUnit.MILLISECONDS);
-               } catch (TS3Exception e) {
-                  MessageHandler handler = new MessageHandler(
-                      String.format("No online clients had names containing "
-                          + "\"%s\"", params[1]));
-                  if (event == null) {
-                     handler.sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
-                  } else {
-                     handler.returnToSender(event);
-                  }
-                  return;
-               }
-            }
+@Command(name = "userinfo", accessLevel = AccessLevel.MODERATOR,
+    arguments = @Argument(value = "name", required = false))
+public class UserInfoCommand implements CommandHandler {
+
+   @Override
+   public void execute(CommandContext context) throws Exception {
+      final ServerConnectionManager instance = context.getInstance();
+      final String name = context.getArgument("name");
+      List<ClientState> clients = new ArrayList<>();
+
+      if (name == null) {
+         clients = instance.getClientCache().getClients();
+      } else if (name.equalsIgnoreCase("@me")) {
+         ClientState self = instance.getClientState(context.getInvokerId());
+         if (self != null) {
+            clients.add(self);
          }
-
-         printList(compileResponse(clients), event != null ? event.getTargetMode() : null);
-
-      } catch (InterruptedException | TimeoutException e) {
-         MessageHandler messager = new MessageHandler(String.format(Messages.ERROR_COMMAND_TIMEOUT,
-             "UserInfo")).sendToConsoleWith(Level.WARNING);
-         if (event != null) {
-            messager.returnToSender(event);
+      } else {
+         clients = instance.getClientCache().findTargets(name);
+         if (clients.isEmpty()) {
+            throw new TargetNotFoundException(name);
          }
       }
+
+      printList(context, compileResponse(context, clients));
    }
 
-   private void printList(String text, @Nullable TextMessageTargetMode mode) {
-      if (event == null || mode == null) {
-         new MessageHandler(text).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
+   /**
+    * Sends the rendered response to wherever the command was issued. Client responses are sent as
+    * one batch of message-sized chunks, or not at all if the outgoing messages are backed up.
+    */
+   private void printList(CommandContext context, List<String> chunks) throws Exception {
+      if (context.isConsole()) {
+         new MessageHandler(chunks.get(0)).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
          return;
       }
 
-      if (mode == TextMessageTargetMode.SERVER) {
-         new MessageHandler(text).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE)
-             .sendToServer();
-
-      } else if (mode == TextMessageTargetMode.CHANNEL) {
-         new MessageHandler(text).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE)
-             .sendToChannel();
-
-      } else if (mode == TextMessageTargetMode.CLIENT) {
-         new MessageHandler(text).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE)
-             .returnToSender(event);
-
+      new MessageHandler(String.join("", chunks)).sendToConsoleWith(LogPrefix.COMMAND_RESPONSE);
+      if (!context.getInstance().getMessageScheduler().sendAll(context.getReplyTarget(), chunks,
+          MessagePriority.NORMAL)) {
+         throw new Exception(Messages.ERROR_RESPONSE_DROPPED.format(context.getName()));
       }
    }
 
-   private String compileResponse(List<Client> clients) {
-      String returnText;
+   /**
+    * Renders the client table. Console responses are a single chunk without BBCode.
+    */
+   private List<String> compileResponse(CommandContext context, List<ClientState> clients) {
+      final ResponseRenderer response;
 
-      if (event == null) {
-         returnText = "\n| Name | UID | Client ID |\n";
+      if (context.isConsole()) {
+         response = new ResponseRenderer("\n| Name | UID | Client ID |\n", Integer.MAX_VALUE);
       } else {
-         returnText = ".\n[b][u]| Name | UID | Client ID |[/u][/b]\n";
+         response = new ResponseRenderer(".\n[b][u]| Name | UID | Client ID |[/u][/b]\n");
       }
 
-      for (Client client : clients) {
-         returnText += String
-             .format("| %s | %s | %s |\n", client.getNickname(), client.getUniqueIdentifier(),
-                 client.getId());
+      for (ClientState client : clients) {
+         response.row(client.getNickname(), client.getUniqueIdentifier(), client.getId());
       }
 
-      return returnText;
+      return response.finish();
    }
 }
@@ -1,54 +1,57 @@
 package main.core.functions;
 
 import com.github.theholywaffle.teamspeak3.api.TextMessageTargetMode;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
 import java.util.logging.Level;
-import main.server.listeners.handlers.TextMessageHandler;
+import main.core.triggers.TriggerEngine;
+import main.core.triggers.TriggerMatch;
+import main.core.triggers.TriggerResponder;
+import main.server.ServerConnectionManager;
+import main.server.outbound.MessagePriority;
 import main.util.MessageHandler;
 import main.util.Messages;
 
-public class DadModeMessageChecker {
-
-   private static Boolean isActive = false;
+/**
+ * Responder of the {@link TriggerEngine#DAD_MODE} trigger, which matches messages starting with
+ * some variation of "I am [X]".
+ */
+public class DadModeMessageChecker implements TriggerResponder {
 
    /**
     * Enables the functionality of the DadMode command. While enabled, all messages sent to the
     * server or the channel in which the bot resides that start with some variation of "I am [X]"
     * will be reconstructed into the terrible dad joke, "Hi [X], I'm dad!"
     *
+    * @param instance the server to enable Dad Mode on.
     * @return a String indicating the success or failure of enabling this functionality.
     */
-   public static String start() {
-      if (!isActive) {
-         TextMessageHandler.setDadModeIsActive(true);
-         if (TextMessageHandler.getDadModeIsActive()) {
-            isActive = true;
+   public static String start(ServerConnectionManager instance) {
+      try {
+         if (instance.getTriggerEngine().setEnabled(TriggerEngine.DAD_MODE, true)) {
             return String.format("Dad mode on"); //Success
          } else {
-            isActive = false;
-            return String.format("Dad mode failed to turn on"); //Failure
+            return String.format("Dad mode already on"); //already on
          }
-      } else {
-         return String.format("Dad mode already on"); //already on
+      } catch (IllegalArgumentException e) {
+         return String.format("Dad mode failed to turn on: %s", e.getMessage()); //Failure
       }
    }
 
    /**
     * Disables the functionality of the DadMode command.
     *
+    * @param instance the server to disable Dad Mode on.
     * @return a String indicating the success or failure of disabling this functionality.
     */
-   public static String stop() {
-      if (isActive) {
-         TextMessageHandler.setDadModeIsActive(false);
-         if (!TextMessageHandler.getDadModeIsActive()) {
-            isActive = false;
+   public static String stop(ServerConnectionManager instance) {
+      try {
+         if (instance.getTriggerEngine().setEnabled(TriggerEngine.DAD_MODE, false)) {
             return String.format("Dad mode off"); //Success, off
          } else {
-            isActive = true;
-            return String.format("Dad mode failed to turn off"); //Failure, on
+            return String.format("Dad mode already off"); //already off
          }
-      } else {
-         return String.format("Dad mode already off"); //already off
+      } catch (IllegalArgumentException e) {
+         return String.format("Dad mode failed to turn off: %s", e.getMessage()); //Failure
       }
    }
 
@@ -57,30 +60,27 @@ public class DadModeMessageChecker {
     * medium in which the triggering message was received, sends it to the server or the channel of
     * the bot. (Or eats it, if the message was sent privately.)
     *
-    * @param input the message triggering Dad Mode.
-    * @param target the medium in which the message was received.
+    * @param instance the server the message was sent on.
+    * @param match the "I am" part of the message triggering Dad Mode.
+    * @param event the event of the message.
     */
-   public static void sendDadMessage(String input, TextMessageTargetMode target) {
-      String dadness = "";
-
-      if (input.toLowerCase().startsWith("i'm")) {
-         dadness = input.substring(4);
-      } else if (input.toLowerCase().startsWith("im")) {
-         dadness = input.substring(3);
-      } else if (input.toLowerCase().startsWith("i am")) {
-         dadness = input.substring(5);
-      }
+   @Override
+   public void respond(ServerConnectionManager instance, TriggerMatch match,
+       TextMessageEvent event) {
+      final String dadness = match.getRemainder();
 
       if (dadness.isEmpty()) {
          new MessageHandler("DAD MODE TRIGGERED BUT NO DAD-ABLE MESSAGE RECEIVED")
              .sendToConsoleWith(Level.WARNING);
+         return;
       }
 
-      MessageHandler handler = new MessageHandler(String.format(Messages.DAD_RESPONSE, dadness));
-      if (target == TextMessageTargetMode.SERVER) {
-         handler.sendToServer();
-      } else if (target == TextMessageTargetMode.CHANNEL) {
-         handler.sendToChannel();
+      MessageHandler handler = new MessageHandler(Messages.DAD_RESPONSE, dadness)
+          .withPriority(MessagePriority.LOW);
+      if (event.getTargetMode() == TextMessageTargetMode.SERVER) {
+         handler.sendToServer(instance);
+      } else if (event.getTargetMode() == TextMessageTargetMode.CHANNEL) {
+         handler.sendToChannel(instance);
       }
    }
 }
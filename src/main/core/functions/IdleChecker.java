@@ -1,156 +1,331 @@
 package main.core.functions;
 
-import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
 import com.github.theholywaffle.teamspeak3.api.CommandFuture;
 import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
 import java.io.File;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import main.conf.ConfigHandler;
 import main.conf.IdleCheckConfiguration;
-import main.core.Executor;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.outbound.MessagePriority;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
 import main.util.Messages;
 
 /**
- * Functionality for looped/scheduled checking of online clients for idle users.
+ * Functionality for scheduled checking of online clients for idle users.
+ *
+ * <p>In {@code deadline} mode (the default) the checker does not poll. The client cache tells it
+ * when each client was last seen active, so it sleeps until the earliest moment any client could
+ * cross the idle limit. Only then does it fetch the client list to confirm. Voice activity is not
+ * reported through events, so the cached activity can only lag behind the real one: the predicted
+ * deadline is never later than the real one, and nobody is moved late. Joins and moves that bring
+ * a deadline forward reschedule the check. In {@code poll} mode the client list is fetched every
+ * second.</p>
+ *
+ * <p>A client who cannot be moved, e.g. because the destination is full or the bot lacks the
+ * power to move them, is left alone for {@value #MOVE_RETRY_MILLIS} ms, then for twice as long
+ * after every further failure, up to {@value #MAX_RETRY_MILLIS} ms. Failing to fetch the client
+ * list backs off the same way, so neither makes the checker poll the server.</p>
  */
-public class IdleChecker extends TimerTask {
-
-   private static IdleChecker idleChecker;
-   private static Timer idleCheckerTimer;
-   private static Boolean isActive = false;
-   private IdleCheckConfiguration config = ConfigHandler.readIdleCheckConfig(
-       new File("./config/IdleChecker.yaml"));
-   private TS3ApiAsync api = Executor.getServer("testInstance").getApiAsync();
-   private int maxIdleTimeMilliseconds = config.getMaxTimeMinutes() * 60000;
-   private int botClientId = Executor.getServer("testInstance").getBotId();
-   private static String destinationChannelName;
-   private static Integer maxIdleTime;
+public class IdleChecker {
+
+   private static final long MIN_CHECK_INTERVAL_MILLIS = 1000;
+   private static final long MOVE_RETRY_MILLIS = 30000;
+   private static final long MAX_RETRY_MILLIS = 15 * 60000;
+
+   private final ServerConnectionManager instance;
+   private final AtomicLong clientListRequests = new AtomicLong();
+   private final Map<Integer, Retry> failedMoves = new ConcurrentHashMap<>();
+   private volatile boolean isActive;
+   private IdleCheckConfiguration config;
+   private IdlePolicy policy;
+   private boolean deadlineMode;
+   private Timer timer;
+   private TimerTask scheduledCheck;
+   private long scheduledAt = Long.MAX_VALUE;
+   private long lastCheckAt;
+   private int failedChecks;
+   private String destinationChannelName;
+   private Integer maxIdleTime;
+
+   /**
+    * Creates an inactive Idle Checker for a server.
+    *
+    * @param instance the server whose clients are checked.
+    */
+   public IdleChecker(ServerConnectionManager instance) {
+      this.instance = instance;
+   }
 
    /**
-    * Begins execution of the Idle Checker loop.
+    * Begins execution of the Idle Checker loop, reading the configuration anew.
     */
-   public static String start() {
+   public synchronized String start() {
       if (!isActive) {
-         idleChecker = new IdleChecker();
-         idleCheckerTimer = new Timer();
-
-         try {
-            destinationChannelName = idleChecker.api.getChannelInfo(idleChecker.config
-                .getDestinationChannel()).getUninterruptibly().getName();
-         } catch (Exception e) {
-            throw new NullPointerException(String
-                .format(Messages.CHANNEL_NOT_FOUND, idleChecker.config.getDestinationChannel()));
+         config = ConfigHandler.readIdleCheckConfig(new File("./config/IdleChecker.yaml"));
+         policy = IdlePolicy.compile(config);
+         deadlineMode = !"poll".equalsIgnoreCase(config.getCheckMode());
+
+         for (int destination : policy.getDestinationChannels()) {
+            if (instance.getChannelState(destination) == null) {
+               throw new NullPointerException(Messages.CHANNEL_NOT_FOUND.format(destination));
+            }
          }
-         maxIdleTime = idleChecker.config.getMaxTimeMinutes();
+         destinationChannelName = instance.getChannelName(config.getDestinationChannel());
+         maxIdleTime = config.getMaxTimeMinutes();
 
-         idleCheckerTimer.schedule(idleChecker, 0, 1000);
+         timer = new Timer(instance.getInstanceName() + "-idle-checker", true);
+         scheduledCheck = null;
+         scheduledAt = Long.MAX_VALUE;
+         lastCheckAt = 0;
+         failedChecks = 0;
+         failedMoves.clear();
+         if (deadlineMode) {
+            scheduleAt(System.currentTimeMillis());
+         } else {
+            timer.schedule(new TimerTask() {
+               @Override
+               public void run() {
+                  poll();
+               }
+            }, 0, 1000);
+         }
          isActive = true;
-         return String.format(Messages.IDLE_CHECK_ENABLED, destinationChannelName, maxIdleTime);
+         return Messages.IDLE_CHECK_ENABLED.format(destinationChannelName, maxIdleTime);
       } else {
-         return String.format(Messages.IDLE_CHECK_CANNOT_COMPLETE_ACTION, "enabled");
+         return Messages.IDLE_CHECK_CANNOT_COMPLETE_ACTION.format("enabled");
       }
    }
 
    /**
     * Stops execution of the Idle Checker loop.
     */
-   public static String stop() {
+   public synchronized String stop() {
       if (isActive) {
-         idleChecker.cancel();
-         idleCheckerTimer.cancel();
-         idleCheckerTimer.purge();
+         timer.cancel();
+         timer.purge();
          isActive = false;
          return Messages.IDLE_CHECK_DISABLED;
       } else {
-         return String.format(Messages.IDLE_CHECK_CANNOT_COMPLETE_ACTION, "disabled");
+         return Messages.IDLE_CHECK_CANNOT_COMPLETE_ACTION.format("disabled");
       }
    }
 
-   public static String getStatusReport() {
+   /**
+    * @return whether or not the Idle Checker is running.
+    */
+   public boolean isActive() {
+      return isActive;
+   }
+
+   public synchronized String getStatusReport() {
       if (isActive) {
-         return String.format("Idle Checker is currently active. Users will be moved to \"%s\" "
-             + "after %s minutes of inactivity.", destinationChannelName, maxIdleTime);
+         return String.format("Idle Checker is currently active in %s mode. Users will be moved "
+                 + "to \"%s\" after %s minutes of inactivity, subject to %s custom rules. The "
+                 + "client list has been checked %s times.",
+             deadlineMode ? "deadline" : "poll", destinationChannelName, maxIdleTime,
+             policy.getRuleCount(), clientListRequests.get());
       } else {
          return "Idle Checker is currently inactive.";
       }
    }
 
-   @Override
-   public void run() {
-      CommandFuture<List<Client>> onlineClients = api.getClients();
-      onlineClients.onSuccess(e -> {
-         List<Client> applicableClients = getApplicableClients(e);
-         moveIdleUsersFromList(applicableClients);
-      });
+   /**
+    * Recomputes the idle deadline of a client whose cached state changed, e.g. because it joined,
+    * moved or sent a message. The check is brought forward if the client may now become idle
+    * before the currently scheduled check.
+    *
+    * @param client the new state of the client.
+    */
+   public void onClientChanged(ClientState client) {
+      failedMoves.remove(client.getId());
+      if (isActive && deadlineMode) {
+         final long deadline = getDeadline(client);
+         if (deadline != Long.MAX_VALUE) {
+            scheduleAt(deadline);
+         }
+      }
+   }
+
+   private void poll() {
+      clientListRequests.incrementAndGet();
+      CommandFuture<List<Client>> onlineClients = instance.getReadApiAsync().getClients();
+      onlineClients.onSuccess(this::moveIdleClients);
    }
 
    /**
-    * Compiles a list of clients that can be moved if idle. Clients are determined to be movable if
-    * they are not in one of the ignored groups, and they are not the this program.
-    *
-    * @param onlineClients a list of all clients online.
-    * @return a list of all online, movable clients.
+    * Runs when the earliest predicted deadline is reached. If activity seen since then has pushed
+    * every deadline back, the check is simply rescheduled. Otherwise the client list is fetched to
+    * move the clients that really are idle and to correct the cached activity of the rest.
     */
-   private List<Client> getApplicableClients(List<Client> onlineClients) {
-      List<Integer> ignoredGroups = config.getIgnoreGroups();
-      List<Client> applicableClients = new ArrayList<>();
-      Boolean ignore;
+   private void onDeadline() {
+      synchronized (this) {
+         scheduledCheck = null;
+         scheduledAt = Long.MAX_VALUE;
+      }
 
-      for (Client client : onlineClients) {
-         if (client.getId() == botClientId) {
-            continue;
-         }
-         ignore = false;
-         int[] serverGroups = client.getServerGroups();
-
-         for (int serverGroup : serverGroups) {
-            for (int ignoredGroup : ignoredGroups) {
-               ignore = serverGroup == ignoredGroup;
-               if (ignore) {
-                  break;
-               }
-            }
-            if (ignore) {
-               break;
-            }
+      if (nextDeadline() > System.currentTimeMillis()) {
+         scheduleNext();
+         return;
+      }
+
+      lastCheckAt = System.currentTimeMillis();
+      clientListRequests.incrementAndGet();
+      instance.getReadApiAsync().getClients()
+          .onSuccess(clients -> {
+             synchronized (this) {
+                failedChecks = 0;
+             }
+             instance.getClientCache().refreshActivity(clients);
+             moveIdleClients(clients);
+             scheduleNext();
+          })
+          .onFailure(error -> {
+             final long delay;
+             synchronized (this) {
+                delay = backoff(MIN_CHECK_INTERVAL_MILLIS, ++failedChecks);
+             }
+             scheduleAt(System.currentTimeMillis() + delay);
+          });
+   }
+
+   private void scheduleNext() {
+      final long next = nextDeadline();
+      if (next != Long.MAX_VALUE) {
+         scheduleAt(next);
+      }
+   }
+
+   /**
+    * Schedules a check at the given time unless an earlier one is already scheduled. Checks are
+    * spaced at least {@link #MIN_CHECK_INTERVAL_MILLIS} apart.
+    */
+   private synchronized void scheduleAt(long time) {
+      final long wakeAt = Math.max(time, lastCheckAt + MIN_CHECK_INTERVAL_MILLIS);
+
+      if (scheduledCheck != null) {
+         if (wakeAt >= scheduledAt) {
+            return;
          }
+         scheduledCheck.cancel();
+      }
 
-         if (!ignore) {
-            applicableClients.add(client);
+      scheduledAt = wakeAt;
+      scheduledCheck = new TimerTask() {
+         @Override
+         public void run() {
+            onDeadline();
          }
+      };
+      try {
+         timer.schedule(scheduledCheck, Math.max(0, wakeAt - System.currentTimeMillis()));
+      } catch (IllegalStateException e) {
+         //The checker was stopped.
+         scheduledCheck = null;
+      }
+   }
+
+   /**
+    * @return the earliest time at which a cached client could exceed its idle limit, or {@link
+    * Long#MAX_VALUE} if no client is eligible to be moved.
+    */
+   private long nextDeadline() {
+      long next = Long.MAX_VALUE;
+
+      for (ClientState client : instance.getClientCache().getClients()) {
+         next = Math.min(next, getDeadline(client));
       }
+      return next;
+   }
 
-      return applicableClients;
+   private long getDeadline(ClientState client) {
+      if (client.isServerQuery() || client.getId() == instance.getBotId()) {
+         return Long.MAX_VALUE;
+      }
+      final long deadline = policy.getDeadline(client.getServerGroups(), client.getChannelId(),
+          client.getLastActiveMillis());
+      final Retry retry = failedMoves.get(client.getId());
+      return retry != null ? Math.max(deadline, retry.at) : deadline;
    }
 
    /**
-    * Moves listed clients if they are idle longer than the threshold time.
+    * @return the delay before the next attempt after the given number of failures in a row,
+    * doubling from {@code initial} up to {@link #MAX_RETRY_MILLIS}.
+    */
+   static long backoff(long initial, int failures) {
+      return Math.min(initial << Math.min(failures - 1, 20), MAX_RETRY_MILLIS);
+   }
+
+   /**
+    * Moves every client that has been idle longer than its rule allows to the rule's destination.
+    * The bot, ServerQuery clients and exempt clients are never moved.
     *
-    * @param clients a list of clients that should be moved if idle.
+    * @param onlineClients a list of all clients online.
     */
-   private void moveIdleUsersFromList(List<Client> clients) {
-      for (Client client : clients) {
-         if (client.getIdleTime() > maxIdleTimeMilliseconds &&
-             client.getChannelId() != config.getDestinationChannel()) {
-            CommandFuture<Boolean> operation = api.moveClient(client.getId(), config
-                .getDestinationChannel());
+   private void moveIdleClients(List<Client> onlineClients) {
+      final long now = System.currentTimeMillis();
+      final Set<Integer> online = new HashSet<>();
+
+      for (Client client : onlineClients) {
+         online.add(client.getId());
+         if (client.getId() == instance.getBotId() || client.isServerQueryClient()) {
+            continue;
+         }
+
+         final int rule = policy.classify(client.getServerGroups(), client.getChannelId());
+         if (rule == IdlePolicy.EXEMPT) {
+            continue;
+         }
+
+         final int destination = policy.getDestinationChannel(rule);
+         final long maxIdleMillis = policy.getMaxIdleMillis(rule);
+         final Retry retry = failedMoves.get(client.getId());
+         if (retry != null && retry.at > now) {
+            continue;
+         }
+         if (client.getIdleTime() > maxIdleMillis && client.getChannelId() != destination) {
+            CommandFuture<Boolean> operation = instance.getApiAsync().moveClient(client.getId(),
+                destination);
+            operation.onFailure(e -> {
+               final int failures = retry != null ? retry.failures + 1 : 1;
+               failedMoves.put(client.getId(), new Retry(failures,
+                   System.currentTimeMillis() + backoff(MOVE_RETRY_MILLIS, failures)));
+            });
             operation.onSuccess(e -> {
-               String channelName = api.getChannelInfo(config.getDestinationChannel())
-                   .getUninterruptibly().getName();
-               new MessageHandler(String
-                   .format(Messages.CLIENT_MOVED_FOR_INACTIVITY, client.getNickname(),
-                       client.getUniqueIdentifier(), (client.getIdleTime() / 60000)))
+               failedMoves.remove(client.getId());
+               new MessageHandler(Messages.CLIENT_MOVED_FOR_INACTIVITY, client.getNickname(),
+                   client.getUniqueIdentifier(), (client.getIdleTime() / 60000))
                    .sendToConsoleWith(LogPrefix.IDLE);
-               new MessageHandler(String
-                   .format(Messages.YOU_HAVE_BEEN_MOVED, channelName, config.getMaxTimeMinutes()))
-                   .sendToUser(client.getId());
+               new MessageHandler(Messages.YOU_HAVE_BEEN_MOVED,
+                   instance.getChannelName(destination), maxIdleMillis / 60000)
+                   .withPriority(MessagePriority.HIGH)
+                   .sendToUser(instance, client.getId());
             });
          }
       }
+      failedMoves.keySet().retainAll(online);
+   }
+
+   /**
+    * The failed moves of a client in a row, and the time before which it is not tried again.
+    */
+   private static final class Retry {
+
+      private final int failures;
+      private final long at;
+
+      private Retry(int failures, long at) {
+         this.failures = failures;
+         this.at = at;
+      }
    }
 }
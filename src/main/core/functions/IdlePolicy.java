@@ -0,0 +1,231 @@
+package main.core.functions;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import main.conf.IdleCheckConfiguration;
+import main.conf.IdleRuleConfiguration;
+
+/**
+ * Immutable, precompiled form of the idle rules in an {@link IdleCheckConfiguration}. Every
+ * configured server group and channel is mapped to a bitmask of the rules it takes part in, so a
+ * client is classified by one table probe per server group plus one for its channel, no matter how
+ * many rules or ignored groups are configured.
+ *
+ * <p>A rule applies to a client if the client is in one of the rule's groups (or the rule names no
+ * groups) and sits in one of the rule's channels (or the rule names no channels). The first
+ * applicable rule wins. Clients no rule applies to fall back to the default idle time and
+ * destination. Clients in an ignored group or an exempt channel are never moved.</p>
+ */
+public final class IdlePolicy {
+
+   /**
+    * Returned by {@link #classify(int[], int)} for clients which must never be moved.
+    */
+   public static final int EXEMPT = -1;
+
+   private static final int MAX_RULES = 62;
+   private static final long EXEMPT_BIT = Long.MIN_VALUE;
+
+   private final IntMaskTable groupMasks;
+   private final IntMaskTable channelMasks;
+   private final long anyGroupRules;
+   private final long anyChannelRules;
+   private final long[] maxIdleMillis;
+   private final int[] destinations;
+
+   private IdlePolicy(IntMaskTable groupMasks, IntMaskTable channelMasks, long anyGroupRules,
+       long anyChannelRules, long[] maxIdleMillis, int[] destinations) {
+      this.groupMasks = groupMasks;
+      this.channelMasks = channelMasks;
+      this.anyGroupRules = anyGroupRules;
+      this.anyChannelRules = anyChannelRules;
+      this.maxIdleMillis = maxIdleMillis;
+      this.destinations = destinations;
+   }
+
+   /**
+    * Compiles the rules of an idle check configuration.
+    *
+    * @param config the configuration to compile.
+    * @return the compiled {@link IdlePolicy}.
+    * @throws IllegalArgumentException if more than 62 rules are configured.
+    */
+   public static IdlePolicy compile(IdleCheckConfiguration config) {
+      final List<IdleRuleConfiguration> rules = config.getRules();
+      if (rules.size() > MAX_RULES) {
+         throw new IllegalArgumentException(String.format("At most %s idle rules are supported, "
+             + "but %s are configured.", MAX_RULES, rules.size()));
+      }
+
+      final int defaultRule = rules.size();
+      final long[] maxIdleMillis = new long[defaultRule + 1];
+      final int[] destinations = new int[defaultRule + 1];
+      final Map<Integer, Long> groupMasks = new HashMap<>();
+      final Map<Integer, Long> channelMasks = new HashMap<>();
+      long anyGroupRules = 1L << defaultRule;
+      long anyChannelRules = 1L << defaultRule;
+
+      maxIdleMillis[defaultRule] = config.getMaxTimeMinutes() * 60000L;
+      destinations[defaultRule] = config.getDestinationChannel();
+
+      for (int i = 0; i < defaultRule; i++) {
+         final IdleRuleConfiguration rule = rules.get(i);
+         final long bit = 1L << i;
+
+         maxIdleMillis[i] = rule.getMaxTimeMinutes() != null
+             ? rule.getMaxTimeMinutes() * 60000L : maxIdleMillis[defaultRule];
+         destinations[i] = rule.getDestinationChannel() != null
+             ? rule.getDestinationChannel() : destinations[defaultRule];
+
+         if (rule.getGroups().isEmpty()) {
+            anyGroupRules |= bit;
+         } else {
+            addAll(groupMasks, rule.getGroups(), bit);
+         }
+         if (rule.getChannels().isEmpty()) {
+            anyChannelRules |= bit;
+         } else {
+            addAll(channelMasks, rule.getChannels(), bit);
+         }
+      }
+
+      addAll(groupMasks, config.getIgnoreGroups(), EXEMPT_BIT);
+      addAll(channelMasks, config.getExemptChannels(), EXEMPT_BIT);
+
+      return new IdlePolicy(new IntMaskTable(groupMasks), new IntMaskTable(channelMasks),
+          anyGroupRules, anyChannelRules, maxIdleMillis, destinations);
+   }
+
+   /**
+    * Determines which rule governs a client.
+    *
+    * @param serverGroups the IDs of the server groups the client belongs to.
+    * @param channelId the ID of the channel the client is in.
+    * @return the index of the governing rule, or {@link #EXEMPT} if the client must not be moved.
+    */
+   public int classify(int[] serverGroups, int channelId) {
+      long groupRules = anyGroupRules;
+      for (int serverGroup : serverGroups) {
+         groupRules |= groupMasks.get(serverGroup);
+      }
+      final long channelRules = channelMasks.get(channelId);
+
+      if (((groupRules | channelRules) & EXEMPT_BIT) != 0) {
+         return EXEMPT;
+      }
+      return Long.numberOfTrailingZeros(groupRules & (channelRules | anyChannelRules));
+   }
+
+   /**
+    * Determines when a client will exceed the idle time of its rule.
+    *
+    * @param serverGroups the IDs of the server groups the client belongs to.
+    * @param channelId the ID of the channel the client is in.
+    * @param lastActiveMillis the last time at which the client was active.
+    * @return the time in milliseconds at which the client becomes movable, or {@link
+    * Long#MAX_VALUE} if it is exempt or already in its destination channel.
+    */
+   public long getDeadline(int[] serverGroups, int channelId, long lastActiveMillis) {
+      final int rule = classify(serverGroups, channelId);
+
+      if (rule == EXEMPT || destinations[rule] == channelId) {
+         return Long.MAX_VALUE;
+      }
+      return lastActiveMillis + maxIdleMillis[rule];
+   }
+
+   /**
+    * @param rule the index of a rule, as returned by {@link #classify(int[], int)}.
+    * @return the maximum time in milliseconds a client governed by the rule may remain idle.
+    */
+   public long getMaxIdleMillis(int rule) {
+      return maxIdleMillis[rule];
+   }
+
+   /**
+    * @param rule the index of a rule, as returned by {@link #classify(int[], int)}.
+    * @return the ID of the channel idle clients governed by the rule are moved to.
+    */
+   public int getDestinationChannel(int rule) {
+      return destinations[rule];
+   }
+
+   /**
+    * @return the ID of every channel idle clients may be moved to.
+    */
+   public int[] getDestinationChannels() {
+      return Arrays.stream(destinations).distinct().toArray();
+   }
+
+   /**
+    * @return the number of configured rules, not counting the default rule.
+    */
+   public int getRuleCount() {
+      return maxIdleMillis.length - 1;
+   }
+
+   /**
+    * @return the index of the rule used for clients no configured rule applies to.
+    */
+   public int getDefaultRule() {
+      return destinations.length - 1;
+   }
+
+   private static void addAll(Map<Integer, Long> masks, List<Integer> ids, long bit) {
+      if (ids == null) {
+         return;
+      }
+      for (Integer id : ids) {
+         if (id != null) {
+            masks.merge(id, bit, (a, b) -> a | b);
+         }
+      }
+   }
+
+   /**
+    * Open-addressing map from int keys to non-zero bitmasks. Absent keys map to zero.
+    */
+   private static final class IntMaskTable {
+
+      private final int[] keys;
+      private final long[] masks;
+      private final int mask;
+
+      private IntMaskTable(Map<Integer, Long> entries) {
+         int capacity = 2;
+         while (capacity < entries.size() * 2) {
+            capacity <<= 1;
+         }
+         keys = new int[capacity];
+         masks = new long[capacity];
+         mask = capacity - 1;
+
+         entries.forEach((key, value) -> {
+            int i = slot(key);
+            while (masks[i] != 0) {
+               i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            masks[i] = value;
+         });
+      }
+
+      private long get(int key) {
+         for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (masks[i] == 0) {
+               return 0;
+            }
+            if (keys[i] == key) {
+               return masks[i];
+            }
+         }
+      }
+
+      private int slot(int key) {
+         int hash = key * 0x9E3779B9;
+         return (hash ^ (hash >>> 16)) & mask;
+      }
+   }
+}
@@ -0,0 +1,45 @@
+package main.core.triggers;
+
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import main.server.ServerConnectionManager;
+import main.server.outbound.MessagePriority;
+import main.util.MessageHandler;
+import main.util.MessageTemplate;
+
+/**
+ * Answers a trigger with a fixed response, in the chat the message was sent to.
+ */
+public class ReplyResponder implements TriggerResponder {
+
+   private final MessageTemplate response;
+
+   /**
+    * @param response the response, where %s is replaced by the nickname of the sender.
+    * @throws IllegalArgumentException if the response uses a conversion other than %s.
+    */
+   public ReplyResponder(String response) {
+      this.response = MessageTemplate.compile(response);
+   }
+
+   @Override
+   public void respond(ServerConnectionManager instance, TriggerMatch match,
+       TextMessageEvent event) {
+      final Object[] args = new Object[response.getArgumentCount()];
+      for (int i = 0; i < args.length; i++) {
+         args[i] = event.getInvokerName();
+      }
+
+      final MessageHandler handler = new MessageHandler(response, args)
+          .withPriority(MessagePriority.LOW);
+      switch (event.getTargetMode()) {
+         case SERVER:
+            handler.sendToServer(instance);
+            break;
+         case CHANNEL:
+            handler.sendToChannel(instance);
+            break;
+         default:
+            handler.returnToSender(instance, event);
+      }
+   }
+}
@@ -0,0 +1,78 @@
+package main.core.triggers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named set of patterns and the {@link TriggerResponder} answering messages that contain one of
+ * them. Triggers can be switched on and off while the bot runs.
+ */
+public final class Trigger {
+
+   private final String name;
+   private final TriggerAnchor anchor;
+   private final List<String> patterns;
+   private final TriggerResponder responder;
+   private final AtomicLong matches = new AtomicLong();
+   private volatile boolean enabled;
+
+   Trigger(String name, TriggerAnchor anchor, List<String> patterns, TriggerResponder responder,
+       boolean enabled) {
+      this.name = name;
+      this.anchor = anchor;
+      this.patterns = Collections.unmodifiableList(patterns);
+      this.responder = responder;
+      this.enabled = enabled;
+   }
+
+   /**
+    * @return the name of the trigger.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * @return where in a message the patterns have to be found.
+    */
+   public TriggerAnchor getAnchor() {
+      return anchor;
+   }
+
+   /**
+    * @return the patterns of the trigger.
+    */
+   public List<String> getPatterns() {
+      return patterns;
+   }
+
+   /**
+    * @return the responder answering matches.
+    */
+   public TriggerResponder getResponder() {
+      return responder;
+   }
+
+   /**
+    * @return whether or not messages are currently checked for this trigger.
+    */
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * @return the number of messages which matched this trigger.
+    */
+   public long getMatchCount() {
+      return matches.get();
+   }
+
+   void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+   }
+
+   void countMatch() {
+      matches.incrementAndGet();
+   }
+}
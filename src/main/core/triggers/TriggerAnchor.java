@@ -0,0 +1,19 @@
+package main.core.triggers;
+
+/**
+ * Where in a message the pattern of a {@link Trigger} has to be found.
+ */
+public enum TriggerAnchor {
+   /**
+    * The message starts with the pattern.
+    */
+   START,
+   /**
+    * The pattern is found as a whole word, not as part of a longer word.
+    */
+   WORD,
+   /**
+    * The pattern is found anywhere in the message.
+    */
+   ANYWHERE
+}
@@ -0,0 +1,226 @@
+package main.core.triggers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a set of patterns, matched ignoring case.
+ *
+ * <p>The automaton is compiled into a complete transition table, so matching costs one table
+ * lookup per character of the text no matter how many patterns there are. Characters are folded
+ * to lower case one at a time while scanning: ASCII characters of either case map straight to the
+ * same column of the table, so messages are never copied. Characters that appear in no pattern
+ * share a single column which always leads back to the start state.</p>
+ *
+ * <p>Instances are immutable and may be used from any thread.</p>
+ */
+public final class TriggerAutomaton {
+
+   private static final int ASCII = 128;
+   private static final int[] NONE = new int[0];
+
+   private final int[] asciiClasses = new int[ASCII];
+   private final char[] otherChars;
+   private final int[] otherClasses;
+   private final int classCount;
+   private final int[] transitions;
+   private final int[][] outputs;
+   private final int[] lengths;
+   private final int longest;
+
+   private TriggerAutomaton(List<String> patterns) {
+      final String[] folded = new String[patterns.size()];
+      final BitSet alphabet = new BitSet();
+      int totalLength = 0;
+      int longestPattern = 0;
+
+      lengths = new int[folded.length];
+      for (int i = 0; i < folded.length; i++) {
+         final String pattern = patterns.get(i) == null ? "" : patterns.get(i);
+         final StringBuilder builder = new StringBuilder(pattern.length());
+         for (int c = 0; c < pattern.length(); c++) {
+            final char ch = fold(pattern.charAt(c));
+            builder.append(ch);
+            alphabet.set(ch);
+         }
+         folded[i] = builder.toString();
+         lengths[i] = pattern.length();
+         totalLength += pattern.length();
+         longestPattern = Math.max(longestPattern, pattern.length());
+      }
+      longest = longestPattern;
+
+      // Column 0 is shared by every character not used in a pattern.
+      int nextClass = 1;
+      for (int ch = alphabet.nextSetBit(0); ch >= 0 && ch < ASCII;
+          ch = alphabet.nextSetBit(ch + 1)) {
+         asciiClasses[ch] = nextClass;
+         if (ch >= 'a' && ch <= 'z') {
+            asciiClasses[ch - 'a' + 'A'] = nextClass;
+         }
+         nextClass++;
+      }
+      final int otherCount = alphabet.cardinality() - (nextClass - 1);
+      otherChars = new char[otherCount];
+      otherClasses = new int[otherCount];
+      int other = 0;
+      for (int ch = alphabet.nextSetBit(ASCII); ch >= 0; ch = alphabet.nextSetBit(ch + 1)) {
+         otherChars[other] = (char) ch;
+         otherClasses[other++] = nextClass++;
+      }
+      classCount = nextClass;
+
+      // Build the trie, then complete it breadth first using the failure links.
+      final int maxStates = totalLength + 1;
+      final int[] table = new int[maxStates * classCount];
+      Arrays.fill(table, -1);
+      final List<List<Integer>> ends = new ArrayList<>();
+      ends.add(new ArrayList<>());
+      int states = 1;
+
+      for (int i = 0; i < folded.length; i++) {
+         if (folded[i].isEmpty()) {
+            continue;
+         }
+         int state = 0;
+         for (int c = 0; c < folded[i].length(); c++) {
+            final int column = state * classCount + classOf(folded[i].charAt(c));
+            if (table[column] < 0) {
+               table[column] = states++;
+               ends.add(new ArrayList<>());
+            }
+            state = table[column];
+         }
+         ends.get(state).add(i);
+      }
+
+      final int[] failure = new int[states];
+      final int[][] found = new int[states][];
+      final int[] queue = new int[states];
+      int head = 0;
+      int tail = 0;
+
+      found[0] = NONE;
+      for (int column = 0; column < classCount; column++) {
+         final int child = table[column];
+         if (child < 0) {
+            table[column] = 0;
+         } else {
+            failure[child] = 0;
+            found[child] = toArray(ends.get(child), NONE);
+            queue[tail++] = child;
+         }
+      }
+      while (head < tail) {
+         final int state = queue[head++];
+         final int fallback = failure[state] * classCount;
+         for (int column = 0; column < classCount; column++) {
+            final int child = table[state * classCount + column];
+            if (child < 0) {
+               table[state * classCount + column] = table[fallback + column];
+            } else {
+               failure[child] = table[fallback + column];
+               found[child] = toArray(ends.get(child), found[failure[child]]);
+               queue[tail++] = child;
+            }
+         }
+      }
+
+      transitions = Arrays.copyOf(table, states * classCount);
+      outputs = found;
+   }
+
+   /**
+    * Compiles a set of patterns. Empty patterns never match.
+    *
+    * @param patterns the patterns to match; their positions in the list are their IDs.
+    * @return the compiled {@link TriggerAutomaton}.
+    */
+   public static TriggerAutomaton compile(List<String> patterns) {
+      return new TriggerAutomaton(patterns);
+   }
+
+   /**
+    * @return the start state, in which no characters have been matched.
+    */
+   public int getStartState() {
+      return 0;
+   }
+
+   /**
+    * Advances the automaton by one character of the text.
+    *
+    * @param state the current state.
+    * @param ch the next character of the text.
+    * @return the state after reading the character.
+    */
+   public int next(int state, char ch) {
+      return transitions[state * classCount + classOf(ch)];
+   }
+
+   /**
+    * Returns the patterns ending at the character which led to a state, longest first. The
+    * returned array must not be modified.
+    *
+    * @param state the state reached.
+    * @return the IDs of the matched patterns, possibly empty.
+    */
+   public int[] getMatches(int state) {
+      return outputs[state];
+   }
+
+   /**
+    * @param pattern the ID of a pattern.
+    * @return the length of the pattern.
+    */
+   public int getPatternLength(int pattern) {
+      return lengths[pattern];
+   }
+
+   /**
+    * @return the length of the longest pattern.
+    */
+   public int getLongestPattern() {
+      return longest;
+   }
+
+   /**
+    * @return the number of states of the automaton.
+    */
+   public int getStateCount() {
+      return outputs.length;
+   }
+
+   private int classOf(char ch) {
+      if (ch < ASCII) {
+         return asciiClasses[ch];
+      }
+      final char folded = fold(ch);
+      if (folded < ASCII) {
+         return asciiClasses[folded];
+      }
+      final int at = Arrays.binarySearch(otherChars, folded);
+      return at < 0 ? 0 : otherClasses[at];
+   }
+
+   private static char fold(char ch) {
+      if (ch < ASCII) {
+         return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+      }
+      return Character.toLowerCase(ch);
+   }
+
+   private static int[] toArray(List<Integer> own, int[] inherited) {
+      if (own.isEmpty()) {
+         return inherited;
+      }
+      final int[] result = new int[own.size() + inherited.length];
+      for (int i = 0; i < own.size(); i++) {
+         result[i] = own.get(i);
+      }
+      System.arraycopy(inherited, 0, result, own.size(), inherited.length);
+      return result;
+   }
+}
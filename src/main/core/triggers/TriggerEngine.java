@@ -0,0 +1,265 @@
+package main.core.triggers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import main.conf.TriggerConfiguration;
+import main.conf.TriggerRuleConfiguration;
+import main.core.functions.DadModeMessageChecker;
+import main.util.MessageHandler;
+import main.util.Messages;
+
+/**
+ * Checks chat messages against every configured {@link Trigger} at once.
+ *
+ * <p>The patterns of all triggers are compiled into a single {@link TriggerAutomaton}, so each
+ * message is read once, in one pass, however many triggers there are. Each trigger matches at
+ * most once per message. When every pattern has to be at the start of a message, scanning stops
+ * after the longest pattern.</p>
+ */
+public final class TriggerEngine {
+
+   /**
+    * Name of the trigger answered by {@link DadModeMessageChecker}.
+    */
+   public static final String DAD_MODE = "dad-mode";
+
+   private final Map<String, Trigger> triggers;
+   private final TriggerAutomaton automaton;
+   private final Trigger[] patternTriggers;
+   private final int scanLimit;
+   private volatile int enabledCount;
+
+   private TriggerEngine(List<Trigger> triggers) {
+      final List<String> patterns = new ArrayList<>();
+      final List<Trigger> owners = new ArrayList<>();
+      boolean anchoredOnly = true;
+      int enabled = 0;
+
+      this.triggers = new LinkedHashMap<>();
+      for (Trigger trigger : triggers) {
+         this.triggers.put(trigger.getName(), trigger);
+         for (String pattern : trigger.getPatterns()) {
+            patterns.add(pattern);
+            owners.add(trigger);
+         }
+         anchoredOnly &= trigger.getAnchor() == TriggerAnchor.START;
+         enabled += trigger.isEnabled() ? 1 : 0;
+      }
+
+      this.automaton = TriggerAutomaton.compile(patterns);
+      this.patternTriggers = owners.toArray(new Trigger[0]);
+      this.scanLimit = anchoredOnly ? automaton.getLongestPattern() : Integer.MAX_VALUE;
+      this.enabledCount = enabled;
+   }
+
+   /**
+    * Compiles a trigger configuration. Without a configuration, only the dad mode trigger exists,
+    * and it starts disabled.
+    *
+    * @param config the configuration to compile, may be {@code null}.
+    * @return the compiled {@link TriggerEngine}.
+    */
+   public static TriggerEngine compile(TriggerConfiguration config) {
+      final List<Trigger> triggers = new ArrayList<>();
+
+      if (config == null) {
+         triggers.add(new Trigger(DAD_MODE, TriggerAnchor.START,
+             Arrays.asList("i'm ", "im ", "i am "), new DadModeMessageChecker(), false));
+         return new TriggerEngine(triggers);
+      }
+
+      for (TriggerRuleConfiguration rule : config.getTriggers()) {
+         final Trigger trigger = compileRule(rule);
+         if (trigger != null && triggers.stream()
+             .noneMatch(existing -> existing.getName().equals(trigger.getName()))) {
+            triggers.add(trigger);
+         } else if (trigger != null) {
+            new MessageHandler(Messages.ERROR_INVALID_TRIGGER, trigger.getName(),
+                "duplicate name").sendToConsoleWith(Level.WARNING);
+         }
+      }
+      return of(triggers);
+   }
+
+   /**
+    * Builds an engine from existing triggers.
+    *
+    * @param triggers the triggers to check messages for, with unique names.
+    * @return the {@link TriggerEngine}.
+    */
+   static TriggerEngine of(List<Trigger> triggers) {
+      return new TriggerEngine(triggers);
+   }
+
+   /**
+    * Finds the enabled triggers contained in a message.
+    *
+    * @param message the chat message.
+    * @return the first match of every enabled trigger, in the order they end in the message.
+    */
+   public List<TriggerMatch> match(String message) {
+      if (enabledCount == 0 || message == null) {
+         return Collections.emptyList();
+      }
+
+      List<TriggerMatch> found = null;
+      final int length = Math.min(message.length(), scanLimit);
+      int state = automaton.getStartState();
+
+      for (int i = 0; i < length; i++) {
+         state = automaton.next(state, message.charAt(i));
+         for (int pattern : automaton.getMatches(state)) {
+            final Trigger trigger = patternTriggers[pattern];
+            final int start = i + 1 - automaton.getPatternLength(pattern);
+            if (!trigger.isEnabled() || !isAnchored(trigger.getAnchor(), message, start, i + 1)
+                || found != null && contains(found, trigger)) {
+               continue;
+            }
+            if (found == null) {
+               found = new ArrayList<>(2);
+            }
+            found.add(new TriggerMatch(trigger, message, start, i + 1));
+            trigger.countMatch();
+         }
+      }
+      return found == null ? Collections.emptyList() : found;
+   }
+
+   /**
+    * Switches a trigger on or off.
+    *
+    * @param name the name of the trigger.
+    * @param enabled whether or not messages should be checked for the trigger.
+    * @return {@code true} if the state of the trigger changed, {@code false} if it already was in
+    * the requested state.
+    * @throws IllegalArgumentException if no trigger has the given name.
+    */
+   public synchronized boolean setEnabled(String name, boolean enabled) {
+      final Trigger trigger = triggers.get(name);
+      if (trigger == null) {
+         throw new IllegalArgumentException(Messages.ERROR_UNKNOWN_TRIGGER.format(name));
+      }
+      if (trigger.isEnabled() == enabled) {
+         return false;
+      }
+      trigger.setEnabled(enabled);
+      enabledCount += enabled ? 1 : -1;
+      return true;
+   }
+
+   /**
+    * @param name the name of a trigger.
+    * @return the trigger, or {@code null} if no trigger has the given name.
+    */
+   public Trigger getTrigger(String name) {
+      return triggers.get(name);
+   }
+
+   /**
+    * @return every trigger, in configuration order.
+    */
+   public Collection<Trigger> getTriggers() {
+      return Collections.unmodifiableCollection(triggers.values());
+   }
+
+   /**
+    * @return the number of states of the compiled automaton.
+    */
+   public int getStateCount() {
+      return automaton.getStateCount();
+   }
+
+   private static boolean isAnchored(TriggerAnchor anchor, String message, int start, int end) {
+      switch (anchor) {
+         case START:
+            return start == 0;
+         case WORD:
+            return (start == 0 || !isWordChar(message.charAt(start))
+                || !isWordChar(message.charAt(start - 1)))
+                && (end == message.length() || !isWordChar(message.charAt(end - 1))
+                || !isWordChar(message.charAt(end)));
+         default:
+            return true;
+      }
+   }
+
+   private static boolean isWordChar(char ch) {
+      return Character.isLetterOrDigit(ch) || ch == '_';
+   }
+
+   private static boolean contains(List<TriggerMatch> found, Trigger trigger) {
+      for (TriggerMatch match : found) {
+         if (match.getTrigger() == trigger) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static Trigger compileRule(TriggerRuleConfiguration rule) {
+      final String name = rule.getName();
+      if (name == null || name.trim().isEmpty()) {
+         new MessageHandler(Messages.ERROR_INVALID_TRIGGER, "(unnamed)", "missing name")
+             .sendToConsoleWith(Level.WARNING);
+         return null;
+      }
+
+      final List<String> patterns = new ArrayList<>();
+      for (String pattern : rule.getPatterns()) {
+         if (pattern != null && !pattern.isEmpty()) {
+            patterns.add(pattern);
+         }
+      }
+      if (patterns.isEmpty()) {
+         new MessageHandler(Messages.ERROR_INVALID_TRIGGER, name, "no patterns")
+             .sendToConsoleWith(Level.WARNING);
+         return null;
+      }
+
+      final TriggerAnchor anchor;
+      try {
+         anchor = rule.getAnchor() == null ? TriggerAnchor.WORD
+             : TriggerAnchor.valueOf(rule.getAnchor().trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+         new MessageHandler(Messages.ERROR_INVALID_TRIGGER, name, "unknown anchor "
+             + rule.getAnchor()).sendToConsoleWith(Level.WARNING);
+         return null;
+      }
+
+      final TriggerResponder responder;
+      final String type = rule.getResponder() == null ? ""
+          : rule.getResponder().trim().toLowerCase(Locale.ROOT);
+      switch (type) {
+         case "dad":
+            responder = new DadModeMessageChecker();
+            break;
+         case "reply":
+            if (rule.getResponse() == null || rule.getResponse().isEmpty()) {
+               new MessageHandler(Messages.ERROR_INVALID_TRIGGER, name, "no response")
+                   .sendToConsoleWith(Level.WARNING);
+               return null;
+            }
+            try {
+               responder = new ReplyResponder(rule.getResponse());
+            } catch (IllegalArgumentException e) {
+               new MessageHandler(Messages.ERROR_INVALID_TRIGGER, name, e.getMessage())
+                   .sendToConsoleWith(Level.WARNING);
+               return null;
+            }
+            break;
+         default:
+            new MessageHandler(Messages.ERROR_INVALID_TRIGGER, name, "unknown responder "
+                + rule.getResponder()).sendToConsoleWith(Level.WARNING);
+            return null;
+      }
+
+      return new Trigger(name, anchor, patterns, responder, rule.isEnabled());
+   }
+}
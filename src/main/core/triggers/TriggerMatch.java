@@ -0,0 +1,61 @@
+package main.core.triggers;
+
+/**
+ * A {@link Trigger} found in a chat message.
+ */
+public final class TriggerMatch {
+
+   private final Trigger trigger;
+   private final String message;
+   private final int start;
+   private final int end;
+
+   TriggerMatch(Trigger trigger, String message, int start, int end) {
+      this.trigger = trigger;
+      this.message = message;
+      this.start = start;
+      this.end = end;
+   }
+
+   /**
+    * @return the trigger which matched.
+    */
+   public Trigger getTrigger() {
+      return trigger;
+   }
+
+   /**
+    * @return the whole message.
+    */
+   public String getMessage() {
+      return message;
+   }
+
+   /**
+    * @return the position of the first character of the match.
+    */
+   public int getStart() {
+      return start;
+   }
+
+   /**
+    * @return the position after the last character of the match.
+    */
+   public int getEnd() {
+      return end;
+   }
+
+   /**
+    * @return the part of the message matching the pattern, in its original case.
+    */
+   public String getMatchedText() {
+      return message.substring(start, end);
+   }
+
+   /**
+    * @return the part of the message following the match, without surrounding whitespace.
+    */
+   public String getRemainder() {
+      return message.substring(end).trim();
+   }
+}
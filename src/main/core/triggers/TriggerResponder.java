@@ -0,0 +1,21 @@
+package main.core.triggers;
+
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import main.server.ServerConnectionManager;
+
+/**
+ * Reacts to a chat message which matched a {@link Trigger}.
+ */
+@FunctionalInterface
+public interface TriggerResponder {
+
+   /**
+    * Responds to a match. Called on the event dispatch thread, so responses should be queued
+    * rather than waited for.
+    *
+    * @param instance the server the message was sent on.
+    * @param match the matched part of the message.
+    * @param event the event of the message.
+    */
+   void respond(ServerConnectionManager instance, TriggerMatch match, TextMessageEvent event);
+}
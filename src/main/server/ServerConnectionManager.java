@@ -5,31 +5,58 @@ import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
 import com.github.theholywaffle.teamspeak3.TS3Config;
 import com.github.theholywaffle.teamspeak3.TS3Query;
 import com.github.theholywaffle.teamspeak3.TS3Query.FloodRate;
+import com.github.theholywaffle.teamspeak3.api.event.TS3Listener;
 import com.github.theholywaffle.teamspeak3.api.reconnect.ConnectionHandler;
 import com.github.theholywaffle.teamspeak3.api.reconnect.ReconnectStrategy;
-import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import com.github.theholywaffle.teamspeak3.api.wrapper.ChannelInfo;
 import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
 import java.io.File;
-import java.util.HashMap;
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import main.conf.ConfigHandler;
 import main.conf.ConnectionConfiguration;
+import main.conf.EventLoggingConfiguration;
+import main.core.commands.AccessLevelCache;
+import main.core.commands.CommandExecutor;
+import main.core.functions.IdleChecker;
+import main.core.triggers.TriggerEngine;
+import main.server.cache.ChannelCache;
+import main.server.cache.ChannelState;
+import main.server.cache.ClientState;
+import main.server.cache.ClientStateCache;
+import main.server.dispatch.EventDispatcher;
+import main.server.journal.EventJournal;
+import main.server.listeners.ChannelListener;
 import main.server.listeners.ClientConnectListener;
 import main.server.listeners.ClientDisconnectListener;
 import main.server.listeners.ClientMovedListener;
+import main.server.listeners.ServerGroupListener;
 import main.server.listeners.TextMessageListener;
+import main.server.membership.ForumMembershipResolver;
+import main.server.membership.GroupReconciler;
+import main.server.outbound.MessagePriority;
+import main.server.outbound.MessageScheduler;
+import main.server.pool.QueryPool;
+import main.server.pool.TS3QuerySession;
+import main.server.ratelimit.InvokerRateLimiter;
+import main.server.replay.EventRecorder;
 import main.util.MessageHandler;
 import main.util.Messages;
-import main.util.exception.ClientNotFoundException;
 
 /**
  * {@code ServerConnectionManagers} controls basic server connection configuration and actions.
  */
 public class ServerConnectionManager {
 
-   private ConnectionConfiguration connectionConfig = ConfigHandler.readConnectionConfig(
-       new File("./config/ConnectionConfig.yaml"));
+   private static final int EVENT_DISPATCH_THREADS = 4;
+   private static final int EVENT_QUEUE_CAPACITY = 1024;
+   private static final int COMMAND_THREADS = 2;
+   private static final int COMMAND_QUEUE_CAPACITY = 32;
+   private static final long READ_SESSION_CHECK_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+   private final ConnectionConfiguration connectionConfig;
+   private final EventLoggingConfiguration loggingConfig;
    private TS3Query serverQuery;
    private TS3Config config;
    private Level serverDebugLevel;
@@ -37,12 +64,65 @@ public class ServerConnectionManager {
    private TS3ApiAsync apiAsync;
    private Integer botClientId;
    private String botNickname;
-   private HashMap<Integer, ClientInfo> connectedUserList = new HashMap<>();
+   private final ClientStateCache clientCache = new ClientStateCache();
+   private final ChannelCache channelCache = new ChannelCache();
+   private final AccessLevelCache accessLevelCache = new AccessLevelCache(this);
+   private final EventDispatcher eventDispatcher;
+   private final CommandExecutor commandExecutor;
+   private final IdleChecker idleChecker = new IdleChecker(this);
+   private final ForumMembershipResolver membershipResolver;
+   private final GroupReconciler groupReconciler = GroupReconciler.compile(
+       ConfigHandler.readForumRoleConfig(new File("./config/ForumRoles.yaml")));
+   private final InvokerRateLimiter rateLimiter = InvokerRateLimiter.compile(
+       ConfigHandler.readRateLimitConfig(new File("./config/RateLimits.yaml")));
+   private final TriggerEngine triggerEngine = TriggerEngine.compile(
+       ConfigHandler.readTriggerConfig(new File("./config/Triggers.yaml")));
+   private final MessageScheduler messageScheduler;
+   private final EventJournal eventJournal;
+   private final QueryPool queryPool;
+   private EventRecorder eventRecorder;
+   private volatile boolean connected;
+   private volatile boolean disconnected;
 
    /**
-    * Creates a basic SCM with default parameters.
+    * Creates an SCM for a server, using the shared event logging configuration.
+    *
+    * @param connectionConfig the connection settings of the server.
     */
-   public ServerConnectionManager() {
+   public ServerConnectionManager(ConnectionConfiguration connectionConfig) {
+      this(connectionConfig, readEventLoggingConfig(), null);
+   }
+
+   /**
+    * Creates an SCM from the given configuration.
+    *
+    * @param connectionConfig the connection settings of the server.
+    * @param loggingConfig the event logging settings.
+    * @param membershipResolver the resolver used to check the forum membership of clients, or
+    * {@code null} to use one for the configured forum.
+    */
+   public ServerConnectionManager(ConnectionConfiguration connectionConfig,
+       EventLoggingConfiguration loggingConfig, ForumMembershipResolver membershipResolver) {
+      final String name = connectionConfig.getInstanceName();
+      this.connectionConfig = connectionConfig;
+      this.loggingConfig = loggingConfig;
+      this.eventDispatcher = new EventDispatcher(name + "-event-dispatch",
+          EVENT_DISPATCH_THREADS, EVENT_QUEUE_CAPACITY);
+      this.commandExecutor = new CommandExecutor(name + "-commands", COMMAND_THREADS,
+          COMMAND_QUEUE_CAPACITY);
+      this.membershipResolver = membershipResolver != null ? membershipResolver
+          : new ForumMembershipResolver(connectionConfig.getForumMembershipUrl());
+      this.messageScheduler = new MessageScheduler(name + "-outbound-messages",
+          (target, message) -> target.sendWith(apiAsync, message),
+          connectionConfig.getBotMessagesPerSecond());
+      this.eventJournal = loggingConfig.isLogToFile() ? new EventJournal(
+          new File(loggingConfig.getJournalDirectory()), name,
+          loggingConfig.getMaxFileSizeKb() * 1024L,
+          TimeUnit.MINUTES.toMillis(loggingConfig.getRotateIntervalMinutes())) : null;
+      this.queryPool = connectionConfig.getQueryReadSessions() > 0 ? new QueryPool(
+          name + "-read-sessions", connectionConfig.getQueryReadSessions(),
+          () -> new TS3QuerySession(connectionConfig), READ_SESSION_CHECK_MILLIS) : null;
+
       config = new ServerConfigBuilder()
           .withHost(connectionConfig.getServerAddress())
           .withQueryPort(connectionConfig.getServerQueryPort())
@@ -60,10 +140,15 @@ public class ServerConnectionManager {
                 api.registerAllEvents();
                 botClientId = api.whoAmI().getId();
 
-                compileOnlineUserList(api);
+                clientCache.rebuild(api.getClients());
+                channelCache.rebuild(api.getChannels());
+                accessLevelCache.invalidateAll();
+                rateLimiter.clear();
+                connected = true;
              }
 
              public void onDisconnect(TS3Query ts3Query) {
+                connected = false;
              }
           })
           .build();
@@ -77,24 +162,42 @@ public class ServerConnectionManager {
    public void connect() {
       javax.swing.SwingUtilities.invokeLater(new Runnable() {
          public void run() {
-            new MessageHandler("Connection Initiated").sendToConsoleWith(Level.INFO);
-            serverQuery = new TS3Query(config);
+            new MessageHandler(String.format("Connection to \"%s\" initiated",
+                connectionConfig.getInstanceName())).sendToConsoleWith(Level.INFO);
+            synchronized (ServerConnectionManager.this) {
+               if (disconnected) {
+                  return;
+               }
+               serverQuery = new TS3Query(config);
+            }
             try {
                serverQuery.connect();
             } catch (Exception e) {
                new MessageHandler(String.format("Error attempting to connect to \"%s\", please "
                        + "ensure that the address provided is correct.",
                    connectionConfig.getServerAddress())).sendToConsoleWith(Level.SEVERE);
-               System.exit(0);
+               return;
             }
 
             apiAsync = serverQuery.getAsyncApi();
             api = serverQuery.getApi();
 
-            api.addTS3Listeners(new TextMessageListener());
-            api.addTS3Listeners(new ClientConnectListener());
-            api.addTS3Listeners(new ClientDisconnectListener());
-            api.addTS3Listeners(new ClientMovedListener());
+            final String recordingFile = loggingConfig.getEventRecordingFile();
+            if (recordingFile != null && !recordingFile.isEmpty()) {
+               final File recording = getRecordingFile(recordingFile);
+               try {
+                  eventRecorder = new EventRecorder(recording, botClientId);
+                  eventRecorder.recordSnapshot(api.getClients(), api.getChannels());
+                  api.addTS3Listeners(eventRecorder);
+               } catch (IOException e) {
+                  new MessageHandler(String.format("Could not record events to \"%s\": %s",
+                      recording, e.getMessage())).sendToConsoleWith(Level.WARNING);
+               }
+            }
+            api.addTS3Listeners(createListeners());
+            if (queryPool != null) {
+               queryPool.start();
+            }
 
             //TODO: Remove; added for testing.
 //            new MessageHandler("Blah!").sendToServer();
@@ -103,25 +206,135 @@ public class ServerConnectionManager {
 //            }
 
             try {
-               new MessageHandler(String.format(Messages.SUCCESSFULLY_CONNECTED, api.getServerInfo()
-                   .getName(), api.whoAmI().getNickname())).sendToConsoleWith(Level.INFO);
+               new MessageHandler(Messages.SUCCESSFULLY_CONNECTED, api.getServerInfo().getName(),
+                   api.whoAmI().getNickname()).sendToConsoleWith(Level.INFO);
             } catch (NullPointerException e) {
                new MessageHandler("An unknown error occurred when attempting to retrieve bot "
                    + "information. Please ensure you have the correct login information in the "
                    + "connection configuration.")
                    .sendToConsoleWith
                    (Level.SEVERE);
-               System.exit(0);
+               serverQuery.exit();
             }
          }
       });
    }
 
    /**
-    * Disconnects the query from the server.
+    * Returns the file this instance records its events to. Every instance has its own file, named
+    * after the configured one with the instance name added before the extension, e.g. {@code
+    * events-main.rec} for {@code events.rec}.
+    *
+    * @param configured the recording file set in the event logging configuration.
+    * @return the recording file of this instance.
     */
-   public void disconnect() {
-      serverQuery.exit();
+   File getRecordingFile(String configured) {
+      final File file = new File(configured);
+      final String name = file.getName();
+      final int extension = name.lastIndexOf('.');
+      final String instanceName = extension > 0
+          ? name.substring(0, extension) + "-" + getInstanceName() + name.substring(extension)
+          : name + "-" + getInstanceName();
+      return new File(file.getParentFile(), instanceName);
+   }
+
+   /**
+    * Uses the given APIs in place of a query connection, so that events can be handled without a
+    * server. Used to replay recorded events.
+    *
+    * @param api the synchronous API.
+    * @param apiAsync the asynchronous API.
+    * @param botClientId the client ID the bot is assumed to have.
+    */
+   public void attach(TS3Api api, TS3ApiAsync apiAsync, int botClientId) {
+      this.api = api;
+      this.apiAsync = apiAsync;
+      this.botClientId = botClientId;
+      this.botNickname = connectionConfig.getBotNickname();
+   }
+
+   /**
+    * Creates the listeners which hand this server's events to its {@link EventDispatcher}.
+    *
+    * @return the listeners, to be registered with the query.
+    */
+   public TS3Listener[] createListeners() {
+      final boolean console = loggingConfig.isLogToConsole();
+      final boolean file = eventJournal != null;
+
+      return new TS3Listener[]{
+          new TextMessageListener(this, console, file),
+          new ClientConnectListener(this, console, file),
+          new ClientDisconnectListener(this, console, file),
+          new ClientMovedListener(this, console, file),
+          new ServerGroupListener(this),
+          new ChannelListener(this)};
+   }
+
+   /**
+    * Disconnects the query from the server. Does nothing if already disconnected.
+    */
+   public synchronized void disconnect() {
+      if (disconnected) {
+         return;
+      }
+      disconnected = true;
+      idleChecker.stop();
+      if (!eventDispatcher.shutdown(10, TimeUnit.SECONDS)) {
+         new MessageHandler("Timed out waiting for queued events to be handled.")
+             .sendToConsoleWith(Level.WARNING);
+      }
+      if (!commandExecutor.shutdown(10, TimeUnit.SECONDS)) {
+         new MessageHandler("Timed out waiting for running commands to finish.")
+             .sendToConsoleWith(Level.WARNING);
+      }
+      if (!messageScheduler.shutdown(5, TimeUnit.SECONDS)) {
+         new MessageHandler("Timed out sending queued messages.").sendToConsoleWith(Level.WARNING);
+      }
+      if (queryPool != null) {
+         queryPool.shutdown(5, TimeUnit.SECONDS);
+      }
+      membershipResolver.shutdown();
+      if (eventJournal != null && !eventJournal.close(5, TimeUnit.SECONDS)) {
+         new MessageHandler("Timed out writing the event journal.")
+             .sendToConsoleWith(Level.WARNING);
+      }
+      if (eventRecorder != null) {
+         eventRecorder.close();
+      }
+      if (serverQuery != null) {
+         serverQuery.exit();
+      }
+   }
+
+   /**
+    * @return a line describing the server this instance is connected to, its connection state and
+    * how much work it has queued.
+    */
+   public String getStatusReport() {
+      long queuedMessages = 0;
+      for (MessagePriority priority : MessagePriority.values()) {
+         queuedMessages += messageScheduler.getQueueDepth(priority);
+      }
+      return String.format("%s: %s:%d, virtual server %d, %s, %d clients, %d commands pending, "
+              + "%d messages queued%s", getInstanceName(), connectionConfig.getServerAddress(),
+          connectionConfig.getServerQueryPort(), connectionConfig.getVirtualServerId(),
+          disconnected ? "stopped" : connected ? "connected" : "connecting", clientCache.size(),
+          commandExecutor.getPendingCount(), queuedMessages, queryPool == null ? ""
+              : String.format(", %d/%d read sessions", queryPool.getHealthyCount(),
+                  queryPool.getSize()));
+   }
+
+   /**
+    * Reads the event logging configuration, falling back to console logging only if it cannot be
+    * read.
+    *
+    * @return the event logging configuration.
+    */
+   public static EventLoggingConfiguration readEventLoggingConfig() {
+      final EventLoggingConfiguration config = ConfigHandler.readEventLoggingConfig(
+          new File("./config/EventLogging.yaml"));
+      return config != null ? config : new EventLoggingConfiguration();
    }
 
    /**
@@ -142,6 +355,21 @@ public class ServerConnectionManager {
           .build();
    }
 
+   /**
+    * @return the name identifying this {@code ServerConnectionManager}, as configured by {@code
+    * instance-name}.
+    */
+   public String getInstanceName() {
+      return connectionConfig.getInstanceName();
+   }
+
+   /**
+    * @return the connection settings of this {@code ServerConnectionManager}.
+    */
+   public ConnectionConfiguration getConnectionConfig() {
+      return connectionConfig;
+   }
+
    /**
     * @return this {@code ServerConnectionManager}'s {@link TS3Config}.
     */
@@ -170,6 +398,38 @@ public class ServerConnectionManager {
       return apiAsync;
    }
 
+   /**
+    * Returns an API for commands which only read from the server, such as client and channel
+    * lookups. They are spread across the read sessions of the {@link QueryPool}, if any are
+    * configured and healthy. Writes and event registration must use {@link #getApi()}.
+    *
+    * @return the {@link TS3Api} of a read session, or of the primary session if none is available.
+    */
+   public TS3Api getReadApi() {
+      final TS3Api readApi = queryPool != null ? queryPool.getReadApi() : null;
+      return readApi != null ? readApi : api;
+   }
+
+   /**
+    * Returns an asynchronous API for commands which only read from the server. Writes and event
+    * registration must use {@link #getApiAsync()}.
+    *
+    * @return the {@link TS3ApiAsync} of a read session, or of the primary session if none is
+    * available.
+    * @see #getReadApi()
+    */
+   public TS3ApiAsync getReadApiAsync() {
+      final TS3ApiAsync readApi = queryPool != null ? queryPool.getReadApiAsync() : null;
+      return readApi != null ? readApi : apiAsync;
+   }
+
+   /**
+    * @return the {@link QueryPool} of read sessions, or {@code null} if none are configured.
+    */
+   public QueryPool getQueryPool() {
+      return queryPool;
+   }
+
    /**
     * @return this {@code ServerConnectionManager}'s connection Id.
     */
@@ -185,31 +445,156 @@ public class ServerConnectionManager {
       return botNickname;
    }
 
-   public void addConnectedClient(int clientId, ClientInfo clientInfo) {
-      if (!connectedUserList.containsKey(clientId) || clientId == -1) {
-         connectedUserList.put(clientId, clientInfo);
-      }
+   /**
+    * @return the {@link ClientStateCache} holding every client connected to the server.
+    */
+   public ClientStateCache getClientCache() {
+      return clientCache;
    }
 
-   public ClientInfo removeConnectedClient(int clientId) throws ClientNotFoundException {
-      ClientInfo clientInfo = connectedUserList.remove(clientId);
+   /**
+    * @return the {@link ChannelCache} holding the metadata of every channel on the server.
+    */
+   public ChannelCache getChannelCache() {
+      return channelCache;
+   }
 
-      return clientInfo.getId() == -1 ? null : clientInfo;
+   /**
+    * @return the {@link AccessLevelCache} holding the resolved access level of every client.
+    */
+   public AccessLevelCache getAccessLevelCache() {
+      return accessLevelCache;
    }
 
-   public void printUserList() { //TODO Refactor to be viable, likely as part of clientinfo command.
-      for (ClientInfo client : connectedUserList.values()) {
-         System.out.println(
-             client.getId() + " : " + client.getNickname() + " : " + client.getUniqueIdentifier());
+   /**
+    * @return the {@link EventDispatcher} running this server's event handlers.
+    */
+   public EventDispatcher getEventDispatcher() {
+      return eventDispatcher;
+   }
+
+   /**
+    * @return the {@link ForumMembershipResolver} used to check the forum membership of clients.
+    */
+   public ForumMembershipResolver getMembershipResolver() {
+      return membershipResolver;
+   }
+
+   /**
+    * @return the {@link GroupReconciler} deciding the server groups of forum members.
+    */
+   public GroupReconciler getGroupReconciler() {
+      return groupReconciler;
+   }
+
+   /**
+    * @return the {@link CommandExecutor} running this server's commands.
+    */
+   public CommandExecutor getCommandExecutor() {
+      return commandExecutor;
+   }
+
+   /**
+    * @return the {@link IdleChecker} moving this server's idle clients.
+    */
+   public IdleChecker getIdleChecker() {
+      return idleChecker;
+   }
+
+   /**
+    * @return the {@link InvokerRateLimiter} limiting this server's chat commands and triggers.
+    */
+   public InvokerRateLimiter getRateLimiter() {
+      return rateLimiter;
+   }
+
+   /**
+    * @return the {@link TriggerEngine} checking this server's chat messages for triggers.
+    */
+   public TriggerEngine getTriggerEngine() {
+      return triggerEngine;
+   }
+
+   /**
+    * @return the {@link MessageScheduler} sending this server's outgoing text messages.
+    */
+   public MessageScheduler getMessageScheduler() {
+      return messageScheduler;
+   }
+
+   /**
+    * @return the {@link EventJournal} recording client events, or {@code null} if file logging is
+    * disabled.
+    */
+   public EventJournal getEventJournal() {
+      return eventJournal;
+   }
+
+   /**
+    * Returns the state of a connected client, preferring the {@link ClientStateCache}. Clients
+    * missing from the cache are looked up on the server once and cached.
+    *
+    * @param clientId the ID of the client.
+    * @return the state of the client, or {@code null} if no client with that ID is connected.
+    */
+   public ClientState getClientState(int clientId) {
+      ClientState state = clientCache.get(clientId);
+
+      if (state == null) {
+         try {
+            ClientInfo clientInfo = getReadApi().getClientInfo(clientId);
+            if (clientInfo != null) {
+               state = ClientState.fromClient(clientInfo, System.currentTimeMillis());
+               clientCache.put(state);
+            }
+         } catch (Exception e) {
+            return null;
+         }
+      }
+
+      return state;
+   }
+
+   /**
+    * Returns the metadata of a channel, preferring the {@link ChannelCache}. Channels missing from
+    * the cache are looked up on the server once and cached.
+    *
+    * @param channelId the ID of the channel.
+    * @return the state of the channel, or {@code null} if no channel with that ID exists.
+    */
+   public ChannelState getChannelState(int channelId) {
+      ChannelState state = channelCache.get(channelId);
+
+      if (state == null) {
+         try {
+            ChannelInfo channelInfo = getReadApi().getChannelInfo(channelId);
+            if (channelInfo != null) {
+               state = ChannelState.fromChannel(channelId, channelInfo);
+               channelCache.put(state);
+            }
+         } catch (Exception e) {
+            return null;
+         }
       }
+
+      return state;
    }
 
-   private void compileOnlineUserList(TS3Api api) {
-      List<Client> clients = api.getClients();
+   /**
+    * Returns the name of a channel for display, using the {@link ChannelCache} where possible.
+    *
+    * @param channelId the ID of the channel.
+    * @return the name of the channel, or its ID if the channel is unknown.
+    */
+   public String getChannelName(int channelId) {
+      ChannelState state = getChannelState(channelId);
+      return state != null ? state.getName() : String.valueOf(channelId);
+   }
 
-      for (Client client : clients) {
-         final int id = client.getId();
-         addConnectedClient(id, api.getClientInfo(id));
+   public void printUserList() { //TODO Refactor to be viable, likely as part of clientinfo command.
+      for (ClientState client : clientCache.getClients()) {
+         System.out.println(
+             client.getId() + " : " + client.getNickname() + " : " + client.getUniqueIdentifier());
       }
    }
 }
@@ -0,0 +1,140 @@
+package main.server.cache;
+
+import com.github.theholywaffle.teamspeak3.api.event.ChannelCreateEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelEditedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of the ID, name and position of every channel on the server. The cache is filled
+ * from the channel list when the connection is established and afterwards kept up to date from
+ * channel create, edit, move and delete events, so that printing a channel name never needs a
+ * query round trip.
+ */
+public class ChannelCache {
+
+   private static final String CHANNEL_NAME = "channel_name";
+   private static final String CHANNEL_PARENT_ID = "cpid";
+   private static final String CHANNEL_ORDER = "channel_order";
+   private static final String MOVED_ORDER = "order";
+
+   private final Map<Integer, ChannelState> channels = new ConcurrentHashMap<>();
+
+   /**
+    * Replaces the contents of the cache with the given channel list.
+    *
+    * @param serverChannels every channel currently on the server.
+    */
+   public void rebuild(List<Channel> serverChannels) {
+      Map<Integer, ChannelState> states = new HashMap<>();
+      for (Channel channel : serverChannels) {
+         states.put(channel.getId(), ChannelState.fromChannel(channel.getId(), channel));
+      }
+
+      channels.keySet().retainAll(states.keySet());
+      channels.putAll(states);
+   }
+
+   /**
+    * Adds or replaces a channel in the cache.
+    *
+    * @param state the new state of the channel.
+    */
+   public void put(ChannelState state) {
+      channels.put(state.getId(), state);
+   }
+
+   /**
+    * @return the cached state of the channel with the given ID, or {@code null} if it is unknown.
+    */
+   public ChannelState get(int channelId) {
+      return channels.get(channelId);
+   }
+
+   /**
+    * @return every cached channel.
+    */
+   public List<ChannelState> getChannels() {
+      return new ArrayList<>(channels.values());
+   }
+
+   /**
+    * @return the number of cached channels.
+    */
+   public int size() {
+      return channels.size();
+   }
+
+   /**
+    * Records a newly created channel.
+    *
+    * @return the state added to the cache.
+    */
+   public ChannelState onCreate(ChannelCreateEvent event) {
+      final Map<String, String> properties = event.getMap();
+      ChannelState state = new ChannelState(event.getChannelId(),
+          properties.getOrDefault(CHANNEL_NAME, ""), parseInt(properties.get(CHANNEL_PARENT_ID)),
+          parseInt(properties.get(CHANNEL_ORDER)));
+      put(state);
+      return state;
+   }
+
+   /**
+    * Applies the properties changed by an edit. Only changed properties are part of the event.
+    *
+    * @return the updated state, or {@code null} if the channel is unknown.
+    */
+   public ChannelState onEdit(ChannelEditedEvent event) {
+      final Map<String, String> properties = event.getMap();
+
+      return channels.computeIfPresent(event.getChannelId(), (id, state) -> {
+         ChannelState edited = state;
+         if (properties.containsKey(CHANNEL_NAME)) {
+            edited = edited.withName(properties.get(CHANNEL_NAME));
+         }
+         if (properties.containsKey(CHANNEL_ORDER)) {
+            edited = edited.withPosition(edited.getParentId(),
+                parseInt(properties.get(CHANNEL_ORDER)));
+         }
+         return edited;
+      });
+   }
+
+   /**
+    * Updates the position of a moved channel. The server reports the new order as {@code order},
+    * which {@link ChannelMovedEvent#getChannelOrder()} does not read, so it is taken from the raw
+    * event where present.
+    *
+    * @return the updated state, or {@code null} if the channel is unknown.
+    */
+   public ChannelState onMove(ChannelMovedEvent event) {
+      final String movedOrder = event.getMap().get(MOVED_ORDER);
+      final int order = movedOrder != null ? parseInt(movedOrder) : event.getChannelOrder();
+
+      return channels.computeIfPresent(event.getChannelId(),
+          (id, state) -> state.withPosition(event.getChannelParentId(), order));
+   }
+
+   /**
+    * Removes a deleted channel from the cache.
+    *
+    * @param channelId the ID of the deleted channel.
+    * @return the last known state of the channel, or {@code null} if it was unknown.
+    */
+   public ChannelState remove(int channelId) {
+      return channels.remove(channelId);
+   }
+
+   private static int parseInt(String value) {
+      try {
+         return value == null ? 0 : Integer.parseInt(value);
+      } catch (NumberFormatException e) {
+         return 0;
+      }
+   }
+}
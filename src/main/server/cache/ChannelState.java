@@ -0,0 +1,74 @@
+package main.server.cache;
+
+import com.github.theholywaffle.teamspeak3.api.wrapper.ChannelBase;
+
+/**
+ * Immutable snapshot of the metadata of a single channel as known to the bot.
+ */
+public final class ChannelState {
+
+   private final int id;
+   private final String name;
+   private final int parentId;
+   private final int order;
+
+   ChannelState(int id, String name, int parentId, int order) {
+      this.id = id;
+      this.name = name;
+      this.parentId = parentId;
+      this.order = order;
+   }
+
+   /**
+    * Creates a {@link ChannelState} from a channel returned by the server.
+    *
+    * @param id the ID of the channel.
+    * @param channel the {@link ChannelBase} returned by the server.
+    * @return the state of the channel.
+    */
+   public static ChannelState fromChannel(int id, ChannelBase channel) {
+      return new ChannelState(id, channel.getName(), channel.getParentChannelId(),
+          channel.getOrder());
+   }
+
+   /**
+    * @return a copy of this state with the given name.
+    */
+   public ChannelState withName(String name) {
+      return new ChannelState(id, name, parentId, order);
+   }
+
+   /**
+    * @return a copy of this state at the given position in the channel tree.
+    */
+   public ChannelState withPosition(int parentId, int order) {
+      return new ChannelState(id, name, parentId, order);
+   }
+
+   public int getId() {
+      return id;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * @return the ID of the parent channel, or {@code 0} for a top-level channel.
+    */
+   public int getParentId() {
+      return parentId;
+   }
+
+   /**
+    * @return the ID of the channel this channel is sorted below, or {@code 0} if it is first.
+    */
+   public int getOrder() {
+      return order;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%s (%s)", name, id);
+   }
+}
@@ -0,0 +1,221 @@
+package main.server.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Search index over the nicknames and unique identifiers of connected clients, answering lookups
+ * by name or UID without a query round trip.
+ *
+ * <p>Nicknames are kept lowercased in a sorted array, so exact and prefix matches are a binary
+ * search followed by a short scan, and substring matches are a single pass over the precomputed
+ * lowercase names. UIDs are kept in a second sorted array. Like the {@link ClientRegistry}, the
+ * arrays are never modified once published: writers serialize on the index and publish a copy
+ * with their change applied, so searches never lock.</p>
+ */
+public class ClientIndex {
+
+   private static final int[] NONE = new int[0];
+
+   private volatile Entries names = Entries.EMPTY;
+   private volatile Entries uniqueIdentifiers = Entries.EMPTY;
+
+   /**
+    * Replaces every entry of the index in one step.
+    *
+    * @param states the clients to index.
+    */
+   public synchronized void replaceAll(Collection<ClientState> states) {
+      final String[] nameKeys = new String[states.size()];
+      final String[] uidKeys = new String[states.size()];
+      final int[] ids = new int[states.size()];
+
+      int i = 0;
+      for (ClientState state : states) {
+         nameKeys[i] = fold(state.getNickname());
+         uidKeys[i] = uid(state);
+         ids[i] = state.getId();
+         i++;
+      }
+      names = Entries.sorted(nameKeys, ids);
+      uniqueIdentifiers = Entries.sorted(uidKeys, ids);
+   }
+
+   /**
+    * Applies a change of a client to the index. A join has no previous state, a leave has no
+    * current state.
+    *
+    * @param previous the state of the client before the change, or {@code null}.
+    * @param current the state of the client after the change, or {@code null}.
+    */
+   public synchronized void update(ClientState previous, ClientState current) {
+      if (previous != null && current != null && previous.getId() == current.getId()
+          && fold(previous.getNickname()).equals(fold(current.getNickname()))
+          && uid(previous).equals(uid(current))) {
+         return;
+      }
+
+      Entries nameEntries = names;
+      Entries uidEntries = uniqueIdentifiers;
+      if (previous != null) {
+         nameEntries = nameEntries.without(fold(previous.getNickname()), previous.getId());
+         uidEntries = uidEntries.without(uid(previous), previous.getId());
+      }
+      if (current != null) {
+         nameEntries = nameEntries.with(fold(current.getNickname()), current.getId());
+         uidEntries = uidEntries.with(uid(current), current.getId());
+      }
+      names = nameEntries;
+      uniqueIdentifiers = uidEntries;
+   }
+
+   /**
+    * Finds clients by nickname, ignoring case.
+    *
+    * @param term the search term.
+    * @param match how the term is compared to nicknames.
+    * @return the IDs of the matching clients, ordered by nickname.
+    */
+   public int[] findByNickname(String term, NameMatch match) {
+      final Entries entries = names;
+      final String key = fold(term);
+
+      if (match == NameMatch.SUBSTRING) {
+         int[] found = new int[8];
+         int count = 0;
+         for (int i = 0; i < entries.size; i++) {
+            if (entries.keys[i].contains(key)) {
+               if (count == found.length) {
+                  found = Arrays.copyOf(found, count * 2);
+               }
+               found[count++] = entries.ids[i];
+            }
+         }
+         return count == 0 ? NONE : Arrays.copyOf(found, count);
+      }
+
+      final int start = entries.lowerBound(key, Integer.MIN_VALUE);
+      int end = start;
+      while (end < entries.size && (match == NameMatch.EXACT ? entries.keys[end].equals(key)
+          : entries.keys[end].startsWith(key))) {
+         end++;
+      }
+      return start == end ? NONE : Arrays.copyOfRange(entries.ids, start, end);
+   }
+
+   /**
+    * Finds the connections of a client identity.
+    *
+    * @param uniqueIdentifier the unique identifier, compared exactly.
+    * @return the IDs of the clients connected with the unique identifier.
+    */
+   public int[] findByUniqueIdentifier(String uniqueIdentifier) {
+      final Entries entries = uniqueIdentifiers;
+      final int start = entries.lowerBound(uniqueIdentifier, Integer.MIN_VALUE);
+      int end = start;
+      while (end < entries.size && entries.keys[end].equals(uniqueIdentifier)) {
+         end++;
+      }
+      return start == end ? NONE : Arrays.copyOfRange(entries.ids, start, end);
+   }
+
+   /**
+    * @return the number of indexed clients.
+    */
+   public int size() {
+      return names.size;
+   }
+
+   private static String fold(String name) {
+      return name != null ? name.toLowerCase(Locale.ROOT) : "";
+   }
+
+   private static String uid(ClientState state) {
+      return state.getUniqueIdentifier() != null ? state.getUniqueIdentifier() : "";
+   }
+
+   /**
+    * Immutable once published: keys and client IDs sorted by key, then ID.
+    */
+   private static final class Entries {
+
+      private static final Entries EMPTY = new Entries(new String[0], NONE);
+
+      private final String[] keys;
+      private final int[] ids;
+      private final int size;
+
+      private Entries(String[] keys, int[] ids) {
+         this.keys = keys;
+         this.ids = ids;
+         this.size = keys.length;
+      }
+
+      private static Entries sorted(String[] keys, int[] ids) {
+         final Integer[] order = new Integer[keys.length];
+         for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+         }
+         Arrays.sort(order, (a, b) -> {
+            final int byKey = keys[a].compareTo(keys[b]);
+            return byKey != 0 ? byKey : Integer.compare(ids[a], ids[b]);
+         });
+
+         final String[] sortedKeys = new String[keys.length];
+         final int[] sortedIds = new int[keys.length];
+         for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedIds[i] = ids[order[i]];
+         }
+         return new Entries(sortedKeys, sortedIds);
+      }
+
+      /**
+       * @return the position of the first entry not ordered before the given key and ID.
+       */
+      private int lowerBound(String key, int id) {
+         int low = 0;
+         int high = size;
+         while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int byKey = keys[mid].compareTo(key);
+            if (byKey < 0 || byKey == 0 && ids[mid] < id) {
+               low = mid + 1;
+            } else {
+               high = mid;
+            }
+         }
+         return low;
+      }
+
+      private Entries with(String key, int id) {
+         final int at = lowerBound(key, id);
+         final String[] newKeys = new String[size + 1];
+         final int[] newIds = new int[size + 1];
+
+         System.arraycopy(keys, 0, newKeys, 0, at);
+         System.arraycopy(ids, 0, newIds, 0, at);
+         newKeys[at] = key;
+         newIds[at] = id;
+         System.arraycopy(keys, at, newKeys, at + 1, size - at);
+         System.arraycopy(ids, at, newIds, at + 1, size - at);
+         return new Entries(newKeys, newIds);
+      }
+
+      private Entries without(String key, int id) {
+         final int at = lowerBound(key, id);
+         if (at == size || ids[at] != id || !keys[at].equals(key)) {
+            return this;
+         }
+
+         final String[] newKeys = new String[size - 1];
+         final int[] newIds = new int[size - 1];
+         System.arraycopy(keys, 0, newKeys, 0, at);
+         System.arraycopy(ids, 0, newIds, 0, at);
+         System.arraycopy(keys, at + 1, newKeys, at, size - at - 1);
+         System.arraycopy(ids, at + 1, newIds, at, size - at - 1);
+         return new Entries(newKeys, newIds);
+      }
+   }
+}
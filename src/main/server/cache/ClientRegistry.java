@@ -0,0 +1,227 @@
+package main.server.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe registry of {@link ClientState}s keyed by primitive client ID.
+ *
+ * <p>Entries are held in an open-addressing table that is never modified once published. Writers
+ * serialize on the registry, copy the table, apply their change and publish the copy through a
+ * volatile field. Readers therefore never lock, never see a half-applied write and can iterate a
+ * snapshot that stays consistent even while the registry is being rebuilt. Copying is cheap at the
+ * rate the server sends client events, even with thousands of clients connected.</p>
+ */
+public class ClientRegistry {
+
+   private static final int MIN_CAPACITY = 16;
+
+   private volatile Table table = new Table(MIN_CAPACITY);
+
+   /**
+    * @return the state stored for the given client ID, or {@code null} if there is none.
+    */
+   public ClientState get(int clientId) {
+      return table.get(clientId);
+   }
+
+   /**
+    * @return whether or not a state is stored for the given client ID.
+    */
+   public boolean contains(int clientId) {
+      return table.get(clientId) != null;
+   }
+
+   /**
+    * Adds or replaces the state of a client.
+    *
+    * @param state the new state.
+    * @return the previous state of the client, or {@code null} if there was none.
+    */
+   public synchronized ClientState put(ClientState state) {
+      Table current = table;
+      ClientState previous = current.get(state.getId());
+      Table copy = current.copyFor(current.size + (previous == null ? 1 : 0));
+
+      copy.insert(state);
+      table = copy;
+      return previous;
+   }
+
+   /**
+    * Removes the state of a client.
+    *
+    * @param clientId the ID of the client.
+    * @return the removed state, or {@code null} if there was none.
+    */
+   public synchronized ClientState remove(int clientId) {
+      Table current = table;
+      ClientState previous = current.get(clientId);
+
+      if (previous != null) {
+         Table copy = new Table(Table.capacityFor(current.size - 1));
+         for (ClientState state : current.values) {
+            if (state != null && state.getId() != clientId) {
+               copy.insert(state);
+            }
+         }
+         table = copy;
+      }
+      return previous;
+   }
+
+   /**
+    * Atomically replaces the state of a client that is already registered.
+    *
+    * @param clientId the ID of the client.
+    * @param update the function deriving the new state from the current one.
+    * @return the new state, or {@code null} if the client is not registered.
+    */
+   public synchronized ClientState update(int clientId, UnaryOperator<ClientState> update) {
+      Table current = table;
+      ClientState previous = current.get(clientId);
+
+      if (previous == null) {
+         return null;
+      }
+
+      ClientState updated = update.apply(previous);
+      Table copy = current.copyFor(current.size);
+      copy.insert(updated);
+      table = copy;
+      return updated;
+   }
+
+   /**
+    * Replaces every entry of the registry in one step. Readers see either the old or the new
+    * contents, never a mix of both.
+    *
+    * @param states the complete new contents of the registry.
+    */
+   public void replaceAll(List<ClientState> states) {
+      Table rebuilt = new Table(Table.capacityFor(states.size()));
+      for (ClientState state : states) {
+         rebuilt.insert(state);
+      }
+
+      synchronized (this) {
+         table = rebuilt;
+      }
+   }
+
+   /**
+    * Returns a consistent snapshot of the registry.
+    *
+    * @param includeServerQuery whether or not ServerQuery clients should be included.
+    * @return the registered states at a single point in time.
+    */
+   public List<ClientState> snapshot(boolean includeServerQuery) {
+      Table current = table;
+      List<ClientState> result = new ArrayList<>(current.size);
+
+      for (ClientState state : current.values) {
+         if (state != null && (includeServerQuery || !state.isServerQuery())) {
+            result.add(state);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * @return the number of registered clients.
+    */
+   public int size() {
+      return table.size;
+   }
+
+   /**
+    * @return the number of registered clients that are ServerQuery connections.
+    */
+   public int serverQueryCount() {
+      return table.serverQueryCount;
+   }
+
+   /**
+    * Immutable once published: an open-addressing hash table with linear probing.
+    */
+   private static final class Table {
+
+      private final int[] keys;
+      private final ClientState[] values;
+      private final int mask;
+      private int size;
+      private int serverQueryCount;
+
+      private Table(int capacity) {
+         keys = new int[capacity];
+         values = new ClientState[capacity];
+         mask = capacity - 1;
+      }
+
+      private static int capacityFor(int entries) {
+         int capacity = MIN_CAPACITY;
+         while (capacity < entries * 2) {
+            capacity <<= 1;
+         }
+         return capacity;
+      }
+
+      private static int slot(int key, int mask) {
+         int hash = key * 0x9E3779B9;
+         return (hash ^ (hash >>> 16)) & mask;
+      }
+
+      private ClientState get(int key) {
+         for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            ClientState value = values[i];
+            if (value == null) {
+               return null;
+            }
+            if (keys[i] == key) {
+               return value;
+            }
+         }
+      }
+
+      private Table copyFor(int entries) {
+         if (capacityFor(entries) != keys.length) {
+            Table resized = new Table(capacityFor(entries));
+            for (ClientState state : values) {
+               if (state != null) {
+                  resized.insert(state);
+               }
+            }
+            return resized;
+         }
+
+         Table copy = new Table(keys.length);
+         System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+         System.arraycopy(values, 0, copy.values, 0, values.length);
+         copy.size = size;
+         copy.serverQueryCount = serverQueryCount;
+         return copy;
+      }
+
+      private void insert(ClientState state) {
+         final int key = state.getId();
+
+         for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            ClientState existing = values[i];
+            if (existing == null) {
+               keys[i] = key;
+               values[i] = state;
+               size++;
+               serverQueryCount += state.isServerQuery() ? 1 : 0;
+               return;
+            }
+            if (keys[i] == key) {
+               values[i] = state;
+               serverQueryCount += (state.isServerQuery() ? 1 : 0)
+                   - (existing.isServerQuery() ? 1 : 0);
+               return;
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,186 @@
+package main.server.cache;
+
+import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a single connected client as known to the bot. New states are derived
+ * from the previous one whenever an event changes the client, so readers never see a partially
+ * updated client.
+ */
+public final class ClientState {
+
+   private static final int[] NO_GROUPS = new int[0];
+
+   private final int id;
+   private final int databaseId;
+   private final String uniqueIdentifier;
+   private final String nickname;
+   private final int channelId;
+   private final int[] serverGroups;
+   private final long lastActiveMillis;
+   private final boolean serverQuery;
+
+   private ClientState(int id, int databaseId, String uniqueIdentifier, String nickname,
+       int channelId, int[] serverGroups, long lastActiveMillis, boolean serverQuery) {
+      this.id = id;
+      this.databaseId = databaseId;
+      this.uniqueIdentifier = uniqueIdentifier;
+      this.nickname = nickname;
+      this.channelId = channelId;
+      this.serverGroups = serverGroups;
+      this.lastActiveMillis = lastActiveMillis;
+      this.serverQuery = serverQuery;
+   }
+
+   /**
+    * Creates a {@link ClientState} from an entry of the bulk client list.
+    *
+    * @param client the {@link Client} returned by the server.
+    * @param now the time in milliseconds at which the client list was received.
+    * @return the state of the client at the time of the snapshot.
+    */
+   public static ClientState fromClient(Client client, long now) {
+      return new ClientState(client.getId(), client.getDatabaseId(),
+          client.getUniqueIdentifier(), client.getNickname(), client.getChannelId(),
+          client.getServerGroups(), now - client.getIdleTime(), client.isServerQueryClient());
+   }
+
+   /**
+    * Creates a {@link ClientState} from the properties sent along with a {@link ClientJoinEvent}.
+    *
+    * @param event the event fired when the client connected.
+    * @param now the time in milliseconds at which the event was received.
+    * @return the state of the newly connected client.
+    */
+   public static ClientState fromJoinEvent(ClientJoinEvent event, long now) {
+      return new ClientState(event.getClientId(), event.getClientDatabaseId(),
+          event.getUniqueClientIdentifier(), event.getClientNickname(),
+          event.getClientTargetId(), parseServerGroups(event.getClientServerGroups()), now,
+          event.getClientType() == 1 || event.getUniqueClientIdentifier().contains("Query"));
+   }
+
+   /**
+    * @return a copy of this state with the given channel.
+    */
+   public ClientState withChannel(int channelId) {
+      return new ClientState(id, databaseId, uniqueIdentifier, nickname, channelId, serverGroups,
+          lastActiveMillis, serverQuery);
+   }
+
+   /**
+    * @return a copy of this state with the given nickname.
+    */
+   public ClientState withNickname(String nickname) {
+      return new ClientState(id, databaseId, uniqueIdentifier, nickname, channelId, serverGroups,
+          lastActiveMillis, serverQuery);
+   }
+
+   /**
+    * @return a copy of this state with the given server groups.
+    */
+   public ClientState withServerGroups(int[] serverGroups) {
+      return new ClientState(id, databaseId, uniqueIdentifier, nickname, channelId,
+          serverGroups.clone(), lastActiveMillis, serverQuery);
+   }
+
+   /**
+    * @return a copy of this state marked as active at the given time.
+    */
+   public ClientState withActivity(long now) {
+      return new ClientState(id, databaseId, uniqueIdentifier, nickname, channelId, serverGroups,
+          now, serverQuery);
+   }
+
+   public int getId() {
+      return id;
+   }
+
+   public int getDatabaseId() {
+      return databaseId;
+   }
+
+   public String getUniqueIdentifier() {
+      return uniqueIdentifier;
+   }
+
+   public String getNickname() {
+      return nickname;
+   }
+
+   public int getChannelId() {
+      return channelId;
+   }
+
+   /**
+    * @return a copy of the IDs of the server groups the client belongs to.
+    */
+   public int[] getServerGroups() {
+      return serverGroups.clone();
+   }
+
+   /**
+    * @return whether or not the client belongs to the given server group.
+    */
+   public boolean isInServerGroup(int groupId) {
+      for (int serverGroup : serverGroups) {
+         if (serverGroup == groupId) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return the last time in milliseconds at which the client was known to be active.
+    */
+   public long getLastActiveMillis() {
+      return lastActiveMillis;
+   }
+
+   /**
+    * Returns the estimated idle time of the client. Voice activity is not reported through events,
+    * so the real idle time may be lower than this estimate, but never higher.
+    *
+    * @param now the current time in milliseconds.
+    * @return the estimated idle time in milliseconds.
+    */
+   public long getIdleTime(long now) {
+      return Math.max(0, now - lastActiveMillis);
+   }
+
+   /**
+    * @return whether or not the client is a ServerQuery connection rather than a real user.
+    */
+   public boolean isServerQuery() {
+      return serverQuery;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%s : %s : %s : %s", id, nickname, uniqueIdentifier,
+          Arrays.toString(serverGroups));
+   }
+
+   private static int[] parseServerGroups(String groups) {
+      if (groups == null || groups.isEmpty()) {
+         return NO_GROUPS;
+      }
+
+      String[] split = groups.split(",");
+      int[] parsed = new int[split.length];
+      int count = 0;
+
+      for (String group : split) {
+         try {
+            parsed[count] = Integer.parseInt(group.trim());
+            count++;
+         } catch (NumberFormatException e) {
+            //Skip malformed entries rather than dropping the whole client.
+         }
+      }
+
+      return count == parsed.length ? parsed : Arrays.copyOf(parsed, count);
+   }
+}
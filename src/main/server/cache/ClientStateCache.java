@@ -0,0 +1,275 @@
+package main.server.cache;
+
+import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory store of every client connected to the server. The cache is filled once from the bulk
+ * client list when the connection is established and is afterwards kept up to date from join,
+ * leave, move and message events, so that handlers and commands do not need a query round trip to
+ * look up a client. Storage is delegated to a {@link ClientRegistry}, so lookups never block and
+ * listings are consistent snapshots. Nicknames and unique identifiers are additionally kept in a
+ * {@link ClientIndex}, so clients can be searched by name without a query round trip.
+ */
+public class ClientStateCache {
+
+   private final ClientRegistry clients = new ClientRegistry();
+   private final ClientIndex index = new ClientIndex();
+
+   /**
+    * Replaces the contents of the cache with the given client list.
+    *
+    * @param onlineClients every client currently connected to the server.
+    */
+   public void rebuild(List<Client> onlineClients) {
+      final long now = System.currentTimeMillis();
+      List<ClientState> states = new ArrayList<>(onlineClients.size());
+
+      for (Client client : onlineClients) {
+         states.add(ClientState.fromClient(client, now));
+      }
+      synchronized (index) {
+         clients.replaceAll(states);
+         index.replaceAll(states);
+      }
+   }
+
+   /**
+    * Adds or replaces a client in the cache.
+    *
+    * @param state the new state of the client.
+    */
+   public void put(ClientState state) {
+      synchronized (index) {
+         index.update(clients.put(state), state);
+      }
+   }
+
+   /**
+    * @return the cached state of the client with the given ID, or {@code null} if it is unknown.
+    */
+   public ClientState get(int clientId) {
+      return clients.get(clientId);
+   }
+
+   /**
+    * @return the cached state of the client with the given unique identifier, or {@code null} if
+    * no connected client uses it.
+    */
+   public ClientState getByUniqueIdentifier(String uniqueIdentifier) {
+      final List<ClientState> connections = resolve(index.findByUniqueIdentifier(
+          uniqueIdentifier));
+      return connections.isEmpty() ? null : connections.get(0);
+   }
+
+   /**
+    * Finds clients by nickname, ignoring case.
+    *
+    * @param term the search term.
+    * @param match how the term is compared to nicknames.
+    * @return the matching clients, ordered by nickname.
+    */
+   public List<ClientState> findByNickname(String term, NameMatch match) {
+      return resolve(index.findByNickname(term, match));
+   }
+
+   /**
+    * Finds the clients a command target refers to. A target is tried, in order, as a client ID, a
+    * unique identifier, an exact nickname, a nickname prefix and a part of a nickname; the first
+    * kind with any match wins. Nicknames are compared ignoring case.
+    *
+    * @param target the target as typed by the invoker.
+    * @return the clients the target refers to, or an empty list if it matches none.
+    */
+   public List<ClientState> findTargets(String target) {
+      if (isClientId(target)) {
+         final ClientState state = getByTypedId(target);
+         if (state != null) {
+            return Collections.singletonList(state);
+         }
+      }
+
+      List<ClientState> found = findByIdentity(target);
+      if (found.isEmpty()) {
+         found = findByNickname(target, NameMatch.PREFIX);
+      }
+      if (found.isEmpty()) {
+         found = findByNickname(target, NameMatch.SUBSTRING);
+      }
+      return found;
+   }
+
+   /**
+    * Finds the clients the target of a destructive command refers to. A target made of digits
+    * only ever names a client ID; any other target must be a unique identifier or a complete
+    * nickname, compared ignoring case. Nothing is matched by prefix or part of a nickname, so a
+    * client who just left is never mistaken for another.
+    *
+    * @param target the target as typed by the invoker.
+    * @return the clients the target refers to, or an empty list if it matches none.
+    */
+   public List<ClientState> findExactTargets(String target) {
+      if (isClientId(target)) {
+         final ClientState state = getByTypedId(target);
+         return state != null ? Collections.singletonList(state) : Collections.emptyList();
+      }
+      return findByIdentity(target);
+   }
+
+   /**
+    * Finds clients by unique identifier, or failing that by complete nickname.
+    */
+   private List<ClientState> findByIdentity(String target) {
+      final List<ClientState> found = resolve(index.findByUniqueIdentifier(target));
+      return found.isEmpty() ? findByNickname(target, NameMatch.EXACT) : found;
+   }
+
+   private static boolean isClientId(String target) {
+      return !target.isEmpty() && target.length() <= 10 && target.chars()
+          .allMatch(Character::isDigit);
+   }
+
+   private ClientState getByTypedId(String target) {
+      final long clientId = Long.parseLong(target);
+      return clientId <= Integer.MAX_VALUE ? get((int) clientId) : null;
+   }
+
+   /**
+    * Looks up the current state of indexed clients, skipping any which left in the meantime.
+    */
+   private List<ClientState> resolve(int[] clientIds) {
+      if (clientIds.length == 0) {
+         return Collections.emptyList();
+      }
+
+      final List<ClientState> states = new ArrayList<>(clientIds.length);
+      for (int clientId : clientIds) {
+         final ClientState state = clients.get(clientId);
+         if (state != null) {
+            states.add(state);
+         }
+      }
+      return states;
+   }
+
+   /**
+    * Removes a client from the cache.
+    *
+    * @param clientId the ID of the client that left.
+    * @return the last known state of the client, or {@code null} if it was unknown.
+    */
+   public ClientState remove(int clientId) {
+      synchronized (index) {
+         final ClientState previous = clients.remove(clientId);
+         index.update(previous, null);
+         return previous;
+      }
+   }
+
+   /**
+    * @return every cached client that is not a ServerQuery connection.
+    */
+   public List<ClientState> getClients() {
+      return clients.snapshot(false);
+   }
+
+   /**
+    * @return every cached client, including ServerQuery connections.
+    */
+   public Collection<ClientState> getAll() {
+      return clients.snapshot(true);
+   }
+
+   /**
+    * @return the number of cached clients.
+    */
+   public int size() {
+      return clients.size();
+   }
+
+   /**
+    * Records a newly connected client.
+    *
+    * @return the state added to the cache.
+    */
+   public ClientState onJoin(ClientJoinEvent event) {
+      ClientState state = ClientState.fromJoinEvent(event, System.currentTimeMillis());
+      put(state);
+      return state;
+   }
+
+   /**
+    * Updates the channel of a moved client. A client that moved itself is also marked as active.
+    *
+    * @return the updated state, or {@code null} if the client is unknown.
+    */
+   public ClientState onMove(ClientMovedEvent event) {
+      final int clientId = event.getClientId();
+      final boolean selfMove = event.getInvokerId() == clientId;
+
+      return clients.update(clientId, state -> {
+         ClientState moved = state.withChannel(event.getTargetChannelId());
+         return selfMove ? moved.withActivity(System.currentTimeMillis()) : moved;
+      });
+   }
+
+   /**
+    * Marks the sender of a message as active and picks up nickname changes, which the server does
+    * not announce through a separate event.
+    *
+    * @return the updated state, or {@code null} if the sender is unknown.
+    */
+   public ClientState onTextMessage(TextMessageEvent event) {
+      final String nickname = event.getInvokerName();
+      final ClientState current = clients.get(event.getInvokerId());
+
+      if (current == null || nickname == null || nickname.isEmpty()
+          || nickname.equals(current.getNickname())) {
+         return clients.update(event.getInvokerId(),
+             state -> state.withActivity(System.currentTimeMillis()));
+      }
+
+      synchronized (index) {
+         final ClientState[] previous = new ClientState[1];
+         final ClientState renamed = clients.update(event.getInvokerId(), state -> {
+            previous[0] = state;
+            return state.withActivity(System.currentTimeMillis()).withNickname(nickname);
+         });
+         if (renamed != null) {
+            index.update(previous[0], renamed);
+         }
+         return renamed;
+      }
+   }
+
+   /**
+    * Corrects the activity of cached clients from a freshly fetched client list. The server's idle
+    * time also reflects voice activity, which is not reported through events.
+    *
+    * @param onlineClients the clients currently connected to the server.
+    */
+   public void refreshActivity(List<Client> onlineClients) {
+      final long now = System.currentTimeMillis();
+
+      for (Client client : onlineClients) {
+         final long lastActive = now - client.getIdleTime();
+         clients.update(client.getId(), state -> lastActive > state.getLastActiveMillis()
+             ? state.withActivity(lastActive) : state);
+      }
+   }
+
+   /**
+    * Replaces the server groups of a cached client, e.g. after the bot changed them.
+    *
+    * @return the updated state, or {@code null} if the client is unknown.
+    */
+   public ClientState updateServerGroups(int clientId, int[] serverGroups) {
+      return clients.update(clientId, state -> state.withServerGroups(serverGroups));
+   }
+}
@@ -0,0 +1,19 @@
+package main.server.cache;
+
+/**
+ * How a search term is compared to client nicknames. Comparisons ignore case.
+ */
+public enum NameMatch {
+   /**
+    * The nickname equals the search term.
+    */
+   EXACT,
+   /**
+    * The nickname starts with the search term.
+    */
+   PREFIX,
+   /**
+    * The nickname contains the search term.
+    */
+   SUBSTRING
+}
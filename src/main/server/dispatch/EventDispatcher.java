@@ -0,0 +1,244 @@
+package main.server.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+
+/**
+ * Dispatch stage between the TS3 event listeners and their handlers. Handlers are run on a fixed
+ * pool of worker threads, each of which drains its own bounded queue. Events are assigned to a
+ * queue by client ID, so events for one client are always handled in the order they arrived while
+ * events for different clients are handled in parallel. A slow handler therefore only delays
+ * later events of the same stripe instead of every event on the server.
+ *
+ * <p>When a queue is full, the listener thread blocks until space frees up rather than dropping
+ * events, as lost joins or leaves would corrupt the cached client state.</p>
+ */
+public class EventDispatcher {
+
+   private final List<BlockingQueue<Task>> queues;
+   private final Thread[] workers;
+   private final AtomicLong dispatched = new AtomicLong();
+   private final AtomicLong processed = new AtomicLong();
+   private final AtomicLong failed = new AtomicLong();
+   private final AtomicLong totalLagNanos = new AtomicLong();
+   private final AtomicLong maxLagNanos = new AtomicLong();
+   private final AtomicInteger enqueuing = new AtomicInteger();
+   private volatile long lastLagNanos;
+   private volatile boolean accepting = true;
+   private volatile HandlerTimer timer;
+
+   /**
+    * Creates and starts an {@link EventDispatcher}.
+    *
+    * @param name the name used for the worker threads.
+    * @param stripes the number of worker threads, each with its own queue.
+    * @param queueCapacity the maximum number of pending events per queue.
+    */
+   public EventDispatcher(String name, int stripes, int queueCapacity) {
+      queues = new ArrayList<>(stripes);
+      workers = new Thread[stripes];
+
+      for (int i = 0; i < stripes; i++) {
+         final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+         queues.add(queue);
+         workers[i] = new Thread(() -> work(queue), name + "-" + i);
+         workers[i].setDaemon(true);
+         workers[i].start();
+      }
+   }
+
+   /**
+    * Queues a handler for execution. Handlers sharing a key run one at a time in submission order.
+    *
+    * @param key the ordering key of the event, normally the ID of the client it concerns.
+    * @param handler the handler to run.
+    * @return {@code false} if the dispatcher has been shut down and the handler was not queued.
+    */
+   public boolean dispatch(int key, Runnable handler) {
+      return dispatch(key, null, handler);
+   }
+
+   /**
+    * Queues a handler for execution. Handlers sharing a key run one at a time in submission order.
+    *
+    * @param key the ordering key of the event, normally the ID of the client it concerns.
+    * @param handlerType the type reported to the {@link HandlerTimer}, or {@code null} if the
+    * handler should not be timed.
+    * @param handler the handler to run.
+    * @return {@code false} if the dispatcher has been shut down and the handler was not queued.
+    */
+   public boolean dispatch(int key, Class<?> handlerType, Runnable handler) {
+      //Workers keep running until every dispatch that saw the dispatcher accepting has queued.
+      enqueuing.incrementAndGet();
+      try {
+         if (!accepting) {
+            return false;
+         }
+         queues.get(Math.floorMod(key, queues.size())).put(new Task(handlerType, handler));
+         dispatched.incrementAndGet();
+         return true;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      } finally {
+         enqueuing.decrementAndGet();
+      }
+   }
+
+   /**
+    * Stops accepting new events and waits for the queued ones to be handled.
+    *
+    * @param timeout the maximum time to wait.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if every queued event was handled in time.
+    */
+   public boolean shutdown(long timeout, TimeUnit unit) {
+      accepting = false;
+      final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+      try {
+         for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+               TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+
+      for (Thread worker : workers) {
+         if (worker.isAlive()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Sets the timer told how long each typed handler took to run. Handlers are not timed while no
+    * timer is set.
+    *
+    * @param timer the {@link HandlerTimer}, or {@code null} to stop timing.
+    */
+   public void setHandlerTimer(HandlerTimer timer) {
+      this.timer = timer;
+   }
+
+   /**
+    * @return the number of events dispatched so far.
+    */
+   public long getDispatchedCount() {
+      return dispatched.get();
+   }
+
+   /**
+    * @return the number of handlers that threw an exception so far.
+    */
+   public long getFailedCount() {
+      return failed.get();
+   }
+
+   /**
+    * @return the number of events waiting to be handled across all queues.
+    */
+   public int getQueueDepth() {
+      int depth = 0;
+      for (BlockingQueue<Task> queue : queues) {
+         depth += queue.size();
+      }
+      return depth;
+   }
+
+   /**
+    * @return the number of events handled so far.
+    */
+   public long getProcessedCount() {
+      return processed.get();
+   }
+
+   /**
+    * @return the time in milliseconds the most recently handled event spent queued.
+    */
+   public long getLastLagMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(lastLagNanos);
+   }
+
+   /**
+    * @return the longest time in milliseconds any event spent queued.
+    */
+   public long getMaxLagMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+   }
+
+   /**
+    * @return the average time in milliseconds events spent queued.
+    */
+   public double getAverageLagMillis() {
+      long count = processed.get();
+      return count == 0 ? 0 : totalLagNanos.get() / 1e6 / count;
+   }
+
+   /**
+    * @return a one-line summary of the dispatcher's metrics.
+    */
+   public String getStatusReport() {
+      return String.format("Event dispatch: %s queued, %s dispatched, %s handled, %s failed, "
+              + "lag last/avg/max %s/%.1f/%s ms", getQueueDepth(), dispatched.get(),
+          processed.get(), failed.get(), getLastLagMillis(), getAverageLagMillis(),
+          getMaxLagMillis());
+   }
+
+   private void work(BlockingQueue<Task> queue) {
+      while (accepting || enqueuing.get() > 0 || !queue.isEmpty()) {
+         Task task;
+         try {
+            task = queue.poll(100, TimeUnit.MILLISECONDS);
+         } catch (InterruptedException e) {
+            return;
+         }
+         if (task == null) {
+            continue;
+         }
+
+         final long lag = System.nanoTime() - task.queuedAt;
+         lastLagNanos = lag;
+         totalLagNanos.addAndGet(lag);
+         maxLagNanos.accumulateAndGet(lag, Math::max);
+
+         final HandlerTimer timer = this.timer;
+         final long start = timer != null && task.handlerType != null ? System.nanoTime() : 0;
+         try {
+            task.handler.run();
+            if (start != 0) {
+               timer.record(task.handlerType, System.nanoTime() - start);
+            }
+         } catch (Exception e) {
+            failed.incrementAndGet();
+            new MessageHandler(String.format("Event handler failed: %s", e))
+                .sendToConsoleWith(Level.SEVERE);
+         } finally {
+            processed.incrementAndGet();
+         }
+      }
+   }
+
+   private static final class Task {
+
+      private final Class<?> handlerType;
+      private final Runnable handler;
+      private final long queuedAt = System.nanoTime();
+
+      private Task(Class<?> handlerType, Runnable handler) {
+         this.handlerType = handlerType;
+         this.handler = handler;
+      }
+   }
+}
@@ -0,0 +1,16 @@
+package main.server.dispatch;
+
+/**
+ * Receives the run time of every handler run by an {@link EventDispatcher}.
+ */
+@FunctionalInterface
+public interface HandlerTimer {
+
+   /**
+    * Records the run time of a handler. Called on the worker thread which ran the handler.
+    *
+    * @param handlerType the type the handler was dispatched with.
+    * @param nanos the time the handler took to run, in nanoseconds.
+    */
+   void record(Class<?> handlerType, long nanos);
+}
@@ -0,0 +1,298 @@
+package main.server.journal;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+
+/**
+ * Append-only journal of client events, written as one line per event:
+ *
+ * <pre>{@code <epoch millis> TAB <type> TAB <field> TAB <field> ...}</pre>
+ *
+ * <p>Tabs, line breaks and backslashes inside fields are escaped as {@code \t}, {@code \n},
+ * {@code \r} and {@code \\}. The fields of each type are listed on {@link JournalEventType}.</p>
+ *
+ * <p>Handlers only queue events. A single writer thread appends everything queued since its last
+ * write in one go and flushes once per batch, so the file is opened once per segment rather than
+ * once per event. A new file is started once the current one exceeds the size limit or the
+ * rotation interval, whichever comes first. Files are named after the time they were started.</p>
+ */
+public class EventJournal {
+
+   private static final int QUEUE_CAPACITY = 8192;
+   private static final int MAX_BATCH = 1024;
+   private static final int WRITE_BUFFER_SIZE = 1 << 16;
+   private static final Entry CLOSE = new Entry(0, null, null);
+
+   private final File directory;
+   private final String name;
+   private final long maxFileBytes;
+   private final long rotateIntervalMillis;
+   private final LongSupplier clock;
+   private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+   private final SimpleDateFormat fileDateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
+   private final AtomicLong eventsWritten = new AtomicLong();
+   private final AtomicLong batchesWritten = new AtomicLong();
+   private final Thread writerThread;
+   private volatile boolean closed;
+   private Writer writer;
+   private volatile File currentFile;
+   private long fileBytes;
+   private long fileStartedAt;
+
+   /**
+    * Creates a journal and starts its writer thread. The first file is created with the first
+    * event.
+    *
+    * @param directory the directory the journal files are written to.
+    * @param name the prefix of the journal file names.
+    * @param maxFileBytes the approximate size after which a new file is started, or 0 for no limit.
+    * @param rotateIntervalMillis the age after which a new file is started, or 0 for no limit.
+    */
+   public EventJournal(File directory, String name, long maxFileBytes, long rotateIntervalMillis) {
+      this(directory, name, maxFileBytes, rotateIntervalMillis, System::currentTimeMillis);
+   }
+
+   EventJournal(File directory, String name, long maxFileBytes, long rotateIntervalMillis,
+       LongSupplier clock) {
+      this.directory = directory;
+      this.name = name;
+      this.maxFileBytes = maxFileBytes;
+      this.rotateIntervalMillis = rotateIntervalMillis;
+      this.clock = clock;
+      this.writerThread = new Thread(this::run, "event-journal-" + name);
+      this.writerThread.setDaemon(true);
+      this.writerThread.start();
+   }
+
+   /**
+    * Queues an event for the journal. Blocks only while the queue is full.
+    *
+    * @param type the type of the event.
+    * @param fields the fields of the event, in the order documented on the type. Fields are
+    * converted to text on the writer thread, so they must not be modified afterwards.
+    * @return {@code false} if the journal has been closed.
+    */
+   public boolean record(JournalEventType type, Object... fields) {
+      if (closed) {
+         return false;
+      }
+      try {
+         queue.put(new Entry(clock.getAsLong(), type, fields));
+         return true;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+
+   /**
+    * Stops accepting events and waits for the queued ones to be written.
+    *
+    * @param timeout the maximum time to wait.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if every queued event was written in time.
+    */
+   public boolean close(long timeout, TimeUnit unit) {
+      closed = true;
+      try {
+         if (!queue.offer(CLOSE, timeout, unit)) {
+            return false;
+         }
+         unit.timedJoin(writerThread, timeout);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      return !writerThread.isAlive();
+   }
+
+   /**
+    * @return the number of events written so far.
+    */
+   public long getEventsWritten() {
+      return eventsWritten.get();
+   }
+
+   /**
+    * @return the number of batches written so far, each of which was flushed once.
+    */
+   public long getBatchesWritten() {
+      return batchesWritten.get();
+   }
+
+   /**
+    * @return the file currently being appended to, or {@code null} if none is open.
+    */
+   public File getCurrentFile() {
+      return currentFile;
+   }
+
+   private void run() {
+      final List<Entry> batch = new ArrayList<>(MAX_BATCH);
+      final StringBuilder line = new StringBuilder(256);
+      char[] chars = new char[256];
+      boolean running = true;
+
+      while (running) {
+         try {
+            batch.add(queue.take());
+         } catch (InterruptedException e) {
+            break;
+         }
+         queue.drainTo(batch, MAX_BATCH - 1);
+
+         try {
+            int written = 0;
+            for (Entry entry : batch) {
+               if (entry == CLOSE) {
+                  running = false;
+                  break;
+               }
+               rotateIfNeeded(entry.time);
+
+               line.setLength(0);
+               format(entry, line);
+               if (chars.length < line.length()) {
+                  chars = new char[line.length() * 2];
+               }
+               line.getChars(0, line.length(), chars, 0);
+               writer.write(chars, 0, line.length());
+               fileBytes += utf8Length(line);
+               written++;
+            }
+            if (writer != null) {
+               writer.flush();
+            }
+            eventsWritten.addAndGet(written);
+            batchesWritten.incrementAndGet();
+         } catch (IOException e) {
+            new MessageHandler(String.format("Could not write to event journal %s: %s",
+                currentFile, e.getMessage())).sendToConsoleWith(Level.WARNING);
+            closeFile();
+            //The entries after the failed one are dropped, but a close request must not be.
+            if (batch.contains(CLOSE)) {
+               running = false;
+            }
+         }
+         batch.clear();
+      }
+      closeFile();
+   }
+
+   private void rotateIfNeeded(long time) throws IOException {
+      if (writer != null
+          && (maxFileBytes <= 0 || fileBytes < maxFileBytes)
+          && (rotateIntervalMillis <= 0 || time - fileStartedAt < rotateIntervalMillis)) {
+         return;
+      }
+      closeFile();
+
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+         throw new IOException("cannot create directory " + directory);
+      }
+      final String baseName = name + "-" + fileDateFormat.format(time);
+      File file = new File(directory, baseName + ".journal");
+      for (int i = 1; file.exists(); i++) {
+         file = new File(directory, baseName + "-" + i + ".journal");
+      }
+
+      writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+          StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+      currentFile = file;
+      fileBytes = 0;
+      fileStartedAt = time;
+   }
+
+   private void closeFile() {
+      if (writer != null) {
+         try {
+            writer.close();
+         } catch (IOException e) {
+            //The writer is discarded either way.
+         }
+         writer = null;
+      }
+   }
+
+   /**
+    * Returns the number of bytes a line takes up once encoded as UTF-8.
+    */
+   static int utf8Length(CharSequence line) {
+      int bytes = 0;
+      for (int i = 0; i < line.length(); i++) {
+         final char c = line.charAt(i);
+         if (c < 0x80) {
+            bytes++;
+         } else if (c < 0x800) {
+            bytes += 2;
+         } else if (Character.isHighSurrogate(c) && i + 1 < line.length()
+             && Character.isLowSurrogate(line.charAt(i + 1))) {
+            bytes += 4;
+            i++;
+         } else {
+            bytes += 3;
+         }
+      }
+      return bytes;
+   }
+
+   private static void format(Entry entry, StringBuilder line) {
+      line.append(entry.time).append('\t').append(entry.type.name());
+      for (Object field : entry.fields) {
+         line.append('\t');
+         if (field != null) {
+            escape(field.toString(), line);
+         }
+      }
+      line.append('\n');
+   }
+
+   private static void escape(String value, StringBuilder line) {
+      for (int i = 0; i < value.length(); i++) {
+         final char c = value.charAt(i);
+         switch (c) {
+            case '\t':
+               line.append("\\t");
+               break;
+            case '\n':
+               line.append("\\n");
+               break;
+            case '\r':
+               line.append("\\r");
+               break;
+            case '\\':
+               line.append("\\\\");
+               break;
+            default:
+               line.append(c);
+         }
+      }
+   }
+
+   private static final class Entry {
+
+      private final long time;
+      private final JournalEventType type;
+      private final Object[] fields;
+
+      private Entry(long time, JournalEventType type, Object[] fields) {
+         this.time = time;
+         this.type = type;
+         this.fields = fields;
+      }
+   }
+}
@@ -0,0 +1,42 @@
+package main.server.journal;
+
+/**
+ * The kinds of events recorded in the {@link EventJournal}, along with the fields each one
+ * carries after its time stamp and type.
+ */
+public enum JournalEventType {
+
+   /**
+    * A client connected: client ID, unique ID, nickname, channel ID.
+    */
+   JOIN,
+
+   /**
+    * A client disconnected: client ID, unique ID, nickname, reason.
+    */
+   LEAVE,
+
+   /**
+    * A client was kicked from the server: client ID, unique ID, nickname, invoker unique ID,
+    * invoker nickname, reason.
+    */
+   KICK,
+
+   /**
+    * A client was banned: client ID, unique ID, nickname, invoker unique ID, invoker nickname,
+    * reason, ban length in seconds.
+    */
+   BAN,
+
+   /**
+    * A client switched channels: client ID, unique ID, nickname, channel ID, invoker unique ID,
+    * invoker nickname. The invoker fields are empty if the client moved itself.
+    */
+   MOVE,
+
+   /**
+    * A text message was sent: invoker ID, invoker unique ID, invoker nickname, target mode,
+    * message.
+    */
+   CHAT
+}
@@ -0,0 +1,50 @@
+package main.server.listeners;
+
+import com.github.theholywaffle.teamspeak3.api.event.ChannelCreateEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelDeletedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelEditedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import main.server.ServerConnectionManager;
+import main.server.listeners.handlers.ChannelHandler;
+
+/**
+ * Custom implementation of the events which change the channels of the server.
+ */
+public class ChannelListener extends TS3EventAdapter {
+
+   private final ServerConnectionManager instance;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    */
+   public ChannelListener(ServerConnectionManager instance) {
+      this.instance = instance;
+   }
+
+   @Override
+   public void onChannelCreate(ChannelCreateEvent createEvent) {
+      instance.getEventDispatcher().dispatch(createEvent.getChannelId(), ChannelHandler.class,
+          () -> new ChannelHandler(instance, createEvent));
+   }
+
+   @Override
+   public void onChannelEdit(ChannelEditedEvent editedEvent) {
+      instance.getEventDispatcher().dispatch(editedEvent.getChannelId(), ChannelHandler.class,
+          () -> new ChannelHandler(instance, editedEvent));
+   }
+
+   @Override
+   public void onChannelMoved(ChannelMovedEvent movedEvent) {
+      instance.getEventDispatcher().dispatch(movedEvent.getChannelId(), ChannelHandler.class,
+          () -> new ChannelHandler(instance, movedEvent));
+   }
+
+   @Override
+   public void onChannelDeleted(ChannelDeletedEvent deletedEvent) {
+      instance.getEventDispatcher().dispatch(deletedEvent.getChannelId(), ChannelHandler.class,
+          () -> new ChannelHandler(instance, deletedEvent));
+   }
+}
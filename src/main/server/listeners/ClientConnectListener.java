@@ -2,6 +2,7 @@ package main.server.listeners;
 
 import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
 import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import main.server.ServerConnectionManager;
 import main.server.listeners.handlers.ClientJoinHandler;
 
 /**
@@ -9,14 +10,27 @@ import main.server.listeners.handlers.ClientJoinHandler;
  */
 public class ClientConnectListener extends TS3EventAdapter {
 
-   private boolean consoleLoggingOn = false;
-   private boolean fileLoggingOn = false;
+   private final ServerConnectionManager instance;
+   private final boolean consoleLoggingOn;
+   private final boolean fileLoggingOn;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    * @param consoleLogging whether or not events should be logged to the console.
+    * @param fileLogging whether or not events should be logged to the event journal.
+    */
+   public ClientConnectListener(ServerConnectionManager instance, boolean consoleLogging,
+       boolean fileLogging) {
+      this.instance = instance;
+      this.consoleLoggingOn = consoleLogging;
+      this.fileLoggingOn = fileLogging;
+   }
 
    @Override
    public void onClientJoin(ClientJoinEvent newClient) {
-      consoleLoggingOn = true;
-      fileLoggingOn = false;
-
-      new ClientJoinHandler(newClient, consoleLoggingOn, fileLoggingOn);
+      instance.getEventDispatcher().dispatch(newClient.getClientId(), ClientJoinHandler.class,
+          () -> new ClientJoinHandler(instance, newClient, consoleLoggingOn, fileLoggingOn));
    }
 }
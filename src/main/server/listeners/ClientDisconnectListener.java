@@ -2,18 +2,33 @@ package main.server.listeners;
 
 import com.github.theholywaffle.teamspeak3.api.event.ClientLeaveEvent;
 import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import main.server.ServerConnectionManager;
 import main.server.listeners.handlers.ClientDisconnectHandler;
 
 public class ClientDisconnectListener extends TS3EventAdapter {
 
-   private boolean consoleLoggingOn = false;
-   private boolean fileLoggingOn = false;
+   private final ServerConnectionManager instance;
+   private final boolean consoleLoggingOn;
+   private final boolean fileLoggingOn;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    * @param consoleLogging whether or not events should be logged to the console.
+    * @param fileLogging whether or not events should be logged to the event journal.
+    */
+   public ClientDisconnectListener(ServerConnectionManager instance, boolean consoleLogging,
+       boolean fileLogging) {
+      this.instance = instance;
+      this.consoleLoggingOn = consoleLogging;
+      this.fileLoggingOn = fileLogging;
+   }
 
    @Override
    public void onClientLeave(ClientLeaveEvent disconnectEvent) {
-      this.consoleLoggingOn = true; //TODO Add config.
-      this.fileLoggingOn = false; //TODO Add config.
-
-      new ClientDisconnectHandler(disconnectEvent, consoleLoggingOn, fileLoggingOn);
+      instance.getEventDispatcher().dispatch(disconnectEvent.getClientId(),
+          ClientDisconnectHandler.class, () -> new ClientDisconnectHandler(instance,
+              disconnectEvent, consoleLoggingOn, fileLoggingOn));
    }
 }
@@ -2,6 +2,7 @@ package main.server.listeners;
 
 import com.github.theholywaffle.teamspeak3.api.event.ClientMovedEvent;
 import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import main.server.ServerConnectionManager;
 import main.server.listeners.handlers.ClientMovedHandler;
 
 /**
@@ -9,14 +10,27 @@ import main.server.listeners.handlers.ClientMovedHandler;
  */
 public class ClientMovedListener extends TS3EventAdapter {
 
-   private boolean consoleLoggingOn = false;
-   private boolean fileLoggingOn = false;
+   private final ServerConnectionManager instance;
+   private final boolean consoleLoggingOn;
+   private final boolean fileLoggingOn;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    * @param consoleLogging whether or not events should be logged to the console.
+    * @param fileLogging whether or not events should be logged to the event journal.
+    */
+   public ClientMovedListener(ServerConnectionManager instance, boolean consoleLogging,
+       boolean fileLogging) {
+      this.instance = instance;
+      this.consoleLoggingOn = consoleLogging;
+      this.fileLoggingOn = fileLogging;
+   }
 
    @Override
    public void onClientMoved(ClientMovedEvent movedEvent) {
-      consoleLoggingOn = true;
-      fileLoggingOn = false;
-
-      new ClientMovedHandler(movedEvent, consoleLoggingOn, fileLoggingOn);
+      instance.getEventDispatcher().dispatch(movedEvent.getClientId(), ClientMovedHandler.class,
+          () -> new ClientMovedHandler(instance, movedEvent, consoleLoggingOn, fileLoggingOn));
    }
 }
@@ -0,0 +1,36 @@
+package main.server.listeners;
+
+import com.github.theholywaffle.teamspeak3.api.event.PrivilegeKeyUsedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ServerEditedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import main.server.ServerConnectionManager;
+import main.server.listeners.handlers.ServerGroupHandler;
+
+/**
+ * Custom implementation of the events which change the server groups of connected clients.
+ */
+public class ServerGroupListener extends TS3EventAdapter {
+
+   private final ServerConnectionManager instance;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    */
+   public ServerGroupListener(ServerConnectionManager instance) {
+      this.instance = instance;
+   }
+
+   @Override
+   public void onPrivilegeKeyUsed(PrivilegeKeyUsedEvent keyUsedEvent) {
+      instance.getEventDispatcher().dispatch(keyUsedEvent.getClientId(), ServerGroupHandler.class,
+          () -> new ServerGroupHandler(instance, keyUsedEvent));
+   }
+
+   @Override
+   public void onServerEdit(ServerEditedEvent serverEditedEvent) {
+      instance.getEventDispatcher().dispatch(0, ServerGroupHandler.class,
+          () -> new ServerGroupHandler(instance, serverEditedEvent));
+   }
+}
@@ -2,6 +2,7 @@ package main.server.listeners;
 
 import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
 import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import main.server.ServerConnectionManager;
 import main.server.listeners.handlers.TextMessageHandler;
 
 /**
@@ -9,11 +10,27 @@ import main.server.listeners.handlers.TextMessageHandler;
  */
 public class TextMessageListener extends TS3EventAdapter {
 
+   private final ServerConnectionManager instance;
+   private final boolean consoleLoggingOn;
+   private final boolean fileLoggingOn;
+
+   /**
+    * Creates a listener which hands the events of a server to its event dispatcher.
+    *
+    * @param instance the server whose events are listened to.
+    * @param consoleLogging whether or not messages should be logged to the console.
+    * @param fileLogging whether or not messages should be logged to the event journal.
+    */
+   public TextMessageListener(ServerConnectionManager instance, boolean consoleLogging,
+       boolean fileLogging) {
+      this.instance = instance;
+      this.consoleLoggingOn = consoleLogging;
+      this.fileLoggingOn = fileLogging;
+   }
+
    @Override
    public void onTextMessage(TextMessageEvent messageEvent) {
-      boolean consoleLoggingOn = true;
-      boolean fileLoggingOn = false;
-
-      new TextMessageHandler(messageEvent, consoleLoggingOn, fileLoggingOn);
+      instance.getEventDispatcher().dispatch(messageEvent.getInvokerId(), TextMessageHandler.class,
+          () -> new TextMessageHandler(instance, messageEvent, consoleLoggingOn, fileLoggingOn));
    }
 }
@@ -0,0 +1,57 @@
+package main.server.listeners.handlers;
+
+import com.github.theholywaffle.teamspeak3.api.event.ChannelCreateEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelDeletedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelEditedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelMovedEvent;
+import main.server.ServerConnectionManager;
+
+/**
+ * Logic used to keep the cached channel metadata in sync when channels change.
+ */
+public class ChannelHandler {
+
+   /**
+    * Adds a newly created channel to the cache.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link ChannelCreateEvent} being acted upon.
+    */
+   public ChannelHandler(ServerConnectionManager instance, ChannelCreateEvent event) {
+      instance.getChannelCache().onCreate(event);
+   }
+
+   /**
+    * Applies an edit to a cached channel, looking the channel up if it was not cached yet.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link ChannelEditedEvent} being acted upon.
+    */
+   public ChannelHandler(ServerConnectionManager instance, ChannelEditedEvent event) {
+      if (instance.getChannelCache().onEdit(event) == null) {
+         instance.getChannelState(event.getChannelId());
+      }
+   }
+
+   /**
+    * Updates the position of a cached channel, looking the channel up if it was not cached yet.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link ChannelMovedEvent} being acted upon.
+    */
+   public ChannelHandler(ServerConnectionManager instance, ChannelMovedEvent event) {
+      if (instance.getChannelCache().onMove(event) == null) {
+         instance.getChannelState(event.getChannelId());
+      }
+   }
+
+   /**
+    * Removes a deleted channel from the cache.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link ChannelDeletedEvent} being acted upon.
+    */
+   public ChannelHandler(ServerConnectionManager instance, ChannelDeletedEvent event) {
+      instance.getChannelCache().remove(event.getChannelId());
+   }
+}
@@ -1,9 +1,10 @@
 package main.server.listeners.handlers;
 
 import com.github.theholywaffle.teamspeak3.api.event.ClientLeaveEvent;
-import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
 import java.util.logging.Level;
-import main.core.Executor;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.journal.JournalEventType;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
 import main.util.Messages;
@@ -11,32 +12,58 @@ import main.util.exception.ClientNotFoundException;
 
 public class ClientDisconnectHandler {
 
+   private final ServerConnectionManager instance;
    private ClientLeaveEvent event;
-   private ClientInfo clientInfo;
+   private ClientState clientInfo;
 
-   public ClientDisconnectHandler(ClientLeaveEvent event, boolean consoleLogging, boolean
-       fileLogging) {
+   public ClientDisconnectHandler(ServerConnectionManager instance, ClientLeaveEvent event,
+       boolean consoleLogging, boolean fileLogging) {
+      this.instance = instance;
       this.event = event;
-      try {
-         this.clientInfo = Executor.getServer("testInstance")
-             .removeConnectedClient(event.getClientId());
-      } catch (ClientNotFoundException e) {
-         new MessageHandler(e.getMessage()).sendToConsoleWith(Level.WARNING);
-      }
+      this.clientInfo = instance.getClientCache().remove(event.getClientId());
+      instance.getAccessLevelCache().invalidate(event.getClientId());
+      instance.getRateLimiter().evict(event.getClientId());
 
-      if (clientInfo == null || clientInfo.getId() == -1 || clientInfo.getNickname().isEmpty()) {
+      if (clientInfo == null) {
+         new MessageHandler(new ClientNotFoundException(String.valueOf(event.getClientId()))
+             .getMessage()).sendToConsoleWith(Level.WARNING);
+         return;
+      }
+      if (clientInfo.isServerQuery() || clientInfo.getNickname().isEmpty()) {
          return;
       }
 
-      logToConsole();
+      if (consoleLogging) {
+         logToConsole();
+      }
+      if (fileLogging) {
+         logToFile();
+      }
    }
 
+   /**
+    * Appends the event to the event journal as a kick, ban or plain leave.
+    */
    private void logToFile() {
-      //TODO Auto-generated method stub
+      final int clientId = clientInfo.getId();
+      final String uid = clientInfo.getUniqueIdentifier();
+      final String nickname = clientInfo.getNickname();
+
+      if (event.getReasonId() == 5) {
+         instance.getEventJournal().record(JournalEventType.KICK, clientId, uid, nickname,
+             event.getInvokerUniqueId(), event.getInvokerName(), event.getReasonMessage());
+      } else if (event.getReasonId() == 6) {
+         instance.getEventJournal().record(JournalEventType.BAN, clientId, uid, nickname,
+             event.getInvokerUniqueId(), event.getInvokerName(), event.getReasonMessage(),
+             event.get("bantime"));
+      } else {
+         instance.getEventJournal().record(JournalEventType.LEAVE, clientId, uid, nickname,
+             event.getReasonMessage());
+      }
    }
 
    private void logToConsole() {
-      if (clientInfo == null) {
+      if (clientInfo == null || !MessageHandler.isLoggable(LogPrefix.DISCONNECTION)) {
          return;
       }
       String message;
@@ -47,16 +74,15 @@ public class ClientDisconnectHandler {
       String reason = event.getReasonMessage();
 
       if (event.getReasonId() == 5) {
-         message = String
-             .format(Messages.USER_KICKED, victimName, victimUid, invokerName, invokerUid, reason);
+         message = Messages.USER_KICKED.format(victimName, victimUid, invokerName, invokerUid,
+             reason);
       } else if (event.getReasonId() == 3) {
-         message = String.format(Messages.USER_LOST_CONNECTION, victimName, victimUid);
+         message = Messages.USER_LOST_CONNECTION.format(victimName, victimUid);
       } else if (event.getReasonId() == 6) {
-         message = String
-             .format(Messages.USER_BANNED, victimName, victimUid, invokerName, invokerUid,
-                 getBanLengthFormatted(event.get("bantime")), reason);
+         message = Messages.USER_BANNED.format(victimName, victimUid, invokerName, invokerUid,
+             getBanLengthFormatted(event.get("bantime")), reason);
       } else {
-         message = String.format(Messages.USER_DISCONNECTED, victimName, victimUid, reason);
+         message = Messages.USER_DISCONNECTED.format(victimName, victimUid, reason);
       }
 
       new MessageHandler(message).sendToConsoleWith(LogPrefix.DISCONNECTION);
@@ -1,56 +1,49 @@
 package main.server.listeners.handlers;
 
-import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
 import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
-import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
-import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
-import com.github.theholywaffle.teamspeak3.api.wrapper.ServerGroup;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
-import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.List;
-import main.core.Config;
-import main.core.Executor;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.journal.JournalEventType;
+import main.server.membership.GroupChanges;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
 import main.util.Messages;
-import main.util.Util;
 
 /**
  * Logic and helper functions used to handle the firing of a {@link ClientJoinEvent}.
  */
 public class ClientJoinHandler {
 
-   private final TS3Api api = Executor.getServer("testInstance").getApi();
+   private final ServerConnectionManager instance;
    private ClientJoinEvent event;
-   private Client client;
-   private ClientInfo clientInfo;
-   private List<ServerGroup> serverGroups;
+   private ClientState client;
 
    /**
     * Creates a new {@link ClientJoinHandler} with the provided {@link ClientJoinEvent} and logging
     * settings.
     *
+    * @param instance the server the event was received from.
     * @param event the {@code ClientJoinEvent} being acted upon.
     * @param consoleLogging whether or not this event should be logged to the console.
     * @param fileLogging whether or not this event should be logged to a file.
     */
-   public ClientJoinHandler(ClientJoinEvent event, boolean consoleLogging, boolean fileLogging) {
+   public ClientJoinHandler(ServerConnectionManager instance, ClientJoinEvent event,
+       boolean consoleLogging, boolean fileLogging) {
+      this.instance = instance;
       this.event = event;
-      this.client = api.getClientByUId(event.getUniqueClientIdentifier());
-      this.clientInfo = api.getClientInfo(client.getId());
-      this.serverGroups = api.getServerGroupsByClient(client);
+      this.client = instance.getClientCache().onJoin(event);
 
-      if (event.getUniqueClientIdentifier().contains("Query")) {
-         Executor.getServer("testInstance")
-             .addConnectedClient(client.getId(), new ClientInfo(-1, null));
+      if (client.isServerQuery()) {
          return;
-      } else {
-         Executor.getServer("testInstance").addConnectedClient(event.getClientId(), clientInfo);
       }
+      instance.getAccessLevelCache().resolve(client);
+      instance.getIdleChecker().onClientChanged(client);
 
       if (consoleLogging) {
          logToConsole();
@@ -62,243 +55,99 @@ public class ClientJoinHandler {
       checkMembership();
    }
 
+   /**
+    * Appends the event to the event journal.
+    */
    private void logToFile() {
-      // TODO Auto-generated method stub
-      return;
+      instance.getEventJournal().record(JournalEventType.JOIN, client.getId(),
+          client.getUniqueIdentifier(), client.getNickname(), event.getClientTargetId());
    }
 
    /**
-    * Checks a user's membership status against the forums and assigns ServerGroups accordingly.
+    * Looks up the client's forum membership in the background and assigns ServerGroups accordingly
+    * once it is known. The assignment is queued behind any later events of the same client.
     */
    private void checkMembership() {
-      String userGroup = "";
-      String clientUid = event.getInvokerUniqueId();
-      try {
-         String webUid = URLEncoder.encode(clientUid, "UTF-8");
-         String urlWithId = "http://www.foundinaction.com/ts3botuidchecker.php?uid=" + webUid;
-         URL url = new URL(urlWithId);
-         URLConnection conn = url.openConnection();
-         BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-
-         String inputLine;
+      final Thread handlerThread = Thread.currentThread();
+
+      instance.getMembershipResolver().resolve(client.getUniqueIdentifier())
+          .whenComplete((userGroup, error) -> {
+             if (error != null) {
+                final Throwable cause = error instanceof CompletionException
+                    ? error.getCause() : error;
+                new MessageHandler(cause.getMessage()).sendToConsoleWith(Level.WARNING);
+             } else if (Thread.currentThread() == handlerThread) {
+                applyMembership(userGroup);
+             } else {
+                instance.getEventDispatcher().dispatch(client.getId(),
+                    () -> applyMembership(userGroup));
+             }
+          });
+   }
 
-         while ((inputLine = br.readLine()) != null) {
-            userGroup = inputLine;
-         }
-         br.close();
+   /**
+    * Assigns ServerGroups from a completed membership lookup, unless the client has left in the
+    * meantime.
+    *
+    * @param userGroup the forum usergroup of the client.
+    */
+   private void applyMembership(String userGroup) {
+      final ClientState current = instance.getClientCache().get(client.getId());
 
-         assignGroups(userGroup);
-      } catch (IOException e) {
-         e.printStackTrace();
+      if (current == null || !current.getUniqueIdentifier().equals(client.getUniqueIdentifier())) {
+         return;
       }
+      client = current;
+      assignGroups(userGroup);
    }
 
    /**
-    * Prints a formatted summary of the event to the console.
+    * Prints a formatted summary of the event to the console. The channel is only looked up if the
+    * message is shown.
     */
    private void logToConsole() {
-      final String channelName = api.getChannelInfo(event.getClientTargetId()).getName();
-
-      new MessageHandler(String.format(Messages.USER_CONNECTED, event.getClientNickname(),
-          event.getUniqueClientIdentifier(), channelName)).sendToConsoleWith(LogPrefix.CONNECTION);
+      MessageHandler.log(LogPrefix.CONNECTION, () -> Messages.USER_CONNECTED.format(
+          event.getClientNickname(), event.getUniqueClientIdentifier(),
+          instance.getChannelName(event.getClientTargetId())));
    }
 
    /**
-    * Assigns ServerGroups based on the given usergroup.
+    * Brings the client's ServerGroups in line with the given usergroup. Only the groups that
+    * actually differ are changed, and all changes are sent to the server as one pipelined batch.
     *
     * @param userGroup the usergroup being used to determine ServerGroups.
     */
    private void assignGroups(String userGroup) {
-      if (!userGroup.isEmpty()) {  //Check for empty.
-         if (userGroup.startsWith("registered")) { //For users who default to Registered.
-            /*    ASSIGN TO
-             *       registeredGroupId
-             *    ASSIGN TO EXTRA
-             *       none
-             *    REMOVE FROM
-             *       communityMemberGroupId
-             *       divisionManagerGroupId
-             *       communityManagerGroupId
-             *       seniorCommunityManagerGroupId
-             *       founderGroupId
-             */
-            if (!isGroupMember(Config.registeredGroupId)) {
-               api.addClientToServerGroup(Config.registeredGroupId, clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.communityMemberGroupId);
-            removeIfMemberOf(Config.divisionManagerGroupId);
-            removeIfMemberOf(Config.communityManagerGroupId);
-            removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-            removeIfMemberOf(Config.founderGroupId);
-         } else if (userGroup
-             .startsWith("community member")) { //For users who default to Community Member
-            /*    ASSIGN TO
-             *       communityMemberGroupId
-             *    ASSIGN TO EXTRA
-             *       none
-             *    REMOVE FROM
-             *       registeredGroupId
-             *       divisionManagerGroupId
-             *       communityManagerGroupId
-             *       seniorCommunityManagerGroupId
-             *       founderGroupId
-             */
-
-            if (!isGroupMember(Config.communityMemberGroupId)) {
-               api.addClientToServerGroup(Config.communityMemberGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.registeredGroupId);
-            removeIfMemberOf(Config.divisionManagerGroupId);
-            removeIfMemberOf(Config.communityManagerGroupId);
-            removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-            removeIfMemberOf(Config.founderGroupId);
-         } else if (userGroup
-             .startsWith("division manager")) { //For users who default to Division Manager
-            /*    ASSIGN TO
-             *       divisionManagerGroupId
-             *    ASSIGN TO EXTRA
-             *       communityMemberGroupId
-             *    REMOVE FROM
-             *       registeredGroupId
-             *       communityManagerGroupId
-             *       seniorCommunityManagerGroupId
-             *       founderGroupId
-             */
-
-            if (!isGroupMember(Config.divisionManagerGroupId)) {
-               api.addClientToServerGroup(Config.divisionManagerGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            if (!isGroupMember(Config.communityMemberGroupId)) {
-               api.addClientToServerGroup(Config.communityMemberGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.registeredGroupId);
-            removeIfMemberOf(Config.communityManagerGroupId);
-            removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-            removeIfMemberOf(Config.founderGroupId);
-         } else if (userGroup
-             .startsWith("community manager")) { //For users who default to a CM role.
-            /*    ASSIGN TO
-             *       communityManagerGroupId
-             *    ASSIGN TO EXTRA
-             *       communityMemberGroupId
-             *    REMOVE FROM
-             *       registeredGroupId
-             *       divisionManagerGroupId
-             *       seniorCommunityManagerGroupId
-             *       founderGroupId
-             */
-
-            if (!isGroupMember(Config.communityManagerGroupId)) {
-               api.addClientToServerGroup(Config.communityManagerGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            if (!isGroupMember(Config.communityMemberGroupId)) {
-               api.addClientToServerGroup(Config.communityMemberGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.registeredGroupId);
-            removeIfMemberOf(Config.divisionManagerGroupId);
-            removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-            removeIfMemberOf(Config.founderGroupId);
-         } else if (userGroup
-             .startsWith("senior community manager")) { //For users who default to a SCM role.
-            /*    ASSIGN TO
-             *       seniorCommunityManagerGroupId
-             *    ASSIGN TO EXTRA
-             *       communityMemberGroupId
-             *    REMOVE FROM
-             *       registeredGroupId
-             *       divisionManagerGroupId
-             *       communityManagerGroupId
-             *       founderGroupId
-             */
-
-            if (!isGroupMember(Config.seniorCommunityManagerGroupId)) {
-               api.addClientToServerGroup(Config.seniorCommunityManagerGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            if (!isGroupMember(Config.communityMemberGroupId)) {
-               api.addClientToServerGroup(Config.communityMemberGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.registeredGroupId);
-            removeIfMemberOf(Config.divisionManagerGroupId);
-            removeIfMemberOf(Config.communityManagerGroupId);
-            removeIfMemberOf(Config.founderGroupId);
-         } else if (userGroup.startsWith("founder")) { //For users who default to a founder role.
-            /*    ASSIGN TO
-             *       founderGroupId
-             *    ASSIGN TO EXTRA
-             *       communityMemberGroupId
-             *    REMOVE FROM
-             *       registeredGroupId
-             *       divisionManagerGroupId
-             *       communityManagerGroupId
-             *       seniorCommunityManagerGroupId
-             */
-
-            if (!isGroupMember(Config.founderGroupId)) {
-               api.addClientToServerGroup(Config.founderGroupId, clientInfo.getDatabaseId());
-            }
-
-            if (!isGroupMember(Config.communityMemberGroupId)) {
-               api.addClientToServerGroup(Config.communityMemberGroupId,
-                   clientInfo.getDatabaseId());
-            }
-
-            removeIfMemberOf(Config.registeredGroupId);
-            removeIfMemberOf(Config.divisionManagerGroupId);
-            removeIfMemberOf(Config.communityManagerGroupId);
-            removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-         }
-      } else { //Not a member; remove from all groups.
-         System.out.println(Util.timeStamp() + "[PERMCHECK] " + client.getNickname()
-             + " is not registered on the forums.");
-
-         removeIfMemberOf(Config.registeredGroupId);
-         removeIfMemberOf(Config.communityMemberGroupId);
-         removeIfMemberOf(Config.divisionManagerGroupId);
-         removeIfMemberOf(Config.communityManagerGroupId);
-         removeIfMemberOf(Config.seniorCommunityManagerGroupId);
-         removeIfMemberOf(Config.founderGroupId);
+      if (userGroup.isEmpty()) {
+         new MessageHandler(client.getNickname() + " is not registered on the forums.")
+             .sendToConsoleWith(LogPrefix.PERMISSION_CHECK);
       }
-   }
 
-   /**
-    * Determines if the client is a member of the given ServerGroup.
-    *
-    * @param groupId the id of the group in question.
-    * @return {@code true} if the user is a member of the group.
-    */
-   private boolean isGroupMember(Integer groupId) {
-      for (ServerGroup serverGroup : serverGroups) {
-         if (serverGroup.getId() == groupId) {
-            return true;
-         }
+      final int[] currentGroups = client.getServerGroups();
+      final GroupChanges changes = instance.getGroupReconciler().reconcile(userGroup,
+          currentGroups);
+      if (changes.isEmpty()) {
+         return;
       }
-      return false;
-   }
 
-   /**
-    * Checks if a client is a member of a group, and removes them if so. If they are not a member of
-    * the group, nothing is changed.
-    *
-    * @param groupId the group the client will be removed from if they are a member of it.
-    */
-   private void removeIfMemberOf(Integer groupId) {
-      if (isGroupMember(groupId)) {
-         api.removeClientFromServerGroup(groupId, clientInfo.getDatabaseId());
+      final TS3ApiAsync apiAsync = instance.getApiAsync();
+      final List<CommandFuture<Boolean>> batch = new ArrayList<>(changes.size());
+      for (int groupId : changes.getAdded()) {
+         batch.add(apiAsync.addClientToServerGroup(groupId, client.getDatabaseId()));
       }
+      for (int groupId : changes.getRemoved()) {
+         batch.add(apiAsync.removeClientFromServerGroup(groupId, client.getDatabaseId()));
+      }
+
+      final int clientId = client.getId();
+      CommandFuture.ofAll(batch)
+          .onSuccess(results -> {
+             instance.getClientCache().updateServerGroups(clientId,
+                 changes.applyTo(currentGroups));
+             instance.getAccessLevelCache().invalidate(clientId);
+          })
+          .onFailure(error -> new MessageHandler(String.format(
+              "Could not apply server group changes %s to %s: %s", changes, client.getNickname(),
+              error.getMessage())).sendToConsoleWith(Level.WARNING));
    }
-}
\ No newline at end of file
+}
@@ -1,10 +1,10 @@
 package main.server.listeners.handlers;
 
-import com.github.theholywaffle.teamspeak3.TS3Api;
 import com.github.theholywaffle.teamspeak3.api.event.ClientMovedEvent;
-import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
 import java.util.logging.Level;
-import main.core.Executor;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.journal.JournalEventType;
 import main.util.MessageHandler;
 import main.util.Messages;
 
@@ -13,35 +13,40 @@ import main.util.Messages;
  */
 public class ClientMovedHandler {
 
-   private final TS3Api api = Executor.getServer("testInstance").getApi();
+   private final ServerConnectionManager instance;
    private ClientMovedEvent event;
    private String movedName;
    private String movedUid;
    private String invokerName;
    private String invokerUid;
-   private String channelName;
 
    /**
     * Creates a new {@link ClientMovedHandler} with the provided {@link ClientMovedEvent} and
     * logging settings.
     *
+    * @param instance the server the event was received from.
     * @param event the {@code ClientMovedEvent} being acted upon.
     * @param consoleLogging whether or not this event should be logged to the console.
     * @param fileLogging whether or not this event should be logged to a file.
     */
-   public ClientMovedHandler(ClientMovedEvent event, boolean consoleLogging, boolean fileLogging) {
-      ClientInfo movedClient;
-      movedClient = api.getClientInfo(event.getClientId());
+   public ClientMovedHandler(ServerConnectionManager instance, ClientMovedEvent event,
+       boolean consoleLogging, boolean fileLogging) {
+      this.instance = instance;
+      instance.getClientCache().onMove(event);
+      ClientState movedClient = instance.getClientState(event.getClientId());
+      if (movedClient == null) {
+         return;
+      }
+      instance.getIdleChecker().onClientChanged(movedClient);
 
       this.event = event;
       this.movedName = movedClient.getNickname();
       this.movedUid = movedClient.getUniqueIdentifier();
       this.invokerName = event.getInvokerName();
       this.invokerUid = event.getInvokerUniqueId();
-      this.channelName = api.getChannelInfo(event.getTargetChannelId()).getName();
 
       if (consoleLogging) {
-         getMessageHandler().sendToConsoleWith(Level.INFO);
+         MessageHandler.log(Level.INFO, this::getMessage);
       }
 
       if (fileLogging) {
@@ -49,18 +54,25 @@ public class ClientMovedHandler {
       }
    }
 
+   /**
+    * Appends the event to the event journal.
+    */
    private void logToFile() {
-      // TODO Auto-generated method stub
+      instance.getEventJournal().record(JournalEventType.MOVE, event.getClientId(), movedUid,
+          movedName, event.getTargetChannelId(), invokerUid, invokerName);
    }
 
-   private MessageHandler getMessageHandler() {
+   /**
+    * @return a formatted summary of the event.
+    */
+   private String getMessage() {
+      final String channelName = instance.getChannelName(event.getTargetChannelId());
+
       if (invokerName.isEmpty()) {
-         return new MessageHandler(String.format(Messages.USER_MOVED, movedName, movedUid,
-             channelName));
+         return Messages.USER_MOVED.format(movedName, movedUid, channelName);
       } else {
-         return new MessageHandler(
-             String.format(Messages.USER_WAS_MOVED, invokerName, invokerUid, movedName, movedUid,
-                 channelName));
+         return Messages.USER_WAS_MOVED.format(invokerName, invokerUid, movedName, movedUid,
+             channelName);
       }
    }
 }
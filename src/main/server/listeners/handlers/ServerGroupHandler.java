@@ -0,0 +1,45 @@
+package main.server.listeners.handlers;
+
+import com.github.theholywaffle.teamspeak3.api.PrivilegeKeyType;
+import com.github.theholywaffle.teamspeak3.api.event.PrivilegeKeyUsedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ServerEditedEvent;
+import java.util.stream.IntStream;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+
+/**
+ * Logic used to keep cached server groups and access levels in sync when a client's server groups
+ * change.
+ */
+public class ServerGroupHandler {
+
+   /**
+    * Adds the group granted by a privilege key to the client that used it.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link PrivilegeKeyUsedEvent} being acted upon.
+    */
+   public ServerGroupHandler(ServerConnectionManager instance, PrivilegeKeyUsedEvent event) {
+      final int clientId = event.getClientId();
+
+      if (event.getPrivilegeKeyType() == PrivilegeKeyType.SERVER_GROUP) {
+         ClientState state = instance.getClientCache().get(clientId);
+         if (state != null && !state.isInServerGroup(event.getPrivilegeKeyGroupId())) {
+            instance.getClientCache().updateServerGroups(clientId, IntStream.concat(
+                IntStream.of(state.getServerGroups()), IntStream.of(event.getPrivilegeKeyGroupId()))
+                .toArray());
+         }
+      }
+      instance.getAccessLevelCache().invalidate(clientId);
+   }
+
+   /**
+    * Drops every cached access level, as server-wide edits may affect group permissions.
+    *
+    * @param instance the server the event was received from.
+    * @param event the {@link ServerEditedEvent} being acted upon.
+    */
+   public ServerGroupHandler(ServerConnectionManager instance, ServerEditedEvent event) {
+      instance.getAccessLevelCache().invalidateAll();
+   }
+}
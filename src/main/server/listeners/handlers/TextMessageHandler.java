@@ -2,51 +2,59 @@ package main.server.listeners.handlers;
 
 import com.github.theholywaffle.teamspeak3.api.TextMessageTargetMode;
 import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import java.util.List;
 import java.util.logging.Level;
-import main.core.Executor;
 import main.core.commands.Commands;
-import main.core.functions.DadModeMessageChecker;
+import main.core.triggers.TriggerMatch;
+import main.server.ServerConnectionManager;
+import main.server.cache.ClientState;
+import main.server.journal.JournalEventType;
 import main.server.listeners.TextMessageListener;
 import main.util.LogPrefix;
 import main.util.MessageHandler;
+import main.util.Messages;
 
 /**
  * Logic and helper functions used to handle the firing of a {@link TextMessageListener}
  */
 public class TextMessageHandler {
 
-   private static Boolean dadModeIsActive = false;
-   private final Integer botId = Executor.getServer("testInstance").getBotId();
+   private final ServerConnectionManager instance;
+   private final Integer botId;
    private TextMessageEvent event;
    private String message;
 
    /**
     * Handles/routes all appropriate execution paths for text messages.
     *
+    * @param instance the server the event was received from.
     * @param event the {@link TextMessageEvent) being handled.}
     * @param consoleLogging whether or not console logging is enabled.
     * @param fileLogging whether or not file logging is enabled.
     */
-   public TextMessageHandler(TextMessageEvent event, boolean consoleLogging, boolean fileLogging) {
+   public TextMessageHandler(ServerConnectionManager instance, TextMessageEvent event,
+       boolean consoleLogging, boolean fileLogging) {
+      this.instance = instance;
+      this.botId = instance.getBotId();
       this.event = event;
       this.message = event.getMessage();
+      instance.getClientCache().onTextMessage(event);
 
       if (message.startsWith(Commands.getPrefix())) {
          try {
-            Commands.handle(event);
+            Commands.handle(instance, event);
          } catch (Exception e) {
             new MessageHandler(e.getMessage())
                 .sendToConsoleWith(Level.INFO)
-                .returnToSender(event);
+                .returnToSender(instance, event);
          }
       }
 
-      if (dadModeIsActive && (message.toLowerCase().startsWith("i'm") || message.toLowerCase()
-          .startsWith("im") || message.toLowerCase().startsWith("i am"))) {
-         DadModeMessageChecker.sendDadMessage(message, event.getTargetMode());
+      if (event.getInvokerId() != botId) {
+         respondToTriggers();
       }
 
-      if (consoleLogging) {
+      if (consoleLogging && MessageHandler.isLoggable(LogPrefix.MESSAGE)) {
          logToConsole();
       }
       if (fileLogging) {
@@ -55,23 +63,32 @@ public class TextMessageHandler {
    }
 
    /**
-    * @return whether or not dad mode is active.
+    * Passes the message to the responders of every trigger it contains. A message answered by any
+    * trigger costs the sender one trigger use of their rate limit.
     */
-   public static Boolean getDadModeIsActive() {
-      return dadModeIsActive;
+   private void respondToTriggers() {
+      final List<TriggerMatch> matches = instance.getTriggerEngine().match(message);
+      if (matches.isEmpty() || !instance.getRateLimiter().acquireTrigger(event.getInvokerId(),
+          instance.getAccessLevelCache().get(event.getInvokerId())).isAllowed()) {
+         return;
+      }
+
+      for (TriggerMatch match : matches) {
+         try {
+            match.getTrigger().getResponder().respond(instance, match, event);
+         } catch (RuntimeException e) {
+            new MessageHandler(Messages.ERROR_TRIGGER_FAILED, match.getTrigger().getName(),
+                e.getMessage()).sendToConsoleWith(Level.WARNING);
+         }
+      }
    }
 
    /**
-    * Sets whether or not dad mode is active.
-    *
-    * @param isActive whether or not dad mode is active.
+    * Appends the message to the event journal.
     */
-   public static void setDadModeIsActive(Boolean isActive) {
-      dadModeIsActive = isActive;
-   }
-
    private void logToFile() {
-      // TODO Auto-generated method stub
+      instance.getEventJournal().record(JournalEventType.CHAT, event.getInvokerId(),
+          event.getInvokerUniqueId(), event.getInvokerName(), event.getTargetMode(), message);
    }
 
    /**
@@ -86,21 +103,20 @@ public class TextMessageHandler {
 
       if (target != TextMessageTargetMode.CLIENT && invokerId != botId) {
          //User sent server/channel message.
-         new MessageHandler(String.format("%s (%s) to %s: %s", invokerName, invokerUid, target,
-             message))
+         new MessageHandler(Messages.CHAT_MESSAGE, invokerName, invokerUid, target, message)
              .sendToConsoleWith(LogPrefix.MESSAGE);
       } else if (target == TextMessageTargetMode.CLIENT && invokerId != botId) {
          //User sent private message to bot.
-         new MessageHandler(String.format("%s to BOT: %s", invokerName, message))
+         new MessageHandler(Messages.CHAT_MESSAGE_TO_BOT, invokerName, message)
              .sendToConsoleWith(LogPrefix.MESSAGE);
       } else if (target != TextMessageTargetMode.CLIENT) {
          //Bot sent server/channel message.
-         new MessageHandler(String.format("BOT to SERVER: %s", message)).sendToConsoleWith
-             (LogPrefix.MESSAGE);
+         new MessageHandler(Messages.CHAT_MESSAGE_FROM_BOT, "SERVER", message)
+             .sendToConsoleWith(LogPrefix.MESSAGE);
       } else { //Bot sent private message to user.
-         final String targetUser = Executor.getServer("testInstance").getApi()
-             .getClientInfo(event.getInt("target")).getNickname();
-         new MessageHandler(String.format("BOT to %s: %s", targetUser, message))
+         final ClientState recipient = instance.getClientState(event.getInt("target"));
+         final String targetUser = recipient != null ? recipient.getNickname() : "(unknown)";
+         new MessageHandler(Messages.CHAT_MESSAGE_FROM_BOT, targetUser, message)
              .sendToConsoleWith(LogPrefix.MESSAGE);
       }
    }
@@ -0,0 +1,78 @@
+package main.server.membership;
+
+/**
+ * Minimal circuit breaker guarding calls to an external service. After a number of consecutive
+ * failed or slow calls the breaker opens and rejects calls for a cool-down period. Once that has
+ * passed a single trial call is let through; its outcome decides whether the breaker closes again
+ * or stays open for another period.
+ */
+final class CircuitBreaker {
+
+   private final int failureThreshold;
+   private final long slowCallMillis;
+   private final long openMillis;
+   private int consecutiveFailures;
+   private long openUntil;
+   private boolean trialInFlight;
+
+   /**
+    * @param failureThreshold the number of consecutive failures after which the breaker opens.
+    * @param slowCallMillis the duration above which a successful call still counts as a failure.
+    * @param openMillis how long the breaker stays open before a trial call is allowed.
+    */
+   CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis) {
+      this.failureThreshold = failureThreshold;
+      this.slowCallMillis = slowCallMillis;
+      this.openMillis = openMillis;
+   }
+
+   /**
+    * @param now the current time in milliseconds.
+    * @return {@code true} if a call may be made now.
+    */
+   synchronized boolean tryAcquire(long now) {
+      if (consecutiveFailures < failureThreshold) {
+         return true;
+      }
+      if (now < openUntil || trialInFlight) {
+         return false;
+      }
+      trialInFlight = true;
+      return true;
+   }
+
+   /**
+    * Records a call which completed, counting it as a failure if it was too slow.
+    *
+    * @param elapsedMillis the duration of the call.
+    * @param now the current time in milliseconds.
+    */
+   synchronized void onSuccess(long elapsedMillis, long now) {
+      if (elapsedMillis > slowCallMillis) {
+         onFailure(now);
+         return;
+      }
+      trialInFlight = false;
+      consecutiveFailures = 0;
+   }
+
+   /**
+    * Records a failed call.
+    *
+    * @param now the current time in milliseconds.
+    */
+   synchronized void onFailure(long now) {
+      trialInFlight = false;
+      if (++consecutiveFailures >= failureThreshold) {
+         openUntil = now + openMillis;
+      }
+   }
+
+   /**
+    * @param now the current time in milliseconds.
+    * @return {@code true} if calls are currently being rejected.
+    */
+   synchronized boolean isOpen(long now) {
+      return consecutiveFailures >= failureThreshold && (now < openUntil || trialInFlight);
+   }
+}
@@ -0,0 +1,230 @@
+package main.server.membership;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import main.util.exception.MembershipUnavailableException;
+
+/**
+ * Looks up the forum user group of clients by their unique identifier without blocking the caller.
+ * Requests run on a small pool of background threads using timeouts and keep-alive connections.
+ * Results are cached per UID: members for {@code ttlMillis}, clients without a forum account (an
+ * empty answer) for the much shorter {@code negativeTtlMillis} so that new registrations are picked
+ * up quickly. Concurrent lookups of the same UID share a single request.
+ *
+ * <p>Failed lookups are never cached. Repeated failures or slow answers open a {@link
+ * CircuitBreaker}, during which lookups fail immediately instead of piling up on a struggling
+ * forum.</p>
+ */
+public class ForumMembershipResolver {
+
+   /**
+    * The endpoint used when none is configured. {@code %s} is replaced by the URL-encoded UID.
+    */
+   public static final String DEFAULT_ENDPOINT =
+       "http://www.foundinaction.com/ts3botuidchecker.php?uid=%s";
+
+   private static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+   private static final long DEFAULT_NEGATIVE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+   private static final int DEFAULT_TIMEOUT_MILLIS = 3000;
+   private static final int FAILURE_THRESHOLD = 3;
+   private static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+   private static final int REQUEST_THREADS = 2;
+   private static final int PRUNE_THRESHOLD = 1024;
+
+   private final String endpoint;
+   private final long ttlMillis;
+   private final long negativeTtlMillis;
+   private final int timeoutMillis;
+   private final LongSupplier clock;
+   private final CircuitBreaker breaker;
+   private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+   private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+   private final ExecutorService requests = Executors.newFixedThreadPool(REQUEST_THREADS, r -> {
+      Thread thread = new Thread(r, "forum-membership");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   /**
+    * Creates a resolver for the given endpoint using the default cache lifetimes and timeouts.
+    *
+    * @param endpoint the URL to query, containing {@code %s} in place of the UID. Falls back to
+    * {@link #DEFAULT_ENDPOINT} if {@code null} or empty.
+    */
+   public ForumMembershipResolver(String endpoint) {
+      this(endpoint, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+   }
+
+   /**
+    * Creates a resolver for the given endpoint.
+    *
+    * @param endpoint the URL to query, containing {@code %s} in place of the UID. Falls back to
+    * {@link #DEFAULT_ENDPOINT} if {@code null} or empty.
+    * @param ttlMillis how long a forum user group is cached.
+    * @param negativeTtlMillis how long the absence of a forum account is cached.
+    * @param timeoutMillis the connect and read timeout of each request. Requests taking longer
+    * than half of this count towards opening the circuit breaker.
+    */
+   public ForumMembershipResolver(String endpoint, long ttlMillis, long negativeTtlMillis,
+       int timeoutMillis) {
+      this(endpoint, ttlMillis, negativeTtlMillis, timeoutMillis, System::currentTimeMillis);
+   }
+
+   ForumMembershipResolver(String endpoint, long ttlMillis, long negativeTtlMillis,
+       int timeoutMillis, LongSupplier clock) {
+      this.endpoint = endpoint == null || endpoint.isEmpty() ? DEFAULT_ENDPOINT : endpoint;
+      this.ttlMillis = ttlMillis;
+      this.negativeTtlMillis = negativeTtlMillis;
+      this.timeoutMillis = timeoutMillis;
+      this.clock = clock;
+      this.breaker = new CircuitBreaker(FAILURE_THRESHOLD, timeoutMillis / 2, OPEN_MILLIS);
+   }
+
+   /**
+    * Looks up the forum user group of a client.
+    *
+    * @param uid the unique identifier of the client.
+    * @return a future completed with the forum user group, or an empty string if the client has no
+    * forum account. It completes exceptionally with a {@link MembershipUnavailableException} if the
+    * forum could not be asked.
+    */
+   public CompletableFuture<String> resolve(String uid) {
+      final long now = clock.getAsLong();
+      final Entry entry = cache.get(uid);
+
+      if (entry != null && now < entry.expiresAt) {
+         return CompletableFuture.completedFuture(entry.userGroup);
+      }
+
+      final CompletableFuture<String> future = new CompletableFuture<>();
+      final CompletableFuture<String> inFlight = pending.putIfAbsent(uid, future);
+      if (inFlight != null) {
+         return inFlight;
+      }
+
+      if (!breaker.tryAcquire(now)) {
+         pending.remove(uid, future);
+         future.completeExceptionally(new MembershipUnavailableException(uid,
+             "the forum is not responding, lookups are suspended"));
+         return future;
+      }
+
+      try {
+         requests.execute(() -> complete(uid, future));
+      } catch (RejectedExecutionException e) {
+         pending.remove(uid, future);
+         breaker.onFailure(now);
+         future.completeExceptionally(new MembershipUnavailableException(uid, e));
+      }
+      return future;
+   }
+
+   /**
+    * Drops the cached result for a client, forcing the next lookup to ask the forum.
+    *
+    * @param uid the unique identifier of the client.
+    */
+   public void invalidate(String uid) {
+      cache.remove(uid);
+   }
+
+   /**
+    * @return {@code true} if lookups are currently suspended because the forum is failing.
+    */
+   public boolean isSuspended() {
+      return breaker.isOpen(clock.getAsLong());
+   }
+
+   /**
+    * Stops the request threads. Lookups made afterwards fail immediately.
+    */
+   public void shutdown() {
+      requests.shutdownNow();
+   }
+
+   private void complete(String uid, CompletableFuture<String> future) {
+      final long start = clock.getAsLong();
+      try {
+         final String userGroup = fetch(uid);
+         final long now = clock.getAsLong();
+         breaker.onSuccess(now - start, now);
+
+         if (cache.size() >= PRUNE_THRESHOLD) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now);
+         }
+         cache.put(uid, new Entry(userGroup,
+             now + (userGroup.isEmpty() ? negativeTtlMillis : ttlMillis)));
+         pending.remove(uid, future);
+         future.complete(userGroup);
+      } catch (IOException | RuntimeException e) {
+         breaker.onFailure(clock.getAsLong());
+         pending.remove(uid, future);
+         future.completeExceptionally(new MembershipUnavailableException(uid, e));
+      }
+   }
+
+   /**
+    * Requests the forum user group of a client, which is the last line of the answer. The body
+    * is always read to the end so the connection can be reused.
+    */
+   private String fetch(String uid) throws IOException {
+      final URL url = new URL(String.format(endpoint, URLEncoder.encode(uid, "UTF-8")));
+      final HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+      conn.setConnectTimeout(timeoutMillis);
+      conn.setReadTimeout(timeoutMillis);
+      conn.setUseCaches(false);
+
+      final int status = conn.getResponseCode();
+      if (status != HttpURLConnection.HTTP_OK) {
+         drain(conn.getErrorStream());
+         throw new IOException("HTTP " + status);
+      }
+
+      String userGroup = "";
+      try (BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(),
+          StandardCharsets.UTF_8))) {
+         String inputLine;
+         while ((inputLine = br.readLine()) != null) {
+            userGroup = inputLine;
+         }
+      }
+      return userGroup;
+   }
+
+   private static void drain(InputStream stream) throws IOException {
+      if (stream == null) {
+         return;
+      }
+      try (InputStream in = stream) {
+         final byte[] buffer = new byte[512];
+         while (in.read(buffer) != -1) {
+            //Discard.
+         }
+      }
+   }
+
+   private static final class Entry {
+
+      private final String userGroup;
+      private final long expiresAt;
+
+      private Entry(String userGroup, long expiresAt) {
+         this.userGroup = userGroup;
+         this.expiresAt = expiresAt;
+      }
+   }
+}
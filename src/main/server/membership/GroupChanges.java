@@ -0,0 +1,68 @@
+package main.server.membership;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of server group additions and removals computed by a {@link GroupReconciler}.
+ */
+public final class GroupChanges {
+
+   /**
+    * Changes which leave a client's groups as they are.
+    */
+   public static final GroupChanges NONE = new GroupChanges(new int[0], new int[0]);
+
+   private final int[] added;
+   private final int[] removed;
+
+   GroupChanges(int[] added, int[] removed) {
+      this.added = added;
+      this.removed = removed;
+   }
+
+   /**
+    * @return the IDs of the server groups the client must be added to.
+    */
+   public int[] getAdded() {
+      return added.clone();
+   }
+
+   /**
+    * @return the IDs of the server groups the client must be removed from.
+    */
+   public int[] getRemoved() {
+      return removed.clone();
+   }
+
+   /**
+    * @return {@code true} if no group needs to be changed.
+    */
+   public boolean isEmpty() {
+      return added.length == 0 && removed.length == 0;
+   }
+
+   /**
+    * @return the number of query commands needed to apply the changes.
+    */
+   public int size() {
+      return added.length + removed.length;
+   }
+
+   /**
+    * Applies the changes to a set of server groups.
+    *
+    * @param serverGroups the IDs of the groups the client currently holds.
+    * @return the IDs of the groups the client holds after the changes.
+    */
+   public int[] applyTo(int[] serverGroups) {
+      return IntStream.concat(IntStream.of(serverGroups)
+              .filter(group -> Arrays.stream(removed).noneMatch(r -> r == group)),
+          IntStream.of(added)).distinct().toArray();
+   }
+
+   @Override
+   public String toString() {
+      return "+" + Arrays.toString(added) + " -" + Arrays.toString(removed);
+   }
+}
@@ -0,0 +1,111 @@
+package main.server.membership;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import main.conf.ForumRoleConfiguration;
+import main.core.Config;
+
+/**
+ * Derives the server groups a client should hold from its forum user group. Each role maps to a
+ * set of server groups; every group mentioned by any role is managed, meaning clients hold it
+ * exactly when their role lists it. Groups not mentioned by any role are never touched.
+ *
+ * <p>Roles are matched as prefixes of the forum user group, in configuration order. Clients
+ * without a forum account lose every managed group, while an unrecognised forum user group leaves
+ * the client's groups unchanged.</p>
+ */
+public final class GroupReconciler {
+
+   private final String[] prefixes;
+   private final int[][] roleGroups;
+   private final int[] managedGroups;
+
+   private GroupReconciler(String[] prefixes, int[][] roleGroups) {
+      this.prefixes = prefixes;
+      this.roleGroups = roleGroups;
+      this.managedGroups = Arrays.stream(roleGroups).flatMapToInt(IntStream::of).distinct()
+          .sorted().toArray();
+   }
+
+   /**
+    * Compiles a role configuration. Falls back to the built-in roles if the configuration or its
+    * role mapping is missing.
+    *
+    * @param config the configuration to compile, may be {@code null}.
+    * @return the compiled {@link GroupReconciler}.
+    */
+   public static GroupReconciler compile(ForumRoleConfiguration config) {
+      Map<String, List<Integer>> roles = config == null || config.getRoles() == null
+          ? defaultRoles() : config.getRoles();
+
+      List<String> prefixes = new ArrayList<>(roles.size());
+      List<int[]> roleGroups = new ArrayList<>(roles.size());
+      roles.forEach((prefix, groups) -> {
+         prefixes.add(prefix);
+         roleGroups.add(groups == null ? new int[0] : groups.stream().filter(g -> g != null)
+             .mapToInt(Integer::intValue).distinct().sorted().toArray());
+      });
+
+      return new GroupReconciler(prefixes.toArray(new String[0]),
+          roleGroups.toArray(new int[0][]));
+   }
+
+   /**
+    * Computes the changes needed to bring a client's server groups in line with its forum user
+    * group.
+    *
+    * @param userGroup the forum user group of the client, empty if the client has no account.
+    * @param currentGroups the server groups the client currently holds.
+    * @return the groups to add and remove, which may be none.
+    */
+   public GroupChanges reconcile(String userGroup, int[] currentGroups) {
+      final int[] desired;
+
+      if (userGroup.isEmpty()) {
+         desired = new int[0];
+      } else {
+         desired = desiredGroups(userGroup);
+         if (desired == null) {
+            return GroupChanges.NONE;
+         }
+      }
+
+      final int[] current = IntStream.of(currentGroups).distinct().sorted().toArray();
+      final int[] added = IntStream.of(desired)
+          .filter(group -> Arrays.binarySearch(current, group) < 0).toArray();
+      final int[] removed = IntStream.of(current)
+          .filter(group -> Arrays.binarySearch(managedGroups, group) >= 0
+              && Arrays.binarySearch(desired, group) < 0).toArray();
+
+      return added.length == 0 && removed.length == 0 ? GroupChanges.NONE
+          : new GroupChanges(added, removed);
+   }
+
+   private int[] desiredGroups(String userGroup) {
+      for (int i = 0; i < prefixes.length; i++) {
+         if (userGroup.startsWith(prefixes[i])) {
+            return roleGroups[i];
+         }
+      }
+      return null;
+   }
+
+   @SuppressWarnings("deprecation")
+   private static Map<String, List<Integer>> defaultRoles() {
+      Map<String, List<Integer>> roles = new LinkedHashMap<>();
+      roles.put("registered", Arrays.asList(Config.registeredGroupId));
+      roles.put("community member", Arrays.asList(Config.communityMemberGroupId));
+      roles.put("division manager", Arrays.asList(Config.divisionManagerGroupId,
+          Config.communityMemberGroupId));
+      roles.put("community manager", Arrays.asList(Config.communityManagerGroupId,
+          Config.communityMemberGroupId));
+      roles.put("senior community manager", Arrays.asList(Config.seniorCommunityManagerGroupId,
+          Config.communityMemberGroupId));
+      roles.put("founder", Arrays.asList(Config.founderGroupId, Config.communityMemberGroupId));
+      return roles;
+   }
+}
@@ -0,0 +1,23 @@
+package main.server.outbound;
+
+/**
+ * Priority lanes of the {@link MessageScheduler}. A message is only sent once every lane above
+ * its own is empty.
+ */
+public enum MessagePriority {
+
+   /**
+    * Messages a client is waiting on, such as kick or idle notices.
+    */
+   HIGH,
+
+   /**
+    * Ordinary command responses and announcements.
+    */
+   NORMAL,
+
+   /**
+    * Cosmetic messages, such as dad mode replies, which may be dropped under load.
+    */
+   LOW
+}
@@ -0,0 +1,394 @@
+package main.server.outbound;
+
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+
+/**
+ * Single exit point for the bot's outgoing text messages. Messages are queued in one lane per
+ * {@link MessagePriority} and sent by one thread within a messages-per-second budget, so the bot
+ * never floods the query connection and important messages are never stuck behind cosmetic ones.
+ *
+ * <p>Within a lane every target has its own queue and targets take turns, so one client being
+ * sent a long reply does not delay a short reply to another. A server or channel message that is
+ * identical to one still waiting in the same lane is coalesced into it instead of being sent
+ * twice. A lane holds at most {@value #LANE_CAPACITY} messages; further messages are dropped.</p>
+ */
+public class MessageScheduler {
+
+   private static final int LANE_CAPACITY = 1024;
+   private static final MessagePriority[] PRIORITIES = MessagePriority.values();
+
+   private final MessageSender sender;
+   private final long intervalNanos;
+   private final long burstNanos;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition notEmpty = lock.newCondition();
+   private final Lane[] lanes = new Lane[PRIORITIES.length];
+   private final Thread senderThread;
+   private final AtomicLong sent = new AtomicLong();
+   private final AtomicLong coalesced = new AtomicLong();
+   private final AtomicLong dropped = new AtomicLong();
+   private final AtomicLong failed = new AtomicLong();
+   private final AtomicLongArray sentPerLane = new AtomicLongArray(PRIORITIES.length);
+   private final AtomicLongArray totalWaitNanos = new AtomicLongArray(PRIORITIES.length);
+   private final AtomicLong maxWaitNanos = new AtomicLong();
+   private final AtomicLong acknowledged = new AtomicLong();
+   private final AtomicLong totalRoundTripNanos = new AtomicLong();
+   private long nextSendAt;
+   private int pending;
+   private volatile boolean running = true;
+
+   /**
+    * Creates a scheduler and starts its sender thread.
+    *
+    * @param name the name of the sender thread.
+    * @param sender sends the messages once they are due.
+    * @param messagesPerSecond the maximum sustained send rate, or 0 for no limit. Up to one
+    * second's worth of messages may be sent at once after a quiet period.
+    */
+   public MessageScheduler(String name, MessageSender sender, double messagesPerSecond) {
+      this.sender = sender;
+      this.intervalNanos = messagesPerSecond > 0 ? (long) (1e9 / messagesPerSecond) : 0;
+      this.burstNanos = messagesPerSecond > 0
+          ? (long) (intervalNanos * Math.max(0, Math.floor(messagesPerSecond) - 1)) : 0;
+      this.nextSendAt = System.nanoTime() - burstNanos;
+      for (int i = 0; i < lanes.length; i++) {
+         lanes[i] = new Lane();
+      }
+      this.senderThread = new Thread(this::run, name);
+      this.senderThread.setDaemon(true);
+      this.senderThread.start();
+   }
+
+   /**
+    * Queues a message.
+    *
+    * @param target the recipient of the message.
+    * @param message the text of the message.
+    * @param priority the lane of the message.
+    * @return {@code false} if the message was dropped because its lane is full or the scheduler
+    * has been shut down. A message coalesced into an identical pending one counts as queued.
+    */
+   public boolean send(MessageTarget target, String message, MessagePriority priority) {
+      lock.lock();
+      try {
+         if (!running) {
+            return false;
+         }
+
+         final Lane lane = lanes[priority.ordinal()];
+         TargetQueue queue = lane.queues.get(target);
+         if (target.isBroadcast() && queue != null && queue.texts.contains(message)) {
+            coalesced.incrementAndGet();
+            return true;
+         }
+         if (lane.size >= LANE_CAPACITY) {
+            dropped.incrementAndGet();
+            return false;
+         }
+
+         if (queue == null) {
+            queue = new TargetQueue();
+            lane.queues.put(target, queue);
+            lane.ready.add(target);
+         }
+         queue.messages.add(new Pending(target, message, target.isBroadcast()));
+         if (target.isBroadcast()) {
+            queue.texts.add(message);
+         }
+         lane.size++;
+         pending++;
+         notEmpty.signal();
+         return true;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Queues the parts of a message that is too long to be sent at once. The parts are queued
+    * together and are sent to the target in order; they are never coalesced.
+    *
+    * @param target the recipient of the message.
+    * @param parts the parts of the message, in order.
+    * @param priority the lane of the message.
+    * @return {@code false} if the parts were dropped because their lane cannot hold all of them or
+    * the scheduler has been shut down. Parts are never dropped individually.
+    */
+   public boolean sendAll(MessageTarget target, List<String> parts, MessagePriority priority) {
+      lock.lock();
+      try {
+         if (!running) {
+            return false;
+         }
+
+         final Lane lane = lanes[priority.ordinal()];
+         if (lane.size + parts.size() > LANE_CAPACITY) {
+            dropped.addAndGet(parts.size());
+            return false;
+         }
+
+         TargetQueue queue = lane.queues.get(target);
+         if (queue == null) {
+            queue = new TargetQueue();
+            lane.queues.put(target, queue);
+            lane.ready.add(target);
+         }
+         for (String part : parts) {
+            queue.messages.add(new Pending(target, part, false));
+         }
+         lane.size += parts.size();
+         pending += parts.size();
+         notEmpty.signal();
+         return true;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Stops accepting messages and waits for the queued ones to be sent.
+    *
+    * @param timeout the maximum time to wait.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if every queued message was sent in time.
+    */
+   public boolean shutdown(long timeout, TimeUnit unit) {
+      lock.lock();
+      try {
+         running = false;
+         notEmpty.signal();
+      } finally {
+         lock.unlock();
+      }
+
+      try {
+         unit.timedJoin(senderThread, timeout);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      if (senderThread.isAlive()) {
+         senderThread.interrupt();
+         return false;
+      }
+      return true;
+   }
+
+   /**
+    * @param priority the lane to check.
+    * @return the number of messages waiting in the given lane.
+    */
+   public int getQueueDepth(MessagePriority priority) {
+      lock.lock();
+      try {
+         return lanes[priority.ordinal()].size;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * @return the number of messages sent so far.
+    */
+   public long getSentCount() {
+      return sent.get();
+   }
+
+   /**
+    * @return the number of messages merged into an identical pending message.
+    */
+   public long getCoalescedCount() {
+      return coalesced.get();
+   }
+
+   /**
+    * @return the number of messages dropped because their lane was full.
+    */
+   public long getDroppedCount() {
+      return dropped.get();
+   }
+
+   /**
+    * @param priority the lane to check.
+    * @return the average time in milliseconds messages of the given lane spent queued.
+    */
+   public double getAverageWaitMillis(MessagePriority priority) {
+      final long count = sentPerLane.get(priority.ordinal());
+      return count == 0 ? 0 : totalWaitNanos.get(priority.ordinal()) / 1e6 / count;
+   }
+
+   /**
+    * @return the longest time in milliseconds any message spent queued.
+    */
+   public long getMaxWaitMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+   }
+
+   /**
+    * @return the average time in milliseconds between sending a message and the server
+    * acknowledging it.
+    */
+   public double getAverageRoundTripMillis() {
+      final long count = acknowledged.get();
+      return count == 0 ? 0 : totalRoundTripNanos.get() / 1e6 / count;
+   }
+
+   /**
+    * @return a one-line summary of the scheduler's metrics.
+    */
+   public String getStatusReport() {
+      return String.format("Outbound messages: queued high/normal/low %s/%s/%s, %s sent, "
+              + "%s coalesced, %s dropped, %s failed, wait avg high/normal/low %.1f/%.1f/%.1f ms, "
+              + "max %s ms, round trip avg %.1f ms", getQueueDepth(MessagePriority.HIGH),
+          getQueueDepth(MessagePriority.NORMAL), getQueueDepth(MessagePriority.LOW), sent.get(),
+          coalesced.get(), dropped.get(), failed.get(),
+          getAverageWaitMillis(MessagePriority.HIGH), getAverageWaitMillis(MessagePriority.NORMAL),
+          getAverageWaitMillis(MessagePriority.LOW), getMaxWaitMillis(),
+          getAverageRoundTripMillis());
+   }
+
+   private void run() {
+      while (true) {
+         lock.lock();
+         try {
+            while (pending == 0 && running) {
+               notEmpty.await();
+            }
+            if (pending == 0) {
+               return;
+            }
+         } catch (InterruptedException e) {
+            return;
+         } finally {
+            lock.unlock();
+         }
+
+         if (!awaitBudget()) {
+            return;
+         }
+
+         Pending next;
+         int lane;
+         lock.lock();
+         try {
+            lane = 0;
+            while (lanes[lane].size == 0) {
+               lane++;
+            }
+            next = lanes[lane].poll();
+            pending--;
+         } finally {
+            lock.unlock();
+         }
+         deliver(next, lane);
+      }
+   }
+
+   /**
+    * Waits until the budget allows another message to be sent.
+    *
+    * @return {@code false} if the thread was interrupted while waiting.
+    */
+   private boolean awaitBudget() {
+      if (intervalNanos == 0) {
+         return true;
+      }
+
+      final long sendAt = Math.max(nextSendAt, System.nanoTime() - burstNanos);
+      long wait;
+      while ((wait = sendAt - System.nanoTime()) > 0) {
+         LockSupport.parkNanos(this, wait);
+         if (Thread.interrupted()) {
+            return false;
+         }
+      }
+      nextSendAt = sendAt + intervalNanos;
+      return true;
+   }
+
+   private void deliver(Pending message, int lane) {
+      final long now = System.nanoTime();
+      final long wait = now - message.queuedAt;
+      sentPerLane.incrementAndGet(lane);
+      totalWaitNanos.addAndGet(lane, wait);
+      maxWaitNanos.accumulateAndGet(wait, Math::max);
+      sent.incrementAndGet();
+
+      try {
+         final CommandFuture<Boolean> result = sender.send(message.target, message.text);
+         result.onSuccess(ok -> {
+            acknowledged.incrementAndGet();
+            totalRoundTripNanos.addAndGet(System.nanoTime() - now);
+         }).onFailure(error -> onFailure(message, error.getMessage()));
+      } catch (RuntimeException e) {
+         onFailure(message, e.toString());
+      }
+   }
+
+   private void onFailure(Pending message, String error) {
+      failed.incrementAndGet();
+      new MessageHandler(String.format("Could not send message to %s: %s", message.target, error))
+          .sendToConsoleWith(Level.WARNING);
+   }
+
+   /**
+    * The queued messages of one priority, grouped by target. Targets with pending messages take
+    * turns in {@link #ready}.
+    */
+   private static final class Lane {
+
+      private final Map<MessageTarget, TargetQueue> queues = new HashMap<>();
+      private final ArrayDeque<MessageTarget> ready = new ArrayDeque<>();
+      private int size;
+
+      private Pending poll() {
+         final MessageTarget target = ready.poll();
+         final TargetQueue queue = queues.get(target);
+         final Pending next = queue.messages.poll();
+         if (next.coalescable) {
+            queue.texts.remove(next.text);
+         }
+
+         if (queue.messages.isEmpty()) {
+            queues.remove(target);
+         } else {
+            ready.add(target);
+         }
+         size--;
+         return next;
+      }
+   }
+
+   private static final class TargetQueue {
+
+      private final ArrayDeque<Pending> messages = new ArrayDeque<>();
+      private final Set<String> texts = new HashSet<>();
+   }
+
+   private static final class Pending {
+
+      private final MessageTarget target;
+      private final String text;
+      private final boolean coalescable;
+      private final long queuedAt = System.nanoTime();
+
+      private Pending(MessageTarget target, String text, boolean coalescable) {
+         this.target = target;
+         this.text = text;
+         this.coalescable = coalescable;
+      }
+   }
+}
@@ -0,0 +1,19 @@
+package main.server.outbound;
+
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
+
+/**
+ * Sends a single message on behalf of the {@link MessageScheduler}.
+ */
+@FunctionalInterface
+public interface MessageSender {
+
+   /**
+    * Sends a message.
+    *
+    * @param target the recipient of the message.
+    * @param message the text of the message.
+    * @return the future of the send command.
+    */
+   CommandFuture<Boolean> send(MessageTarget target, String message);
+}
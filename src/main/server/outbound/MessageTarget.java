@@ -0,0 +1,91 @@
+package main.server.outbound;
+
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
+
+/**
+ * Recipient of an outbound text message: the whole server, the bot's channel or a single client.
+ */
+public final class MessageTarget {
+
+   private static final MessageTarget SERVER = new MessageTarget(Type.SERVER, 0);
+   private static final MessageTarget CHANNEL = new MessageTarget(Type.CHANNEL, 0);
+
+   private final Type type;
+   private final int clientId;
+
+   private MessageTarget(Type type, int clientId) {
+      this.type = type;
+      this.clientId = clientId;
+   }
+
+   /**
+    * @return the target of messages to the whole server.
+    */
+   public static MessageTarget server() {
+      return SERVER;
+   }
+
+   /**
+    * @return the target of messages to the channel the bot is in.
+    */
+   public static MessageTarget channel() {
+      return CHANNEL;
+   }
+
+   /**
+    * @param clientId the ID of the client.
+    * @return the target of private messages to the given client.
+    */
+   public static MessageTarget client(int clientId) {
+      return new MessageTarget(Type.CLIENT, clientId);
+   }
+
+   /**
+    * @return whether messages to this target are seen by more than one client.
+    */
+   public boolean isBroadcast() {
+      return type != Type.CLIENT;
+   }
+
+   /**
+    * Sends a message to this target.
+    *
+    * @param api the API used to send the message.
+    * @param message the text of the message.
+    * @return the future of the send command.
+    */
+   public CommandFuture<Boolean> sendWith(TS3ApiAsync api, String message) {
+      switch (type) {
+         case SERVER:
+            return api.sendServerMessage(message);
+         case CHANNEL:
+            return api.sendChannelMessage(message);
+         default:
+            return api.sendPrivateMessage(clientId, message);
+      }
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (!(o instanceof MessageTarget)) {
+         return false;
+      }
+      final MessageTarget other = (MessageTarget) o;
+      return type == other.type && clientId == other.clientId;
+   }
+
+   @Override
+   public int hashCode() {
+      return type.hashCode() * 31 + clientId;
+   }
+
+   @Override
+   public String toString() {
+      return type == Type.CLIENT ? "client " + clientId : type.name().toLowerCase();
+   }
+
+   private enum Type {
+      SERVER, CHANNEL, CLIENT
+   }
+}
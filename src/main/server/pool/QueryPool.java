@@ -0,0 +1,240 @@
+package main.server.pool;
+
+import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import main.util.MessageHandler;
+
+/**
+ * Extra ServerQuery sessions to the virtual server of an instance, used for reads only. Every
+ * session has its own flood budget on the server, so reads such as client and channel lookups are
+ * spread across the sessions in turn instead of queueing behind the writes of the primary
+ * session, which alone registers for events.
+ *
+ * <p>One background thread opens the sessions and pings each of them every check interval. A
+ * session that fails to answer is closed and taken out of rotation, then reopened after a delay
+ * that doubles with every failed attempt, up to {@value #MAX_BACKOFF_FACTOR} check intervals.
+ * While no session is healthy, {@link #getReadApi()} and {@link #getReadApiAsync()} return
+ * {@code null} and callers fall back to the primary session.</p>
+ */
+public class QueryPool {
+
+   private static final int MAX_BACKOFF_FACTOR = 32;
+   private static final long PING_TIMEOUT_MILLIS = 5000;
+
+   private final String name;
+   private final Slot[] slots;
+   private final long checkIntervalMillis;
+   private final LongSupplier clock;
+   private final ScheduledThreadPoolExecutor checker;
+   private final AtomicInteger nextSlot = new AtomicInteger();
+   private volatile boolean started;
+
+   /**
+    * Creates a pool. No session is opened before {@link #start()}.
+    *
+    * @param name the name of the pool, used for its thread and in log messages.
+    * @param size the number of sessions.
+    * @param sessionFactory creates the sessions.
+    * @param checkIntervalMillis the time between two health checks of a session.
+    */
+   public QueryPool(String name, int size, Supplier<QuerySession> sessionFactory,
+       long checkIntervalMillis) {
+      this(name, size, sessionFactory, checkIntervalMillis, System::currentTimeMillis);
+   }
+
+   QueryPool(String name, int size, Supplier<QuerySession> sessionFactory,
+       long checkIntervalMillis, LongSupplier clock) {
+      this.name = name;
+      this.checkIntervalMillis = checkIntervalMillis;
+      this.clock = clock;
+      this.slots = new Slot[size];
+      for (int i = 0; i < size; i++) {
+         slots[i] = new Slot(i + 1, sessionFactory.get());
+      }
+      this.checker = new ScheduledThreadPoolExecutor(1, runnable -> {
+         final Thread thread = new Thread(runnable, name);
+         thread.setDaemon(true);
+         return thread;
+      });
+   }
+
+   /**
+    * Opens the sessions in the background and starts checking their health. Does nothing if
+    * already started.
+    */
+   public synchronized void start() {
+      if (started || checker.isShutdown()) {
+         return;
+      }
+      started = true;
+      checker.scheduleWithFixedDelay(this::checkHealth, 0, checkIntervalMillis,
+          TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * @return the synchronous API of the next healthy session, or {@code null} if none is healthy.
+    */
+   public TS3Api getReadApi() {
+      final QuerySession session = next();
+      return session != null ? session.getApi() : null;
+   }
+
+   /**
+    * @return the asynchronous API of the next healthy session, or {@code null} if none is
+    * healthy.
+    */
+   public TS3ApiAsync getReadApiAsync() {
+      final QuerySession session = next();
+      return session != null ? session.getApiAsync() : null;
+   }
+
+   /**
+    * @return the number of sessions of the pool.
+    */
+   public int getSize() {
+      return slots.length;
+   }
+
+   /**
+    * @return the number of sessions currently in rotation.
+    */
+   public int getHealthyCount() {
+      int healthy = 0;
+      for (Slot slot : slots) {
+         healthy += slot.healthy ? 1 : 0;
+      }
+      return healthy;
+   }
+
+   /**
+    * @return a summary of the health and use of every session.
+    */
+   public String getStatusReport() {
+      final StringBuilder report = new StringBuilder(String.format(
+          "Read sessions: %d of %d healthy", getHealthyCount(), slots.length));
+      for (Slot slot : slots) {
+         report.append(String.format("%n  #%d: %s, %d reads, %d reconnects", slot.number,
+             slot.healthy ? "healthy" : "down", slot.reads.get(), slot.reconnects));
+      }
+      return report.toString();
+   }
+
+   /**
+    * Stops the health checks and closes every session. Reads fall back to the primary session from
+    * then on.
+    *
+    * @param timeout the maximum time to wait for a running health check.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if the health checks stopped in time.
+    */
+   public boolean shutdown(long timeout, TimeUnit unit) {
+      synchronized (this) {
+         checker.shutdownNow();
+      }
+      boolean stopped;
+      try {
+         stopped = checker.awaitTermination(timeout, unit);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         stopped = false;
+      }
+      for (Slot slot : slots) {
+         slot.healthy = false;
+         slot.session.close();
+      }
+      return stopped;
+   }
+
+   /**
+    * @return the next healthy session in turn, or {@code null} if none is healthy.
+    */
+   QuerySession next() {
+      final int start = nextSlot.getAndIncrement();
+      for (int i = 0; i < slots.length; i++) {
+         final Slot slot = slots[Math.floorMod(start + i, slots.length)];
+         if (slot.healthy) {
+            slot.reads.incrementAndGet();
+            return slot.session;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Pings the healthy sessions and reopens the failed ones which are due.
+    */
+   void checkHealth() {
+      for (Slot slot : slots) {
+         if (Thread.currentThread().isInterrupted()) {
+            return;
+         }
+         if (slot.healthy) {
+            if (!slot.session.ping(PING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+               slot.healthy = false;
+               slot.session.close();
+               slot.failures = 0;
+               slot.retryAt = clock.getAsLong();
+               new MessageHandler(String.format("%s: read session #%d stopped answering and was "
+                   + "taken out of rotation.", name, slot.number)).sendToConsoleWith(Level.WARNING);
+            }
+         }
+         if (!slot.healthy && clock.getAsLong() >= slot.retryAt) {
+            reopen(slot);
+         }
+      }
+   }
+
+   private void reopen(Slot slot) {
+      boolean opened;
+      try {
+         slot.session.open();
+         opened = slot.session.ping(PING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (Exception e) {
+         opened = false;
+      }
+
+      if (opened) {
+         if (slot.opened) {
+            slot.reconnects++;
+            new MessageHandler(String.format("%s: read session #%d reconnected.", name,
+                slot.number)).sendToConsoleWith(Level.INFO);
+         }
+         slot.opened = true;
+         slot.failures = 0;
+         slot.healthy = true;
+      } else {
+         slot.session.close();
+         slot.failures++;
+         final long backoff = Math.min(1L << Math.min(slot.failures, 30), MAX_BACKOFF_FACTOR);
+         slot.retryAt = clock.getAsLong() + checkIntervalMillis * backoff;
+      }
+   }
+
+   /**
+    * A session and its health. Only the checker thread writes the fields other than
+    * {@code healthy} and {@code reads}.
+    */
+   private static final class Slot {
+
+      private final int number;
+      private final QuerySession session;
+      private final AtomicLong reads = new AtomicLong();
+      private volatile boolean healthy;
+      private volatile int reconnects;
+      private boolean opened;
+      private int failures;
+      private long retryAt;
+
+      private Slot(int number, QuerySession session) {
+         this.number = number;
+         this.session = session;
+      }
+   }
+}
@@ -0,0 +1,43 @@
+package main.server.pool;
+
+import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A logged-in ServerQuery session used by a {@link QueryPool}. A session can be opened again after
+ * it has been closed.
+ */
+public interface QuerySession {
+
+   /**
+    * Connects, logs in and selects the virtual server, blocking until done.
+    *
+    * @throws Exception if the session could not be opened.
+    */
+   void open() throws Exception;
+
+   /**
+    * Checks that the session is still connected and answering.
+    *
+    * @param timeout the maximum time to wait for an answer.
+    * @param unit the unit of the timeout.
+    * @return {@code true} if the session answered in time.
+    */
+   boolean ping(long timeout, TimeUnit unit);
+
+   /**
+    * @return the synchronous API of the session.
+    */
+   TS3Api getApi();
+
+   /**
+    * @return the asynchronous API of the session.
+    */
+   TS3ApiAsync getApiAsync();
+
+   /**
+    * Closes the connection, if open.
+    */
+   void close();
+}
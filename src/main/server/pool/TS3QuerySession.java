@@ -0,0 +1,93 @@
+package main.server.pool;
+
+import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import com.github.theholywaffle.teamspeak3.TS3Query;
+import com.github.theholywaffle.teamspeak3.TS3Query.FloodRate;
+import com.github.theholywaffle.teamspeak3.api.reconnect.ConnectionHandler;
+import com.github.theholywaffle.teamspeak3.api.reconnect.ReconnectStrategy;
+import com.github.theholywaffle.teamspeak3.api.wrapper.ServerQueryInfo;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import main.conf.ConnectionConfiguration;
+import main.server.ServerConfigBuilder;
+
+/**
+ * A {@link QuerySession} on its own {@link TS3Query}, logged in with the credentials of the
+ * instance. It registers for no events and does not reconnect by itself; a lost connection is
+ * noticed and reopened by the {@link QueryPool}. Once closed, calls through its APIs fail until
+ * it is opened again.
+ */
+public class TS3QuerySession implements QuerySession {
+
+   private final ConnectionConfiguration connectionConfig;
+   private volatile TS3Query query;
+   private volatile boolean connected;
+
+   /**
+    * @param connectionConfig the connection settings of the instance.
+    */
+   public TS3QuerySession(ConnectionConfiguration connectionConfig) {
+      this.connectionConfig = connectionConfig;
+   }
+
+   @Override
+   public synchronized void open() {
+      close();
+      final TS3Query newQuery = new TS3Query(new ServerConfigBuilder()
+          .withHost(connectionConfig.getServerAddress())
+          .withQueryPort(connectionConfig.getServerQueryPort())
+          .withDebugLevel(Level.OFF)
+          .withFloodRate(FloodRate.DEFAULT)
+          .withReconnectStrategy(ReconnectStrategy.disconnect())
+          .withConnectionHandler(new ConnectionHandler() {
+             public void onConnect(TS3Query ts3Query) {
+                final TS3Api api = ts3Query.getApi();
+                api.login(connectionConfig.getServerQueryName(),
+                    connectionConfig.getServerQueryPassword());
+                api.selectVirtualServerById(connectionConfig.getVirtualServerId());
+                connected = true;
+             }
+
+             public void onDisconnect(TS3Query ts3Query) {
+                connected = false;
+             }
+          })
+          .build());
+      query = newQuery;
+      newQuery.connect();
+   }
+
+   @Override
+   public boolean ping(long timeout, TimeUnit unit) {
+      final TS3Query current = query;
+      if (current == null || !connected) {
+         return false;
+      }
+      try {
+         final ServerQueryInfo info = current.getAsyncApi().whoAmI()
+             .getUninterruptibly(timeout, unit);
+         return info != null && info.getVirtualServerId() == connectionConfig.getVirtualServerId();
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   @Override
+   public TS3Api getApi() {
+      return query.getApi();
+   }
+
+   @Override
+   public TS3ApiAsync getApiAsync() {
+      return query.getAsyncApi();
+   }
+
+   @Override
+   public synchronized void close() {
+      connected = false;
+      if (query != null) {
+         query.exit();
+      }
+   }
+}
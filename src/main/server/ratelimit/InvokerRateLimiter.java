@@ -0,0 +1,159 @@
+package main.server.ratelimit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import main.conf.RateLimitConfiguration;
+import main.util.enums.AccessLevel;
+
+/**
+ * Limits how often each client may use chat commands and triggers, so a single client cannot
+ * spend the bot's query calls and message budget. Every client has a {@link TokenBucket}; uses
+ * cost a configured number of tokens and are denied once the bucket is empty.
+ *
+ * <p>The capacity and refill rate of a bucket are scaled by a factor per {@link AccessLevel}, and
+ * levels with a factor of 0 are not limited at all. Buckets are dropped when their client leaves
+ * the server.</p>
+ */
+public final class InvokerRateLimiter {
+
+   private static final double DEFAULT_CAPACITY = 5;
+   private static final double DEFAULT_REFILL_PER_MINUTE = 20;
+   private static final AccessLevel[] LEVELS = AccessLevel.values();
+
+   private final Map<Integer, TokenBucket> buckets = new ConcurrentHashMap<>();
+   private final long[] nanosPerToken = new long[LEVELS.length];
+   private final long[] capacityNanos = new long[LEVELS.length];
+   private final Map<String, Integer> commandCosts;
+   private final int defaultCost;
+   private final int triggerCost;
+   private final AtomicLong allowed = new AtomicLong();
+   private final AtomicLong denied = new AtomicLong();
+
+   private InvokerRateLimiter(double capacity, double refillPerMinute,
+       Map<String, Double> levelMultipliers, Map<String, Integer> commandCosts, int defaultCost,
+       int triggerCost) {
+      for (AccessLevel level : LEVELS) {
+         final Double multiplier = levelMultipliers.get(level.name());
+         final double factor = multiplier != null ? multiplier : 1;
+         if (factor <= 0 || capacity <= 0 || refillPerMinute <= 0) {
+            nanosPerToken[level.ordinal()] = 0;
+            continue;
+         }
+         nanosPerToken[level.ordinal()] = Math.max(1,
+             (long) (TimeUnit.MINUTES.toNanos(1) / (refillPerMinute * factor)));
+         capacityNanos[level.ordinal()] = (long) (capacity * factor
+             * nanosPerToken[level.ordinal()]);
+      }
+      this.commandCosts = commandCosts;
+      this.defaultCost = defaultCost;
+      this.triggerCost = triggerCost;
+   }
+
+   /**
+    * Compiles a rate limit configuration. Missing values fall back to a capacity of 5 tokens, a
+    * refill of 20 tokens per minute and a cost of 1 token.
+    *
+    * @param config the configuration to compile, may be {@code null}.
+    * @return the compiled {@link InvokerRateLimiter}.
+    */
+   public static InvokerRateLimiter compile(RateLimitConfiguration config) {
+      if (config == null) {
+         return new InvokerRateLimiter(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_MINUTE,
+             Collections.emptyMap(), Collections.emptyMap(), 1, 1);
+      }
+
+      final Map<String, Integer> commandCosts = new HashMap<>();
+      if (config.getCommandCosts() != null) {
+         config.getCommandCosts().forEach((command, cost) -> {
+            if (cost != null) {
+               commandCosts.put(command.toLowerCase(Locale.ROOT), Math.max(0, cost));
+            }
+         });
+      }
+      final Map<String, Double> levelMultipliers = new HashMap<>();
+      if (config.getLevelMultipliers() != null) {
+         config.getLevelMultipliers().forEach((level, multiplier) -> {
+            if (multiplier != null) {
+               levelMultipliers.put(level.toUpperCase(Locale.ROOT), multiplier);
+            }
+         });
+      }
+
+      return new InvokerRateLimiter(
+          config.getCapacity() != null ? config.getCapacity() : DEFAULT_CAPACITY,
+          config.getRefillPerMinute() != null ? config.getRefillPerMinute()
+              : DEFAULT_REFILL_PER_MINUTE, levelMultipliers, commandCosts,
+          config.getDefaultCost() != null ? Math.max(0, config.getDefaultCost()) : 1,
+          config.getTriggerCost() != null ? Math.max(0, config.getTriggerCost()) : 1);
+   }
+
+   /**
+    * Spends the cost of a command from a client's bucket.
+    *
+    * @param clientId the ID of the invoking client.
+    * @param level the invoker's {@link AccessLevel}.
+    * @param command the name of the command.
+    * @return whether the client may use the command.
+    */
+   public RateLimitResult acquireCommand(int clientId, AccessLevel level, String command) {
+      final Integer cost = commandCosts.get(command);
+      return acquire(clientId, level, cost != null ? cost : defaultCost, System.nanoTime());
+   }
+
+   /**
+    * Spends the cost of a trigger from a client's bucket.
+    *
+    * @param clientId the ID of the client whose message set off the trigger.
+    * @param level the client's {@link AccessLevel}.
+    * @return whether the trigger may respond.
+    */
+   public RateLimitResult acquireTrigger(int clientId, AccessLevel level) {
+      return acquire(clientId, level, triggerCost, System.nanoTime());
+   }
+
+   RateLimitResult acquire(int clientId, AccessLevel level, int cost, long now) {
+      final long interval = nanosPerToken[level.ordinal()];
+      if (interval == 0 || cost == 0) {
+         allowed.incrementAndGet();
+         return RateLimitResult.ALLOWED;
+      }
+
+      TokenBucket bucket = buckets.get(clientId);
+      if (bucket == null) {
+         bucket = buckets.computeIfAbsent(clientId, id -> new TokenBucket(now));
+      }
+      final RateLimitResult result = bucket.tryAcquire(cost, interval,
+          capacityNanos[level.ordinal()], now);
+      (result.isAllowed() ? allowed : denied).incrementAndGet();
+      return result;
+   }
+
+   /**
+    * Drops the bucket of a client which has left the server.
+    *
+    * @param clientId the ID of the client.
+    */
+   public void evict(int clientId) {
+      buckets.remove(clientId);
+   }
+
+   /**
+    * Drops every bucket, for when the client IDs of the server are no longer valid.
+    */
+   public void clear() {
+      buckets.clear();
+   }
+
+   /**
+    * @return a one-line summary of the limiter's counters.
+    */
+   public String getStatusReport() {
+      return String.format("Rate limits: %s buckets, %s allowed, %s denied", buckets.size(),
+          allowed.get(), denied.get());
+   }
+}
@@ -0,0 +1,27 @@
+package main.server.ratelimit;
+
+/**
+ * The outcome of spending tokens from a client's bucket.
+ */
+public enum RateLimitResult {
+   /**
+    * The client had enough tokens.
+    */
+   ALLOWED,
+   /**
+    * The client ran out of tokens for the first time since it was last allowed. The client should
+    * be told it is being limited.
+    */
+   FIRST_DENIED,
+   /**
+    * The client is still out of tokens and has already been told.
+    */
+   DENIED;
+
+   /**
+    * @return whether the use was allowed.
+    */
+   public boolean isAllowed() {
+      return this == ALLOWED;
+   }
+}
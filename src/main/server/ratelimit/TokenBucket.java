@@ -0,0 +1,52 @@
+package main.server.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket of a single client. Instead of a token count, the bucket keeps the time
+ * at which it will be full again; spending tokens pushes that time further out, and a use is
+ * denied if it would push it beyond the capacity of the bucket. Refilling therefore needs no
+ * timer, and a use is a single compare-and-set.
+ *
+ * <p>The rate and capacity are passed in on every use, so a client's limit follows its current
+ * access level.</p>
+ */
+final class TokenBucket {
+
+   private final AtomicLong fullAt;
+   private final AtomicBoolean notified = new AtomicBoolean();
+
+   TokenBucket(long now) {
+      this.fullAt = new AtomicLong(now);
+   }
+
+   /**
+    * Spends tokens if enough are left.
+    *
+    * @param cost the number of tokens to spend.
+    * @param nanosPerToken the time it takes to regain one token.
+    * @param capacityNanos the time it takes to refill an empty bucket.
+    * @param now the current time from {@link System#nanoTime()}.
+    * @return {@link RateLimitResult#ALLOWED} if the tokens were spent.
+    */
+   RateLimitResult tryAcquire(int cost, long nanosPerToken, long capacityNanos, long now) {
+      final long increment = Math.min(cost * nanosPerToken, capacityNanos);
+
+      while (true) {
+         final long current = fullAt.get();
+         final long next = (current - now > 0 ? current : now) + increment;
+
+         if (next - now > capacityNanos) {
+            return notified.compareAndSet(false, true) ? RateLimitResult.FIRST_DENIED
+                : RateLimitResult.DENIED;
+         }
+         if (fullAt.compareAndSet(current, next)) {
+            if (notified.get()) {
+               notified.set(false);
+            }
+            return RateLimitResult.ALLOWED;
+         }
+      }
+   }
+}
@@ -0,0 +1,174 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientLeaveEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TS3EventAdapter;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Wrapper;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+import main.util.MessageHandler;
+
+/**
+ * Records the join, leave, move and text message events of a server to a file in the format
+ * described on {@link EventRecording}, so that they can be replayed offline by the {@link
+ * EventReplayer}. Records are buffered and flushed at most once per second.
+ */
+public class EventRecorder extends TS3EventAdapter {
+
+   private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   private final DataOutputStream out;
+   private final Map<String, Integer> keys = new HashMap<>();
+   private long lastRecordNanos = System.nanoTime();
+   private long lastFlushNanos = lastRecordNanos;
+   private long recorded;
+   private boolean failed;
+
+   /**
+    * Creates a recorder writing to a new file, replacing any existing one.
+    *
+    * @param file the file to record to.
+    * @param botClientId the client ID of the bot on the recorded server.
+    * @throws IOException if the file cannot be created.
+    */
+   public EventRecorder(File file, int botClientId) throws IOException {
+      this(new FileOutputStream(file), botClientId);
+   }
+
+   /**
+    * Creates a recorder writing to a stream.
+    *
+    * @param stream the stream to record to. It is closed with the recorder.
+    * @param botClientId the client ID of the bot on the recorded server.
+    * @throws IOException if the header cannot be written.
+    */
+   public EventRecorder(OutputStream stream, int botClientId) throws IOException {
+      this.out = new DataOutputStream(new BufferedOutputStream(
+          new GZIPOutputStream(stream, 1 << 16, true), 1 << 16));
+      out.writeInt(EventRecording.MAGIC);
+      out.writeByte(EventRecording.VERSION);
+      out.writeLong(System.currentTimeMillis());
+      out.writeInt(botClientId);
+   }
+
+   /**
+    * Records the clients and channels present on the server. Should be called before any event is
+    * recorded.
+    *
+    * @param clients the connected clients.
+    * @param channels the existing channels.
+    */
+   public synchronized void recordSnapshot(List<Client> clients, List<Channel> channels) {
+      for (Channel channel : channels) {
+         write(RecordedEventType.CHANNEL, channel);
+      }
+      for (Client client : clients) {
+         write(RecordedEventType.CLIENT, client);
+      }
+   }
+
+   @Override
+   public void onClientJoin(ClientJoinEvent e) {
+      record(RecordedEventType.JOIN, e);
+   }
+
+   @Override
+   public void onClientLeave(ClientLeaveEvent e) {
+      record(RecordedEventType.LEAVE, e);
+   }
+
+   @Override
+   public void onClientMoved(ClientMovedEvent e) {
+      record(RecordedEventType.MOVE, e);
+   }
+
+   @Override
+   public void onTextMessage(TextMessageEvent e) {
+      record(RecordedEventType.TEXT, e);
+   }
+
+   /**
+    * @return the number of records written so far.
+    */
+   public synchronized long getRecordedCount() {
+      return recorded;
+   }
+
+   /**
+    * Writes out the buffered records and closes the file.
+    */
+   public synchronized void close() {
+      try {
+         out.close();
+      } catch (IOException e) {
+         reportFailure(e);
+      }
+      failed = true;
+   }
+
+   private synchronized void record(RecordedEventType type, Wrapper event) {
+      write(type, event);
+
+      if (lastRecordNanos - lastFlushNanos >= FLUSH_INTERVAL_NANOS && !failed) {
+         lastFlushNanos = lastRecordNanos;
+         try {
+            out.flush();
+         } catch (IOException e) {
+            reportFailure(e);
+         }
+      }
+   }
+
+   private void write(RecordedEventType type, Wrapper value) {
+      if (failed) {
+         return;
+      }
+
+      final long now = System.nanoTime();
+      try {
+         out.writeByte(type.ordinal());
+         EventRecording.writeVarLong(out, type.isSnapshot()
+             ? 0 : TimeUnit.NANOSECONDS.toMicros(now - lastRecordNanos));
+         final Map<String, String> properties = value.getMap();
+         EventRecording.writeVarLong(out, properties.size());
+         for (Map.Entry<String, String> property : properties.entrySet()) {
+            final Integer index = keys.get(property.getKey());
+            if (index != null) {
+               EventRecording.writeVarLong(out, index);
+            } else {
+               EventRecording.writeVarLong(out, keys.size());
+               EventRecording.writeString(out, property.getKey());
+               keys.put(property.getKey(), keys.size());
+            }
+            EventRecording.writeString(out,
+                property.getValue() != null ? property.getValue() : "");
+         }
+         recorded++;
+      } catch (IOException e) {
+         reportFailure(e);
+      }
+      if (!type.isSnapshot()) {
+         lastRecordNanos = now;
+      }
+   }
+
+   private void reportFailure(IOException e) {
+      failed = true;
+      new MessageHandler(String.format("Event recording stopped: %s", e.getMessage()))
+          .sendToConsoleWith(Level.WARNING);
+   }
+}
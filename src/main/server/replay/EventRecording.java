@@ -0,0 +1,168 @@
+package main.server.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A recording of the events a server sent to the bot, loaded into memory for replay. Recordings
+ * are written by an {@link EventRecorder} in a compact binary format, compressed with GZIP:
+ *
+ * <pre>{@code
+ * header: int magic, byte version, long start (epoch millis), int bot client ID
+ * record: byte type, varint microseconds since the previous record, varint property count,
+ *         properties
+ * property: varint key index, [string key, if the index is new], string value
+ * string: varint UTF-8 length, UTF-8 bytes
+ * }</pre>
+ *
+ * <p>Property keys are written once and referred to by index afterwards, as every event of a kind
+ * repeats the same keys. The recording starts with a snapshot of the connected clients and
+ * existing channels, so that events concerning them can be replayed faithfully.</p>
+ */
+public final class EventRecording {
+
+   static final int MAGIC = 0x54533352;
+   static final int VERSION = 1;
+
+   private final long startMillis;
+   private final int botClientId;
+   private final List<RecordedEvent> records;
+
+   private EventRecording(long startMillis, int botClientId, List<RecordedEvent> records) {
+      this.startMillis = startMillis;
+      this.botClientId = botClientId;
+      this.records = Collections.unmodifiableList(records);
+   }
+
+   /**
+    * Reads a whole recording into memory.
+    *
+    * @param file the recording written by an {@link EventRecorder}.
+    * @return the {@link EventRecording}.
+    * @throws IOException if the file cannot be read or is not a recording. A recording cut short,
+    * for instance because the bot was killed, is read up to its last complete record.
+    */
+   public static EventRecording read(File file) throws IOException {
+      try (InputStream in = new FileInputStream(file)) {
+         return read(in);
+      }
+   }
+
+   /**
+    * Reads a whole recording into memory.
+    *
+    * @param stream the recording written by an {@link EventRecorder}.
+    * @return the {@link EventRecording}.
+    * @throws IOException if the stream cannot be read or is not a recording.
+    */
+   public static EventRecording read(InputStream stream) throws IOException {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new GZIPInputStream(stream)));
+      if (in.readInt() != MAGIC) {
+         throw new IOException("Not an event recording.");
+      }
+      final int version = in.readUnsignedByte();
+      if (version != VERSION) {
+         throw new IOException("Unsupported event recording version: " + version);
+      }
+      final long startMillis = in.readLong();
+      final int botClientId = in.readInt();
+
+      final List<String> keys = new ArrayList<>();
+      final List<RecordedEvent> records = new ArrayList<>();
+      long offsetMicros = 0;
+      while (true) {
+         final int code;
+         final Map<String, String> properties;
+         try {
+            code = in.read();
+            if (code < 0) {
+               break;
+            }
+            offsetMicros += readVarLong(in);
+            final int count = (int) readVarLong(in);
+            properties = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+               final int index = (int) readVarLong(in);
+               if (index == keys.size()) {
+                  keys.add(readString(in));
+               }
+               properties.put(keys.get(index), readString(in));
+            }
+         } catch (EOFException e) {
+            break;
+         }
+
+         final RecordedEventType type = RecordedEventType.fromCode(code);
+         records.add(new RecordedEvent(type, offsetMicros, type.create(properties)));
+      }
+      return new EventRecording(startMillis, botClientId, records);
+   }
+
+   /**
+    * @return the time the recording was started, in epoch milliseconds.
+    */
+   public long getStartMillis() {
+      return startMillis;
+   }
+
+   /**
+    * @return the client ID the bot had while recording.
+    */
+   public int getBotClientId() {
+      return botClientId;
+   }
+
+   /**
+    * @return the records, in the order they were recorded.
+    */
+   public List<RecordedEvent> getRecords() {
+      return records;
+   }
+
+   static void writeVarLong(DataOutput out, long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+         out.writeByte((int) (value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      out.writeByte((int) value);
+   }
+
+   static long readVarLong(DataInput in) throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+         final int b = in.readUnsignedByte();
+         value |= (long) (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return value;
+         }
+      }
+      throw new IOException("Malformed variable-length number.");
+   }
+
+   static void writeString(DataOutput out, String value) throws IOException {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(out, bytes.length);
+      out.write(bytes);
+   }
+
+   static String readString(DataInput in) throws IOException {
+      final byte[] bytes = new byte[(int) readVarLong(in)];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+}
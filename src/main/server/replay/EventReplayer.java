@@ -0,0 +1,217 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.api.event.TS3Event;
+import com.github.theholywaffle.teamspeak3.api.event.TS3Listener;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import main.conf.ConfigHandler;
+import main.conf.Configuration;
+import main.conf.ConnectionConfiguration;
+import main.conf.EventLoggingConfiguration;
+import main.core.commands.CommandExecutor;
+import main.server.ServerConnectionManager;
+import main.server.dispatch.EventDispatcher;
+import main.server.membership.ForumMembershipResolver;
+import main.server.outbound.MessagePriority;
+import main.server.outbound.MessageScheduler;
+
+/**
+ * Pushes a recorded event stream through a server's listeners and handlers as fast as they can
+ * take it, with the query replaced by a {@link ReplayApi} and {@link ReplayApiAsync}, and reports
+ * the throughput, the run time of every handler and the allocation rate.
+ *
+ * <p>Run it from the bot's directory, so that the configuration is found:</p>
+ *
+ * <pre>{@code java main.server.replay.EventReplayer <recording> [repetitions] [warm-ups]}</pre>
+ *
+ * <p>The bot's own configuration is used, except that outgoing messages are not rate limited,
+ * forum memberships are not looked up and the event journal is written to a temporary directory.
+ * Before each pass the caches are reset to the snapshot at the start of the recording.</p>
+ */
+public class EventReplayer {
+
+   private final ServerConnectionManager instance;
+   private final ReplayApiAsync apiAsync = new ReplayApiAsync();
+   private final Map<String, LatencySamples> latencies = new ConcurrentHashMap<>();
+
+   /**
+    * Creates a replayer for the given server, which must not be connected.
+    *
+    * @param instance the {@link ServerConnectionManager} whose handlers are run.
+    */
+   public EventReplayer(ServerConnectionManager instance) {
+      this.instance = instance;
+   }
+
+   /**
+    * Replays a recording.
+    *
+    * @param recording the recorded events.
+    * @param repetitions the number of measured passes over the recording.
+    * @param warmUps the number of unmeasured passes run first, to let the JIT compiler settle.
+    * @return the measurements of the measured passes.
+    */
+   public ReplayReport replay(EventRecording recording, int repetitions, int warmUps) {
+      final List<Client> clients = new ArrayList<>();
+      final List<Channel> channels = new ArrayList<>();
+      final List<TS3Event> events = new ArrayList<>();
+      for (RecordedEvent record : recording.getRecords()) {
+         switch (record.getType()) {
+            case CLIENT:
+               clients.add((Client) record.getValue());
+               break;
+            case CHANNEL:
+               channels.add((Channel) record.getValue());
+               break;
+            default:
+               events.add((TS3Event) record.getValue());
+         }
+      }
+
+      instance.attach(new ReplayApi(), apiAsync, recording.getBotClientId());
+      final TS3Listener[] listeners = instance.createListeners();
+      final EventDispatcher dispatcher = instance.getEventDispatcher();
+
+      for (int i = 0; i < warmUps; i++) {
+         runPass(clients, channels, events, listeners);
+      }
+
+      latencies.clear();
+      final long messagesBefore = apiAsync.getMessageCount();
+      final long commandsBefore = apiAsync.getCommandCount();
+      final long failedBefore = dispatcher.getFailedCount();
+      dispatcher.setHandlerTimer((type, nanos) -> latencies
+          .computeIfAbsent(type.getSimpleName(), name -> new LatencySamples()).add(nanos));
+      final long allocatedBefore = getAllocatedBytes();
+      final long start = System.nanoTime();
+
+      for (int i = 0; i < repetitions; i++) {
+         runPass(clients, channels, events, listeners);
+      }
+
+      final long elapsed = System.nanoTime() - start;
+      final long allocatedAfter = getAllocatedBytes();
+      dispatcher.setHandlerTimer(null);
+
+      return new ReplayReport((long) events.size() * repetitions, elapsed,
+          allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore,
+          apiAsync.getMessageCount() - messagesBefore, apiAsync.getCommandCount() - commandsBefore,
+          dispatcher.getFailedCount() - failedBefore, latencies);
+   }
+
+   /**
+    * Resets the caches to the snapshot, fires every event at every listener, as the query does,
+    * and waits until every handler and command has run and every resulting message has been sent.
+    */
+   private void runPass(List<Client> clients, List<Channel> channels, List<TS3Event> events,
+       TS3Listener[] listeners) {
+      instance.getClientCache().rebuild(clients);
+      instance.getChannelCache().rebuild(channels);
+      instance.getAccessLevelCache().invalidateAll();
+      instance.getRateLimiter().clear();
+
+      for (TS3Event event : events) {
+         for (TS3Listener listener : listeners) {
+            event.fire(listener);
+         }
+      }
+
+      final EventDispatcher dispatcher = instance.getEventDispatcher();
+      final MessageScheduler scheduler = instance.getMessageScheduler();
+      final CommandExecutor commands = instance.getCommandExecutor();
+      while (dispatcher.getProcessedCount() < dispatcher.getDispatchedCount()
+          || commands.getPendingCount() > 0
+          || scheduler.getQueueDepth(MessagePriority.HIGH) > 0
+          || scheduler.getQueueDepth(MessagePriority.NORMAL) > 0
+          || scheduler.getQueueDepth(MessagePriority.LOW) > 0) {
+         LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+      }
+   }
+
+   /**
+    * @return the bytes allocated so far by the live threads, or -1 if the JVM cannot tell.
+    */
+   private static long getAllocatedBytes() {
+      final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+         return -1;
+      }
+
+      final com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+      if (!allocation.isThreadAllocatedMemorySupported()
+          || !allocation.isThreadAllocatedMemoryEnabled()) {
+         return -1;
+      }
+      long total = 0;
+      for (long bytes : allocation.getThreadAllocatedBytes(allocation.getAllThreadIds())) {
+         if (bytes > 0) {
+            total += bytes;
+         }
+      }
+      return total;
+   }
+
+   /**
+    * Replays a recording against the bot's configuration and prints the measurements.
+    *
+    * @param args the recording, optionally followed by the number of measured passes (default 1)
+    * and of warm-up passes (default 1).
+    * @throws Exception if the recording or the configuration cannot be read.
+    */
+   public static void main(String[] args) throws Exception {
+      if (args.length == 0) {
+         System.out.println("Usage: EventReplayer <recording> [repetitions] [warm-ups]");
+         return;
+      }
+      final EventRecording recording = EventRecording.read(new File(args[0]));
+      final int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+      final int warmUps = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+      final ConnectionConfiguration connectionConfig = ConfigHandler.readConnectionConfig(
+          new File("./config/ConnectionConfig.yaml"));
+      connectionConfig.setBotMessagesPerSecond(0);
+      EventLoggingConfiguration loggingConfig = ConfigHandler.readEventLoggingConfig(
+          new File("./config/EventLogging.yaml"));
+      if (loggingConfig == null) {
+         loggingConfig = new EventLoggingConfiguration();
+      }
+      Configuration.setLoggingLevel(Level.parse(loggingConfig.getConsoleLogLevel()));
+      loggingConfig.setJournalDirectory(
+          Files.createTempDirectory("replay-journal").toString());
+
+      final ServerConnectionManager instance = new ServerConnectionManager(connectionConfig,
+          loggingConfig, new OfflineMembershipResolver());
+
+      final ReplayReport report = new EventReplayer(instance).replay(recording, repetitions,
+          warmUps);
+      instance.disconnect();
+      System.out.println(report);
+   }
+
+   /**
+    * Answers every membership lookup at once as if the client had no forum account.
+    */
+   private static final class OfflineMembershipResolver extends ForumMembershipResolver {
+
+      private OfflineMembershipResolver() {
+         super(null);
+      }
+
+      @Override
+      public CompletableFuture<String> resolve(String uid) {
+         return CompletableFuture.completedFuture("");
+      }
+   }
+}
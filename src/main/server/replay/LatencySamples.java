@@ -0,0 +1,57 @@
+package main.server.replay;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency measurements and reports their percentiles. Every sample is kept, so the
+ * percentiles are exact.
+ */
+public final class LatencySamples {
+
+   private long[] samples = new long[1024];
+   private int count;
+
+   /**
+    * Adds a measurement.
+    *
+    * @param nanos the measured latency in nanoseconds.
+    */
+   public synchronized void add(long nanos) {
+      if (count == samples.length) {
+         samples = Arrays.copyOf(samples, count * 2);
+      }
+      samples[count++] = nanos;
+   }
+
+   /**
+    * @return the number of measurements.
+    */
+   public synchronized int getCount() {
+      return count;
+   }
+
+   /**
+    * Returns the given percentiles of the measurements.
+    *
+    * @param percentiles the percentiles to compute, between 0 and 100.
+    * @return the latency in nanoseconds at or below which each given percentage of measurements
+    * lie, or zeroes if there are none.
+    */
+   public long[] getPercentileNanos(double... percentiles) {
+      final long[] sorted;
+      synchronized (this) {
+         sorted = Arrays.copyOf(samples, count);
+      }
+      Arrays.sort(sorted);
+
+      final long[] result = new long[percentiles.length];
+      if (sorted.length == 0) {
+         return result;
+      }
+      for (int i = 0; i < percentiles.length; i++) {
+         final int rank = (int) Math.ceil(percentiles[i] / 100 * sorted.length);
+         result[i] = sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+      }
+      return result;
+   }
+}
@@ -0,0 +1,42 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.api.wrapper.Wrapper;
+
+/**
+ * A single record read from an event recording.
+ */
+public final class RecordedEvent {
+
+   private final RecordedEventType type;
+   private final long offsetMicros;
+   private final Wrapper value;
+
+   RecordedEvent(RecordedEventType type, long offsetMicros, Wrapper value) {
+      this.type = type;
+      this.offsetMicros = offsetMicros;
+      this.value = value;
+   }
+
+   /**
+    * @return the type of the record.
+    */
+   public RecordedEventType getType() {
+      return type;
+   }
+
+   /**
+    * @return the time in microseconds between the start of the recording and the event.
+    */
+   public long getOffsetMicros() {
+      return offsetMicros;
+   }
+
+   /**
+    * @return the rebuilt event, {@link com.github.theholywaffle.teamspeak3.api.wrapper.Client} or
+    * {@link com.github.theholywaffle.teamspeak3.api.wrapper.Channel}, as given by {@link
+    * #getType()}.
+    */
+   public Wrapper getValue() {
+      return value;
+   }
+}
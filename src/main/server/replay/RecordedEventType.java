@@ -0,0 +1,81 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientLeaveEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Wrapper;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The kinds of records in an event recording. Every record holds the raw property map sent by the
+ * server, from which the original object is rebuilt on replay.
+ */
+public enum RecordedEventType {
+
+   /**
+    * A client that was already connected when the recording started.
+    */
+   CLIENT(Client::new),
+
+   /**
+    * A channel that already existed when the recording started.
+    */
+   CHANNEL(Channel::new),
+
+   /**
+    * A {@link ClientJoinEvent}.
+    */
+   JOIN(ClientJoinEvent::new),
+
+   /**
+    * A {@link ClientLeaveEvent}.
+    */
+   LEAVE(ClientLeaveEvent::new),
+
+   /**
+    * A {@link ClientMovedEvent}.
+    */
+   MOVE(ClientMovedEvent::new),
+
+   /**
+    * A {@link TextMessageEvent}.
+    */
+   TEXT(TextMessageEvent::new);
+
+   private static final RecordedEventType[] VALUES = values();
+
+   private final Function<Map<String, String>, Wrapper> factory;
+
+   RecordedEventType(Function<Map<String, String>, Wrapper> factory) {
+      this.factory = factory;
+   }
+
+   /**
+    * Rebuilds the recorded object.
+    *
+    * @param properties the recorded property map.
+    * @return the event, {@link Client} or {@link Channel}.
+    */
+   public Wrapper create(Map<String, String> properties) {
+      return factory.apply(properties);
+   }
+
+   /**
+    * @return whether records of this type are part of the initial server state rather than
+    * events.
+    */
+   public boolean isSnapshot() {
+      return this == CLIENT || this == CHANNEL;
+   }
+
+   static RecordedEventType fromCode(int code) {
+      if (code < 0 || code >= VALUES.length) {
+         throw new IllegalArgumentException("Unknown record type: " + code);
+      }
+      return VALUES[code];
+   }
+}
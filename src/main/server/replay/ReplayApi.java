@@ -0,0 +1,43 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import com.github.theholywaffle.teamspeak3.api.wrapper.ChannelInfo;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in for the synchronous API while replaying events. Lookups of clients and channels missing
+ * from the caches find nothing, as on a server where they no longer exist.
+ */
+public class ReplayApi extends TS3Api {
+
+   /**
+    * Creates an API that is not backed by a query.
+    */
+   public ReplayApi() {
+      super(null);
+   }
+
+   @Override
+   public ClientInfo getClientInfo(int clientId) {
+      return null;
+   }
+
+   @Override
+   public ChannelInfo getChannelInfo(int channelId) {
+      return null;
+   }
+
+   @Override
+   public List<Client> getClients() {
+      return Collections.emptyList();
+   }
+
+   @Override
+   public List<Channel> getChannels() {
+      return Collections.emptyList();
+   }
+}
@@ -0,0 +1,108 @@
+package main.server.replay;
+
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import com.github.theholywaffle.teamspeak3.api.wrapper.ClientInfo;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the asynchronous API while replaying events. Every command the bot issues succeeds
+ * immediately without reaching a server and is only counted. Lookups find nothing.
+ */
+public class ReplayApiAsync extends TS3ApiAsync {
+
+   private final AtomicLong messages = new AtomicLong();
+   private final AtomicLong commands = new AtomicLong();
+
+   /**
+    * Creates an API that is not backed by a query.
+    */
+   public ReplayApiAsync() {
+      super(null);
+   }
+
+   /**
+    * @return the number of text messages the bot sent.
+    */
+   public long getMessageCount() {
+      return messages.get();
+   }
+
+   /**
+    * @return the number of other commands the bot issued.
+    */
+   public long getCommandCount() {
+      return commands.get();
+   }
+
+   @Override
+   public CommandFuture<Boolean> sendServerMessage(String message) {
+      return message();
+   }
+
+   @Override
+   public CommandFuture<Boolean> sendChannelMessage(String message) {
+      return message();
+   }
+
+   @Override
+   public CommandFuture<Boolean> sendPrivateMessage(int clientId, String message) {
+      return message();
+   }
+
+   @Override
+   public CommandFuture<Boolean> addClientToServerGroup(int groupId, int clientDatabaseId) {
+      return command();
+   }
+
+   @Override
+   public CommandFuture<Boolean> removeClientFromServerGroup(int groupId, int clientDatabaseId) {
+      return command();
+   }
+
+   @Override
+   public CommandFuture<Boolean> kickClientFromServer(String message, int... clientIds) {
+      return command();
+   }
+
+   @Override
+   public CommandFuture<Boolean> moveClient(int clientId, int channelId) {
+      return command();
+   }
+
+   @Override
+   public CommandFuture<Boolean> moveQuery(int channelId) {
+      return command();
+   }
+
+   @Override
+   public CommandFuture<List<Client>> getClients() {
+      commands.incrementAndGet();
+      return CommandFuture.immediate(Collections.emptyList());
+   }
+
+   @Override
+   public CommandFuture<List<Client>> getClientsByName(String name) {
+      commands.incrementAndGet();
+      return CommandFuture.immediate(Collections.emptyList());
+   }
+
+   @Override
+   public CommandFuture<ClientInfo> getClientInfo(int clientId) {
+      commands.incrementAndGet();
+      return CommandFuture.immediate(null);
+   }
+
+   private CommandFuture<Boolean> message() {
+      messages.incrementAndGet();
+      return CommandFuture.immediate(true);
+   }
+
+   private CommandFuture<Boolean> command() {
+      commands.incrementAndGet();
+      return CommandFuture.immediate(true);
+   }
+}
@@ -0,0 +1,120 @@
+package main.server.replay;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The measurements of one run of the {@link EventReplayer}.
+ */
+public final class ReplayReport {
+
+   private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+   private final long events;
+   private final long elapsedNanos;
+   private final long allocatedBytes;
+   private final long messages;
+   private final long commands;
+   private final long failedHandlers;
+   private final Map<String, LatencySamples> latencies;
+
+   ReplayReport(long events, long elapsedNanos, long allocatedBytes, long messages, long commands,
+       long failedHandlers, Map<String, LatencySamples> latencies) {
+      this.events = events;
+      this.elapsedNanos = elapsedNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.messages = messages;
+      this.commands = commands;
+      this.failedHandlers = failedHandlers;
+      this.latencies = Collections.unmodifiableMap(new TreeMap<>(latencies));
+   }
+
+   /**
+    * @return the number of events replayed.
+    */
+   public long getEventCount() {
+      return events;
+   }
+
+   /**
+    * @return the events handled per second, from firing the first event until every handler had
+    * run.
+    */
+   public double getEventsPerSecond() {
+      return elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos;
+   }
+
+   /**
+    * @return the bytes allocated by all threads during the run, or -1 if the JVM cannot tell.
+    */
+   public long getAllocatedBytes() {
+      return allocatedBytes;
+   }
+
+   /**
+    * @return the bytes allocated per second during the run, or -1 if the JVM cannot tell.
+    */
+   public double getAllocationRate() {
+      return allocatedBytes < 0 || elapsedNanos == 0 ? -1 : allocatedBytes * 1e9 / elapsedNanos;
+   }
+
+   /**
+    * @return the number of text messages the bot sent in response to the events.
+    */
+   public long getMessageCount() {
+      return messages;
+   }
+
+   /**
+    * @return the number of other commands the bot issued in response to the events.
+    */
+   public long getCommandCount() {
+      return commands;
+   }
+
+   /**
+    * @return the number of handlers which threw an exception.
+    */
+   public long getFailedHandlerCount() {
+      return failedHandlers;
+   }
+
+   /**
+    * @return the run times of the handlers, keyed by the simple name of the handler class.
+    */
+   public Map<String, LatencySamples> getLatencies() {
+      return latencies;
+   }
+
+   /**
+    * @return a printable summary of the measurements.
+    */
+   @Override
+   public String toString() {
+      final StringBuilder report = new StringBuilder();
+      final String lineBreak = System.lineSeparator();
+
+      report.append(String.format("Replayed %,d events in %.3f s: %,.0f events/s", events,
+          elapsedNanos / 1e9, getEventsPerSecond())).append(lineBreak);
+      if (allocatedBytes >= 0) {
+         report.append(String.format("Allocated %,.1f MB: %,.1f MB/s, %,d bytes/event",
+             allocatedBytes / 1e6, getAllocationRate() / 1e6,
+             events == 0 ? 0 : allocatedBytes / events)).append(lineBreak);
+      }
+      report.append(String.format("Bot sent %,d messages and issued %,d other commands; "
+          + "%,d handlers failed", messages, commands, failedHandlers)).append(lineBreak);
+
+      report.append(String.format("%-24s %10s %9s %9s %9s %9s %9s", "Handler latency (us)",
+          "count", "p50", "p90", "p99", "p99.9", "max"));
+      for (Map.Entry<String, LatencySamples> handler : latencies.entrySet()) {
+         final long[] nanos = handler.getValue().getPercentileNanos(PERCENTILES);
+         report.append(lineBreak).append(String.format("%-24s %,10d", handler.getKey(),
+             handler.getValue().getCount()));
+         for (long value : nanos) {
+            report.append(String.format(" %,9.1f", value / 1e3));
+         }
+      }
+      return report.toString();
+   }
+}
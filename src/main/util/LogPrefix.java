@@ -9,4 +9,5 @@ public class LogPrefix {
    public final static String DISCONNECTION = "DISCONNECTION";
    public final static String IDLE = "IDLE CHECKER";
    public final static String DAD_MODE = "DAD MODE";
+   public final static String PERMISSION_CHECK = "PERMCHECK";
 }
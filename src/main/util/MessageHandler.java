@@ -1,55 +1,177 @@
 package main.util;
 
-import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
 import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import main.conf.Configuration;
-import main.core.Executor;
+import main.server.ServerConnectionManager;
+import main.server.outbound.MessagePriority;
+import main.server.outbound.MessageTarget;
+import main.util.logging.ConsoleLogger;
 
 /**
  * Contains utility methods to format and send messages to various outputs.
+ *
+ * <p>Console messages below the logging level of the {@link Configuration} are discarded.
+ * Messages with a {@link LogPrefix} count as {@link Level#INFO}, except command responses, which
+ * are always shown. Where building a message is costly, use the static {@code log} methods, which
+ * only build the message if it will be shown.</p>
  */
 public class MessageHandler {
 
-   private static Level configDebugLevel = Configuration.getLoggingLevel();
    private String message;
+   private MessagePriority priority = MessagePriority.NORMAL;
 
    public MessageHandler(String message) {
       this.message = message;
    }
 
+   /**
+    * Creates a handler for a message rendered from a template.
+    *
+    * @param template the {@link MessageTemplate} of the message.
+    * @param args the arguments of the template.
+    */
+   public MessageHandler(MessageTemplate template, Object... args) {
+      this.message = template.format(args);
+   }
+
+   /**
+    * @param level the level of a message.
+    * @return whether console messages of the given level are shown.
+    */
+   public static boolean isLoggable(Level level) {
+      return level.intValue() >= Configuration.getLoggingLevel().intValue()
+          && level != Level.OFF;
+   }
+
+   /**
+    * @param prefix the {@link LogPrefix} of a message.
+    * @return whether console messages with the given prefix are shown.
+    */
+   public static boolean isLoggable(String prefix) {
+      return LogPrefix.COMMAND_RESPONSE.equals(prefix) || isLoggable(Level.INFO);
+   }
+
+   /**
+    * Sends a message to the console, building it only if messages with the given prefix are shown.
+    *
+    * @param prefix the {@link LogPrefix} to show in front of the message.
+    * @param message builds the message.
+    */
+   public static void log(String prefix, Supplier<String> message) {
+      if (isLoggable(prefix)) {
+         new MessageHandler(message.get()).sendToConsoleWith(prefix);
+      }
+   }
+
+   /**
+    * Sends a message to the console, rendering it only if messages with the given prefix are
+    * shown.
+    *
+    * @param prefix the {@link LogPrefix} to show in front of the message.
+    * @param template the {@link MessageTemplate} of the message.
+    * @param args the arguments of the template.
+    */
+   public static void log(String prefix, MessageTemplate template, Object... args) {
+      if (isLoggable(prefix)) {
+         new MessageHandler(template, args).sendToConsoleWith(prefix);
+      }
+   }
+
+   /**
+    * Sends a message to the console, building it only if messages of the given level are shown.
+    *
+    * @param level the level of the message.
+    * @param message builds the message.
+    */
+   public static void log(Level level, Supplier<String> message) {
+      if (isLoggable(level)) {
+         new MessageHandler(message.get()).sendToConsoleWith(level);
+      }
+   }
+
+   /**
+    * Sends a message to the console, rendering it only if messages of the given level are shown.
+    *
+    * @param level the level of the message.
+    * @param template the {@link MessageTemplate} of the message.
+    * @param args the arguments of the template.
+    */
+   public static void log(Level level, MessageTemplate template, Object... args) {
+      if (isLoggable(level)) {
+         new MessageHandler(template, args).sendToConsoleWith(level);
+      }
+   }
+
+   /**
+    * Sets the priority with which the message is sent to the server, channel or clients. The
+    * default is {@link MessagePriority#NORMAL}.
+    *
+    * @param priority the priority of the message.
+    * @return this {@code MessageHandler}.
+    */
+   public MessageHandler withPriority(MessagePriority priority) {
+      this.priority = priority;
+      return this;
+   }
+
+   /**
+    * Queues the message for the console, unless messages with the given prefix are not shown.
+    * Only responses to console commands are kept when the console cannot keep up; other prefixed
+    * messages may be dropped.
+    *
+    * @param prefix the {@link LogPrefix} to show in front of the message.
+    * @return this {@code MessageHandler}.
+    */
    public MessageHandler sendToConsoleWith(String prefix) {
-      System.out.println(String.format("[%s] [%s] %s", Util.timeStamp(), prefix, message));
+      if (isLoggable(prefix)) {
+         ConsoleLogger.getShared().log(prefix, message,
+             !LogPrefix.COMMAND_RESPONSE.equals(prefix));
+      }
       return this;
    }
 
+   /**
+    * Queues the message for the console, unless messages of the given level are not shown.
+    * Messages below {@link Level#WARNING} may be dropped when the console cannot keep up.
+    *
+    * @param loggingLevel the level to show in front of the message.
+    * @return this {@code MessageHandler}.
+    */
    public MessageHandler sendToConsoleWith(Level loggingLevel) {
-      System.out.println(String.format("[%s] [%s] %s", Util.timeStamp(), loggingLevel.getName(),
-          message));
+      if (isLoggable(loggingLevel)) {
+         ConsoleLogger.getShared().log(loggingLevel.getName(), message,
+             loggingLevel.intValue() < Level.WARNING.intValue());
+      }
       return this;
    }
 
-   public MessageHandler sendToServer() {
-      TS3ApiAsync api = Executor.getServer("testInstance").getApiAsync();
-      api.sendServerMessage(message);
-      return this;
+   public MessageHandler sendToServer(ServerConnectionManager instance) {
+      return sendTo(instance, MessageTarget.server());
    }
 
-   public MessageHandler sendToChannel() {
-      TS3ApiAsync api = Executor.getServer("testInstance").getApiAsync();
-      api.sendChannelMessage(message);
-      return this;
+   public MessageHandler sendToChannel(ServerConnectionManager instance) {
+      return sendTo(instance, MessageTarget.channel());
    }
 
-   public MessageHandler returnToSender(TextMessageEvent event) {
-      TS3ApiAsync api = Executor.getServer("testInstance").getApiAsync();
-      api.sendPrivateMessage(event.getInvokerId(), message);
-      return this;
+   public MessageHandler returnToSender(ServerConnectionManager instance, TextMessageEvent event) {
+      return sendTo(instance, MessageTarget.client(event.getInvokerId()));
+   }
+
+   public MessageHandler sendToUser(ServerConnectionManager instance, int clientId) {
+      return sendTo(instance, MessageTarget.client(clientId));
    }
 
-   public MessageHandler sendToUser(int clientId) {
-      TS3ApiAsync api = Executor.getServer("testInstance").getApiAsync();
-      api.sendPrivateMessage(clientId, message);
+   /**
+    * Queues the message with the {@link main.server.outbound.MessageScheduler} of a server.
+    *
+    * @param instance the server to send the message on.
+    * @param target the recipient of the message.
+    * @return this {@code MessageHandler}.
+    */
+   public MessageHandler sendTo(ServerConnectionManager instance, MessageTarget target) {
+      instance.getMessageScheduler().send(target, message, priority);
       return this;
    }
 }
@@ -0,0 +1,130 @@
+package main.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message pattern in the {@code String.format} style, parsed once into literal text and
+ * argument slots. Rendering only appends the literals and arguments to a reused buffer instead of
+ * parsing the pattern on every call.
+ *
+ * <p>Only the {@code %s}, {@code %%} and {@code %n} conversions are supported, which covers every
+ * pattern in {@link Messages}. Arguments are rendered as by {@link String#valueOf(Object)}, which
+ * is what {@code %s} does for everything but {@link java.util.Formattable}.</p>
+ */
+public final class MessageTemplate {
+
+   private static final int MAX_POOLED_CAPACITY = 4096;
+   private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal
+       .withInitial(() -> new StringBuilder(256));
+
+   private final String pattern;
+   private final String[] literals;
+   private final int length;
+
+   private MessageTemplate(String pattern, String[] literals) {
+      this.pattern = pattern;
+      this.literals = literals;
+      int length = 0;
+      for (String literal : literals) {
+         length += literal.length();
+      }
+      this.length = length;
+   }
+
+   /**
+    * Parses a pattern into a template.
+    *
+    * @param pattern the pattern, using {@code %s} for arguments.
+    * @return the compiled {@link MessageTemplate}.
+    * @throws IllegalArgumentException if the pattern uses an unsupported conversion.
+    */
+   public static MessageTemplate compile(String pattern) {
+      final List<String> literals = new ArrayList<>();
+      final StringBuilder literal = new StringBuilder();
+
+      for (int i = 0; i < pattern.length(); i++) {
+         final char c = pattern.charAt(i);
+         if (c != '%') {
+            literal.append(c);
+            continue;
+         }
+         if (++i == pattern.length()) {
+            throw new IllegalArgumentException("Pattern ends with '%': " + pattern);
+         }
+         switch (pattern.charAt(i)) {
+            case 's':
+               literals.add(literal.toString());
+               literal.setLength(0);
+               break;
+            case '%':
+               literal.append('%');
+               break;
+            case 'n':
+               literal.append(System.lineSeparator());
+               break;
+            default:
+               throw new IllegalArgumentException(String.format(
+                   "Unsupported conversion '%%%s' in pattern: %s", pattern.charAt(i), pattern));
+         }
+      }
+      literals.add(literal.toString());
+
+      return new MessageTemplate(pattern, literals.toArray(new String[0]));
+   }
+
+   /**
+    * @return the number of arguments the template expects.
+    */
+   public int getArgumentCount() {
+      return literals.length - 1;
+   }
+
+   /**
+    * Renders the template.
+    *
+    * @param args the arguments, in order.
+    * @return the rendered message.
+    * @throws IllegalArgumentException if fewer arguments are given than the template expects.
+    */
+   public String format(Object... args) {
+      final StringBuilder buffer = BUFFER.get();
+      buffer.setLength(0);
+      final String message = renderTo(buffer, args).toString();
+
+      if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+         BUFFER.remove();
+      }
+      return message;
+   }
+
+   /**
+    * Renders the template onto the end of a buffer.
+    *
+    * @param buffer the buffer to append to.
+    * @param args the arguments, in order. Extra arguments are ignored.
+    * @return the buffer.
+    * @throws IllegalArgumentException if fewer arguments are given than the template expects.
+    */
+   public StringBuilder renderTo(StringBuilder buffer, Object... args) {
+      if (args.length < literals.length - 1) {
+         throw new IllegalArgumentException(String.format("Template expects %s arguments but got "
+             + "%s: %s", literals.length - 1, args.length, pattern));
+      }
+
+      buffer.ensureCapacity(buffer.length() + length + 16 * args.length);
+      buffer.append(literals[0]);
+      for (int i = 1; i < literals.length; i++) {
+         buffer.append(args[i - 1]).append(literals[i]);
+      }
+      return buffer;
+   }
+
+   /**
+    * @return the pattern the template was compiled from.
+    */
+   @Override
+   public String toString() {
+      return pattern;
+   }
+}
@@ -1,57 +1,103 @@
 package main.util;
 
 /**
- * Generic error messages to be used across the application.
+ * Generic error messages to be used across the application. Messages taking arguments are
+ * {@link MessageTemplate}s.
  */
 public class Messages {
 
-   public final static String CHANNEL_NOT_FOUND = "No channel found for id: %s. Please check "
-       + "config settings.";
-   public final static String CLIENT_MOVED_FOR_INACTIVITY = "%s (%s) has been moved for being "
-       + "idle for %s minutes.";
-   public final static String DAD_RESPONSE = "Hi %s, I'm dad!";
-   public final static String ERROR_ACCESS_LIST_CANNOT_USE_COMMAND =
-       "The '%s' access list does not "
-           + "have permissions to use command '%s'";
+   public final static MessageTemplate CHANNEL_NOT_FOUND = MessageTemplate.compile(
+       "No channel found for id: %s. Please check config settings.");
+   public final static MessageTemplate CHAT_MESSAGE = MessageTemplate.compile("%s (%s) to %s: %s");
+   public final static MessageTemplate CHAT_MESSAGE_FROM_BOT = MessageTemplate.compile(
+       "BOT to %s: %s");
+   public final static MessageTemplate CHAT_MESSAGE_TO_BOT = MessageTemplate.compile(
+       "%s to BOT: %s");
+   public final static MessageTemplate CLIENT_MOVED_FOR_INACTIVITY = MessageTemplate.compile(
+       "%s (%s) has been moved for being idle for %s minutes.");
+   public final static MessageTemplate DAD_RESPONSE = MessageTemplate.compile("Hi %s, I'm dad!");
+   public final static MessageTemplate ERROR_ACCESS_LIST_CANNOT_USE_COMMAND = MessageTemplate
+       .compile("The '%s' access list does not have permissions to use command '%s'");
    public final static String ERROR_CANNOT_TARGET_BOT = "You cannot target the bot with that "
        + "command.";
-   public final static String ERROR_CLIENT_NOT_FOUND_WITH_ID = "No client could be found for id: "
-       + "%s";
-   public final static String ERROR_COMMAND_NOT_FOUND = "%s is not a supported command.";
-   public final static String ERROR_COMMAND_PREFIX_NOT_RECOGNIZED =
-       "'%s' is not a recognized command"
-           + " prefix!";
-   public final static String ERROR_COMMAND_TIMEOUT = "The server did not answer the %s "
-       + "request in time. Please try again.";
+   public final static MessageTemplate ERROR_AMBIGUOUS_TARGET = MessageTemplate.compile(
+       "\"%s\" matches %s clients: %s. Please use a longer name, the UID or the client ID.");
+   public final static MessageTemplate ERROR_CLIENT_NOT_FOUND_WITH_ID = MessageTemplate.compile(
+       "No client could be found for id: %s");
+   public final static MessageTemplate ERROR_COMMAND_NOT_FOUND = MessageTemplate.compile(
+       "%s is not a supported command.");
+   public final static MessageTemplate ERROR_COMMAND_PREFIX_NOT_RECOGNIZED = MessageTemplate
+       .compile("'%s' is not a recognized command prefix!");
+   public final static MessageTemplate ERROR_COMMAND_REJECTED = MessageTemplate.compile(
+       "Too many commands are running to handle '%s' right now. Please try again shortly.");
+   public final static MessageTemplate ERROR_COMMAND_TIMEOUT = MessageTemplate.compile(
+       "The server did not answer the %s request in time. Please try again.");
    public final static String ERROR_INPUT_BLANK =
        "Space may be the final frontier, but sending me spaces"
            + " does nothing!";
-   public final static String ERROR_LEVEL_LOWER_THAN_REQUIRED =
-       "The provided access level of %s is "
-           + "lower than the required access level of %s.";
-   public final static String ERROR_MISSING_ARGUMENT = "Command '%s' requires argument '%s'.";
-   public final static String ERROR_NO_USER_WITH_ID = "No user is currently connected using id: %s";
+   public final static MessageTemplate ERROR_INSTANCE_RUNNING = MessageTemplate.compile(
+       "An instance named \"%s\" is already running.");
+   public final static MessageTemplate ERROR_INSTANCE_STOPPING = MessageTemplate.compile(
+       "The instance named \"%s\" is still stopping. Please try again shortly.");
+   public final static MessageTemplate ERROR_INVALID_LOG_LEVEL = MessageTemplate.compile(
+       "Console log level \"%s\" is not a logging level, using INFO instead.");
+   public final static MessageTemplate ERROR_INVALID_TRIGGER = MessageTemplate.compile(
+       "Trigger %s was ignored: %s.");
+   public final static MessageTemplate ERROR_LEVEL_LOWER_THAN_REQUIRED = MessageTemplate.compile(
+       "The provided access level of %s is lower than the required access level of %s.");
+   public final static MessageTemplate ERROR_MEMBERSHIP_UNAVAILABLE = MessageTemplate.compile(
+       "Forum membership of %s could not be checked: %s");
+   public final static MessageTemplate ERROR_MISSING_ARGUMENT = MessageTemplate.compile(
+       "Command '%s' requires argument '%s'.");
+   public final static MessageTemplate ERROR_NO_CLIENT_MATCHES = MessageTemplate.compile(
+       "No connected client matches \"%s\".");
+   public final static MessageTemplate ERROR_NO_INSTANCE_CONFIG = MessageTemplate.compile(
+       "No connection configuration has the instance-name \"%s\".");
+   public final static String ERROR_NO_INSTANCE_SELECTED = "No server instance is running to "
+       + "handle console commands.";
+   public final static MessageTemplate ERROR_NO_USER_WITH_ID = MessageTemplate.compile(
+       "No user is currently connected using id: %s");
+   public final static String ERROR_RATE_LIMITED = "You are using commands too quickly. Please "
+       + "wait a moment before trying again.";
+   public final static MessageTemplate ERROR_RESPONSE_DROPPED = MessageTemplate.compile(
+       "Too many messages are waiting to send the response to '%s' right now. Please try again "
+           + "shortly.");
+   public final static MessageTemplate ERROR_TRIGGER_FAILED = MessageTemplate.compile(
+       "Trigger %s failed to respond: %s");
+   public final static MessageTemplate ERROR_UNKNOWN_TRIGGER = MessageTemplate.compile(
+       "No trigger is named %s.");
+   public final static MessageTemplate ERROR_UNKNOWN_INSTANCE = MessageTemplate.compile(
+       "No server instance is named \"%s\".");
    public final static String ERROR_UNKNOWN_ERROR =
        "Somewhere, something broke. Contact someone who "
            + "knows what they're doing.";
-   public final static String IDLE_CHECK_CANNOT_COMPLETE_ACTION = "Action cannot be completed. "
-       + "Idle Check is already %s.";
+   public final static MessageTemplate IDLE_CHECK_CANNOT_COMPLETE_ACTION = MessageTemplate.compile(
+       "Action cannot be completed. Idle Check is already %s.");
    public final static String IDLE_CHECK_DISABLED = "Idle Check disabled. Idle users will no "
        + "longer be automatically moved.";
-   public final static String IDLE_CHECK_ENABLED = "Idle Check enabled. Idle users will now be "
-       + "automatically moved to \"%s\" after %s minutes.";
-   public final static String SUCCESSFULLY_CONNECTED = "Successfully connected to \"%s\" as "
-       + "\"%s\"!";
-   public final static String USER_BANNED = "%s (%s) was banned from the server by %s (%s) for %s"
-       + " for reason: %s";
-   public final static String USER_CONNECTED = "%s (%s) connected to \"%s\".";
-   public final static String USER_DISCONNECTED = "%s (%s) disconnected from the server with "
-       + "reason: %s";
-   public final static String USER_KICKED = "%s (%s) was kicked from the server by %s (%s) for "
-       + "reason: %s";
-   public final static String USER_LOST_CONNECTION = "%s (%s) lost connection to the server.";
-   public final static String USER_MOVED = "%s (%s) moved to \"%s\".";
-   public final static String USER_WAS_MOVED = "%s (%s) moved %s (%s) to \"%s\".";
-   public final static String YOU_HAVE_BEEN_MOVED = "You have been moved to \"%s\" for being idle"
-       + " longer than %s minutes.";
+   public final static MessageTemplate IDLE_CHECK_ENABLED = MessageTemplate.compile(
+       "Idle Check enabled. Idle users will now be automatically moved to \"%s\" after %s "
+           + "minutes.");
+   public final static MessageTemplate KICK_ATTEMPTED = MessageTemplate.compile(
+       "%s attempted to kick %s from the server for: %s");
+   public final static MessageTemplate KICK_ATTEMPTING = MessageTemplate.compile(
+       "Attempting to kick %s from the server for: %s");
+   public final static MessageTemplate SUCCESSFULLY_CONNECTED = MessageTemplate.compile(
+       "Successfully connected to \"%s\" as \"%s\"!");
+   public final static MessageTemplate USER_BANNED = MessageTemplate.compile(
+       "%s (%s) was banned from the server by %s (%s) for %s for reason: %s");
+   public final static MessageTemplate USER_CONNECTED = MessageTemplate.compile(
+       "%s (%s) connected to \"%s\".");
+   public final static MessageTemplate USER_DISCONNECTED = MessageTemplate.compile(
+       "%s (%s) disconnected from the server with reason: %s");
+   public final static MessageTemplate USER_KICKED = MessageTemplate.compile(
+       "%s (%s) was kicked from the server by %s (%s) for reason: %s");
+   public final static MessageTemplate USER_LOST_CONNECTION = MessageTemplate.compile(
+       "%s (%s) lost connection to the server.");
+   public final static MessageTemplate USER_MOVED = MessageTemplate.compile(
+       "%s (%s) moved to \"%s\".");
+   public final static MessageTemplate USER_WAS_MOVED = MessageTemplate.compile(
+       "%s (%s) moved %s (%s) to \"%s\".");
+   public final static MessageTemplate YOU_HAVE_BEEN_MOVED = MessageTemplate.compile(
+       "You have been moved to \"%s\" for being idle longer than %s minutes.");
 }
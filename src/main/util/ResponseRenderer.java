@@ -0,0 +1,183 @@
+package main.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a multi-line response, such as a table of clients, into chunks that each fit into a
+ * single TeamSpeak text message. Lines are streamed into a reused buffer and are never split: a
+ * chunk ends before the first line that would not fit, and every chunk starts with the header, so
+ * each chunk is readable on its own and opens and closes its own BBCode tags.
+ *
+ * <p>The buffers are pooled per thread. A renderer holds them from creation until {@link
+ * #finish()}; a second renderer created on the same thread in the meantime uses its own.</p>
+ */
+public class ResponseRenderer {
+
+   /**
+    * The maximum length in bytes of a TeamSpeak text message.
+    */
+   public static final int MAX_MESSAGE_BYTES = 1024;
+
+   private static final int POOLED_CAPACITY = 4 * MAX_MESSAGE_BYTES;
+   private static final ThreadLocal<Buffers> POOL = ThreadLocal.withInitial(Buffers::new);
+
+   private final String header;
+   private final int headerBytes;
+   private final int maxChunkBytes;
+   private final Buffers buffers;
+   private final List<String> chunks = new ArrayList<>();
+   private int chunkBytes;
+
+   /**
+    * Creates a renderer for chunks of at most {@link #MAX_MESSAGE_BYTES}.
+    *
+    * @param header the text at the start of every chunk, including its line break.
+    */
+   public ResponseRenderer(String header) {
+      this(header, MAX_MESSAGE_BYTES);
+   }
+
+   /**
+    * Creates a renderer.
+    *
+    * @param header the text at the start of every chunk, including its line break.
+    * @param maxChunkBytes the maximum length of a chunk in UTF-8 bytes.
+    */
+   public ResponseRenderer(String header, int maxChunkBytes) {
+      this.header = header;
+      this.headerBytes = utf8Length(header, 0, header.length());
+      this.maxChunkBytes = maxChunkBytes;
+      if (headerBytes >= maxChunkBytes) {
+         throw new IllegalArgumentException("The header does not fit into a chunk.");
+      }
+
+      final Buffers pooled = POOL.get();
+      if (pooled.inUse) {
+         this.buffers = new Buffers();
+      } else {
+         this.buffers = pooled;
+         pooled.inUse = true;
+      }
+      buffers.chunk.setLength(0);
+   }
+
+   /**
+    * Appends a table row of the form {@code "| a | b | c |"}.
+    *
+    * @param cells the cells of the row.
+    * @return this {@code ResponseRenderer}.
+    */
+   public ResponseRenderer row(Object... cells) {
+      final StringBuilder row = buffers.row;
+      row.setLength(0);
+      row.append('|');
+      for (Object cell : cells) {
+         row.append(' ').append(cell).append(" |");
+      }
+      return appendLine(row);
+   }
+
+   /**
+    * Appends a line of text.
+    *
+    * @param text the text of the line, without a line break.
+    * @return this {@code ResponseRenderer}.
+    */
+   public ResponseRenderer line(CharSequence text) {
+      final StringBuilder row = buffers.row;
+      row.setLength(0);
+      row.append(text);
+      return appendLine(row);
+   }
+
+   /**
+    * Completes the response and returns the buffers to the pool. The renderer must not be used
+    * afterwards.
+    *
+    * @return the chunks of the response, in order. A response without lines is a single chunk
+    * holding only the header.
+    */
+   public List<String> finish() {
+      final StringBuilder chunk = buffers.chunk;
+      if (chunk.length() > 0 || chunks.isEmpty()) {
+         chunks.add(chunk.length() > 0 ? chunk.toString() : header);
+      }
+
+      if (chunk.capacity() > POOLED_CAPACITY) {
+         chunk.setLength(0);
+         chunk.trimToSize();
+      }
+      buffers.inUse = false;
+      return chunks;
+   }
+
+   private ResponseRenderer appendLine(StringBuilder line) {
+      line.append('\n');
+      int lineBytes = utf8Length(line, 0, line.length());
+
+      if (headerBytes + lineBytes > maxChunkBytes) {
+         lineBytes = truncate(line, maxChunkBytes - headerBytes);
+      }
+
+      final StringBuilder chunk = buffers.chunk;
+      if (chunk.length() > 0 && chunkBytes + lineBytes > maxChunkBytes) {
+         chunks.add(chunk.toString());
+         chunk.setLength(0);
+      }
+      if (chunk.length() == 0) {
+         chunk.append(header);
+         chunkBytes = headerBytes;
+      }
+      chunk.append(line);
+      chunkBytes += lineBytes;
+      return this;
+   }
+
+   /**
+    * Shortens a line to fit into the given number of bytes, keeping its line break.
+    *
+    * @return the new length of the line in bytes.
+    */
+   private static int truncate(StringBuilder line, int maxBytes) {
+      int bytes = 1;
+      int end = 0;
+      while (end < line.length() - 1) {
+         int next = end + Character.charCount(line.codePointAt(end));
+         int nextBytes = bytes + utf8Length(line, end, next);
+         if (nextBytes > maxBytes) {
+            break;
+         }
+         bytes = nextBytes;
+         end = next;
+      }
+      line.setLength(end);
+      line.append('\n');
+      return bytes;
+   }
+
+   private static int utf8Length(CharSequence text, int start, int end) {
+      int bytes = 0;
+      for (int i = start; i < end; i++) {
+         final char c = text.charAt(i);
+         if (c < 0x80) {
+            bytes++;
+         } else if (c < 0x800) {
+            bytes += 2;
+         } else if (Character.isHighSurrogate(c)) {
+            bytes += 4;
+            i++;
+         } else {
+            bytes += 3;
+         }
+      }
+      return bytes;
+   }
+
+   private static final class Buffers {
+
+      private final StringBuilder chunk = new StringBuilder(POOLED_CAPACITY);
+      private final StringBuilder row = new StringBuilder(256);
+      private boolean inUse;
+   }
+}
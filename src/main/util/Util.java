@@ -1,7 +1,6 @@
 package main.util;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import main.util.logging.Timestamps;
 
 /**
  * Utilities for SFITS3 bot. Contains functions and resources necessary to be
@@ -14,7 +13,6 @@ public class Util {
     * @return a formatted string displaying the current system time.
     */
    public static String timeStamp() {
-      DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-      return (dateFormat.format(System.currentTimeMillis()));
+      return Timestamps.format(System.currentTimeMillis());
    }
 }
@@ -0,0 +1,18 @@
+package main.util.exception;
+
+import java.util.List;
+import main.util.Messages;
+
+public class AmbiguousTargetException extends Exception {
+
+   /**
+    * Exception thrown when a command target which must refer to a single client matches several.
+    *
+    * @param target the target as given to the command.
+    * @param matches the nicknames of the matching clients.
+    */
+   public AmbiguousTargetException(String target, List<String> matches) {
+      super(Messages.ERROR_AMBIGUOUS_TARGET.format(target, matches.size(),
+          String.join(", ", matches)));
+   }
+}
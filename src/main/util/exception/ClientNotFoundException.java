@@ -11,6 +11,6 @@ public class ClientNotFoundException extends Exception {
     * @param id the ID of the client that cannot be found.
     */
    public ClientNotFoundException(String id) {
-      super(String.format(Messages.ERROR_CLIENT_NOT_FOUND_WITH_ID, id));
+      super(Messages.ERROR_CLIENT_NOT_FOUND_WITH_ID.format(id));
    }
 }
@@ -8,10 +8,10 @@ import main.util.Messages;
 public class CommandNotFoundException extends Exception {
 
    public CommandNotFoundException() {
-      super(String.format(Messages.ERROR_COMMAND_NOT_FOUND, "The input provided"));
+      super(Messages.ERROR_COMMAND_NOT_FOUND.format("The input provided"));
    }
 
    public CommandNotFoundException(String invalidCommand) {
-      super(String.format(Messages.ERROR_COMMAND_NOT_FOUND, "\'" + invalidCommand + "\'"));
+      super(Messages.ERROR_COMMAND_NOT_FOUND.format("\'" + invalidCommand + "\'"));
    }
 }
@@ -0,0 +1,28 @@
+package main.util.exception;
+
+import main.util.Messages;
+
+public class MembershipUnavailableException extends Exception {
+
+   /**
+    * Exception thrown when the forum membership of a client cannot be looked up, either because
+    * the request failed or because lookups are currently suspended.
+    *
+    * @param uid the unique identifier of the client being looked up.
+    * @param reason a short description of why the lookup failed.
+    */
+   public MembershipUnavailableException(String uid, String reason) {
+      super(Messages.ERROR_MEMBERSHIP_UNAVAILABLE.format(uid, reason));
+   }
+
+   /**
+    * Exception thrown when the forum membership of a client cannot be looked up because the
+    * request to the forum failed.
+    *
+    * @param uid the unique identifier of the client being looked up.
+    * @param cause the error raised by the request.
+    */
+   public MembershipUnavailableException(String uid, Throwable cause) {
+      super(Messages.ERROR_MEMBERSHIP_UNAVAILABLE.format(uid, cause), cause);
+   }
+}
@@ -0,0 +1,16 @@
+package main.util.exception;
+
+import main.util.Messages;
+
+public class TargetNotFoundException extends Exception {
+
+   /**
+    * Exception thrown when a command target matches no connected client by ID, unique identifier
+    * or nickname.
+    *
+    * @param target the target as given to the command.
+    */
+   public TargetNotFoundException(String target) {
+      super(Messages.ERROR_NO_CLIENT_MATCHES.format(target));
+   }
+}
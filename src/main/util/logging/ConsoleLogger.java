@@ -0,0 +1,221 @@
+package main.util.logging;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import main.conf.Configuration;
+
+/**
+ * Asynchronous console output. Logging threads only copy a record into a bounded ring buffer; a
+ * single background thread formats the records and writes them out, flushing once per batch
+ * rather than once per line. Lines from concurrent threads therefore never interleave, and a slow
+ * console never stalls the thread that logged.
+ *
+ * <p>The ring buffer's slots are allocated once and reused, and formatting uses a reused
+ * buffer, so logging a record allocates nothing beyond the message itself. When the buffer is full
+ * the configured {@link OverflowPolicy} decides whether the logging thread waits or the record is
+ * dropped. Dropped records are counted and reported once the writer catches up.</p>
+ */
+public class ConsoleLogger {
+
+   private static final int DEFAULT_CAPACITY = 4096;
+
+   private static volatile ConsoleLogger shared;
+
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition notEmpty = lock.newCondition();
+   private final Condition notFull = lock.newCondition();
+   private final long[] times;
+   private final String[] prefixes;
+   private final String[] messages;
+   private final OverflowPolicy policy;
+   private final Writer out;
+   private final Thread writer;
+   private long head;
+   private long tail;
+   private long dropped;
+   private boolean running = true;
+
+   /**
+    * Creates a logger writing to the given stream and starts its writer thread.
+    *
+    * @param out the stream the formatted lines are written to.
+    * @param capacity the maximum number of records waiting to be written.
+    * @param policy what to do with new records while the buffer is full.
+    */
+   public ConsoleLogger(OutputStream out, int capacity, OverflowPolicy policy) {
+      this.times = new long[capacity];
+      this.prefixes = new String[capacity];
+      this.messages = new String[capacity];
+      this.policy = policy;
+      this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      this.writer = new Thread(this::drain, "console-logger");
+      this.writer.setDaemon(true);
+      this.writer.start();
+   }
+
+   /**
+    * Returns the logger writing to standard output, creating it on first use with the overflow
+    * policy from the {@link Configuration}. Pending records are written out when the program exits.
+    *
+    * @return the shared {@link ConsoleLogger}.
+    */
+   public static ConsoleLogger getShared() {
+      ConsoleLogger logger = shared;
+      if (logger == null) {
+         synchronized (ConsoleLogger.class) {
+            logger = shared;
+            if (logger == null) {
+               logger = new ConsoleLogger(new FileOutputStream(FileDescriptor.out),
+                   DEFAULT_CAPACITY, Configuration.getLogOverflowPolicy());
+               final ConsoleLogger created = logger;
+               Runtime.getRuntime().addShutdownHook(new Thread(
+                   () -> created.close(1, TimeUnit.SECONDS)));
+               shared = logger;
+            }
+         }
+      }
+      return logger;
+   }
+
+   /**
+    * Queues a record for output.
+    *
+    * @param prefix the prefix shown in front of the message.
+    * @param message the message to log.
+    * @param lowPriority whether the record may be dropped under {@link
+    * OverflowPolicy#DROP_LOW_PRIORITY}.
+    * @return {@code false} if the record was dropped.
+    */
+   public boolean log(String prefix, String message, boolean lowPriority) {
+      final long now = System.currentTimeMillis();
+
+      lock.lock();
+      try {
+         while (tail - head == times.length) {
+            if (!running || policy == OverflowPolicy.DROP
+                || (policy == OverflowPolicy.DROP_LOW_PRIORITY && lowPriority)) {
+               dropped++;
+               return false;
+            }
+            notFull.awaitUninterruptibly();
+         }
+
+         final int slot = (int) (tail % times.length);
+         times[slot] = now;
+         prefixes[slot] = prefix;
+         messages[slot] = message;
+         tail++;
+         notEmpty.signal();
+         return true;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * @return the number of records dropped so far because the buffer was full.
+    */
+   public long getDroppedCount() {
+      lock.lock();
+      try {
+         return dropped;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Stops accepting records and waits for the pending ones to be written.
+    *
+    * @param timeout the maximum time to wait.
+    * @param unit the unit of the timeout.
+    */
+   public void close(long timeout, TimeUnit unit) {
+      lock.lock();
+      try {
+         running = false;
+         notEmpty.signal();
+         notFull.signalAll();
+      } finally {
+         lock.unlock();
+      }
+
+      try {
+         unit.timedJoin(writer, timeout);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void drain() {
+      final long[] batchTimes = new long[times.length];
+      final String[] batchPrefixes = new String[times.length];
+      final String[] batchMessages = new String[times.length];
+      final StringBuilder line = new StringBuilder(256);
+      char[] chars = new char[256];
+      long reportedDrops = 0;
+
+      while (true) {
+         int count = 0;
+         long drops;
+
+         lock.lock();
+         try {
+            while (tail == head && running) {
+               notEmpty.awaitUninterruptibly();
+            }
+            if (tail == head) {
+               return;
+            }
+
+            while (head < tail) {
+               final int slot = (int) (head % times.length);
+               batchTimes[count] = times[slot];
+               batchPrefixes[count] = prefixes[slot];
+               batchMessages[count] = messages[slot];
+               prefixes[slot] = null;
+               messages[slot] = null;
+               count++;
+               head++;
+            }
+            drops = dropped;
+            notFull.signalAll();
+         } finally {
+            lock.unlock();
+         }
+
+         try {
+            if (drops > reportedDrops) {
+               out.write(String.format("[%s] [LOGGER] %s log records were dropped because the "
+                   + "console could not keep up.%n", Timestamps.format(System.currentTimeMillis()),
+                   drops - reportedDrops));
+               reportedDrops = drops;
+            }
+            for (int i = 0; i < count; i++) {
+               line.setLength(0);
+               line.append('[').append(Timestamps.format(batchTimes[i])).append("] [")
+                   .append(batchPrefixes[i]).append("] ").append(batchMessages[i])
+                   .append(System.lineSeparator());
+               if (chars.length < line.length()) {
+                  chars = new char[line.length() * 2];
+               }
+               line.getChars(0, line.length(), chars, 0);
+               out.write(chars, 0, line.length());
+               batchPrefixes[i] = null;
+               batchMessages[i] = null;
+            }
+            out.flush();
+         } catch (IOException e) {
+            //Nowhere left to report this; drop the batch.
+         }
+      }
+   }
+}
@@ -0,0 +1,22 @@
+package main.util.logging;
+
+/**
+ * What a {@link ConsoleLogger} does with a new record while its buffer is full.
+ */
+public enum OverflowPolicy {
+
+   /**
+    * Wait for the writer to free up space. No record is ever lost.
+    */
+   BLOCK,
+
+   /**
+    * Discard the new record.
+    */
+   DROP,
+
+   /**
+    * Discard the new record if it is of low priority, otherwise wait for space.
+    */
+   DROP_LOW_PRIORITY
+}
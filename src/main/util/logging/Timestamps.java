@@ -0,0 +1,49 @@
+package main.util.logging;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats log timestamps. Log lines only show whole seconds, so the text of the current second is
+ * cached and most records reuse it instead of formatting the time again.
+ */
+public final class Timestamps {
+
+   private static final DateTimeFormatter FORMAT = DateTimeFormatter
+       .ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+   private static volatile Second cached = new Second(Long.MIN_VALUE, "");
+
+   private Timestamps() {
+   }
+
+   /**
+    * Formats a point in time as {@code "yyyy-MM-dd HH:mm:ss"} in the system time zone.
+    *
+    * @param millis the time in milliseconds since the epoch.
+    * @return the formatted time.
+    */
+   public static String format(long millis) {
+      final long second = Math.floorDiv(millis, 1000);
+      final Second last = cached;
+
+      if (last.second == second) {
+         return last.text;
+      }
+      final String text = FORMAT.format(Instant.ofEpochSecond(second));
+      cached = new Second(second, text);
+      return text;
+   }
+
+   private static final class Second {
+
+      private final long second;
+      private final String text;
+
+      private Second(long second, String text) {
+         this.second = second;
+         this.text = text;
+      }
+   }
+}
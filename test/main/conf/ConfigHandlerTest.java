@@ -0,0 +1,49 @@
+package main.conf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.logging.Level;
+import org.junit.Test;
+
+public class ConfigHandlerTest {
+
+   @Test
+   public void unknownConsoleLogLevelFallsBackToInfo() throws Exception {
+      assertEquals("INFO", readConsoleLogLevel("console-log-level: WARN"));
+      assertEquals("FINE", readConsoleLogLevel("console-log-level: FINE"));
+      assertEquals(Level.WARNING, Level.parse(readConsoleLogLevel("console-log-level: 900")));
+   }
+
+   @Test
+   public void missingOptionalFilesAreNotReported() {
+      final File missing = new File("./config/does-not-exist.yaml");
+      final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+      final PrintStream stderr = System.err;
+      System.setErr(new PrintStream(errors));
+      try {
+         assertNull(ConfigHandler.readForumRoleConfig(missing));
+         assertNull(ConfigHandler.readRateLimitConfig(missing));
+         assertNull(ConfigHandler.readTriggerConfig(missing));
+      } finally {
+         System.setErr(stderr);
+      }
+      assertEquals("", errors.toString());
+   }
+
+   private static String readConsoleLogLevel(String yaml) throws Exception {
+      final File file = File.createTempFile("EventLogging", ".yaml");
+      try {
+         Files.write(file.toPath(), Arrays.asList(yaml), StandardCharsets.UTF_8);
+         return ConfigHandler.readEventLoggingConfig(file).getConsoleLogLevel();
+      } finally {
+         file.delete();
+      }
+   }
+}
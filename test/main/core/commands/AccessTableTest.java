@@ -0,0 +1,96 @@
+package main.core.commands;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import main.conf.ServerGroupAccessConfiguration;
+import main.util.enums.AccessLevel;
+import org.junit.Test;
+
+public class AccessTableTest {
+
+   @Test
+   public void unknownGroupsResolveToDefault() {
+      AccessTable table = AccessTable.compile(config(list(1), null, null, null, null, null));
+
+      assertEquals(AccessLevel.DEFAULT, table.getAccessLevel(new int[]{2, 3}));
+      assertEquals(AccessLevel.DEFAULT, table.getAccessLevel(new int[0]));
+   }
+
+   @Test
+   public void missingConfigurationResolvesToDefault() {
+      AccessTable table = AccessTable.compile(null);
+
+      assertEquals(AccessLevel.DEFAULT, table.getAccessLevel(new int[]{1}));
+   }
+
+   @Test
+   public void ownerOverridesEverything() {
+      AccessTable table = AccessTable.compile(config(list(1), list(2), null, null, null, list(1)));
+
+      assertEquals(AccessLevel.OWNER, table.getAccessLevel(new int[]{2, 1}));
+   }
+
+   @Test
+   public void highestListWins() {
+      AccessTable table = AccessTable.compile(config(list(0), list(1), list(2), list(3), list(4),
+          null));
+
+      assertEquals(AccessLevel.SUPER_ADMIN, table.getAccessLevel(new int[]{4, 3, 2, 1}));
+      assertEquals(AccessLevel.ADMIN, table.getAccessLevel(new int[]{2, 4}));
+      assertEquals(AccessLevel.MODERATOR, table.getAccessLevel(new int[]{4, 3}));
+      assertEquals(AccessLevel.SPONSOR, table.getAccessLevel(new int[]{4}));
+   }
+
+   @Test
+   public void blacklistIgnoredForModeratorsAndAbove() {
+      AccessTable table = AccessTable.compile(config(list(0), list(1), list(2), list(3), null,
+          list(1, 2, 3)));
+
+      assertEquals(AccessLevel.SUPER_ADMIN, table.getAccessLevel(new int[]{1}));
+      assertEquals(AccessLevel.ADMIN, table.getAccessLevel(new int[]{2}));
+      assertEquals(AccessLevel.MODERATOR, table.getAccessLevel(new int[]{3}));
+   }
+
+   @Test
+   public void blacklistAppliedToSponsorsAndDefaultUsers() {
+      AccessTable table = AccessTable.compile(config(list(0), null, null, null, list(1),
+          list(1, 2)));
+
+      assertEquals(AccessLevel.BLACKLISTED, table.getAccessLevel(new int[]{1}));
+      assertEquals(AccessLevel.BLACKLISTED, table.getAccessLevel(new int[]{2}));
+   }
+
+   @Test
+   public void manyGroupsAreAllResolvable() {
+      Integer[] admins = new Integer[1000];
+      for (int i = 0; i < admins.length; i++) {
+         admins[i] = 10000 + i * 7;
+      }
+      AccessTable table = AccessTable.compile(config(list(0), null, Arrays.asList(admins), null,
+          null, null));
+
+      for (Integer admin : admins) {
+         assertEquals(AccessLevel.ADMIN, table.getAccessLevel(new int[]{admin}));
+      }
+      assertEquals(AccessLevel.DEFAULT, table.getAccessLevel(new int[]{10001}));
+   }
+
+   private static List<Integer> list(Integer... groups) {
+      return Arrays.asList(groups);
+   }
+
+   private static ServerGroupAccessConfiguration config(List<Integer> owners,
+       List<Integer> superAdmins, List<Integer> admins, List<Integer> moderators,
+       List<Integer> sponsors, List<Integer> blacklisted) {
+      ServerGroupAccessConfiguration config = new ServerGroupAccessConfiguration();
+      config.setOwnerGroups(owners);
+      config.setSuperAdminGroups(superAdmins);
+      config.setAdminGroups(admins);
+      config.setModeratorGroups(moderators);
+      config.setSponsorGroups(sponsors);
+      config.setBlacklistedGroups(blacklisted);
+      return config;
+   }
+}
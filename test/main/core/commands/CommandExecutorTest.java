@@ -0,0 +1,111 @@
+package main.core.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommandExecutorTest {
+
+   private static CountDownLatch started;
+   private static CountDownLatch release;
+   private static CountDownLatch interrupted;
+
+   private CommandExecutor executor;
+
+   @Before
+   public void setUp() {
+      started = new CountDownLatch(1);
+      release = new CountDownLatch(1);
+      interrupted = new CountDownLatch(1);
+      executor = new CommandExecutor("test-commands", 1, 1);
+   }
+
+   @After
+   public void tearDown() {
+      release.countDown();
+      executor.shutdown(1, TimeUnit.SECONDS);
+   }
+
+   @Test
+   public void commandsPastTheirDeadlineAreInterrupted() throws InterruptedException {
+      assertTrue(submit(SlowCommand.class));
+
+      assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+      assertTrue(executor.shutdown(1, TimeUnit.SECONDS));
+      assertEquals(1, executor.getStats("slow").getTimedOutCount());
+      assertEquals(0, executor.getStats("slow").getCompletedCount());
+      assertEquals(0, executor.getPendingCount());
+   }
+
+   @Test
+   public void commandsAreRejectedWhenTheQueueIsFull() throws InterruptedException {
+      assertTrue(submit(BlockingCommand.class));
+      assertTrue(started.await(1, TimeUnit.SECONDS));
+      assertTrue(submit(BlockingCommand.class));
+      assertFalse(submit(BlockingCommand.class));
+
+      release.countDown();
+      assertTrue(executor.shutdown(1, TimeUnit.SECONDS));
+      assertEquals(2, executor.getStats("blocking").getCompletedCount());
+      assertEquals(1, executor.getStats("blocking").getRejectedCount());
+   }
+
+   @Test
+   public void failuresAreCounted() {
+      assertTrue(submit(FailingCommand.class));
+
+      assertTrue(executor.shutdown(1, TimeUnit.SECONDS));
+      assertEquals(1, executor.getStats("failing").getFailedCount());
+   }
+
+   private boolean submit(Class<? extends CommandHandler> type) {
+      final Command command = type.getAnnotation(Command.class);
+      try {
+         return executor.submit(command, type.newInstance(), new CommandContext(null,
+             command.name(), "!" + command.name(), null, Collections.emptyMap(),
+             command.timeoutMillis()));
+      } catch (ReflectiveOperationException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Command(name = "slow", timeoutMillis = 50)
+   public static class SlowCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) throws Exception {
+         try {
+            Thread.sleep(10000);
+         } catch (InterruptedException e) {
+            interrupted.countDown();
+            throw e;
+         }
+      }
+   }
+
+   @Command(name = "blocking")
+   public static class BlockingCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) throws Exception {
+         started.countDown();
+         release.await(context.getRemainingMillis(), TimeUnit.MILLISECONDS);
+      }
+   }
+
+   @Command(name = "failing")
+   public static class FailingCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) throws Exception {
+         throw new Exception("failed");
+      }
+   }
+}
@@ -0,0 +1,113 @@
+package main.core.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import main.util.exception.CommandNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommandRegistryTest {
+
+   private static volatile CommandContext lastContext;
+
+   private CommandRegistry registry;
+   private CommandExecutor executor;
+
+   @Before
+   public void setUp() {
+      lastContext = null;
+      registry = CommandRegistry.of(Arrays.asList(EchoCommand.class, ConsoleOnlyCommand.class));
+      executor = new CommandExecutor("test-commands", 1, 4);
+   }
+
+   @After
+   public void tearDown() {
+      executor.shutdown(1, TimeUnit.SECONDS);
+   }
+
+   @Test
+   public void namesAndAliasesAreCaseInsensitive() {
+      assertSame(registry.find("echo"), registry.find("SAY"));
+      assertEquals("echo", registry.find("Echo").name());
+      assertNull(registry.find("unknown"));
+   }
+
+   @Test
+   public void lastArgumentTakesTheRestOfTheInput() throws Exception {
+      registry.dispatch(null, executor, "!say  target   hello there ", null);
+      executor.shutdown(1, TimeUnit.SECONDS);
+
+      assertEquals("echo", lastContext.getName());
+      assertEquals("target", lastContext.getArgument("target"));
+      assertEquals("hello there", lastContext.getArgument("text"));
+   }
+
+   @Test
+   public void optionalArgumentsMayBeMissing() throws Exception {
+      registry.dispatch(null, executor, "!echo target", null);
+      executor.shutdown(1, TimeUnit.SECONDS);
+
+      assertEquals("target", lastContext.getArgument("target"));
+      assertFalse(lastContext.hasArgument("text"));
+   }
+
+   @Test
+   public void quotedArgumentsMayContainSpaces() throws Exception {
+      registry.dispatch(null, executor, "!echo \"two words\" \"quoted\" rest", null);
+      executor.shutdown(1, TimeUnit.SECONDS);
+
+      assertEquals("two words", lastContext.getArgument("target"));
+      assertEquals("\"quoted\" rest", lastContext.getArgument("text"));
+   }
+
+   @Test(expected = CommandNotFoundException.class)
+   public void consoleOnlyCommandsAreNotFoundInChat() throws Exception {
+      registry.dispatch(null, executor, "!debug::only",
+          new TextMessageEvent(Collections.<String, String>emptyMap()));
+   }
+
+   @Test(expected = CommandNotFoundException.class)
+   public void unknownCommandsAreNotFound() throws Exception {
+      registry.dispatch(null, executor, "!unknown", null);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void duplicateAliasesAreRejected() {
+      CommandRegistry.of(Arrays.asList(EchoCommand.class, DuplicateCommand.class));
+   }
+
+   @Command(name = "echo", aliases = "say",
+       arguments = {@Argument("target"), @Argument(value = "text", required = false)})
+   public static class EchoCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) {
+         lastContext = context;
+      }
+   }
+
+   @Command(name = "debug::only", chat = false)
+   public static class ConsoleOnlyCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) {
+         lastContext = context;
+      }
+   }
+
+   @Command(name = "repeat", aliases = "Say")
+   public static class DuplicateCommand implements CommandHandler {
+
+      @Override
+      public void execute(CommandContext context) {
+      }
+   }
+}
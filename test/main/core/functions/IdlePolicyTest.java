@@ -0,0 +1,143 @@
+package main.core.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import main.conf.IdleCheckConfiguration;
+import main.conf.IdleRuleConfiguration;
+import org.junit.Test;
+
+public class IdlePolicyTest {
+
+   private static final int DEFAULT_DESTINATION = 100;
+
+   @Test
+   public void clientsWithoutMatchingRuleUseDefaults() {
+      IdlePolicy policy = IdlePolicy.compile(config(list(9), list(), rule(list(1), list(), 90,
+          200)));
+
+      int rule = policy.classify(new int[]{2, 3}, 50);
+      assertEquals(policy.getDefaultRule(), rule);
+      assertEquals(TimeUnit.MINUTES.toMillis(45), policy.getMaxIdleMillis(rule));
+      assertEquals(DEFAULT_DESTINATION, policy.getDestinationChannel(rule));
+   }
+
+   @Test
+   public void ignoredGroupsAndExemptChannelsAreNeverMoved() {
+      IdlePolicy policy = IdlePolicy.compile(config(list(9), list(77), rule(list(), list(), 5,
+          null)));
+
+      assertEquals(IdlePolicy.EXEMPT, policy.classify(new int[]{1, 9}, 50));
+      assertEquals(IdlePolicy.EXEMPT, policy.classify(new int[]{1}, 77));
+      assertEquals(0, policy.classify(new int[]{1}, 50));
+   }
+
+   @Test
+   public void ruleNeedsBothGroupAndChannelToMatch() {
+      IdlePolicy policy = IdlePolicy.compile(config(list(), list(),
+          rule(list(1), list(10), 5, 201),
+          rule(list(1), list(), 60, null),
+          rule(list(), list(20), 120, 202)));
+
+      assertEquals(0, policy.classify(new int[]{1}, 10));
+      assertEquals(1, policy.classify(new int[]{1}, 20));
+      assertEquals(2, policy.classify(new int[]{2}, 20));
+      assertEquals(policy.getDefaultRule(), policy.classify(new int[]{2}, 10));
+      assertEquals(3, policy.getRuleCount());
+
+      assertEquals(201, policy.getDestinationChannel(0));
+      assertEquals(DEFAULT_DESTINATION, policy.getDestinationChannel(1));
+      assertEquals(TimeUnit.MINUTES.toMillis(60), policy.getMaxIdleMillis(1));
+   }
+
+   @Test
+   public void clientsInTheirDestinationHaveNoDeadline() {
+      IdlePolicy policy = IdlePolicy.compile(config(list(), list(), rule(list(1), list(), 10,
+          200)));
+
+      assertEquals(Long.MAX_VALUE, policy.getDeadline(new int[]{1}, 200, 0));
+      assertEquals(Long.MAX_VALUE, policy.getDeadline(new int[]{2}, DEFAULT_DESTINATION, 0));
+      assertEquals(TimeUnit.MINUTES.toMillis(10), policy.getDeadline(new int[]{1}, 5, 0));
+   }
+
+   /**
+    * Classifies 5,000 simulated clients, each in several server groups, against 500 ignored
+    * groups and 20 rules; the exempt clients must be exactly those found by scanning the ignore
+    * list per server group.
+    */
+   @Test
+   public void classifiesManyClientsLikeAnIgnoreListScan() {
+      final List<Integer> ignored = ignoredGroups(500);
+      final IdlePolicy policy = IdlePolicy.compile(largeConfig(ignored, 20));
+      final Random random = new Random(42);
+
+      int exempt = 0;
+      for (int c = 0; c < 5000; c++) {
+         final int[] groups = random.ints(4, 9000, 20030).toArray();
+         final int channel = 29990 + random.nextInt(40);
+         final boolean isExempt = policy.classify(groups, channel) == IdlePolicy.EXEMPT;
+         assertEquals(isIgnoredByScan(groups, ignored) || channel == 40000, isExempt);
+         exempt += isExempt ? 1 : 0;
+      }
+      assertTrue(exempt > 0);
+   }
+
+   private static List<Integer> ignoredGroups(int count) {
+      final List<Integer> ignored = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         ignored.add(10000 + i);
+      }
+      return ignored;
+   }
+
+   private static IdleCheckConfiguration largeConfig(List<Integer> ignored, int ruleCount) {
+      final List<IdleRuleConfiguration> rules = new ArrayList<>();
+      for (int i = 0; i < ruleCount; i++) {
+         rules.add(rule(list(20000 + i), list(30000 + i), 10 + i, null));
+      }
+      final IdleCheckConfiguration config = config(ignored, list(40000));
+      config.setRules(rules);
+      return config;
+   }
+
+   private static boolean isIgnoredByScan(int[] serverGroups, List<Integer> ignoredGroups) {
+      for (int serverGroup : serverGroups) {
+         for (int ignoredGroup : ignoredGroups) {
+            if (serverGroup == ignoredGroup) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private static List<Integer> list(Integer... ids) {
+      return new ArrayList<>(Arrays.asList(ids));
+   }
+
+   private static IdleRuleConfiguration rule(List<Integer> groups, List<Integer> channels,
+       Integer maxTimeMinutes, Integer destinationChannel) {
+      IdleRuleConfiguration rule = new IdleRuleConfiguration();
+      rule.setGroups(groups);
+      rule.setChannels(channels);
+      rule.setMaxTimeMinutes(maxTimeMinutes);
+      rule.setDestinationChannel(destinationChannel);
+      return rule;
+   }
+
+   private static IdleCheckConfiguration config(List<Integer> ignoredGroups,
+       List<Integer> exemptChannels, IdleRuleConfiguration... rules) {
+      IdleCheckConfiguration config = new IdleCheckConfiguration();
+      config.setMaxTimeMinutes(45);
+      config.setDestinationChannel(DEFAULT_DESTINATION);
+      config.setIgnoreGroups(ignoredGroups);
+      config.setExemptChannels(exemptChannels);
+      config.setRules(Arrays.asList(rules));
+      return config;
+   }
+}
@@ -0,0 +1,123 @@
+package main.core.triggers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TriggerEngineTest {
+
+   private static final TriggerResponder IGNORE = (instance, match, event) -> {
+   };
+
+   @Test
+   public void automatonFindsOverlappingPatternsIgnoringCase() {
+      TriggerAutomaton automaton = TriggerAutomaton
+          .compile(Arrays.asList("he", "she", "his", "hers", "\u00fcber"));
+      List<String> found = new ArrayList<>();
+      String text = "uSHERS \u00dcBER";
+
+      int state = automaton.getStartState();
+      for (int i = 0; i < text.length(); i++) {
+         state = automaton.next(state, text.charAt(i));
+         for (int pattern : automaton.getMatches(state)) {
+            found.add(pattern + "@" + (i + 1 - automaton.getPatternLength(pattern)));
+         }
+      }
+      assertEquals(Arrays.asList("1@1", "0@2", "3@2", "4@7"), found);
+   }
+
+   @Test
+   public void dadModeMatchesOnlyAtTheStart() {
+      TriggerEngine engine = TriggerEngine.of(Arrays.asList(
+          trigger("dad-mode", TriggerAnchor.START, true, "i'm ", "im ", "i am ")));
+
+      assertEquals("tired", single(engine, "I'm tired").getRemainder());
+      assertEquals("Bob", single(engine, "i AM  Bob ").getRemainder());
+      assertEquals("I'm ", single(engine, "I'm hungry").getMatchedText());
+      assertTrue(engine.match("imagine that").isEmpty());
+      assertTrue(engine.match("well, I'm tired").isEmpty());
+   }
+
+   @Test
+   public void wordTriggersNeedWordBoundaries() {
+      TriggerEngine engine = TriggerEngine.of(Arrays.asList(
+          trigger("greeting", TriggerAnchor.WORD, true, "hello bot"),
+          trigger("question", TriggerAnchor.ANYWHERE, true, "?")));
+
+      assertEquals(Arrays.asList("greeting"), names(engine.match("Well, HELLO BOT!")));
+      assertTrue(engine.match("hello bots").isEmpty());
+      assertTrue(engine.match("othello bot").isEmpty());
+      assertEquals(Arrays.asList("greeting", "question"),
+          names(engine.match("hello bot? hello bot?")));
+   }
+
+   @Test
+   public void disabledTriggersDoNotMatch() {
+      TriggerEngine engine = TriggerEngine.of(Arrays.asList(
+          trigger("dad-mode", TriggerAnchor.START, false, "i'm ")));
+
+      assertTrue(engine.match("I'm off").isEmpty());
+      assertTrue(engine.setEnabled("dad-mode", true));
+      assertFalse(engine.setEnabled("dad-mode", true));
+      assertEquals(1, engine.match("I'm on").size());
+      assertEquals(1, engine.getTrigger("dad-mode").getMatchCount());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void unknownTriggersCannotBeEnabled() {
+      TriggerEngine.of(new ArrayList<>()).setEnabled("nope", true);
+   }
+
+   @Test
+   public void manyTriggersMatchOnlyTheirOwnPhrase() {
+      final String[] messages = messages();
+      final TriggerEngine few = engine(10);
+      final TriggerEngine many = engine(500);
+
+      for (int i = 0; i < messages.length; i++) {
+         List<String> expected = Arrays.asList("t" + (i * 7));
+         assertEquals(expected, names(many.match(messages[i])));
+         assertEquals(i * 7 < 10 ? expected : new ArrayList<String>(),
+             names(few.match(messages[i])));
+      }
+   }
+
+   private static String[] messages() {
+      final String[] messages = new String[64];
+      for (int i = 0; i < messages.length; i++) {
+         messages[i] = "Player" + i + " says: anyone up for a round of mode " + (i * 7)
+             + " on the new map? gg wp";
+      }
+      return messages;
+   }
+
+   private static TriggerEngine engine(int triggerCount) {
+      List<Trigger> triggers = new ArrayList<>();
+      for (int i = 0; i < triggerCount; i++) {
+         triggers.add(trigger("t" + i, TriggerAnchor.WORD, true, "mode " + i, "phrase" + i));
+      }
+      return TriggerEngine.of(triggers);
+   }
+
+   private static TriggerMatch single(TriggerEngine engine, String message) {
+      List<TriggerMatch> matches = engine.match(message);
+      assertEquals(1, matches.size());
+      return matches.get(0);
+   }
+
+   private static List<String> names(List<TriggerMatch> matches) {
+      return matches.stream().map(match -> match.getTrigger().getName())
+          .collect(Collectors.toList());
+   }
+
+   private static Trigger trigger(String name, TriggerAnchor anchor, boolean enabled,
+       String... patterns) {
+      return new Trigger(name, anchor, Arrays.asList(patterns), IGNORE, enabled);
+   }
+}
@@ -0,0 +1,88 @@
+package main.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.theholywaffle.teamspeak3.api.event.ChannelCreateEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TS3Listener;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import main.conf.ConnectionConfiguration;
+import main.conf.EventLoggingConfiguration;
+import main.server.membership.ForumMembershipResolver;
+import org.junit.Test;
+
+public class ServerConnectionManagerTest {
+
+   @Test
+   public void eventsOnlyReachTheInstanceTheyCameFrom() {
+      ServerConnectionManager first = instance("first");
+      ServerConnectionManager second = instance("second");
+      try {
+         assertNotSame(first.getClientCache(), second.getClientCache());
+         assertNotSame(first.getCommandExecutor(), second.getCommandExecutor());
+         assertNotSame(first.getTriggerEngine(), second.getTriggerEngine());
+
+         for (TS3Listener listener : first.createListeners()) {
+            listener.onChannelCreate(channelCreated(42, "Lobby"));
+         }
+      } finally {
+         first.disconnect();
+         second.disconnect();
+      }
+
+      assertNotNull(first.getChannelCache().get(42));
+      assertEquals("Lobby", first.getChannelCache().get(42).getName());
+      assertNull(second.getChannelCache().get(42));
+   }
+
+   @Test
+   public void everyInstanceRecordsToItsOwnFile() {
+      ServerConnectionManager instance = instance("main");
+      try {
+         assertEquals(new File("recordings", "events-main.rec"),
+             instance.getRecordingFile("recordings/events.rec"));
+         assertEquals(new File("events-main"), instance.getRecordingFile("events"));
+      } finally {
+         instance.disconnect();
+      }
+   }
+
+   @Test
+   public void statusReportFollowsTheLifecycle() {
+      ServerConnectionManager instance = instance("status");
+      try {
+         assertTrue(instance.getStatusReport().startsWith("status: localhost:10011"));
+         assertTrue(instance.getStatusReport().contains("connecting, 0 clients"));
+      } finally {
+         instance.disconnect();
+      }
+      assertTrue(instance.getStatusReport().contains("stopped"));
+
+      instance.disconnect();
+      assertTrue(instance.getStatusReport().contains("0 commands pending, 0 messages queued"));
+   }
+
+   private static ServerConnectionManager instance(String name) {
+      ConnectionConfiguration config = new ConnectionConfiguration();
+      config.setInstanceName(name);
+      config.setServerAddress("localhost");
+      config.setServerQueryPort(10011);
+      config.setBotMessagesPerSecond(0);
+      return new ServerConnectionManager(config, new EventLoggingConfiguration(),
+          new ForumMembershipResolver(null));
+   }
+
+   private static ChannelCreateEvent channelCreated(int id, String name) {
+      Map<String, String> properties = new HashMap<>();
+      properties.put("cid", String.valueOf(id));
+      properties.put("channel_name", name);
+      properties.put("channel_order", "0");
+      properties.put("cpid", "0");
+      return new ChannelCreateEvent(properties);
+   }
+}
@@ -0,0 +1,72 @@
+package main.server.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.github.theholywaffle.teamspeak3.api.event.ChannelCreateEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelEditedEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ChannelMovedEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ChannelCacheTest {
+
+   @Test
+   public void rebuildReplacesEveryChannel() {
+      ChannelCache cache = new ChannelCache();
+      cache.put(new ChannelState(9, "Gone", 0, 0));
+
+      cache.rebuild(Arrays.asList(channel(1, "Lobby", 0, 0), channel(2, "AFK", 1, 0)));
+
+      assertEquals(2, cache.size());
+      assertNull(cache.get(9));
+      assertEquals("AFK", cache.get(2).getName());
+      assertEquals(1, cache.get(2).getParentId());
+   }
+
+   @Test
+   public void eventsKeepChannelsUpToDate() {
+      ChannelCache cache = new ChannelCache();
+
+      cache.onCreate(new ChannelCreateEvent(map("cid", "5", "channel_name", "Games", "cpid", "1",
+          "channel_order", "2")));
+      assertEquals("Games", cache.get(5).getName());
+      assertEquals(2, cache.get(5).getOrder());
+
+      cache.onEdit(new ChannelEditedEvent(map("cid", "5", "channel_name", "Gaming")));
+      assertEquals("Gaming", cache.get(5).getName());
+      assertEquals(1, cache.get(5).getParentId());
+
+      cache.onMove(new ChannelMovedEvent(map("cid", "5", "cpid", "3", "order", "4")));
+      assertEquals(3, cache.get(5).getParentId());
+      assertEquals(4, cache.get(5).getOrder());
+      assertEquals("Gaming", cache.get(5).getName());
+
+      assertEquals("Gaming", cache.remove(5).getName());
+      assertNull(cache.get(5));
+   }
+
+   @Test
+   public void editsOfUnknownChannelsAreIgnored() {
+      ChannelCache cache = new ChannelCache();
+
+      assertNull(cache.onEdit(new ChannelEditedEvent(map("cid", "7", "channel_name", "New"))));
+      assertEquals(0, cache.size());
+   }
+
+   private static Channel channel(int id, String name, int parentId, int order) {
+      return new Channel(map("cid", String.valueOf(id), "channel_name", name, "pid",
+          String.valueOf(parentId), "channel_order", String.valueOf(order)));
+   }
+
+   private static Map<String, String> map(String... keysAndValues) {
+      Map<String, String> map = new HashMap<>();
+      for (int i = 0; i < keysAndValues.length; i += 2) {
+         map.put(keysAndValues[i], keysAndValues[i + 1]);
+      }
+      return map;
+   }
+}
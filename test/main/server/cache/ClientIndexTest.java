@@ -0,0 +1,119 @@
+package main.server.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ClientIndexTest {
+
+   @Test
+   public void nicknamesAreMatchedIgnoringCase() {
+      ClientIndex index = new ClientIndex();
+      index.replaceAll(Arrays.asList(state(1, "Alice", "uidA"), state(2, "alicia", "uidB"),
+          state(3, "Bob", "uidC"), state(4, "ALICE", "uidD")));
+
+      assertArrayEquals(new int[]{1, 4}, index.findByNickname("alice", NameMatch.EXACT));
+      assertArrayEquals(new int[]{1, 4, 2}, index.findByNickname("ALI", NameMatch.PREFIX));
+      assertArrayEquals(new int[]{3}, index.findByNickname("o", NameMatch.SUBSTRING));
+      assertArrayEquals(new int[0], index.findByNickname("carol", NameMatch.PREFIX));
+   }
+
+   @Test
+   public void updatesFollowJoinsLeavesAndRenames() {
+      ClientIndex index = new ClientIndex();
+      ClientState alice = state(1, "Alice", "uidA");
+      index.update(null, alice);
+      index.update(null, state(2, "Bob", "uidA"));
+
+      ClientState renamed = alice.withNickname("Carol");
+      index.update(alice, renamed);
+      assertArrayEquals(new int[0], index.findByNickname("alice", NameMatch.EXACT));
+      assertArrayEquals(new int[]{1}, index.findByNickname("carol", NameMatch.EXACT));
+      assertArrayEquals(new int[]{1, 2}, index.findByUniqueIdentifier("uidA"));
+
+      index.update(renamed, null);
+      assertArrayEquals(new int[]{2}, index.findByUniqueIdentifier("uidA"));
+      assertEquals(1, index.size());
+   }
+
+   @Test
+   public void targetsPreferIdsThenUidsThenExactNames() {
+      ClientStateCache cache = new ClientStateCache();
+      cache.put(state(7, "Bob", "uidBob"));
+      cache.put(state(8, "Bobby", "uidBobby"));
+      cache.put(state(9, "Rob Bobson", "7"));
+
+      assertEquals(Arrays.asList(7), ids(cache.findTargets("7")));
+      assertEquals(Arrays.asList(8), ids(cache.findTargets("uidBobby")));
+      assertEquals(Arrays.asList(7), ids(cache.findTargets("bob")));
+      assertEquals(Arrays.asList(9), ids(cache.findTargets("rob")));
+      assertEquals(Arrays.asList(7, 8), ids(cache.findTargets("bo")));
+      assertEquals(Arrays.asList(9), ids(cache.findTargets("bson")));
+      assertTrue(cache.findTargets("carol").isEmpty());
+
+      cache.remove(7);
+      assertEquals(Arrays.asList(8), ids(cache.findTargets("bob")));
+   }
+
+   @Test
+   public void exactTargetsNeverMatchPartOfANickname() {
+      ClientStateCache cache = new ClientStateCache();
+      cache.put(state(8, "Player123", "uidPlayer"));
+      cache.put(state(9, "Bob", "7"));
+
+      assertTrue(cache.findExactTargets("12").isEmpty());
+      assertTrue(cache.findExactTargets("7").isEmpty());
+      assertEquals(Arrays.asList(8), ids(cache.findExactTargets("8")));
+      assertEquals(Arrays.asList(8), ids(cache.findExactTargets("uidPlayer")));
+      assertEquals(Arrays.asList(9), ids(cache.findExactTargets("BOB")));
+      assertTrue(cache.findExactTargets("play").isEmpty());
+   }
+
+   @Test
+   public void findsEveryClientAmongManyClients() {
+      final int clientCount = 5000;
+      ClientStateCache cache = manyClients(clientCount);
+
+      for (int id = 0; id < clientCount; id += 97) {
+         List<Integer> prefixIds = ids(cache.findByNickname("player" + id + "_", NameMatch.PREFIX));
+         assertEquals(Arrays.asList(id), prefixIds);
+         List<Integer> substringIds = ids(cache.findByNickname(
+             "_" + Integer.toHexString(id * 31), NameMatch.SUBSTRING));
+         assertTrue(substringIds.contains(id));
+      }
+   }
+
+   private static ClientStateCache manyClients(int clientCount) {
+      ClientStateCache cache = new ClientStateCache();
+      for (int id = 0; id < clientCount; id++) {
+         cache.put(state(id, "Player" + id + "_" + Integer.toHexString(id * 31), "uid" + id));
+      }
+      return cache;
+   }
+
+   private static List<Integer> ids(List<ClientState> states) {
+      return states.stream().map(ClientState::getId).collect(Collectors.toList());
+   }
+
+   private static ClientState state(int id, String nickname, String uid) {
+      Map<String, String> properties = new HashMap<>();
+      properties.put("clid", String.valueOf(id));
+      properties.put("client_database_id", String.valueOf(id));
+      properties.put("client_unique_identifier", uid);
+      properties.put("client_nickname", nickname);
+      properties.put("cid", "1");
+      properties.put("client_servergroups", "8");
+      properties.put("client_idle_time", "0");
+      properties.put("client_type", "0");
+
+      return ClientState.fromClient(new Client(properties), System.currentTimeMillis());
+   }
+}
@@ -0,0 +1,142 @@
+package main.server.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class ClientRegistryTest {
+
+   @Test
+   public void putAndGetReturnStoredState() {
+      ClientRegistry registry = new ClientRegistry();
+      registry.put(state(5, 1, false));
+
+      assertEquals(5, registry.get(5).getId());
+      assertNull(registry.get(6));
+      assertEquals(1, registry.size());
+   }
+
+   @Test
+   public void removeReturnsPreviousStateAndKeepsOtherEntries() {
+      ClientRegistry registry = new ClientRegistry();
+      for (int id = 1; id <= 100; id++) {
+         registry.put(state(id, 1, false));
+      }
+
+      assertEquals(50, registry.remove(50).getId());
+      assertNull(registry.remove(50));
+      assertEquals(99, registry.size());
+      for (int id = 1; id <= 100; id++) {
+         assertEquals(id != 50, registry.contains(id));
+      }
+   }
+
+   @Test
+   public void updateOnlyAppliesToRegisteredClients() {
+      ClientRegistry registry = new ClientRegistry();
+      registry.put(state(1, 10, false));
+
+      assertEquals(20, registry.update(1, s -> s.withChannel(20)).getChannelId());
+      assertNull(registry.update(2, s -> s.withChannel(20)));
+      assertFalse(registry.contains(2));
+   }
+
+   @Test
+   public void snapshotMarksServerQueryClientsExplicitly() {
+      ClientRegistry registry = new ClientRegistry();
+      registry.put(state(1, 1, false));
+      registry.put(state(2, 1, true));
+
+      assertEquals(1, registry.serverQueryCount());
+      assertEquals(1, registry.snapshot(false).size());
+      assertEquals(2, registry.snapshot(true).size());
+   }
+
+   /**
+    * A writer applies updates and periodic full rebuilds while reader threads look clients up and
+    * iterate snapshots. Every snapshot taken during a rebuild must belong entirely to one
+    * generation.
+    */
+   @Test
+   public void readersSeeConsistentSnapshotsUnderContention() throws Exception {
+      final int clientCount = 5000;
+      final int readerCount = 4;
+      final ClientRegistry registry = new ClientRegistry();
+      registry.replaceAll(generation(clientCount, 0));
+
+      final AtomicBoolean running = new AtomicBoolean(true);
+      final AtomicBoolean inconsistent = new AtomicBoolean(false);
+      final CountDownLatch done = new CountDownLatch(readerCount);
+
+      for (int r = 0; r < readerCount; r++) {
+         new Thread(() -> {
+            int id = 0;
+            while (running.get()) {
+               registry.get(id++ % clientCount);
+               if (id % 1000 == 0 && !isSingleGeneration(registry.snapshot(true))) {
+                  inconsistent.set(true);
+               }
+            }
+            done.countDown();
+         }).start();
+      }
+
+      for (int channel = 1; channel <= 2000; channel++) {
+         int id = channel % clientCount;
+         registry.update(id, s -> s.withActivity(System.currentTimeMillis()));
+         if (channel % 500 == 0) {
+            registry.replaceAll(generation(clientCount, channel));
+         }
+      }
+
+      running.set(false);
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+      assertFalse(inconsistent.get());
+      assertEquals(clientCount, registry.size());
+   }
+
+   private static boolean isSingleGeneration(List<ClientState> snapshot) {
+      int generation = -1;
+      for (ClientState state : snapshot) {
+         if (generation == -1) {
+            generation = state.getChannelId();
+         } else if (state.getChannelId() != generation) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static List<ClientState> generation(int clientCount, int generation) {
+      List<ClientState> states = new ArrayList<>(clientCount);
+      for (int id = 0; id < clientCount; id++) {
+         states.add(state(id, generation, false));
+      }
+      return states;
+   }
+
+   private static ClientState state(int id, int channelId, boolean serverQuery) {
+      Map<String, String> properties = new HashMap<>();
+      properties.put("clid", String.valueOf(id));
+      properties.put("client_database_id", String.valueOf(id));
+      properties.put("client_unique_identifier", "uid" + id);
+      properties.put("client_nickname", "client" + id);
+      properties.put("cid", String.valueOf(channelId));
+      properties.put("client_servergroups", "8");
+      properties.put("client_idle_time", "0");
+      properties.put("client_type", serverQuery ? "1" : "0");
+
+      return ClientState.fromClient(new Client(properties), System.currentTimeMillis());
+   }
+}
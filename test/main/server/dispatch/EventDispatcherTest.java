@@ -0,0 +1,42 @@
+package main.server.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class EventDispatcherTest {
+
+   @Test
+   public void everyAcceptedHandlerRunsDuringShutdown() throws Exception {
+      for (int round = 0; round < 20; round++) {
+         final EventDispatcher dispatcher = new EventDispatcher("test", 4, 16);
+         final AtomicInteger accepted = new AtomicInteger();
+         final AtomicInteger handled = new AtomicInteger();
+         final CountDownLatch started = new CountDownLatch(4);
+         final Thread[] listeners = new Thread[4];
+
+         for (int t = 0; t < listeners.length; t++) {
+            final int key = t;
+            listeners[t] = new Thread(() -> {
+               started.countDown();
+               while (dispatcher.dispatch(key, handled::incrementAndGet)) {
+                  accepted.incrementAndGet();
+               }
+            });
+            listeners[t].start();
+         }
+         started.await();
+         assertTrue(dispatcher.shutdown(5, TimeUnit.SECONDS));
+         for (Thread listener : listeners) {
+            listener.join();
+         }
+
+         assertEquals(accepted.get(), handled.get());
+         assertEquals(accepted.get(), dispatcher.getProcessedCount());
+      }
+   }
+}
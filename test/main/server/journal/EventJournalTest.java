@@ -0,0 +1,133 @@
+package main.server.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventJournalTest {
+
+   private File directory;
+
+   @Before
+   public void createDirectory() throws IOException {
+      directory = Files.createTempDirectory("journal").toFile();
+   }
+
+   @After
+   public void deleteDirectory() {
+      File[] files = directory.listFiles();
+      if (files != null) {
+         for (File file : files) {
+            file.delete();
+         }
+      }
+      directory.delete();
+   }
+
+   @Test
+   public void eventsAreWrittenAsEscapedLines() throws IOException {
+      EventJournal journal = new EventJournal(directory, "test", 0, 0, () -> 1234L);
+
+      journal.record(JournalEventType.JOIN, 5, "uid=", "Nick", 12);
+      journal.record(JournalEventType.CHAT, 5, "uid=", "Nick", "SERVER", "a\tb\nc\\d");
+      assertTrue(journal.close(5, TimeUnit.SECONDS));
+
+      assertEquals(Arrays.asList("1234\tJOIN\t5\tuid=\tNick\t12",
+          "1234\tCHAT\t5\tuid=\tNick\tSERVER\ta\\tb\\nc\\\\d"), readAll());
+   }
+
+   @Test
+   public void filesRotateBySize() throws IOException {
+      EventJournal journal = new EventJournal(directory, "test", 1000, 0);
+
+      for (int i = 0; i < 200; i++) {
+         journal.record(JournalEventType.LEAVE, i, "uid", "Nick", "leaving");
+      }
+      assertTrue(journal.close(5, TimeUnit.SECONDS));
+
+      assertTrue(directory.listFiles().length > 1);
+      assertEquals(200, readAll().size());
+   }
+
+   @Test
+   public void fileSizesCountEncodedBytes() {
+      final String line = "1234\tJOIN\tJ\u00fcrgen \u20ac \ud83d\ude00";
+      assertEquals(line.getBytes(StandardCharsets.UTF_8).length, EventJournal.utf8Length(line));
+   }
+
+   @Test
+   public void closeFinishesAfterAWriteError() throws IOException {
+      final File blocked = new File(directory, "blocked");
+      assertTrue(blocked.createNewFile());
+      EventJournal journal = new EventJournal(blocked, "test", 0, 0);
+
+      for (int i = 0; i < 100; i++) {
+         journal.record(JournalEventType.LEAVE, i, "uid", "Nick", "leaving");
+      }
+      assertTrue(journal.close(5, TimeUnit.SECONDS));
+   }
+
+   @Test
+   public void filesRotateByAge() throws IOException {
+      AtomicLong clock = new AtomicLong(0);
+      EventJournal journal = new EventJournal(directory, "test", 0, 60000, clock::get);
+
+      journal.record(JournalEventType.LEAVE, 1, "uid", "Nick", "");
+      clock.set(30000);
+      journal.record(JournalEventType.LEAVE, 2, "uid", "Nick", "");
+      clock.set(60000);
+      journal.record(JournalEventType.LEAVE, 3, "uid", "Nick", "");
+      assertTrue(journal.close(5, TimeUnit.SECONDS));
+
+      assertEquals(2, directory.listFiles().length);
+      assertEquals(3, readAll().size());
+   }
+
+   @Test
+   public void eventsFromSeveralThreadsAreAllWritten() throws Exception {
+      final int threads = 4;
+      final int eventsPerThread = 5000;
+      final EventJournal journal = new EventJournal(directory, "threads", 0, 0);
+
+      final List<Thread> producers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+         Thread producer = new Thread(() -> {
+            for (int i = 0; i < eventsPerThread; i++) {
+               journal.record(JournalEventType.CHAT, i, "N0K4aFZ7jFO2S+IG+z1/bwJvqvI=",
+                   "Some Nickname", "CHANNEL", "a chat message of ordinary length");
+            }
+         });
+         producers.add(producer);
+         producer.start();
+      }
+      for (Thread producer : producers) {
+         producer.join();
+      }
+      assertTrue(journal.close(30, TimeUnit.SECONDS));
+
+      assertEquals((long) threads * eventsPerThread, journal.getEventsWritten());
+      assertEquals(threads * eventsPerThread, readAll().size());
+   }
+
+   private List<String> readAll() throws IOException {
+      File[] files = directory.listFiles();
+      Arrays.sort(files);
+      List<String> lines = new ArrayList<>();
+      for (File file : files) {
+         lines.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+      }
+      return lines;
+   }
+}
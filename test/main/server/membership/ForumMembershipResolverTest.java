@@ -0,0 +1,136 @@
+package main.server.membership;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import main.util.exception.MembershipUnavailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ForumMembershipResolverTest {
+
+   private static final long TTL = 60000;
+   private static final long NEGATIVE_TTL = 5000;
+
+   private final Map<String, String> groups = new ConcurrentHashMap<>();
+   private final AtomicInteger requests = new AtomicInteger();
+   private final AtomicInteger status = new AtomicInteger(200);
+   private final AtomicLong clock = new AtomicLong(1000000);
+   private volatile CountDownLatch release;
+   private HttpServer server;
+   private ForumMembershipResolver resolver;
+
+   @Before
+   public void startServer() throws Exception {
+      server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+      server.createContext("/check", exchange -> {
+         requests.incrementAndGet();
+         try {
+            if (release != null) {
+               release.await(5, TimeUnit.SECONDS);
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+
+         final String uid = exchange.getRequestURI().getQuery().substring("uid=".length());
+         final byte[] body = groups.getOrDefault(uid, "").getBytes(StandardCharsets.UTF_8);
+         exchange.sendResponseHeaders(status.get(), body.length == 0 ? -1 : body.length);
+         try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+         }
+      });
+      server.start();
+
+      resolver = new ForumMembershipResolver(String.format("http://127.0.0.1:%d/check?uid=%%s",
+          server.getAddress().getPort()), TTL, NEGATIVE_TTL, 2000, clock::get);
+   }
+
+   @After
+   public void stopServer() {
+      resolver.shutdown();
+      server.stop(0);
+   }
+
+   @Test
+   public void membersAreCachedForTheTtl() throws Exception {
+      groups.put("member", "community member");
+
+      assertEquals("community member", resolver.resolve("member").get(5, TimeUnit.SECONDS));
+      assertEquals("community member", resolver.resolve("member").get(5, TimeUnit.SECONDS));
+      assertEquals(1, requests.get());
+
+      clock.addAndGet(TTL);
+      resolver.resolve("member").get(5, TimeUnit.SECONDS);
+      assertEquals(2, requests.get());
+   }
+
+   @Test
+   public void nonMembersAreCachedForTheNegativeTtl() throws Exception {
+      assertEquals("", resolver.resolve("guest").get(5, TimeUnit.SECONDS));
+      resolver.resolve("guest").get(5, TimeUnit.SECONDS);
+      assertEquals(1, requests.get());
+
+      groups.put("guest", "registered");
+      clock.addAndGet(NEGATIVE_TTL);
+      assertEquals("registered", resolver.resolve("guest").get(5, TimeUnit.SECONDS));
+      assertEquals(2, requests.get());
+   }
+
+   @Test
+   public void concurrentLookupsShareOneRequest() throws Exception {
+      groups.put("member", "founder");
+      release = new CountDownLatch(1);
+
+      CompletableFuture<String> first = resolver.resolve("member");
+      CompletableFuture<String> second = resolver.resolve("member");
+      release.countDown();
+
+      assertSame(first, second);
+      assertEquals("founder", first.get(5, TimeUnit.SECONDS));
+      assertEquals(1, requests.get());
+   }
+
+   @Test
+   public void repeatedFailuresSuspendLookups() throws Exception {
+      status.set(500);
+      for (int i = 0; i < 3; i++) {
+         assertUnavailable(resolver.resolve("uid" + i));
+      }
+      assertTrue(resolver.isSuspended());
+
+      assertUnavailable(resolver.resolve("uid3"));
+      assertEquals(3, requests.get());
+
+      status.set(200);
+      clock.addAndGet(TimeUnit.SECONDS.toMillis(30));
+      assertEquals("", resolver.resolve("uid3").get(5, TimeUnit.SECONDS));
+      assertEquals(4, requests.get());
+      assertFalse(resolver.isSuspended());
+   }
+
+   private static void assertUnavailable(CompletableFuture<String> lookup) throws Exception {
+      try {
+         lookup.get(5, TimeUnit.SECONDS);
+         fail("Lookup should have failed.");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof MembershipUnavailableException);
+      }
+   }
+}
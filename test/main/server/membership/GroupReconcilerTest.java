@@ -0,0 +1,72 @@
+package main.server.membership;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import main.conf.ForumRoleConfiguration;
+import org.junit.Test;
+
+public class GroupReconcilerTest {
+
+   private final GroupReconciler reconciler = GroupReconciler.compile(config());
+
+   @Test
+   public void onlyMissingAndSurplusManagedGroupsChange() {
+      GroupChanges changes = reconciler.reconcile("division manager", new int[]{8, 1, 3});
+
+      assertArrayEquals(new int[]{2}, changes.getAdded());
+      assertArrayEquals(new int[]{1}, changes.getRemoved());
+      assertArrayEquals(new int[]{8, 3, 2}, changes.applyTo(new int[]{8, 1, 3}));
+   }
+
+   @Test
+   public void clientAlreadyInSyncNeedsNoCommands() {
+      assertSame(GroupChanges.NONE, reconciler.reconcile("community member", new int[]{8, 2}));
+      assertSame(GroupChanges.NONE, reconciler.reconcile("founder", new int[]{4, 2}));
+   }
+
+   @Test
+   public void nonMembersLoseEveryManagedGroup() {
+      GroupChanges changes = reconciler.reconcile("", new int[]{8, 1, 2, 4});
+
+      assertArrayEquals(new int[0], changes.getAdded());
+      assertArrayEquals(new int[]{1, 2, 4}, changes.getRemoved());
+   }
+
+   @Test
+   public void unknownForumGroupLeavesGroupsUntouched() {
+      assertTrue(reconciler.reconcile("moderator", new int[]{1, 2}).isEmpty());
+   }
+
+   @Test
+   public void rolesAreMatchedByPrefixInOrder() {
+      GroupChanges changes = reconciler.reconcile("community manager (acting)", new int[0]);
+
+      assertArrayEquals(new int[]{2, 5}, changes.getAdded());
+   }
+
+   @Test
+   public void missingConfigurationFallsBackToBuiltInRoles() {
+      GroupChanges changes = GroupReconciler.compile(null).reconcile("registered", new int[0]);
+
+      assertArrayEquals(new int[]{36077}, changes.getAdded());
+   }
+
+   private static ForumRoleConfiguration config() {
+      Map<String, List<Integer>> roles = new LinkedHashMap<>();
+      roles.put("registered", Arrays.asList(1));
+      roles.put("community member", Arrays.asList(2));
+      roles.put("division manager", Arrays.asList(3, 2));
+      roles.put("community manager", Arrays.asList(5, 2));
+      roles.put("founder", Arrays.asList(4, 2));
+
+      ForumRoleConfiguration config = new ForumRoleConfiguration();
+      config.setRoles(roles);
+      return config;
+   }
+}
@@ -0,0 +1,124 @@
+package main.server.outbound;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.theholywaffle.teamspeak3.api.CommandFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class MessageSchedulerTest {
+
+   @Test
+   public void higherLanesAreSentFirst() throws Exception {
+      RecordingSender sender = new RecordingSender();
+      MessageScheduler scheduler = new MessageScheduler("test", sender, 0);
+
+      scheduler.send(MessageTarget.server(), "blocker", MessagePriority.NORMAL);
+      sender.sending.await(5, TimeUnit.SECONDS);
+      scheduler.send(MessageTarget.channel(), "low", MessagePriority.LOW);
+      scheduler.send(MessageTarget.channel(), "normal", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(3), "high", MessagePriority.HIGH);
+      sender.release.countDown();
+      assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+
+      assertEquals(Arrays.asList("blocker", "high", "normal", "low"), sender.sent);
+   }
+
+   @Test
+   public void targetsTakeTurnsWithinALane() throws Exception {
+      RecordingSender sender = new RecordingSender();
+      MessageScheduler scheduler = new MessageScheduler("test", sender, 0);
+
+      scheduler.send(MessageTarget.server(), "blocker", MessagePriority.NORMAL);
+      sender.sending.await(5, TimeUnit.SECONDS);
+      scheduler.send(MessageTarget.client(1), "a1", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(1), "a2", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(1), "a3", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(2), "b1", MessagePriority.NORMAL);
+      sender.release.countDown();
+      assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+
+      assertEquals(Arrays.asList("blocker", "a1", "b1", "a2", "a3"), sender.sent);
+   }
+
+   @Test
+   public void identicalBroadcastsAreCoalesced() throws Exception {
+      RecordingSender sender = new RecordingSender();
+      MessageScheduler scheduler = new MessageScheduler("test", sender, 0);
+
+      scheduler.send(MessageTarget.client(1), "blocker", MessagePriority.NORMAL);
+      sender.sending.await(5, TimeUnit.SECONDS);
+      scheduler.send(MessageTarget.server(), "hello", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.server(), "hello", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(2), "hello", MessagePriority.NORMAL);
+      scheduler.send(MessageTarget.client(2), "hello", MessagePriority.NORMAL);
+      sender.release.countDown();
+      assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+
+      assertEquals(Arrays.asList("blocker", "hello", "hello", "hello"), sender.sent);
+      assertEquals(1, scheduler.getCoalescedCount());
+   }
+
+   @Test
+   public void partsOfALongMessageAreSentTogetherInOrder() throws Exception {
+      RecordingSender sender = new RecordingSender();
+      MessageScheduler scheduler = new MessageScheduler("test", sender, 0);
+
+      scheduler.send(MessageTarget.server(), "blocker", MessagePriority.NORMAL);
+      sender.sending.await(5, TimeUnit.SECONDS);
+      scheduler.send(MessageTarget.channel(), "part", MessagePriority.NORMAL);
+      assertTrue(scheduler.sendAll(MessageTarget.channel(), Arrays.asList("part", "part", "end"),
+          MessagePriority.NORMAL));
+      sender.release.countDown();
+      assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+
+      assertEquals(Arrays.asList("blocker", "part", "part", "part", "end"), sender.sent);
+      assertEquals(0, scheduler.getCoalescedCount());
+   }
+
+   @Test
+   public void sendRateStaysWithinBudget() {
+      RecordingSender sender = new RecordingSender();
+      sender.release.countDown();
+      MessageScheduler scheduler = new MessageScheduler("test", sender, 20);
+
+      final long start = System.nanoTime();
+      for (int i = 0; i < 30; i++) {
+         scheduler.send(MessageTarget.client(i), "message " + i, MessagePriority.NORMAL);
+      }
+      assertTrue(scheduler.shutdown(5, TimeUnit.SECONDS));
+      final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      //20 messages may go out at once, the remaining 10 at 50 ms intervals, so never sooner.
+      assertEquals(30, scheduler.getSentCount());
+      assertTrue("took " + elapsedMillis + " ms", elapsedMillis >= 450);
+   }
+
+   /**
+    * Records the messages it sends. The first send blocks until released.
+    */
+   private static class RecordingSender implements MessageSender {
+
+      private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+      private final CountDownLatch sending = new CountDownLatch(1);
+      private final CountDownLatch release = new CountDownLatch(1);
+
+      @Override
+      public CommandFuture<Boolean> send(MessageTarget target, String message) {
+         sending.countDown();
+         try {
+            release.await();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+         sent.add(message);
+         return CommandFuture.immediate(true);
+      }
+   }
+}
@@ -0,0 +1,126 @@
+package main.server.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.github.theholywaffle.teamspeak3.TS3Api;
+import com.github.theholywaffle.teamspeak3.TS3ApiAsync;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class QueryPoolTest {
+
+   private static final long INTERVAL = 1000;
+
+   @Test
+   public void readsRotateOverHealthySessions() {
+      List<FakeSession> sessions = new ArrayList<>();
+      QueryPool pool = new QueryPool("test", 3, () -> add(sessions, new FakeSession()), INTERVAL,
+          () -> 0L);
+      assertNull(pool.next());
+
+      pool.checkHealth();
+      assertEquals(3, pool.getHealthyCount());
+      List<QuerySession> picked = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+         picked.add(pool.next());
+      }
+      for (int i = 0; i < 3; i++) {
+         assertSame(picked.get(i), picked.get(i + 3));
+      }
+      assertEquals(sessions.size(), picked.stream().distinct().count());
+   }
+
+   @Test
+   public void failedSessionsLeaveRotationAndReconnectWithBackoff() {
+      long[] now = {0};
+      List<FakeSession> sessions = new ArrayList<>();
+      QueryPool pool = new QueryPool("test", 2, () -> add(sessions, new FakeSession()), INTERVAL,
+          () -> now[0]);
+      pool.checkHealth();
+
+      FakeSession broken = sessions.get(0);
+      broken.answering = false;
+      broken.opens = 0;
+      pool.checkHealth();
+      assertEquals(1, pool.getHealthyCount());
+      assertEquals(1, broken.opens);
+      for (int i = 0; i < 4; i++) {
+         assertSame(sessions.get(1), pool.next());
+      }
+
+      // The first retry is due two intervals later, the second four intervals after that.
+      now[0] += INTERVAL;
+      pool.checkHealth();
+      assertEquals(1, broken.opens);
+      now[0] += INTERVAL;
+      pool.checkHealth();
+      assertEquals(2, broken.opens);
+
+      broken.answering = true;
+      now[0] += 3 * INTERVAL;
+      pool.checkHealth();
+      assertEquals(2, broken.opens);
+      now[0] += INTERVAL;
+      pool.checkHealth();
+      assertEquals(3, broken.opens);
+      assertEquals(2, pool.getHealthyCount());
+   }
+
+   @Test
+   public void shutdownClosesEverySession() {
+      List<FakeSession> sessions = new ArrayList<>();
+      QueryPool pool = new QueryPool("test", 2, () -> add(sessions, new FakeSession()), INTERVAL,
+          () -> 0L);
+      pool.checkHealth();
+      pool.shutdown(1, TimeUnit.SECONDS);
+
+      assertNull(pool.next());
+      assertEquals(0, pool.getHealthyCount());
+      for (FakeSession session : sessions) {
+         assertFalse(session.open);
+      }
+   }
+
+   private static FakeSession add(List<FakeSession> sessions, FakeSession session) {
+      sessions.add(session);
+      return session;
+   }
+
+   private static final class FakeSession implements QuerySession {
+
+      private volatile boolean answering = true;
+      private volatile boolean open;
+      private volatile int opens;
+
+      @Override
+      public void open() {
+         open = true;
+         opens++;
+      }
+
+      @Override
+      public boolean ping(long timeout, TimeUnit unit) {
+         return open && answering;
+      }
+
+      @Override
+      public TS3Api getApi() {
+         return null;
+      }
+
+      @Override
+      public TS3ApiAsync getApiAsync() {
+         return null;
+      }
+
+      @Override
+      public void close() {
+         open = false;
+      }
+   }
+}
@@ -0,0 +1,85 @@
+package main.server.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import main.conf.RateLimitConfiguration;
+import main.util.enums.AccessLevel;
+import org.junit.Test;
+
+public class InvokerRateLimiterTest {
+
+   private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+   @Test
+   public void burstIsLimitedToTheCapacity() {
+      InvokerRateLimiter limiter = InvokerRateLimiter.compile(config(3, 60, null));
+
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      assertEquals(RateLimitResult.FIRST_DENIED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      assertEquals(RateLimitResult.DENIED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(2, AccessLevel.DEFAULT, 1, 0));
+   }
+
+   @Test
+   public void tokensAreRegainedOverTime() {
+      InvokerRateLimiter limiter = InvokerRateLimiter.compile(config(2, 60, null));
+
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 2, 0));
+      assertEquals(RateLimitResult.FIRST_DENIED, limiter.acquire(1, AccessLevel.DEFAULT, 1,
+          SECOND / 2));
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, SECOND));
+      assertEquals(RateLimitResult.FIRST_DENIED, limiter.acquire(1, AccessLevel.DEFAULT, 1,
+          SECOND));
+   }
+
+   @Test
+   public void higherLevelsGetMoreTokensOrNoLimit() {
+      Map<String, Double> multipliers = new HashMap<>();
+      multipliers.put("MODERATOR", 2.0);
+      multipliers.put("ADMIN", 0.0);
+      InvokerRateLimiter limiter = InvokerRateLimiter.compile(config(1, 60, multipliers));
+
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.MODERATOR, 1, 0));
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.MODERATOR, 1, 0));
+      assertEquals(RateLimitResult.FIRST_DENIED, limiter.acquire(1, AccessLevel.MODERATOR, 1, 0));
+      for (int i = 0; i < 100; i++) {
+         assertEquals(RateLimitResult.ALLOWED, limiter.acquire(2, AccessLevel.ADMIN, 1, 0));
+      }
+   }
+
+   @Test
+   public void evictedClientsStartWithAFullBucket() {
+      InvokerRateLimiter limiter = InvokerRateLimiter.compile(config(1, 60, null));
+
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+      limiter.evict(1);
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquire(1, AccessLevel.DEFAULT, 1, 0));
+   }
+
+   @Test
+   public void commandCostsAreLookedUpByName() {
+      RateLimitConfiguration config = config(3, 60, null);
+      config.setCommandCosts(Collections.singletonMap("UserInfo", 3));
+      InvokerRateLimiter limiter = InvokerRateLimiter.compile(config);
+
+      assertEquals(RateLimitResult.ALLOWED, limiter.acquireCommand(1, AccessLevel.DEFAULT,
+          "userinfo"));
+      assertEquals(RateLimitResult.FIRST_DENIED, limiter.acquireCommand(1, AccessLevel.DEFAULT,
+          "ping"));
+   }
+
+   private static RateLimitConfiguration config(double capacity, double refillPerMinute,
+       Map<String, Double> multipliers) {
+      RateLimitConfiguration config = new RateLimitConfiguration();
+      config.setCapacity(capacity);
+      config.setRefillPerMinute(refillPerMinute);
+      config.setLevelMultipliers(multipliers);
+      return config;
+   }
+}
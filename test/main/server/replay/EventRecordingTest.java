@@ -0,0 +1,85 @@
+package main.server.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.github.theholywaffle.teamspeak3.api.event.ClientJoinEvent;
+import com.github.theholywaffle.teamspeak3.api.event.ClientLeaveEvent;
+import com.github.theholywaffle.teamspeak3.api.event.TextMessageEvent;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Channel;
+import com.github.theholywaffle.teamspeak3.api.wrapper.Client;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class EventRecordingTest {
+
+   @Test
+   public void recordingsRoundTrip() throws IOException {
+      final ByteArrayOutputStream file = new ByteArrayOutputStream();
+      final EventRecorder recorder = new EventRecorder(file, 42);
+      recorder.recordSnapshot(
+          Collections.singletonList(new Client(map("clid", "7", "client_nickname", "Old"))),
+          Collections.singletonList(new Channel(map("cid", "1", "channel_name", "Lobby"))));
+      recorder.onClientJoin(new ClientJoinEvent(map("clid", "8", "client_nickname",
+          "J\u00fcrgen", "ctid", "1")));
+      recorder.onTextMessage(new TextMessageEvent(map("invokerid", "8", "msg", "hello\nworld",
+          "targetmode", "3")));
+      recorder.onClientLeave(new ClientLeaveEvent(map("clid", "8", "reasonid", "8")));
+      recorder.close();
+
+      final EventRecording recording = EventRecording.read(
+          new ByteArrayInputStream(file.toByteArray()));
+      final List<RecordedEvent> records = recording.getRecords();
+
+      assertEquals(42, recording.getBotClientId());
+      assertEquals(Arrays.asList(RecordedEventType.CHANNEL, RecordedEventType.CLIENT,
+          RecordedEventType.JOIN, RecordedEventType.TEXT, RecordedEventType.LEAVE),
+          Arrays.asList(records.get(0).getType(), records.get(1).getType(),
+              records.get(2).getType(), records.get(3).getType(), records.get(4).getType()));
+      assertEquals("Lobby", ((Channel) records.get(0).getValue()).getName());
+      assertEquals("J\u00fcrgen", ((ClientJoinEvent) records.get(2).getValue())
+          .getClientNickname());
+      assertEquals("hello\nworld", ((TextMessageEvent) records.get(3).getValue()).getMessage());
+      assertEquals(8, ((ClientLeaveEvent) records.get(4).getValue()).getClientId());
+      for (int i = 1; i < records.size(); i++) {
+         assertTrue(records.get(i).getOffsetMicros() >= records.get(i - 1).getOffsetMicros());
+      }
+   }
+
+   @Test
+   public void truncatedRecordingsAreReadUpToTheLastCompleteRecord() throws IOException {
+      final ByteArrayOutputStream file = new ByteArrayOutputStream();
+      final EventRecorder recorder = new EventRecorder(file, 1);
+      for (int i = 0; i < 100; i++) {
+         recorder.onClientJoin(new ClientJoinEvent(map("clid", String.valueOf(i))));
+      }
+      recorder.close();
+
+      final byte[] bytes = file.toByteArray();
+      final EventRecording recording = EventRecording.read(new ByteArrayInputStream(
+          Arrays.copyOf(bytes, bytes.length / 2)));
+
+      final List<RecordedEvent> records = recording.getRecords();
+      assertTrue(records.size() >= 1);
+      assertTrue(records.size() < 100);
+      for (int i = 0; i < records.size(); i++) {
+         assertEquals(RecordedEventType.JOIN, records.get(i).getType());
+         assertEquals(i, ((ClientJoinEvent) records.get(i).getValue()).getClientId());
+      }
+   }
+
+   private static Map<String, String> map(String... keysAndValues) {
+      final Map<String, String> map = new HashMap<>();
+      for (int i = 0; i < keysAndValues.length; i += 2) {
+         map.put(keysAndValues[i], keysAndValues[i + 1]);
+      }
+      return map;
+   }
+}
@@ -0,0 +1,41 @@
+package main.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import main.conf.Configuration;
+import org.junit.After;
+import org.junit.Test;
+
+public class MessageHandlerTest {
+
+   @After
+   public void resetLevel() {
+      Configuration.setLoggingLevel(Level.INFO);
+   }
+
+   @Test
+   public void suppliersAreNotCalledBelowTheLoggingLevel() {
+      final AtomicInteger calls = new AtomicInteger();
+      Configuration.setLoggingLevel(Level.WARNING);
+
+      MessageHandler.log(Level.INFO, () -> "info " + calls.incrementAndGet());
+      MessageHandler.log(LogPrefix.CONNECTION, () -> "event " + calls.incrementAndGet());
+      assertEquals(0, calls.get());
+
+      MessageHandler.log(Level.SEVERE, () -> "severe " + calls.incrementAndGet());
+      assertEquals(1, calls.get());
+   }
+
+   @Test
+   public void commandResponsesAreAlwaysShown() {
+      Configuration.setLoggingLevel(Level.OFF);
+
+      assertTrue(MessageHandler.isLoggable(LogPrefix.COMMAND_RESPONSE));
+      assertFalse(MessageHandler.isLoggable(LogPrefix.MESSAGE));
+      assertFalse(MessageHandler.isLoggable(Level.SEVERE));
+   }
+}
@@ -0,0 +1,48 @@
+package main.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import org.junit.Test;
+
+public class MessageTemplateTest {
+
+   @Test
+   public void rendersLikeStringFormat() throws Exception {
+      for (Field field : Messages.class.getFields()) {
+         if (!Modifier.isStatic(field.getModifiers())
+             || field.getType() != MessageTemplate.class) {
+            continue;
+         }
+         MessageTemplate template = (MessageTemplate) field.get(null);
+         Object[] args = new Object[template.getArgumentCount()];
+         for (int i = 0; i < args.length; i++) {
+            args[i] = i % 2 == 0 ? "arg" + i : Integer.valueOf(i);
+         }
+
+         assertEquals(field.getName(), String.format(template.toString(), args),
+             template.format(args));
+      }
+   }
+
+   @Test
+   public void supportsEscapedPercentAndLineSeparators() {
+      MessageTemplate template = MessageTemplate.compile("%s%% done%n");
+
+      assertEquals(1, template.getArgumentCount());
+      assertEquals(String.format("%s%% done%n", 50), template.format(50));
+      assertEquals("x: 50% done" + System.lineSeparator(),
+          template.renderTo(new StringBuilder("x: "), 50).toString());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsUnsupportedConversions() {
+      MessageTemplate.compile("%d minutes");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void rejectsMissingArguments() {
+      Messages.USER_CONNECTED.format("Nick", "uid");
+   }
+}
@@ -0,0 +1,60 @@
+package main.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class ResponseRendererTest {
+
+   private static final String HEADER = ".\n[b][u]| Name | UID | Client ID |[/u][/b]\n";
+
+   @Test
+   public void emptyResponseIsOnlyTheHeader() {
+      List<String> chunks = new ResponseRenderer(HEADER).finish();
+
+      assertEquals(1, chunks.size());
+      assertEquals(HEADER, chunks.get(0));
+   }
+
+   @Test
+   public void rowsAreSplitIntoChunksAtLineBreaks() {
+      ResponseRenderer renderer = new ResponseRenderer("H\n", 30);
+      renderer.row("aaaa", 1).row("bbbb", 2).row("cccc", 3);
+
+      List<String> chunks = renderer.finish();
+      assertEquals(2, chunks.size());
+      assertEquals("H\n| aaaa | 1 |\n| bbbb | 2 |\n", chunks.get(0));
+      assertEquals("H\n| cccc | 3 |\n", chunks.get(1));
+   }
+
+   @Test
+   public void overlongLinesAreTruncatedToFit() {
+      ResponseRenderer renderer = new ResponseRenderer("H\n", 10);
+      renderer.line("\u00e4\u00e4\u00e4\u00e4\u00e4\u00e4");
+
+      List<String> chunks = renderer.finish();
+      assertEquals(1, chunks.size());
+      assertEquals("H\n\u00e4\u00e4\u00e4\n", chunks.get(0));
+   }
+
+   @Test
+   public void rendersTwoThousandClientsWithoutLosingRows() {
+      final int clients = 2000;
+      final ResponseRenderer renderer = new ResponseRenderer(HEADER);
+      for (int i = 0; i < clients; i++) {
+         renderer.row("Client Nickname " + i, "N0K4aFZ7jFO2S+IG+z1/bwJvqvI=", i);
+      }
+
+      int rows = 0;
+      for (String chunk : renderer.finish()) {
+         assertTrue(chunk.getBytes(StandardCharsets.UTF_8).length
+             <= ResponseRenderer.MAX_MESSAGE_BYTES);
+         assertTrue(chunk.startsWith(HEADER));
+         rows += chunk.substring(HEADER.length()).split("\n").length;
+      }
+      assertEquals(clients, rows);
+   }
+}
@@ -0,0 +1,110 @@
+package main.util.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ConsoleLoggerTest {
+
+   @Test
+   public void recordsAreWrittenInOrder() {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ConsoleLogger logger = new ConsoleLogger(out, 4, OverflowPolicy.BLOCK);
+
+      for (int i = 0; i < 100; i++) {
+         logger.log("TEST", "message " + i, true);
+      }
+      logger.close(5, TimeUnit.SECONDS);
+
+      String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8)
+          .split(System.lineSeparator());
+      assertEquals(100, lines.length);
+      for (int i = 0; i < 100; i++) {
+         assertTrue(lines[i].matches("\\[\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d] \\[TEST] "
+             + "message " + i));
+      }
+      assertEquals(0, logger.getDroppedCount());
+   }
+
+   @Test
+   public void fullBufferDropsOnlyLowPriorityRecords() throws Exception {
+      StalledStream out = new StalledStream();
+      ConsoleLogger logger = new ConsoleLogger(out, 2, OverflowPolicy.DROP_LOW_PRIORITY);
+
+      //The first record is taken by the writer, which then stalls on the stream.
+      logger.log("TEST", "first", true);
+      out.writing.await(5, TimeUnit.SECONDS);
+      assertTrue(logger.log("TEST", "second", true));
+      assertTrue(logger.log("TEST", "third", true));
+      assertFalse(logger.log("TEST", "dropped", true));
+      assertEquals(1, logger.getDroppedCount());
+
+      Thread important = new Thread(() -> logger.log("TEST", "important", false));
+      important.start();
+      important.join(200);
+      assertTrue("high priority records wait for space", important.isAlive());
+
+      out.release.countDown();
+      important.join(5000);
+      logger.close(5, TimeUnit.SECONDS);
+
+      String written = out.toString();
+      assertTrue(written.contains("important"));
+      assertTrue(written.contains("1 log records were dropped"));
+      assertFalse(written.contains("] dropped"));
+   }
+
+   @Test
+   public void dropPolicyNeverBlocks() throws Exception {
+      StalledStream out = new StalledStream();
+      ConsoleLogger logger = new ConsoleLogger(out, 1, OverflowPolicy.DROP);
+
+      logger.log("TEST", "first", false);
+      out.writing.await(5, TimeUnit.SECONDS);
+      assertTrue(logger.log("TEST", "second", false));
+      assertFalse(logger.log("TEST", "third", false));
+      assertEquals(1, logger.getDroppedCount());
+
+      out.release.countDown();
+      logger.close(5, TimeUnit.SECONDS);
+   }
+
+   /**
+    * An output stream that blocks the first write until released.
+    */
+   private static class StalledStream extends OutputStream {
+
+      private final CountDownLatch writing = new CountDownLatch(1);
+      private final CountDownLatch release = new CountDownLatch(1);
+      private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+      @Override
+      public void write(int b) throws IOException {
+         write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public synchronized void write(byte[] b, int off, int len) throws IOException {
+         writing.countDown();
+         try {
+            release.await();
+         } catch (InterruptedException e) {
+            throw new IOException(e);
+         }
+         buffer.write(b, off, len);
+      }
+
+      @Override
+      public synchronized String toString() {
+         return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+      }
+   }
+}